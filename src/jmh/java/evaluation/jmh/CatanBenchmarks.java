@@ -0,0 +1,96 @@
+package evaluation.jmh;
+
+import core.actions.AbstractAction;
+import core.components.BoardNodeWithEdges;
+import core.components.Edge;
+import games.catan.CatanForwardModel;
+import games.catan.CatanGameState;
+import games.catan.CatanParameters;
+import games.catan.RoadNetwork;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the longest road in Catan, which is updated every time a road or settlement is built.
+ * <p>
+ * The states are taken from random games, dealt with a fixed seed, after nActions random actions. addRoad() copies
+ * the RoadNetwork of a state and adds a road for the current player next to one of their roads, as BuildRoad does;
+ * longestRoad() finds the longest road of every player from scratch.
+ * Each call uses the next of the states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatanBenchmarks {
+
+    @Param("4")
+    public int nPlayers;
+    @Param("20")
+    public int nStates;
+    @Param("400")
+    public int nActions;
+    @Param("42")
+    public long seed;
+
+    RoadNetwork[] networks;
+    int[] players, newRoads;
+    private int nextState;
+
+    @Setup(Level.Trial)
+    public void play() {
+        Random rnd = new Random(seed);
+        CatanForwardModel fm = new CatanForwardModel();
+        List<RoadNetwork> networkList = new ArrayList<>();
+        List<int[]> roads = new ArrayList<>();
+        while (networkList.size() < nStates) {
+            CatanParameters params = new CatanParameters();
+            params.setRandomSeed(rnd.nextLong());
+            CatanGameState state = new CatanGameState(params, nPlayers);
+            fm.setup(state);
+            for (int i = 0; i < nActions && state.isNotTerminal(); i++) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            }
+            int player = state.getCurrentPlayer();
+            for (BoardNodeWithEdges node : state.getGraph().getBoardNodes()) {
+                if (node.getEdges().stream().noneMatch(e -> e.getOwnerId() == player)) continue;
+                for (Edge edge : node.getEdges()) {
+                    if (edge.getOwnerId() == -1) {
+                        networkList.add(state.getRoadNetwork());
+                        roads.add(new int[]{player, edge.getComponentID()});
+                        break;
+                    }
+                }
+                break;
+            }
+        }
+        networks = networkList.toArray(new RoadNetwork[0]);
+        players = roads.stream().mapToInt(r -> r[0]).toArray();
+        newRoads = roads.stream().mapToInt(r -> r[1]).toArray();
+        nextState = 0;
+    }
+
+    @Benchmark
+    public int addRoad() {
+        int s = nextState;
+        nextState = (nextState + 1) % nStates;
+        return networks[s].copy().addRoad(newRoads[s], players[s]);
+    }
+
+    @Benchmark
+    public int longestRoad() {
+        int s = nextState;
+        nextState = (nextState + 1) % nStates;
+        int total = 0;
+        for (int p = 0; p < nPlayers; p++)
+            total += networks[s].longestRoad(p);
+        return total;
+    }
+}
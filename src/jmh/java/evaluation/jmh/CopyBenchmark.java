@@ -0,0 +1,113 @@
+package evaluation.jmh;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import players.simple.RandomPlayer;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static core.CoreConstants.GameResult.GAME_ONGOING;
+
+/**
+ * Measures how many game state copies per second can be made, which is the main cost of each iteration for
+ * many statistical forward planning agents.
+ * <p>
+ * For each game we play random moves, and keep a sample of the states seen along the way (from all stages of the
+ * game). We then copy these states round-robin for a fixed time, both with copy() and with copy(playerId) (which
+ * is what agents are given, and which may also shuffle hidden information). GameBenchmarks measures the same with JMH;
+ * this gives a quick figure for many games at once.
+ * <p>
+ * This is not a JMH benchmark, but is built with them (mvn -P jmh package), and run with
+ * 'java -cp target/Benchmarks-jar-with-dependencies.jar evaluation.jmh.CopyBenchmark'.
+ * <p>
+ * Arguments (all optional):
+ * games=Dominion,Catan,TerraformingMars  nPlayers=3  states=100  seconds=5  seed=42
+ */
+public class CopyBenchmark {
+
+    public static void main(String[] args) {
+        String[] games = Utils.getArg(args, "games", "Dominion,Catan,TerraformingMars").split(",");
+        int nPlayers = Utils.getArg(args, "nPlayers", 3);
+        int nStates = Utils.getArg(args, "states", 100);
+        double seconds = Utils.getArg(args, "seconds", 5.0);
+        long seed = Utils.getArg(args, "seed", 42L);
+
+        System.out.printf("%-20s %15s %15s%n", "Game", "copy()/s", "copy(player)/s");
+        for (String gameName : games) {
+            GameType gameType = GameType.valueOf(gameName.trim());
+            List<AbstractGameState> states = sampleStates(gameType, nPlayers, nStates, seed);
+            // warm up the JIT before we measure anything
+            copiesPerSecond(states, -1, seconds / 5.0);
+            copiesPerSecond(states, 0, seconds / 5.0);
+            double full = copiesPerSecond(states, -1, seconds);
+            double observed = copiesPerSecond(states, 0, seconds);
+            System.out.printf("%-20s %15.0f %15.0f%n", gameType.name(), full, observed);
+        }
+    }
+
+    /**
+     * Plays random moves from the start of the game, restarting whenever a game ends (or fails), and keeps
+     * a copy of every tenth state.
+     */
+    public static List<AbstractGameState> sampleStates(GameType gameType, int nPlayers, int nStates, long seed) {
+        return sampleStates(gameType.createGameInstance(nPlayers, seed), nPlayers, nStates, seed);
+    }
+
+    /**
+     * As above, from games played with the given Game (and so with its parameters).
+     */
+    public static List<AbstractGameState> sampleStates(Game game, int nPlayers, int nStates, long seed) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < nPlayers; i++)
+            players.add(new RandomPlayer(new Random(seed + i)));
+        game.reset(players);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        Random rnd = new Random(seed);
+
+        List<AbstractGameState> retValue = new ArrayList<>();
+        int step = 0;
+        while (retValue.size() < nStates) {
+            if (state.getGameStatus() != GAME_ONGOING) {
+                game.reset(players, rnd.nextLong());
+                state = game.getGameState();
+            }
+            try {
+                List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+                forwardModel.next(state, actions.get(rnd.nextInt(actions.size())));
+            } catch (RuntimeException | AssertionError e) {
+                // Not all games are robust to long sequences of random moves (Terraforming Mars, for one).
+                // We are only after a spread of realistic states, so just start again
+                game.reset(players, rnd.nextLong());
+                state = game.getGameState();
+                continue;
+            }
+            if (++step % 10 == 0)
+                retValue.add(state.copy());
+        }
+        return retValue;
+    }
+
+    /**
+     * @param playerId the player to copy the state for, or -1 for a full copy
+     */
+    static double copiesPerSecond(List<AbstractGameState> states, int playerId, double seconds) {
+        long endTime = System.nanoTime() + (long) (seconds * 1e9);
+        long copies = 0;
+        long startTime = System.nanoTime();
+        while (System.nanoTime() < endTime) {
+            for (AbstractGameState state : states) {
+                state.copy(playerId);
+            }
+            copies += states.size();
+        }
+        return copies / ((System.nanoTime() - startTime) / 1e9);
+    }
+}
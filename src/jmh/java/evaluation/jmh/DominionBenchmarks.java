@@ -0,0 +1,92 @@
+package evaluation.jmh;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.dominion.DominionParameters;
+import org.openjdk.jmh.annotations.*;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of MCTS in Dominion, where most of the time of each iteration goes on copying the state (and
+ * shuffling the cards the player cannot see) and playing out the rest of the turn.
+ * <p>
+ * mctsIterations() makes one MCTS decision with a budget of mctsIterations from each of the states in turn, and is
+ * reported in iterations per second; copy() is the copy of the state that MCTS makes at the start of each iteration.
+ * The states are sampled (with a fixed seed) from random play as in CopyBenchmark.
+ * <p>
+ * pilesAsCounts compares the two ways of holding the trash and discard piles: as decks of cards (the default), or as
+ * counts of each type of card (DominionParameters.unorderedPilesAsCounts).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DominionBenchmarks {
+
+    @Param("3")
+    public int nPlayers;
+    @Param("20")
+    public int nStates;
+    // this must match the value given to @OperationsPerInvocation below
+    @Param("200")
+    public int mctsIterations;
+    @Param("42")
+    public long seed;
+    @Param({"false", "true"})
+    public boolean pilesAsCounts;
+
+    AbstractGameState[] states;
+    AbstractForwardModel forwardModel;
+    MCTSPlayer player;
+    private int nextState;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DominionParameters gameParams = (DominionParameters) GameType.Dominion.createParameters(seed);
+        gameParams.unorderedPilesAsCounts = pilesAsCounts;
+        Game game = GameType.Dominion.createGameInstance(nPlayers, seed, gameParams);
+        states = CopyBenchmark.sampleStates(game, nPlayers, nStates, seed).stream()
+                .filter(AbstractGameState::isNotTerminal)
+                .toArray(AbstractGameState[]::new);
+        forwardModel = game.getForwardModel();
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(seed);
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = mctsIterations;
+        player = new MCTSPlayer(params);
+        player.setForwardModel(forwardModel);
+        nextState = 0;
+    }
+
+    AbstractGameState nextState() {
+        AbstractGameState retValue = states[nextState];
+        nextState = (nextState + 1) % states.length;
+        return retValue;
+    }
+
+    @Benchmark
+    public AbstractGameState copy() {
+        AbstractGameState state = nextState();
+        return state.copy(state.getCurrentPlayer());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(200)
+    public AbstractAction mctsIterations() {
+        AbstractGameState state = nextState();
+        player.initializePlayer(state);
+        AbstractGameState observation = state.copy(state.getCurrentPlayer());
+        List<AbstractAction> actions = forwardModel.computeAvailableActions(observation);
+        return player.getAction(observation, actions);
+    }
+}
@@ -0,0 +1,120 @@
+package evaluation.jmh;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the operations that dominate the cost of statistical forward planning, for every GameType:
+ * copying the state an agent is given, computing the available actions, applying an action with the forward model,
+ * and complete random playouts.
+ * <p>
+ * All of these work from the same set of states, sampled (with a fixed seed) from random play as in CopyBenchmark,
+ * so that they cover all stages of each game. Each call of a benchmark uses the next of these states in turn.
+ * <p>
+ * Run these with RunBenchmarks, which also switches on allocation profiling and machine-readable output.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameBenchmarks {
+
+    // with no values specified, JMH runs every GameType
+    @Param
+    public GameType gameType;
+    // 0 uses the smallest number of players the game allows (but at least 2)
+    @Param("0")
+    public int nPlayers;
+    @Param("20")
+    public int nStates;
+    @Param("1000")
+    public int maxPlayoutLength;
+    @Param("42")
+    public long seed;
+
+    AbstractGameState[] states;
+    AbstractForwardModel forwardModel;
+    Random rnd;
+    private int nextState;
+
+    @Setup(Level.Trial)
+    public void sampleStates() {
+        int players = nPlayers > 0 ? nPlayers : Math.min(Math.max(2, gameType.getMinPlayers()), gameType.getMaxPlayers());
+        states = CopyBenchmark.sampleStates(gameType, players, nStates, seed).stream()
+                .filter(AbstractGameState::isNotTerminal)
+                .toArray(AbstractGameState[]::new);
+        forwardModel = gameType.createGameInstance(players, seed).getForwardModel();
+        rnd = new Random(seed);
+        nextState = 0;
+    }
+
+    AbstractGameState nextState() {
+        AbstractGameState retValue = states[nextState];
+        nextState = (nextState + 1) % states.length;
+        return retValue;
+    }
+
+    /**
+     * next() changes the state, so each call needs its own copy. This is made (with the action to apply) before the
+     * call, so that it is not included in the time measured.
+     */
+    @State(Scope.Thread)
+    public static class Move {
+        AbstractGameState state;
+        AbstractAction action;
+
+        @Setup(Level.Invocation)
+        public void setup(GameBenchmarks benchmarks) {
+            state = benchmarks.nextState().copy();
+            List<AbstractAction> actions = benchmarks.forwardModel.computeAvailableActions(state);
+            action = actions.get(benchmarks.rnd.nextInt(actions.size()));
+        }
+    }
+
+    @Benchmark
+    public AbstractGameState copy() {
+        AbstractGameState state = nextState();
+        return state.copy(state.getCurrentPlayer());
+    }
+
+    @Benchmark
+    public List<AbstractAction> computeAvailableActions() {
+        return forwardModel.computeAvailableActions(nextState());
+    }
+
+    @Benchmark
+    public AbstractGameState next(Move move) {
+        forwardModel.next(move.state, move.action);
+        return move.state;
+    }
+
+    /**
+     * A random playout to the end of the game (or maxPlayoutLength actions) from a copy of the next state.
+     *
+     * @return the number of actions taken
+     */
+    @Benchmark
+    public int randomPlayout() {
+        AbstractGameState state = nextState().copy();
+        int actionsTaken = 0;
+        try {
+            while (state.isNotTerminal() && actionsTaken < maxPlayoutLength) {
+                List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+                forwardModel.next(state, actions.get(rnd.nextInt(actions.size())));
+                actionsTaken++;
+            }
+        } catch (RuntimeException | AssertionError e) {
+            // Not all games are robust to long sequences of random moves (see CopyBenchmark); we just end the playout
+        }
+        return actionsTaken;
+    }
+}
@@ -0,0 +1,104 @@
+package evaluation.jmh;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import games.GameType;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import utilities.Utils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures how MCTS iterations per second scale with the number of threads, for root and tree parallelisation
+ * (see MCTSParams.parallelism).
+ * <p>
+ * For each game we sample states from random play (as in CopyBenchmark), and then run one MCTS decision from each
+ * of them with a fixed iteration budget. With root parallelisation we set rootBudgetPerTree, so that each of the
+ * nThreads trees has the full budget (by default it would be split between them); with tree parallelisation the
+ * budget is shared by the threads. In both cases we report the total iterations over the wall-clock time taken, the
+ * best of several rounds.
+ * The speed-up is relative to a single thread (which is plain sequential MCTS).
+ * <p>
+ * This is not a JMH benchmark, but is built with them (mvn -P jmh package), and run with
+ * 'java -cp target/Benchmarks-jar-with-dependencies.jar evaluation.jmh.MCTSParallelBenchmark'.
+ * The scaling depends on the number of cores available, which is printed first.
+ * <p>
+ * Arguments (all optional):
+ * games=Connect4,Dominion,LoveLetter  nPlayers=2  threads=1,4,8,16  states=20  iterations=1000  rounds=3  seed=42
+ */
+public class MCTSParallelBenchmark {
+
+    public static void main(String[] args) {
+        String[] games = Utils.getArg(args, "games", "Connect4,Dominion,LoveLetter").split(",");
+        int nPlayers = Utils.getArg(args, "nPlayers", 2);
+        int[] threads = Arrays.stream(Utils.getArg(args, "threads", "1,4,8,16").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int nStates = Utils.getArg(args, "states", 20);
+        int iterations = Utils.getArg(args, "iterations", 1000);
+        long seed = Utils.getArg(args, "seed", 42L);
+        int rounds = Utils.getArg(args, "rounds", 3);
+
+        System.out.printf("Available processors: %d%n", Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-15s %-6s %8s %15s %10s%n", "Game", "Mode", "Threads", "Iterations/s", "Speed-up");
+        for (String gameName : games) {
+            GameType gameType = GameType.valueOf(gameName.trim());
+            List<AbstractGameState> states = CopyBenchmark.sampleStates(gameType, nPlayers, nStates, seed);
+            states.removeIf(s -> !s.isNotTerminal());
+            AbstractForwardModel forwardModel = gameType.createGameInstance(nPlayers, seed).getForwardModel();
+            // Every configuration is measured once in each round, and we keep the best of the rounds. The first
+            // round warms up the JIT on all the code paths, and as the rounds are interleaved, no configuration is
+            // measured on less optimised code (or a smaller heap) than the others.
+            MCTSEnums.Parallelism[] modes = {MCTSEnums.Parallelism.ROOT, MCTSEnums.Parallelism.TREE};
+            double sequential = 0.0;
+            double[][] perSecond = new double[modes.length][threads.length];
+            for (int round = 0; round <= rounds; round++) {
+                double s = iterationsPerSecond(states, forwardModel, MCTSEnums.Parallelism.NONE, 1, iterations, seed);
+                if (round > 0) sequential = Math.max(sequential, s);
+                for (int m = 0; m < modes.length; m++) {
+                    for (int t = 0; t < threads.length; t++) {
+                        if (threads[t] == 1) continue;
+                        double p = iterationsPerSecond(states, forwardModel, modes[m], threads[t], iterations, seed);
+                        if (round > 0) perSecond[m][t] = Math.max(perSecond[m][t], p);
+                    }
+                }
+            }
+            for (int m = 0; m < modes.length; m++) {
+                for (int t = 0; t < threads.length; t++) {
+                    double p = threads[t] == 1 ? sequential : perSecond[m][t];
+                    System.out.printf("%-15s %-6s %8d %15.0f %10.2f%n", gameType.name(), modes[m], threads[t],
+                            p, p / sequential);
+                }
+            }
+        }
+    }
+
+    static double iterationsPerSecond(List<AbstractGameState> states, AbstractForwardModel forwardModel,
+                                      MCTSEnums.Parallelism mode, int nThreads, int iterations, long seed) {
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(seed);
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = iterations;
+        params.parallelism = mode;
+        params.nThreads = nThreads;
+        // so that each root tree does all the iterations counted below
+        params.rootBudgetPerTree = true;
+        MCTSPlayer player = new MCTSPlayer(params);
+        player.setForwardModel(forwardModel);
+
+        long totalIterations = 0;
+        long startTime = System.nanoTime();
+        for (AbstractGameState state : states) {
+            player.initializePlayer(state);
+            AbstractGameState observation = state.copy(state.getCurrentPlayer());
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(observation);
+            player.getAction(observation, actions);
+            totalIterations += mode == MCTSEnums.Parallelism.ROOT ? (long) iterations * nThreads : iterations;
+        }
+        return totalIterations / ((System.nanoTime() - startTime) / 1e9);
+    }
+}
@@ -0,0 +1,92 @@
+package evaluation.jmh;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import games.GameType;
+import players.simple.RandomPlayer;
+import utilities.Utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures the heap retained by each game state, both for states set up for a new game (including all their
+ * components loaded from JSON), and for copies of states sampled from random play (see CopyBenchmark), which is
+ * what a search agent keeps in memory.
+ * <p>
+ * Each figure is the fall in the used heap (after garbage collection) when we let go of many states, divided by
+ * the number of states. It includes everything that a state does not share with other states or copies.
+ * Use a fixed heap size (e.g. -Xms2g -Xmx2g) for more consistent results.
+ * <p>
+ * This is not a JMH benchmark, but is built with them (mvn -P jmh package), and run with
+ * 'java -cp target/Benchmarks-jar-with-dependencies.jar evaluation.jmh.MemoryBenchmark'.
+ * <p>
+ * Arguments (all optional):
+ * games=Pandemic,Dominion,TerraformingMars  nPlayers=3  states=20  copies=50  seed=42
+ */
+public class MemoryBenchmark {
+
+    public static void main(String[] args) {
+        String[] games = Utils.getArg(args, "games", "Pandemic,Dominion,TerraformingMars").split(",");
+        int nPlayers = Utils.getArg(args, "nPlayers", 3);
+        int nStates = Utils.getArg(args, "states", 20);
+        int nCopies = Utils.getArg(args, "copies", 50);
+        long seed = Utils.getArg(args, "seed", 42L);
+
+        System.out.printf("%-20s %15s %15s%n", "Game", "new state (B)", "copy (B)");
+        for (String gameName : games) {
+            GameType gameType = GameType.valueOf(gameName.trim());
+            List<AbstractGameState> sampledStates = CopyBenchmark.sampleStates(gameType, nPlayers, nStates, seed);
+            // the first run also loads classes and fills caches, which we do not want to count
+            bytesPerNewState(gameType, nPlayers, nStates, seed);
+            bytesPerCopy(sampledStates, nCopies);
+            double newState = bytesPerNewState(gameType, nPlayers, nStates, seed);
+            double copy = bytesPerCopy(sampledStates, nCopies);
+            System.out.printf("%-20s %15.0f %15.0f%n", gameType.name(), newState, copy);
+        }
+    }
+
+    static double bytesPerNewState(GameType gameType, int nPlayers, int nStates, long seed) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int i = 0; i < nPlayers; i++)
+            players.add(new RandomPlayer(new Random(seed + i)));
+        List<AbstractGameState> states = new ArrayList<>(nStates);
+        for (int i = 0; i < nStates; i++) {
+            Game game = gameType.createGameInstance(nPlayers, seed + i);
+            game.reset(players);
+            states.add(game.getGameState());
+        }
+        return retainedBytesPerState(states);
+    }
+
+    static double bytesPerCopy(List<AbstractGameState> states, int nCopies) {
+        List<AbstractGameState> copies = new ArrayList<>(states.size() * nCopies);
+        for (int i = 0; i < nCopies; i++) {
+            for (AbstractGameState state : states)
+                copies.add(state.copy());
+        }
+        return retainedBytesPerState(copies);
+    }
+
+    /**
+     * We measure how much is freed when we let go of the states, rather than how much the heap grows when we
+     * create them, as setting up a game can also release things held from the last one (in static fields, say).
+     */
+    private static double retainedBytesPerState(List<AbstractGameState> states) {
+        int nStates = states.size();
+        long before = usedHeap();
+        states.clear();
+        long after = usedHeap();
+        return (before - after) / (double) nStates;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        // a single request to collect garbage is not always honoured in full
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,45 @@
+package evaluation.jmh;
+
+import core.AbstractParameters;
+import games.GameType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of copying the game parameters of every GameType. Game states used to take a full copy() of
+ * their parameters each time they were copied, and now share a frozen copy of them (shareableCopy()).
+ * <p>
+ * GameBenchmarks.copy measures the effect of this on copying whole game states.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterBenchmarks {
+
+    // with no values specified, JMH runs every GameType
+    @Param
+    public GameType gameType;
+    @Param("42")
+    public long seed;
+
+    AbstractParameters parameters;
+
+    @Setup(Level.Trial)
+    public void createParameters() {
+        parameters = gameType.createParameters(seed);
+    }
+
+    @Benchmark
+    public AbstractParameters copy() {
+        return parameters.copy();
+    }
+
+    @Benchmark
+    public AbstractParameters shareableCopy() {
+        return parameters.shareableCopy();
+    }
+}
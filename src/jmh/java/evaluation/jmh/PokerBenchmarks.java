@@ -0,0 +1,93 @@
+package evaluation.jmh;
+
+import core.CoreConstants;
+import core.components.Deck;
+import core.components.FrenchCard;
+import games.poker.PokerHandEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of Poker showdowns, which are scored at the end of every round, and so at the end of most MCTS
+ * rollouts in Poker.
+ * <p>
+ * showdown() scores every player's two cards together with the five community cards, as PokerForwardModel does, and
+ * finds the best hand; evaluateEncoded() scores a single seven card hand already encoded as ints.
+ * Each call uses the next of a set of deals, dealt with a fixed seed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PokerBenchmarks {
+
+    @Param("4")
+    public int nPlayers;
+    @Param("1000")
+    public int nDeals;
+    @Param("42")
+    public long seed;
+
+    List<Deck<FrenchCard>>[] hands;
+    Deck<FrenchCard>[] communityCards;
+    int[][] encodedHands;
+    private int nextDeal;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void deal() {
+        Random rnd = new Random(seed);
+        hands = new List[nDeals];
+        communityCards = new Deck[nDeals];
+        encodedHands = new int[nDeals][7];
+        for (int d = 0; d < nDeals; d++) {
+            Deck<FrenchCard> deck = FrenchCard.generateDeck("Deck", CoreConstants.VisibilityMode.HIDDEN_TO_ALL);
+            deck.shuffle(rnd);
+            hands[d] = new ArrayList<>();
+            for (int p = 0; p < nPlayers; p++) {
+                Deck<FrenchCard> hand = new Deck<>("Hand", p, CoreConstants.VisibilityMode.VISIBLE_TO_OWNER);
+                hand.add(deck.draw());
+                hand.add(deck.draw());
+                // copies of the state share the lists of cards in their decks, as they do in a search
+                hands[d].add(hand.copy());
+            }
+            Deck<FrenchCard> community = new Deck<>("Community", CoreConstants.VisibilityMode.VISIBLE_TO_ALL);
+            for (int i = 0; i < 5; i++)
+                community.add(deck.draw());
+            communityCards[d] = community.copy();
+            for (int i = 0; i < 7; i++) {
+                FrenchCard card = i < 2 ? hands[d].get(0).get(i) : communityCards[d].get(i - 2);
+                encodedHands[d][i] = PokerHandEvaluator.cardIndex(card);
+            }
+        }
+        nextDeal = 0;
+    }
+
+    @Benchmark
+    public int showdown() {
+        int deal = nextDeal;
+        nextDeal = (nextDeal + 1) % nDeals;
+        int winner = -1, bestValue = -1;
+        for (int p = 0; p < nPlayers; p++) {
+            int value = PokerHandEvaluator.evaluate(hands[deal].get(p), communityCards[deal]);
+            if (value > bestValue) {
+                bestValue = value;
+                winner = p;
+            }
+        }
+        return winner;
+    }
+
+    @Benchmark
+    public int evaluateEncoded() {
+        int deal = nextDeal;
+        nextDeal = (nextDeal + 1) % nDeals;
+        return PokerHandEvaluator.evaluate(encodedHands[deal], 7);
+    }
+}
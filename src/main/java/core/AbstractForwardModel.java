@@ -7,6 +7,7 @@ import utilities.ActionTreeNode;
 import utilities.ElapsedCpuChessTimer;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -17,6 +18,9 @@ public abstract class AbstractForwardModel {
 
     public ActionTreeNode root;
     public List<ActionTreeNode> leaves;
+    // How often computeAvailableActions() found the actions already cached on the state, when caching is switched on
+    // (CoreParameters.cacheAvailableActions); each copy of the forward model counts its own
+    private long actionCacheHits, actionCacheMisses;
 
     /* Limited access/Final methods */
 
@@ -104,6 +108,7 @@ public abstract class AbstractForwardModel {
         if (flag) {
             gameState.setPlayerResult(CoreConstants.GameResult.DISQUALIFY, gameState.getCurrentPlayer());
             endPlayerTurn(gameState);
+            gameState.markModified();
             return new DoNothing();
         } else {
             List<AbstractAction> possibleActions = computeAvailableActions(gameState);
@@ -123,15 +128,19 @@ public abstract class AbstractForwardModel {
     public final void setup(AbstractGameState gameState) {
         gameState.reset();
         abstractSetup(gameState);
+        gameState.markModified();
     }
 
     /**
      * Applies the given action to the game state and executes any other game rules.
+     * The state is marked as modified before anything else is done, so any actions computed by the rules while they
+     * run (for example to check whether the next player can move) are those of the final state, and are cached.
      *
      * @param currentState - current game state, to be modified by the action.
      * @param action       - action requested to be played by a player.
      */
     public final void next(AbstractGameState currentState, AbstractAction action) {
+        currentState.markModified();
         if (action != null) {
             int player = currentState.getCurrentPlayer();
             currentState.recordAction(action, player);
@@ -155,7 +164,26 @@ public abstract class AbstractForwardModel {
         return computeAvailableActions(gameState, gameState.coreGameParameters.actionSpace);
     }
 
+    /**
+     * Computes the actions available in the state for the given action space.
+     * If CoreParameters.cacheAvailableActions is set, the list is unmodifiable, and is kept on the state so that
+     * asking again for the same action space returns the same list until the state is next changed.
+     */
     public final List<AbstractAction> computeAvailableActions(AbstractGameState gameState, ActionSpace actionSpace) {
+        if (!gameState.coreGameParameters.cacheAvailableActions)
+            return computeActionsUncached(gameState, actionSpace);
+        List<AbstractAction> retValue = gameState.getCachedActions(actionSpace);
+        if (retValue != null) {
+            actionCacheHits++;
+            return retValue;
+        }
+        actionCacheMisses++;
+        retValue = Collections.unmodifiableList(computeActionsUncached(gameState, actionSpace));
+        gameState.cacheActions(retValue, actionSpace);
+        return retValue;
+    }
+
+    private List<AbstractAction> computeActionsUncached(AbstractGameState gameState, ActionSpace actionSpace) {
         // If there is an action in progress (see IExtendedSequence), then delegate to that
         if (gameState.isActionInProgress()) {
             return gameState.actionsInProgress.peek()._computeAvailableActions(gameState, actionSpace);
@@ -166,6 +194,26 @@ public abstract class AbstractForwardModel {
         return _computeAvailableActions(gameState);
     }
 
+    /**
+     * @return the number of calls to computeAvailableActions() on this forward model that returned a cached list
+     */
+    public long getActionCacheHits() {
+        return actionCacheHits;
+    }
+
+    /**
+     * @return the number of calls to computeAvailableActions() on this forward model that had to compute the actions
+     * with caching switched on
+     */
+    public long getActionCacheMisses() {
+        return actionCacheMisses;
+    }
+
+    public void resetActionCacheStatistics() {
+        actionCacheHits = 0;
+        actionCacheMisses = 0;
+    }
+
     /**
      * Performs any end of game computations, as needed.
      * This should not normally need to be overriden - but can be. For example if a game is purely co-operative
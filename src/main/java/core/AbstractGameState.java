@@ -1,6 +1,7 @@
 package core;
 
 import core.actions.AbstractAction;
+import core.actions.ActionSpace;
 import core.actions.LogEvent;
 import core.components.Area;
 import core.components.Component;
@@ -52,9 +53,14 @@ public abstract class AbstractGameState {
     // Timers for all players
     protected ElapsedCpuChessTimer[] playerTimer;
 
-    // A record of all actions taken to reach this game state
-    private List<AbstractAction> history = new ArrayList<>();
-    private List<String> historyText = new ArrayList<>();
+    // A record of all actions taken to reach this game state (most recent entry; null if there is no history)
+    private HistoryEntry history;
+    // If false then neither actions nor history text are recorded (see CoreParameters.agentsRecordHistory)
+    private boolean recordHistory = true;
+    // If false then the actions are recorded without the text from getString(), and logged events are not recorded.
+    // This is the case for the copies of the state given to agents (and any copies they make), as formatting the
+    // text of every action in a search is expensive
+    private boolean recordHistoryText = true;
 
     // Status of the game, and status for each player (in cooperative games, the game status is also each player's status)
     protected CoreConstants.GameResult gameStatus;
@@ -66,6 +72,14 @@ public abstract class AbstractGameState {
     CoreParameters coreGameParameters;
     private int gameID;
     protected Random rnd;
+    // Incremented each time the state is changed by the forward model (see markModified()), so that anything
+    // computed from the state can tell whether it is still valid
+    private long version;
+    // The actions last computed for this state, the action space they are for, and the version they were computed at
+    // (only kept if CoreParameters.cacheAvailableActions is set). Copies of the state start with an empty cache.
+    private List<AbstractAction> cachedActions;
+    private ActionSpace cachedActionSpace;
+    private long cachedActionsVersion;
 
     /**
      * @param gameParameters - game parameters.
@@ -84,12 +98,13 @@ public abstract class AbstractGameState {
      * Resets variables initialised for this game state.
      */
     void reset() {
+        markModified();
         allComponents = new Area(-1, "All Components");
         gameStatus = GAME_ONGOING;
         playerResults = new CoreConstants.GameResult[getNPlayers()];
         Arrays.fill(playerResults, GAME_ONGOING);
-        history = new ArrayList<>();
-        historyText = new ArrayList<>();
+        history = null;
+        recordHistory = true;
         playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         tick = 0;
         turnOwner = 0;
@@ -100,11 +115,45 @@ public abstract class AbstractGameState {
         rnd = new Random(gameParameters.randomSeed);
     }
 
+    /**
+     * The version of the state goes up every time the state changes, so a version number that has not changed
+     * means the state has not changed. Versions can only be compared between calls on the same object; a copy of
+     * the state has a version of its own.
+     */
+    public final long getVersion() {
+        return version;
+    }
+
+    /**
+     * Records that the state has changed. AbstractForwardModel.next() calls this before it makes any changes;
+     * anything else that changes a state directly, outside of next(), should call it afterwards, so that results
+     * cached for the old state (such as the available actions) are not reused.
+     */
+    public final void markModified() {
+        version++;
+        cachedActions = null;
+    }
+
+    /**
+     * @return the list of actions cached for this version of the state and the action space, or null if there is none
+     */
+    List<AbstractAction> getCachedActions(ActionSpace actionSpace) {
+        if (cachedActions != null && cachedActionsVersion == version && Objects.equals(cachedActionSpace, actionSpace))
+            return cachedActions;
+        return null;
+    }
+
+    void cacheActions(List<AbstractAction> actions, ActionSpace actionSpace) {
+        cachedActions = actions;
+        cachedActionSpace = actionSpace;
+        cachedActionsVersion = version;
+    }
+
     /**
      * Resets variables initialised for this game state.
      */
     void reset(long seed) {
-        gameParameters.randomSeed = seed;
+        gameParameters.setRandomSeed(seed);
         reset();
     }
 
@@ -155,11 +204,41 @@ public abstract class AbstractGameState {
     }
 
     /**
-     * @return All actions that have been executed on this state since reset()/initialisation
+     * This takes constant time, as the list is a view of the history rather than a copy of it. Finding the size,
+     * or the last few actions, is cheap; iterating over the whole list puts it into an array first.
+     *
+     * @return All actions that have been executed on this state since reset()/initialisation, as an unmodifiable list
+     */
+    public List<AbstractAction> getHistory() {
+        return new HistoryView(history == null ? null : history.lastAction);
+    }
+    /**
+     * @return the text of all the actions and logged events since reset()/initialisation. Actions taken in a copy
+     * of the state given to an agent are described by their toString(), as the text from getString() depends on the
+     * state at the time, and is not worked out during a search.
      */
-    public List<AbstractAction> getHistory() { return new ArrayList<>(history);}
     public List<String> getHistoryAsText() {
-        return new ArrayList<>(historyText);
+        List<String> retValue = new ArrayList<>();
+        for (HistoryEntry entry = history; entry != null; entry = entry.previous) {
+            retValue.add(entry.text != null ? entry.text : "Player " + entry.player + " : " + entry.action);
+        }
+        Collections.reverse(retValue);
+        return retValue;
+    }
+
+    /**
+     * @return false if this state does not record its history. This is the case for copies of the state
+     * given to agents if CoreParameters.agentsRecordHistory has been turned off.
+     */
+    public final boolean isRecordingHistory() {
+        return recordHistory;
+    }
+    /**
+     * @return true if events logged on this state are recorded in its history (see CoreParameters.recordEventHistory).
+     * They are not recorded in the copies of the state given to agents, so there is no need to format their text.
+     */
+    public final boolean isRecordingEventHistory() {
+        return recordHistory && recordHistoryText && coreGameParameters.recordEventHistory;
     }
     public int getGameID() {
         return gameID;
@@ -291,9 +370,14 @@ public abstract class AbstractGameState {
         s.firstPlayer = firstPlayer;
         s.rnd = rnd;
 
+        // a copy for a specific player is an agent's observation; this (and any copy the agent takes of it) records
+        // the actions taken (unless we have asked it not to), but not their text, as formatting that is expensive
+        s.recordHistory = recordHistory && (playerId == -1 || coreGameParameters.agentsRecordHistory);
+        s.recordHistoryText = recordHistoryText && playerId == -1;
         if (!coreGameParameters.competitionMode) {
-            s.history = new ArrayList<>(history);
-            s.historyText = new ArrayList<>(historyText);
+            s.history = history;
+            // history entries are immutable, so the copy can share them with this state, and anything it later
+            // records is not seen here
             // we do not copy individual actions in history, as these are now dead and should not change
             // History is for debugging and spectation of games. There is a risk that History might contain information
             // formally hidden to some participants. For this reason, in COMPETITION_MODE we explicitly do not copy
@@ -312,8 +396,8 @@ public abstract class AbstractGameState {
             s.playerTimer[i] = playerTimer[i].copy();
         }
 
-        // Update the list of components for ID matching in actions.
-        s.addAllComponents();
+        // The list of components for ID matching in actions is left empty, and is filled the first time that
+        // getComponentById() is called on the copy. Many copies (e.g. in MCTS rollouts) never need it.
         return s;
     }
 
@@ -323,35 +407,112 @@ public abstract class AbstractGameState {
      * @param action The action that has just been applied (or is about to be applied) to the game state
      */
     protected final void recordAction(AbstractAction action, int player) {
-        history.add(action);
-        historyText.add("Player " + player + " : " + action.getString(this));
+        if (recordHistory)
+            history = new HistoryEntry(history, action, player,
+                    recordHistoryText ? "Player " + player + " : " + action.getString(this) : null);
     }
 
 
     // helper function to avoid time-consuming string manipulations if the message is not actually
     // going to be logged anywhere
     public void logEvent(IGameEvent event, Supplier<String> eventText) {
-        if (listeners.isEmpty() && !getCoreGameParameters().recordEventHistory)
+        if (listeners.isEmpty() && !isRecordingEventHistory())
             return; // to avoid expensive string manipulations
         logEvent(event, eventText.get());
     }
     public void logEvent(IGameEvent event, String eventText) {
         LogEvent logAction = new LogEvent(eventText);
         listeners.forEach(l -> l.onEvent(Event.createEvent(event, this, logAction)));
-        if (getCoreGameParameters().recordEventHistory) {
+        if (isRecordingEventHistory()) {
             recordHistory(eventText);
         }
     }
     public void logEvent(IGameEvent event) {
         LogEvent logAction = new LogEvent(event.name());
         listeners.forEach(l -> l.onEvent(Event.createEvent(event, this, logAction)));
-        if (getCoreGameParameters().recordEventHistory) {
+        if (isRecordingEventHistory()) {
             recordHistory(event.name());
         }
     }
 
-    public void recordHistory(String history) {
-        historyText.add(history);
+    public void recordHistory(String text) {
+        if (recordHistory && recordHistoryText)
+            history = new HistoryEntry(history, null, -1, text);
+    }
+
+    /**
+     * One entry in the history of a game. Entries are immutable and link back to the one before, so that a copy of
+     * a state shares all the history of the original rather than duplicating it.
+     */
+    private static final class HistoryEntry {
+        final HistoryEntry previous;
+        final AbstractAction action;  // null for entries that are just text (e.g. logged events)
+        final int player;  // the player who took the action
+        final String text;  // null for an action whose text has not been worked out (see recordHistoryText)
+        // The most recent entry with an action, up to and including this one (null if there is none), and the
+        // number of such entries
+        final HistoryEntry lastAction;
+        final int nActions;
+
+        HistoryEntry(HistoryEntry previous, AbstractAction action, int player, String text) {
+            this.previous = previous;
+            this.action = action;
+            this.player = player;
+            this.text = text;
+            HistoryEntry previousAction = previous == null ? null : previous.lastAction;
+            this.lastAction = action != null ? this : previousAction;
+            this.nActions = (previousAction == null ? 0 : previousAction.nActions) + (action != null ? 1 : 0);
+        }
+    }
+
+    /**
+     * The actions in a history, as returned by getHistory(). Actions near the end are found by walking back from
+     * the last one; anything else puts all the actions into an array (once), in which later look-ups are made.
+     */
+    private static final class HistoryView extends AbstractList<AbstractAction> implements RandomAccess {
+        private static final int MAX_WALK = 32;
+
+        private final HistoryEntry last;
+        private AbstractAction[] actions;
+
+        HistoryView(HistoryEntry last) {
+            this.last = last;
+        }
+
+        @Override
+        public int size() {
+            return last == null ? 0 : last.nActions;
+        }
+
+        @Override
+        public AbstractAction get(int index) {
+            int size = size();
+            if (index < 0 || index >= size)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            if (actions == null && size - index <= MAX_WALK) {
+                HistoryEntry entry = last;
+                for (int i = size - 1; i > index; i--)
+                    entry = entry.previous.lastAction;
+                return entry.action;
+            }
+            return actions()[index];
+        }
+
+        private AbstractAction[] actions() {
+            if (actions == null) {
+                AbstractAction[] retValue = new AbstractAction[size()];
+                int i = retValue.length;
+                for (HistoryEntry entry = last; entry != null; entry = entry.previous == null ? null : entry.previous.lastAction)
+                    retValue[--i] = entry.action;
+                actions = retValue;
+            }
+            return actions;
+        }
+
+        @Override
+        public Iterator<AbstractAction> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(actions())).iterator();
+        }
     }
 
     /* Methods dealing with ExtendedActions and the actionStack */
@@ -24,6 +24,11 @@ public abstract class AbstractParameters {
     // Increment in seconds, added after a custom milestone (to be added manually in game implementation). Default 0.
     long incrementMilestoneS = 0;
 
+    // Frozen parameters are shared by all the copies of a game state (see shareableCopy()), and cannot be changed
+    private boolean frozen;
+    // The frozen copy of these parameters handed out by shareableCopy(), until these parameters next change
+    private AbstractParameters frozenCopy;
+
 
     public AbstractParameters() {
         this.setRandomSeed(System.currentTimeMillis());
@@ -59,17 +64,21 @@ public abstract class AbstractParameters {
     }
 
     public void setRandomSeed(long randomSeed) {
+        aboutToChange();
         this.randomSeed = randomSeed;
     }
 
     public void setThinkingTimeMins(long thinkingTimeMins) {
+        aboutToChange();
         this.thinkingTimeMins = thinkingTimeMins;
     }
 
     public void setMaxRounds(int max) {
+        aboutToChange();
         maxRounds = max;
     }
     public void setTimeoutRounds(int max) {
+        aboutToChange();
         timeoutRounds = max;
     }
 
@@ -149,6 +158,69 @@ public abstract class AbstractParameters {
         return copy;
     }
 
+    /**
+     * Game states use this when they are copied, instead of copy(). Parameters do not change during a game, so all
+     * the copies of a game state can share a single frozen copy of its parameters, rather than each copy of a state
+     * taking a new copy of them (which for TunableParameters means copying all of its maps).
+     * <p>
+     * The frozen copy keeps the random seed of these parameters. It is made again after these parameters change -
+     * through setRandomSeed(), the other setters here, or setParameterValue() for TunableParameters - and also
+     * whenever it no longer has the same values as these (checked with _equals()), as many sub-classes have public
+     * fields that can be written directly. If copy() does not carry over all the values, as for a TunableParameters
+     * field written directly, then a new copy is returned each time, which is not frozen.
+     *
+     * @return - these parameters if they are frozen already, otherwise a frozen copy of them.
+     */
+    public AbstractParameters shareableCopy() {
+        if (frozen)
+            return this;
+        if (frozenCopy != null && !sameValues(frozenCopy))
+            frozenCopy = null;
+        if (frozenCopy == null) {
+            AbstractParameters copy = copy();
+            if (copy == this)  // some sub-classes do not copy themselves at all
+                return this;
+            copy.randomSeed = randomSeed;
+            if (!sameValues(copy))
+                return copy;
+            copy.frozen = true;
+            frozenCopy = copy;
+        }
+        return frozenCopy;
+    }
+
+    private boolean sameValues(AbstractParameters other) {
+        return sameBaseValues(other) && _equals(other);
+    }
+
+    private boolean sameBaseValues(AbstractParameters that) {
+        return thinkingTimeMins == that.thinkingTimeMins &&
+                incrementActionS == that.incrementActionS &&
+                incrementTurnS == that.incrementTurnS &&
+                incrementRoundS == that.incrementRoundS &&
+                maxRounds == that.maxRounds && timeoutRounds == that.timeoutRounds &&
+                incrementMilestoneS == that.incrementMilestoneS;
+    }
+
+    /**
+     * @return - true if these parameters are shared between copies of a game state, and so cannot be changed.
+     * Use copy() to get parameters that can be changed.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Must be called before any change to these parameters.
+     *
+     * @throws IllegalStateException if these parameters are frozen
+     */
+    protected final void aboutToChange() {
+        if (frozen)
+            throw new IllegalStateException("These parameters are shared by copies of a game state and cannot be changed; change a copy() instead");
+        frozenCopy = null;
+    }
+
     /**
      * Randomizes the set of parameters, if this is a class that implements the TunableParameters interface.
      */
@@ -185,13 +257,7 @@ public abstract class AbstractParameters {
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof AbstractParameters)) return false;
-        AbstractParameters that = (AbstractParameters) o;
-        return thinkingTimeMins == that.thinkingTimeMins &&
-                incrementActionS == that.incrementActionS &&
-                incrementTurnS == that.incrementTurnS &&
-                incrementRoundS == that.incrementRoundS &&
-                maxRounds == that.maxRounds && timeoutRounds == that.timeoutRounds &&
-                incrementMilestoneS == that.incrementMilestoneS;
+        return sameBaseValues((AbstractParameters) o);
         // equals and hashcode deliberately excludes the random seed
     }
 
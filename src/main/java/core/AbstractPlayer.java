@@ -150,6 +150,44 @@ public abstract class AbstractPlayer {
 
     public abstract AbstractPlayer copy();
 
+    /**
+     * A copy of this player (see copy()) with its random number generators seeded from the given seed, rather than
+     * from this player. This is for when the results must be reproducible from one seed, whatever seed this player
+     * was created with (as in the evaluation games of parameter tuning).
+     * The default seeds the copy's rnd and parameters, leaving alone anything the copy shares with this player (so a
+     * player whose copy() returns itself is not reseeded). A player that creates its own random number generators
+     * when it is constructed should override this to construct the copy with the seed.
+     *
+     * @param seed - the seed for the copy
+     * @return - a copy of this player
+     */
+    public AbstractPlayer copyWithSeed(long seed) {
+        AbstractPlayer retValue = copy();
+        if (retValue == this)
+            return retValue;
+        retValue.rnd = new Random(seed);
+        if (retValue.parameters != null && retValue.parameters != parameters)
+            retValue.parameters.setRandomSeed(seed);
+        return retValue;
+    }
+
+    /**
+     * A copy of this player (see copy()) to play one game in its place, with the same name and copies of its
+     * decorators. Tournaments play every game with one of these, made in the order the games are played, so that the
+     * results are the same whether or not the games are then run in parallel. For this to hold copy() must seed the
+     * new player from this one (or from a fixed seed), and never from the clock.
+     *
+     * @return - a copy of this player
+     */
+    public final AbstractPlayer copyForGame() {
+        AbstractPlayer retValue = copy();
+        retValue.setName(toString());
+        retValue.decorators = new ArrayList<>();
+        for (AbstractPlayerDecorator decorator : decorators)
+            retValue.decorators.add(decorator.copy());
+        return retValue;
+    }
+
     // override this to provide information on the last decision taken
     public Map<AbstractAction, Map<String, Object>> getDecisionStats() {
         return Collections.emptyMap();
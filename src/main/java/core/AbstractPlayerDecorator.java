@@ -25,4 +25,14 @@ public interface AbstractPlayerDecorator {
      */
     public void recordDecision(AbstractGameState state, AbstractAction action);
 
+    /**
+     * Decorators that keep any state (such as a random number generator) must return a new copy here, as a player
+     * copied with AbstractPlayer.copyForGame() has copies of its decorators.
+     *
+     * @return a copy of this decorator; by default this decorator itself
+     */
+    default AbstractPlayerDecorator copy() {
+        return this;
+    }
+
 }
@@ -11,11 +11,19 @@ public class CoreParameters extends TunableParameters {
     public boolean recordEventHistory = true;  // include in history text game events
     public boolean partialObservable = true;
     public boolean competitionMode = false;
+    // if false, the copies of the state given to agents (and any copies they make) do not record the actions taken
+    // in them, which saves an entry for every action in a search (they never format the text of actions, see
+    // AbstractGameState.getHistoryAsText()); players that read the history of the states they search (for example
+    // in rollouts) then see only the actions taken in the game
+    public boolean agentsRecordHistory = true;
     public boolean disqualifyPlayerOnIllegalActionPlayed = false;
     public boolean disqualifyPlayerOnTimeout = false;
     public boolean alwaysDisplayFullObservable = false;
     public boolean alwaysDisplayCurrentPlayer = false;
     public long frameSleepMS = 100L;
+    // if true, the forward model keeps the last list of available actions computed for each state, and returns it
+    // (as an unmodifiable list) if asked again before the state next changes
+    public boolean cacheAvailableActions = false;
 
     // Action space type for this game
     public ActionSpace actionSpace = new ActionSpace(ActionSpace.Structure.Flat, ActionSpace.Flexibility.Default, ActionSpace.Context.Dependent);
@@ -25,11 +33,13 @@ public class CoreParameters extends TunableParameters {
         addTunableParameter("recordEventHistory", recordEventHistory, Arrays.asList(false, true));
         addTunableParameter("partial observable", partialObservable, Arrays.asList(false, true));
         addTunableParameter("competition mode", competitionMode, Arrays.asList(false, true));
+        addTunableParameter("agentsRecordHistory", agentsRecordHistory, Arrays.asList(false, true));
         addTunableParameter("disqualify player on illegal action played", disqualifyPlayerOnIllegalActionPlayed, Arrays.asList(false, true));
         addTunableParameter("disqualify player on timeout", disqualifyPlayerOnTimeout, Arrays.asList(false, true));
         addTunableParameter("always display full observable", alwaysDisplayFullObservable, Arrays.asList(false, true));
         addTunableParameter("always display current player", alwaysDisplayCurrentPlayer, Arrays.asList(false, true));
         addTunableParameter("frame sleep MS", frameSleepMS, Arrays.asList(0L, 100L, 500L, 1000L, 5000L));
+        addTunableParameter("cache available actions", cacheAvailableActions, Arrays.asList(false, true));
         addTunableParameter("actionSpaceStructure", ActionSpace.Structure.Default, Arrays.asList(ActionSpace.Structure.values()));
         addTunableParameter("actionSpaceFlexibility", ActionSpace.Flexibility.Default, Arrays.asList(ActionSpace.Flexibility.values()));
         addTunableParameter("actionSpaceContext", ActionSpace.Context.Default, Arrays.asList(ActionSpace.Context.values()));
@@ -44,14 +54,13 @@ public class CoreParameters extends TunableParameters {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof CoreParameters)) return false;
-        if (!super.equals(o)) return false;
         CoreParameters that = (CoreParameters) o;
-        return verbose == that.verbose && recordEventHistory == that.recordEventHistory && partialObservable == that.partialObservable && competitionMode == that.competitionMode && disqualifyPlayerOnIllegalActionPlayed == that.disqualifyPlayerOnIllegalActionPlayed && disqualifyPlayerOnTimeout == that.disqualifyPlayerOnTimeout && alwaysDisplayFullObservable == that.alwaysDisplayFullObservable && alwaysDisplayCurrentPlayer == that.alwaysDisplayCurrentPlayer && frameSleepMS == that.frameSleepMS && Objects.equals(actionSpace, that.actionSpace);
+        return verbose == that.verbose && recordEventHistory == that.recordEventHistory && partialObservable == that.partialObservable && competitionMode == that.competitionMode && agentsRecordHistory == that.agentsRecordHistory && disqualifyPlayerOnIllegalActionPlayed == that.disqualifyPlayerOnIllegalActionPlayed && disqualifyPlayerOnTimeout == that.disqualifyPlayerOnTimeout && alwaysDisplayFullObservable == that.alwaysDisplayFullObservable && alwaysDisplayCurrentPlayer == that.alwaysDisplayCurrentPlayer && frameSleepMS == that.frameSleepMS && cacheAvailableActions == that.cacheAvailableActions && Objects.equals(actionSpace, that.actionSpace);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), verbose, recordEventHistory, partialObservable, competitionMode, disqualifyPlayerOnIllegalActionPlayed, disqualifyPlayerOnTimeout, alwaysDisplayFullObservable, alwaysDisplayCurrentPlayer, frameSleepMS, actionSpace);
+        return Objects.hash(super.hashCode(), verbose, recordEventHistory, partialObservable, competitionMode, agentsRecordHistory, disqualifyPlayerOnIllegalActionPlayed, disqualifyPlayerOnTimeout, alwaysDisplayFullObservable, alwaysDisplayCurrentPlayer, frameSleepMS, cacheAvailableActions, actionSpace);
     }
 
     @Override
@@ -65,11 +74,13 @@ public class CoreParameters extends TunableParameters {
         recordEventHistory = (boolean) getParameterValue("recordEventHistory");
         partialObservable = (boolean) getParameterValue("partial observable");
         competitionMode = (boolean) getParameterValue("competition mode");
+        agentsRecordHistory = (boolean) getParameterValue("agentsRecordHistory");
         disqualifyPlayerOnIllegalActionPlayed = (boolean) getParameterValue("disqualify player on illegal action played");
         disqualifyPlayerOnTimeout = (boolean) getParameterValue("disqualify player on timeout");
         alwaysDisplayFullObservable = (boolean) getParameterValue("always display full observable");
         alwaysDisplayCurrentPlayer = (boolean) getParameterValue("always display current player");
         frameSleepMS = Long.parseLong(String.valueOf(getParameterValue("frame sleep MS")));
+        cacheAvailableActions = (boolean) getParameterValue("cache available actions");
         actionSpace = new ActionSpace ((ActionSpace.Structure) getParameterValue("actionSpaceStructure"),
                 (ActionSpace.Flexibility) getParameterValue("actionSpaceFlexibility"),
                 (ActionSpace.Context) getParameterValue("actionSpaceContext"));
@@ -23,7 +23,6 @@ import players.human.ActionController;
 import players.human.HumanConsolePlayer;
 import players.human.HumanGUIPlayer;
 import players.simple.RandomPlayer;
-import utilities.Pair;
 import utilities.Utils;
 
 public class Game {
@@ -47,8 +46,10 @@ public class Game {
   private JFrame frame;
   // Timers for various function calls
   private double nextTime, copyTime, agentTime, actionComputeTime;
-  // Keeps track of action spaces for each game tick, pairs of (player ID, #actions)
-  private ArrayList<Pair<Integer, Integer>> actionSpaceSize;
+  // Histograms of the times above (and of action space sizes) over the whole game, for each player
+  private GameInstrumentation instrumentation;
+  // For a snapshot, the action cache hits and misses of the forward models when it was taken
+  private long[] actionCacheCounts;
   // Number of times an agent is asked for decisions
   private int nDecisions;
   // Number of actions taken in a turn by a player
@@ -94,6 +95,51 @@ public class Game {
     reset(Collections.emptyList(), gameState.gameParameters.randomSeed);
   }
 
+  /**
+   * Copy constructor used by snapshot(). The copy is not set up to be run.
+   */
+  private Game(Game other, AbstractGameState state, boolean copyInstrumentation) {
+    this.gameType = other.gameType;
+    this.players = other.players == null ? null : new ArrayList<>(other.players);
+    this.gameState = state;
+    // copies of a state do not keep its GameID, which only a Game sets
+    if (state != null && other.gameState != null) state.setGameID(other.gameState.getGameID());
+    this.forwardModel = other.forwardModel;
+    this.lastPlayer = other.lastPlayer;
+    this.nextTime = other.nextTime;
+    this.copyTime = other.copyTime;
+    this.agentTime = other.agentTime;
+    this.actionComputeTime = other.actionComputeTime;
+    this.instrumentation =
+        copyInstrumentation && other.instrumentation != null
+            ? other.instrumentation.copy()
+            : other.instrumentation;
+    this.nDecisions = other.nDecisions;
+    this.nActionsPerTurn = other.nActionsPerTurn;
+    this.nActionsPerTurnSum = other.nActionsPerTurnSum;
+    this.nActionsPerTurnCount = other.nActionsPerTurnCount;
+    this.turnPause = other.turnPause;
+    // the forward models are shared with this Game, so their counts are taken now
+    this.actionCacheCounts = other.countActionCache();
+  }
+
+  /**
+   * A copy of this Game as it is now, for listeners that process its events later (see
+   * AsyncGameListener), by when this Game will have moved on. The copy has the given state, the
+   * same players and forward model, and the timings and counts as they are now (including the
+   * action cache counts of the forward models, see getActionCacheHits()).
+   *
+   * @param state - the state the copy should have, usually a copy of the current game state. This
+   *     is given the GameID of this Game's state
+   * @param copyInstrumentation - if true the instrumentation is copied as well, otherwise it is
+   *     shared with this Game (copying all its histograms after every action would cost more than
+   *     the listeners save)
+   * @return - a copy of this Game, which is not meant to be run
+   */
+  public Game snapshot(AbstractGameState state, boolean copyInstrumentation) {
+    return new Game(this, state, copyInstrumentation);
+  }
+
   /**
    * Runs one game.
    *
@@ -499,7 +545,10 @@ public class Game {
     agentTime = 0;
     actionComputeTime = 0;
     nDecisions = 0;
-    actionSpaceSize = new ArrayList<>();
+    forwardModel.resetActionCacheStatistics();
+    if (instrumentation == null || instrumentation.getNPlayers() != gameState.getNPlayers())
+      instrumentation = new GameInstrumentation(gameState.getNPlayers());
+    else instrumentation.reset();
     nActionsPerTurnSum = 0;
     nActionsPerTurn = 1;
     nActionsPerTurnCount = 0;
@@ -622,16 +671,19 @@ public class Game {
 
     // Get player observation, and time how long it takes
     double s = System.nanoTime();
+    long bytes = GameInstrumentation.allocatedBytes();
     // copying the gamestate also copies the game parameters and resets the random seed (so agents
     // cannot use this
     // to reconstruct the starting hands etc.)
     AbstractGameState observation = gameState.copy(activePlayer);
     copyTime = (System.nanoTime() - s);
+    instrumentation.record(GameInstrumentation.Phase.COPY, activePlayer, (long) copyTime, bytes);
     //      System.out.printf("Total copyTime in ms = %.2f at tick %d (Avg %.3f) %n", copyTime /
     // 1e6, tick, copyTime / (tick +1.0) / 1e6);
 
     // Get actions for the player
     s = System.nanoTime();
+    bytes = GameInstrumentation.allocatedBytes();
     List<AbstractAction> observedActions =
         forwardModel.computeAvailableActions(
             observation, currentPlayer.getParameters().actionSpace);
@@ -666,7 +718,9 @@ public class Game {
                   : ""));
     }
     actionComputeTime = (System.nanoTime() - s);
-    actionSpaceSize.add(new Pair<>(activePlayer, observedActions.size()));
+    instrumentation.record(
+        GameInstrumentation.Phase.COMPUTE_ACTIONS, activePlayer, (long) actionComputeTime, bytes);
+    instrumentation.recordActionSpace(activePlayer, observedActions.size());
 
     if (gameState.coreGameParameters.verbose) {
       System.out.println("Round: " + gameState.getRoundCounter());
@@ -693,6 +747,7 @@ public class Game {
       } else {
         // Get action from player, and time it
         s = System.nanoTime();
+        bytes = GameInstrumentation.allocatedBytes();
         if (debug)
           System.out.printf("About to get action for player %d%n", gameState.getCurrentPlayer());
         action = currentPlayer.getAction(observation, observedActions);
@@ -701,7 +756,10 @@ public class Game {
               "Game: %2d Tick: %3d\t%s%n",
               gameState.getGameID(), getTick(), action.getString(gameState));
 
-        agentTime += (System.nanoTime() - s);
+        double decisionTime = System.nanoTime() - s;
+        agentTime += decisionTime;
+        instrumentation.record(
+            GameInstrumentation.Phase.AGENT, activePlayer, (long) decisionTime, bytes);
         nDecisions++;
       }
       if (gameState.coreGameParameters.competitionMode
@@ -741,8 +799,10 @@ public class Game {
     } else {
       // Resolve action and game rules, time it
       s = System.nanoTime();
+      bytes = GameInstrumentation.allocatedBytes();
       forwardModel.next(gameState, action);
       nextTime = (System.nanoTime() - s);
+      instrumentation.record(GameInstrumentation.Phase.NEXT, activePlayer, (long) nextTime, bytes);
     }
 
     lastPlayer = activePlayer;
@@ -876,12 +936,48 @@ public class Game {
   }
 
   /**
-   * Retrieves a list with one entry per game tick, each a pair (player ID, # actions)
+   * Retrieves the histograms of how long each part of the game loop took over this game for each
+   * player, and of the number of actions they had to choose from.
    *
-   * @return - list of action space sizes
+   * @return - instrumentation for this game
    */
-  public ArrayList<Pair<Integer, Integer>> getActionSpaceSize() {
-    return actionSpaceSize;
+  public GameInstrumentation getInstrumentation() {
+    return instrumentation;
+  }
+
+  /**
+   * @return - the number of calls to computeAvailableActions() that returned a cached list, over
+   *     the game's own forward model and those of the players, which each have a copy. For a
+   *     snapshot, this is the number when the snapshot was taken
+   */
+  public long getActionCacheHits() {
+    return (actionCacheCounts == null ? countActionCache() : actionCacheCounts)[0];
+  }
+
+  /**
+   * @return - the number of calls to computeAvailableActions() that had to compute the actions with
+   *     caching switched on, over the same forward models as getActionCacheHits()
+   */
+  public long getActionCacheMisses() {
+    return (actionCacheCounts == null ? countActionCache() : actionCacheCounts)[1];
+  }
+
+  private long[] countActionCache() {
+    if (actionCacheCounts != null) return actionCacheCounts.clone();
+    long[] retValue = new long[2];
+    if (forwardModel != null) {
+      retValue[0] = forwardModel.getActionCacheHits();
+      retValue[1] = forwardModel.getActionCacheMisses();
+    }
+    if (players != null) {
+      for (AbstractPlayer player : players) {
+        if (player.getForwardModel() != null && player.getForwardModel() != forwardModel) {
+          retValue[0] += player.getForwardModel().getActionCacheHits();
+          retValue[1] += player.getForwardModel().getActionCacheMisses();
+        }
+      }
+    }
+    return retValue;
   }
 
   /**
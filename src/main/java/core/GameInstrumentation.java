@@ -0,0 +1,151 @@
+package core;
+
+import evaluation.summarisers.TAGHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Records where the time goes in a Game, for each player: how long each call to each of the timed phases of
+ * Game.oneAction() took (as a histogram in nanoseconds), how many bytes the game thread allocated during them, and
+ * how many actions were available at each decision.
+ * <p>
+ * Allocations are read from the JVM's ThreadMXBean, where it supports this; otherwise they are reported as 0.
+ * They only include memory allocated on the thread running the game, so agents that search on threads of their own
+ * (such as MCTS with tree parallelism) will show less than they really use.
+ */
+public class GameInstrumentation {
+
+    public enum Phase {
+        COPY,             // copying the game state to give the player an observation
+        COMPUTE_ACTIONS,  // computing the actions available to the player
+        AGENT,            // the player choosing an action (only when there is more than one)
+        NEXT              // the forward model applying the chosen action
+    }
+
+    private static final com.sun.management.ThreadMXBean allocationBean = allocationBean();
+
+    private final TAGHistogram[][] latencies;
+    private final long[][] allocatedBytes;
+    private final TAGHistogram[] actionSpaceSizes;
+
+    public GameInstrumentation(int nPlayers) {
+        latencies = new TAGHistogram[Phase.values().length][nPlayers];
+        allocatedBytes = new long[Phase.values().length][nPlayers];
+        actionSpaceSizes = new TAGHistogram[nPlayers];
+        for (int p = 0; p < nPlayers; p++) {
+            for (Phase phase : Phase.values())
+                latencies[phase.ordinal()][p] = new TAGHistogram();
+            actionSpaceSizes[p] = new TAGHistogram();
+        }
+    }
+
+    /**
+     * @return a copy of the histograms and counts as they are now
+     */
+    public GameInstrumentation copy() {
+        GameInstrumentation retValue = new GameInstrumentation(actionSpaceSizes.length);
+        for (Phase phase : Phase.values()) {
+            for (int p = 0; p < actionSpaceSizes.length; p++)
+                retValue.latencies[phase.ordinal()][p].add(latencies[phase.ordinal()][p]);
+            retValue.allocatedBytes[phase.ordinal()] = allocatedBytes[phase.ordinal()].clone();
+        }
+        for (int p = 0; p < actionSpaceSizes.length; p++)
+            retValue.actionSpaceSizes[p].add(actionSpaceSizes[p]);
+        return retValue;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return null;
+        com.sun.management.ThreadMXBean retValue = (com.sun.management.ThreadMXBean) bean;
+        if (!retValue.isThreadAllocatedMemorySupported())
+            return null;
+        if (!retValue.isThreadAllocatedMemoryEnabled())
+            retValue.setThreadAllocatedMemoryEnabled(true);
+        return retValue;
+    }
+
+    /**
+     * @return the total number of bytes allocated so far by the current thread, or 0 if the JVM cannot tell us.
+     * This is the value to pass to record() at the start of a phase.
+     */
+    public static long allocatedBytes() {
+        return allocationBean == null ? 0 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Records one call of a phase on behalf of the player.
+     *
+     * @param nanos        - how long it took
+     * @param bytesAtStart - the value of allocatedBytes() when it started (on this thread)
+     */
+    public void record(Phase phase, int player, long nanos, long bytesAtStart) {
+        latencies[phase.ordinal()][player].record(nanos);
+        allocatedBytes[phase.ordinal()][player] += Math.max(0, allocatedBytes() - bytesAtStart);
+    }
+
+    public void recordActionSpace(int player, int nActions) {
+        actionSpaceSizes[player].record(nActions);
+    }
+
+    public int getNPlayers() {
+        return actionSpaceSizes.length;
+    }
+
+    /**
+     * @return the times (in nanoseconds) taken by the phase on behalf of the player; this is the live histogram,
+     * which will change as the game goes on
+     */
+    public TAGHistogram getLatencies(Phase phase, int player) {
+        return latencies[phase.ordinal()][player];
+    }
+
+    /**
+     * @return a new histogram of the times (in nanoseconds) taken by the phase over all players
+     */
+    public TAGHistogram getLatencies(Phase phase) {
+        TAGHistogram retValue = new TAGHistogram();
+        for (TAGHistogram h : latencies[phase.ordinal()])
+            retValue.add(h);
+        return retValue;
+    }
+
+    public long getAllocatedBytes(Phase phase, int player) {
+        return allocatedBytes[phase.ordinal()][player];
+    }
+
+    public long getAllocatedBytes(Phase phase) {
+        long retValue = 0;
+        for (long bytes : allocatedBytes[phase.ordinal()])
+            retValue += bytes;
+        return retValue;
+    }
+
+    /**
+     * @return the number of actions available to the player at each point they were asked for one
+     */
+    public TAGHistogram getActionSpaceSizes(int player) {
+        return actionSpaceSizes[player];
+    }
+
+    public TAGHistogram getActionSpaceSizes() {
+        TAGHistogram retValue = new TAGHistogram();
+        for (TAGHistogram h : actionSpaceSizes)
+            retValue.add(h);
+        return retValue;
+    }
+
+    public void reset() {
+        for (Phase phase : Phase.values()) {
+            for (TAGHistogram h : latencies[phase.ordinal()])
+                h.reset();
+        }
+        for (long[] bytes : allocatedBytes)
+            Arrays.fill(bytes, 0);
+        for (TAGHistogram h : actionSpaceSizes)
+            h.reset();
+    }
+}
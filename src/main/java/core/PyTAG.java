@@ -76,7 +76,7 @@ public class PyTAG {
     private Game game;
     // root of the action tree
     private ActionTreeNode root;
-    // list of leaf nodes
+    // list of leaf nodes (fixed once the tree is built, see ActionTreeNode.getLeaves())
     private List<ActionTreeNode> leaves;
     private AbstractGameState gameState;
     private AbstractForwardModel forwardModel;
@@ -194,9 +194,9 @@ public class PyTAG {
 
     // Gets the action mask as a boolean array
     public int[] getActionMask() {
-        return leaves.stream()
-                .mapToInt(ActionTreeNode::getValue)
-                .toArray();
+        int[] mask = new int[leaves.size()];
+        writeActionMask(mask, 0);
+        return mask;
     }
 
     // gets the whole action tree as an array (tree can be reconstructed using the getTreeShape() function)
@@ -219,6 +219,21 @@ public class PyTAG {
         else throw new Exception("Function is not implemented");
     }
 
+    // Used by VectorisedPyTAG, which copies these straight into its arrays
+    void writeObservationVector(AbstractGameState observation, double[] target, int offset) {
+        double[] features = stateVectoriser.featureVector(observation, observation.getCurrentPlayer());
+        System.arraycopy(features, 0, target, offset, features.length);
+    }
+
+    void writeActionMask(int[] target, int offset) {
+        for (int i = 0; i < leaves.size(); i++)
+            target[offset + i] = leaves.get(i).getValue();
+    }
+
+    AbstractGameState getGameState() {
+        return gameState;
+    }
+
     // --End of Wrapper Functions--
 
 
@@ -246,7 +261,7 @@ public class PyTAG {
         AbstractGameState observation = gameState.copy(gameState.getCurrentPlayer());
         this.availableActions = forwardModel.computeAvailableActions(observation);
         this.root = ((ITreeActionSpace)this.forwardModel).updateActionTree(this.root, this.gameState);
-        this.leaves = root.getLeafNodes();
+        this.leaves = root.getLeaves();
     }
 
     public int getPlayerID(){
@@ -261,6 +276,10 @@ public class PyTAG {
         return gameState.getGameScore(gameState.getCurrentPlayer());
     }
 
+    public double getReward(int playerId){
+        return gameState.getGameScore(playerId);
+    }
+
     public List<AbstractAction> getActions(){
         return availableActions;
     }
@@ -347,7 +366,7 @@ public class PyTAG {
         // Compute the updated available actions and the action tree
         this.availableActions = forwardModel.computeAvailableActions(observation);
         this.root = ((ITreeActionSpace)this.forwardModel).updateActionTree(this.root, this.gameState);
-        this.leaves = root.getLeafNodes();
+        this.leaves = root.getLeaves();
 
         return observation;
     }
@@ -5,6 +5,7 @@ import core.interfaces.IExtendedSequence;
 import evaluation.metrics.Event;
 
 import java.util.Arrays;
+import java.util.List;
 
 import static core.CoreConstants.GameResult.*;
 import static evaluation.metrics.Event.GameEvent.*;
@@ -72,7 +73,7 @@ public abstract class StandardForwardModel extends AbstractForwardModel {
         int currentPlayer = gs.getCurrentPlayer();
         gs.getPlayerTimer()[currentPlayer].incrementTurn();
         gs.listeners.forEach(l -> l.onEvent(Event.createEvent(TURN_OVER, gs, currentPlayer)));
-        if (gs.getCoreGameParameters().recordEventHistory) {
+        if (gs.isRecordingEventHistory()) {
             gs.recordHistory(TURN_OVER.name());
         }
         gs.turnCounter++;
@@ -96,8 +97,9 @@ public abstract class StandardForwardModel extends AbstractForwardModel {
         do {
             turnOwner = (turnOwner + 1) % gs.nPlayers;
             if (turnOwner == gs.turnOwner) {
+                List<AbstractAction> history = gs.getHistory();  // empty if the state is not recording history
                 throw new AssertionError("Infinite loop - apparently all players are terminal, but game state is not. " +
-                        "Last action played: " + gs.getHistory().get(gs.getHistory().size() - 1));
+                        "Last action played: " + (history.isEmpty() ? "unknown" : history.get(history.size() - 1)));
             }
         } while (!gs.isNotTerminalForPlayer(turnOwner));
         endPlayerTurn(gs, turnOwner);
@@ -122,7 +124,7 @@ public abstract class StandardForwardModel extends AbstractForwardModel {
         int currentPlayer = gs.getCurrentPlayer();
         gs.getPlayerTimer()[currentPlayer].incrementRound();
         gs.listeners.forEach(l -> l.onEvent(Event.createEvent(ROUND_OVER, gs, currentPlayer)));
-        if (gs.getCoreGameParameters().recordEventHistory) {
+        if (gs.isRecordingEventHistory()) {
             gs.recordHistory(ROUND_OVER.name());
         }
         gs.roundCounter++;
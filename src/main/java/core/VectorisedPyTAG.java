@@ -0,0 +1,221 @@
+package core;
+
+import games.GameType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Runs several PyTAG environments (games) side by side, so that a reinforcement learning agent can step all of them
+ * with one call across the Python bridge, instead of several calls per game per step.
+ * <p>
+ * With nThreads > 1 the games are stepped (and reset) on a pool of that many threads, each thread taking an equal
+ * share of the games. Every game has its own players and random number generators, so the results are the same
+ * whatever the number of threads. Call close() when finished with, to stop the threads.
+ * <p>
+ * The results of each step are written into arrays that are allocated once, when this is created, with the games
+ * laid out one after another. For game i its observation vector is in observations[i * getObservationSpace()] onwards,
+ * and its action mask in actionMasks[i * getActionSpace()] onwards; while rewards[i], dones[i] and playerIDs[i] hold
+ * the reward for the last action, whether the game has finished, and the player who is to act next.
+ * Python can keep hold of these arrays and read them again after each call to reset() or step().
+ * <p>
+ * A game that finishes is reset straight away. Its reward and done flag are those of the game that has just
+ * finished, but its observation and action mask are for the start of the next one.
+ * <p>
+ * The game needs to support both a state feature vector (IStateFeatureVector) and a tree action space (ITreeActionSpace).
+ */
+public class VectorisedPyTAG implements AutoCloseable {
+
+    private final PyTAG[] envs;
+    // null if the games are all run on the calling thread
+    private final ExecutorService executor;
+    private final int nThreads;
+    private final int observationSpace;
+    private final int actionSpace;
+
+    private final double[] observations;
+    private final int[] actionMasks;
+    private final double[] rewards;
+    private final boolean[] dones;
+    private final int[] playerIDs;
+
+    /**
+     * All the games are reset when this is created, so the arrays are ready to be read.
+     *
+     * @param players - the players in each game; the RL agent is a PythonAgent. Each game gets its own copies.
+     * @param seed    - used to generate the seed for each game
+     * @param nEnvs   - the number of games to run
+     */
+    public VectorisedPyTAG(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, long seed,
+                           int nEnvs, boolean isNormalized) throws Exception {
+        this(gameToPlay, parameterConfigFile, players, seed, nEnvs, isNormalized, 1);
+    }
+
+    /**
+     * @param nThreads - the number of threads to step the games on; 1 runs them all on the calling thread
+     */
+    public VectorisedPyTAG(GameType gameToPlay, String parameterConfigFile, List<AbstractPlayer> players, long seed,
+                           int nEnvs, boolean isNormalized, int nThreads) throws Exception {
+        if (nEnvs < 1)
+            throw new IllegalArgumentException("Need at least one environment");
+        if (nThreads < 1)
+            throw new IllegalArgumentException("Need at least one thread");
+        Random seeds = new Random(seed);
+        envs = new PyTAG[nEnvs];
+        for (int i = 0; i < nEnvs; i++) {
+            // the players may keep state from one decision to the next, so each game needs its own
+            List<AbstractPlayer> envPlayers = players.stream().map(AbstractPlayer::copy).collect(toList());
+            envs[i] = new PyTAG(gameToPlay, parameterConfigFile, envPlayers, seeds.nextLong(), isNormalized);
+            envs[i].reset();
+        }
+        observationSpace = envs[0].getObservationSpace();
+        if (observationSpace == 0)
+            throw new IllegalArgumentException(gameToPlay + " does not implement the state feature vector interface");
+        actionSpace = envs[0].getActionSpace();
+
+        observations = new double[nEnvs * observationSpace];
+        actionMasks = new int[nEnvs * actionSpace];
+        rewards = new double[nEnvs];
+        dones = new boolean[nEnvs];
+        playerIDs = new int[nEnvs];
+        for (int i = 0; i < nEnvs; i++)
+            writeObservation(i, envs[i].getGameState().copy(envs[i].getPlayerID()));
+
+        this.nThreads = Math.min(nThreads, nEnvs);
+        executor = this.nThreads == 1 ? null : Executors.newFixedThreadPool(this.nThreads, r -> {
+            // daemon threads, so that an environment that is not closed does not stop the JVM from exiting
+            Thread thread = new Thread(r, "VectorisedPyTAG");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private interface EnvTask {
+        void run(int env) throws Exception;
+    }
+
+    /**
+     * Runs the task for every game, sharing the games out between the threads (if there is more than one).
+     * Each game only ever writes to its own parts of the arrays, so the threads need no locking.
+     */
+    private void forAllEnvs(EnvTask task) throws Exception {
+        if (executor == null) {
+            for (int i = 0; i < envs.length; i++)
+                task.run(i);
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(nThreads);
+        for (int t = 0; t < nThreads; t++) {
+            int from = t * envs.length / nThreads;
+            int to = (t + 1) * envs.length / nThreads;
+            futures.add(executor.submit(() -> {
+                for (int i = from; i < to; i++)
+                    task.run(i);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Resets all the games
+     */
+    public void reset() throws Exception {
+        forAllEnvs(i -> {
+            envs[i].reset();
+            rewards[i] = 0.0;
+            dones[i] = false;
+            writeObservation(i, envs[i].getGameState().copy(envs[i].getPlayerID()));
+        });
+    }
+
+    /**
+     * Takes one action in every game, and then runs each game until the RL agent has to make its next decision.
+     *
+     * @param actionIDs - one action for each game, as an index into its action mask
+     */
+    public void step(int[] actionIDs) throws Exception {
+        if (actionIDs.length != envs.length)
+            throw new IllegalArgumentException("Expected " + envs.length + " actions, but received " + actionIDs.length);
+        forAllEnvs(i -> {
+            PyTAG env = envs[i];
+            int player = env.getPlayerID();
+            AbstractGameState observation = env.step(actionIDs[i]);
+            rewards[i] = env.getReward(player);
+            dones[i] = env.isDone();
+            if (dones[i]) {
+                env.reset();
+                observation = env.getGameState().copy(env.getPlayerID());
+            }
+            writeObservation(i, observation);
+        });
+    }
+
+    private void writeObservation(int env, AbstractGameState observation) {
+        envs[env].writeObservationVector(observation, observations, env * observationSpace);
+        envs[env].writeActionMask(actionMasks, env * actionSpace);
+        playerIDs[env] = envs[env].getPlayerID();
+    }
+
+    public int getNumEnvs() {
+        return envs.length;
+    }
+
+    public int getObservationSpace() {
+        return observationSpace;
+    }
+
+    public int getActionSpace() {
+        return actionSpace;
+    }
+
+    public double[] getObservations() {
+        return observations;
+    }
+
+    public int[] getActionMasks() {
+        return actionMasks;
+    }
+
+    public double[] getRewards() {
+        return rewards;
+    }
+
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    public int[] getPlayerIDs() {
+        return playerIDs;
+    }
+
+    /**
+     * @return the environment for a single game, for anything not covered here (such as JSON observations)
+     */
+    public PyTAG getEnv(int env) {
+        return envs[env];
+    }
+
+    /**
+     * Stops the threads the games are stepped on (if any)
+     */
+    @Override
+    public void close() {
+        if (executor != null)
+            executor.shutdown();
+    }
+}
@@ -98,11 +98,8 @@ public class Area extends Component implements IComponentContainer<Component> {
     public void putComponent(Component component) {
         this.components.put(component.getComponentID(), component);
         if (component instanceof IComponentContainer) {
-            for (Component nestedC : ((IComponentContainer<?>) component).getComponents()) {
-                if (nestedC != null) {
-                    putComponent(nestedC);
-                }
-            }
+            // stream() rather than getComponents(), as the latter may take a copy of the contents (see Deck)
+            ((IComponentContainer<?>) component).stream().filter(Objects::nonNull).forEach(this::putComponent);
         }
     }
 
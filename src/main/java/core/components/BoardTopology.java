@@ -0,0 +1,123 @@
+package core.components;
+
+import java.util.Arrays;
+
+/**
+ * The connections between the nodes of a board, which do not change once a game is set up, so that one instance can
+ * be shared by a board and all of its copies.
+ * <p>
+ * Nodes are numbered from 0 to nNodes() - 1, in ascending order of their component IDs. The connections are held in
+ * compressed sparse row form: those of node i are numbered from start(i) up to (but not including) end(i), and for
+ * each connection e there is the node it leads to (target(e)), the side of node i it leaves from (side(e), or -1 if
+ * the board has no sides), and the component ID of the Edge that makes it (edgeID(e), or -1 on boards without Edges).
+ * <p>
+ * The state of a game on the board (who occupies each node, say) can then be kept in flat arrays indexed by node,
+ * which are cheap to copy, while move generation walks the connections by index without touching node objects.
+ */
+public final class BoardTopology {
+
+    private final int[] nodeIDs;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] sides;
+    private final int[] edgeIDs;
+    private final int nSides;
+    // the neighbour on each side of each node (node * nSides + side), or -1 if there is none; null if no sides
+    private final int[] bySide;
+
+    /**
+     * @param nodeIDs    - the component ID of each node, in ascending order
+     * @param neighbours - for each node, the indices of its neighbours
+     * @param sides      - for each node, the side on which each of its neighbours lies; or null if there are none
+     * @param edgeIDs    - for each node, the component ID of the Edge to each of its neighbours; or null if none
+     */
+    public BoardTopology(int[] nodeIDs, int[][] neighbours, int[][] sides, int[][] edgeIDs) {
+        for (int i = 1; i < nodeIDs.length; i++) {
+            if (nodeIDs[i] <= nodeIDs[i - 1])
+                throw new IllegalArgumentException("Node IDs must be in ascending order");
+        }
+        this.nodeIDs = nodeIDs.clone();
+        offsets = new int[nodeIDs.length + 1];
+        for (int i = 0; i < nodeIDs.length; i++)
+            offsets[i + 1] = offsets[i] + neighbours[i].length;
+        targets = new int[offsets[nodeIDs.length]];
+        this.sides = new int[targets.length];
+        this.edgeIDs = new int[targets.length];
+        Arrays.fill(this.sides, -1);
+        Arrays.fill(this.edgeIDs, -1);
+        int maxSide = -1;
+        for (int i = 0; i < nodeIDs.length; i++) {
+            System.arraycopy(neighbours[i], 0, targets, offsets[i], neighbours[i].length);
+            if (sides != null) {
+                System.arraycopy(sides[i], 0, this.sides, offsets[i], sides[i].length);
+                for (int side : sides[i]) maxSide = Math.max(maxSide, side);
+            }
+            if (edgeIDs != null)
+                System.arraycopy(edgeIDs[i], 0, this.edgeIDs, offsets[i], edgeIDs[i].length);
+        }
+        nSides = maxSide + 1;
+        if (nSides > 0) {
+            bySide = new int[nodeIDs.length * nSides];
+            Arrays.fill(bySide, -1);
+            for (int i = 0; i < nodeIDs.length; i++) {
+                for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                    if (this.sides[e] >= 0) bySide[i * nSides + this.sides[e]] = targets[e];
+                }
+            }
+        } else {
+            bySide = null;
+        }
+    }
+
+    public int nNodes() {
+        return nodeIDs.length;
+    }
+
+    public int nConnections() {
+        return targets.length;
+    }
+
+    public int getNodeID(int node) {
+        return nodeIDs[node];
+    }
+
+    /**
+     * @return the index of the node with this component ID, or -1 if it is not on the board
+     */
+    public int indexOf(int componentID) {
+        int retValue = Arrays.binarySearch(nodeIDs, componentID);
+        return retValue >= 0 ? retValue : -1;
+    }
+
+    public int start(int node) {
+        return offsets[node];
+    }
+
+    public int end(int node) {
+        return offsets[node + 1];
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int target(int connection) {
+        return targets[connection];
+    }
+
+    public int side(int connection) {
+        return sides[connection];
+    }
+
+    public int edgeID(int connection) {
+        return edgeIDs[connection];
+    }
+
+    /**
+     * @return the neighbour on the given side of the node, or -1 if there is none
+     */
+    public int neighbourOnSide(int node, int side) {
+        if (bySide == null || side < 0 || side >= nSides) return -1;
+        return bySide[node * nSides + side];
+    }
+}
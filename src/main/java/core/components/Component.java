@@ -6,42 +6,47 @@ import org.json.simple.JSONObject;
 import core.CoreConstants.ComponentType;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Component {
-    private static int ID = 0;  // All components receive a unique and final ID from this always increasing counter
+    // All components receive a unique and final ID from this always increasing counter
+    // (atomic, as games may be constructed concurrently when running tournaments in parallel)
+    private static final AtomicInteger ID = new AtomicInteger(0);
 
     protected transient final int componentID;  // Unique ID of this component
     protected final ComponentType type;  // Type of this component
-    protected HashMap<Integer, Property> properties;  // Maps between integer key for the property and the property object
+    // Maps between integer key for the property and the property object. The store itself is never changed (see
+    // PropertyStore), so it can be shared with copies
+    private PropertyStore properties;
     protected transient int ownerId = -1;  // By default belongs to the game
     protected String componentName;  // Name of this component
 
     public Component(ComponentType type, String name) {
-        this.componentID = ID++;
+        this.componentID = ID.getAndIncrement();
         this.type = type;
         this.componentName = name;
-        this.properties = new HashMap<>();
+        this.properties = PropertyStore.EMPTY;
     }
 
     public Component(ComponentType type) {
-        this.componentID = ID++;
+        this.componentID = ID.getAndIncrement();
         this.type = type;
         this.componentName = type.toString();
-        this.properties = new HashMap<>();
+        this.properties = PropertyStore.EMPTY;
     }
 
     protected Component(ComponentType type, String name, int componentID) {
         this.componentID = componentID;
         this.type = type;
         this.componentName = name;
-        this.properties = new HashMap<>();
+        this.properties = PropertyStore.EMPTY;
     }
 
     protected Component(ComponentType type, int componentID) {
         this.componentID = componentID;
         this.type = type;
         this.componentName = type.toString();
-        this.properties = new HashMap<>();
+        this.properties = PropertyStore.EMPTY;
     }
 
     /**
@@ -103,10 +108,11 @@ public abstract class Component {
 
     /**
      * Get the full map of properties.
-     * @return - mapping from property integer key to property objects.
+     * @return - mapping from property integer key to property objects. This is a read-only snapshot; use
+     * setProperty() to make changes.
      */
-    public HashMap<Integer, Property> getProperties() {
-        return properties;
+    public Map<Integer, Property> getProperties() {
+        return properties.toMap();
     }
 
     /**
@@ -125,10 +131,14 @@ public abstract class Component {
      */
     public void setProperty(Property prop)
     {
-        properties.put(prop.getHashKey(), prop);
+        setProperty(prop.getHashKey(), prop);
     }
 
-    public void setProperties(HashMap<Integer, Property> props) {
+    protected void setProperty(int propId, Property prop) {
+        properties = properties.with(propId, prop);
+    }
+
+    public void setProperties(Map<Integer, Property> props) {
         for (Property p: props.values()) {
             setProperty(p);
         }
@@ -205,11 +215,8 @@ public abstract class Component {
      */
     public void copyComponentTo(Component copyTo)
     {
-        copyTo.properties.clear();
-        for (int prop_key : this.properties.keySet()) {
-            Property newProp = this.properties.get(prop_key).copy();
-            copyTo.setProperty(newProp);
-        }
+        // if all the properties are immutable the copy shares our store; either way this component is not changed
+        copyTo.properties = properties.copy();
         copyTo.ownerId = ownerId;
         copyTo.componentName = componentName;
     }
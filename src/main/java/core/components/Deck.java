@@ -10,6 +10,8 @@ import org.json.simple.parser.ParseException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import static core.CoreConstants.VisibilityMode;
 
@@ -26,6 +28,10 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     protected int capacity;  // Capacity of the deck (maximum number of elements)
     protected List<T> components;  // List of components in this deck
     protected VisibilityMode visibility;
+    // True if the components list may also be used by other decks, in which case it must be replaced with our own
+    // copy before it is changed - see unshareComponents(). Only ever set on a new copy, so that copying a deck never
+    // changes it: a deck that owns its list gives each copy a new list, which further copies of that can then share.
+    private boolean componentsShared;
 
     public Deck(String name, VisibilityMode visibility) {
         this(name, -1, visibility);
@@ -118,6 +124,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public T pick(int idx) {
         if (components.size() > 0 && idx < components.size() && idx >= 0) {
+            unshareComponents();
             T c = components.get(idx);
             components.remove(idx);
             return c;
@@ -197,6 +204,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         if (c == null)
             throw new IllegalArgumentException("null cannot be added to a Deck");
         c.setOwnerId(ownerId);
+        unshareComponents();
         components.add(index, c);
         return capacity == -1 || components.size() <= capacity;
     }
@@ -230,6 +238,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(Deck<T> d, int index) {
+        unshareComponents();
         components.addAll(index, d.components);
         for (T comp : d.components) {
             comp.setOwnerId(ownerId);
@@ -242,6 +251,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     public boolean add(Collection<T> d, int index) {
+        unshareComponents();
         components.addAll(index, d);
         for (T comp : d) {
             comp.setOwnerId(ownerId);
@@ -272,6 +282,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public boolean remove(int idx) {
         if (idx >= 0 && idx < components.size()) {
+            unshareComponents();
             components.get(idx).setOwnerId(-1);
             components.remove(idx);
             return true;
@@ -298,7 +309,12 @@ public class Deck<T extends Component> extends Component implements IComponentCo
         for (T comp : components) {
             comp.setOwnerId(-1);
         }
-        components.clear();
+        if (componentsShared) {
+            components = new ArrayList<>();
+            componentsShared = false;
+        } else {
+            components.clear();
+        }
     }
 
     // Getters, Setters
@@ -307,6 +323,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * Shuffles the deck with a specific random object.
      */
     public void shuffle(Random rnd) {
+        unshareComponents();
         Collections.shuffle(components, rnd);
     }
 
@@ -318,6 +335,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      * @param rnd       - random number generator used for shuffling
      */
     public void shuffle(int fromIndex, int toIndex, Random rnd) {
+        unshareComponents();
         List<T> subList = components.subList(fromIndex, toIndex);
         Collections.shuffle(subList, rnd);
         int i = 0;
@@ -328,13 +346,36 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     /**
-     * @return all the components in this deck.
+     * @return all the components in this deck. This is the live list, and changes to it change the deck.
      */
     @Override
     public List<T> getComponents() {
+        unshareComponents();  // as the caller may modify the list
         return components;
     }
 
+    // getSize() and stream() are read-only, so unlike getComponents() they can leave a shared list in place
+    @Override
+    public int getSize() {
+        return components.size();
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return components.stream();
+    }
+
+    /**
+     * If the list of components is shared with another deck, replaces it with a private copy.
+     * This must be called before any change to the components list.
+     */
+    protected void unshareComponents() {
+        if (componentsShared) {
+            components = new ArrayList<>(components);
+            componentsShared = false;
+        }
+    }
+
     /**
      * Set the components in this deck.
      *
@@ -342,6 +383,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public void setComponents(ArrayList<T> components) {
         this.components = components;
+        this.componentsShared = false;
         for (T comp : components) {
             comp.setOwnerId(ownerId);
         }
@@ -378,6 +420,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
      */
     public void setComponent(int idx, T component) {
         component.setOwnerId(ownerId);
+        unshareComponents();
         components.set(idx, component);
     }
 
@@ -412,11 +455,7 @@ public class Deck<T extends Component> extends Component implements IComponentCo
     }
 
     protected void copyTo(Deck<T> deck) {
-        List<T> newComponents = new ArrayList<>();
-        for (T c : components) {
-            newComponents.add((T) c.copy());
-        }
-        deck.components = newComponents;
+        copyComponentsTo(deck, c -> (T) c.copy());
         deck.capacity = capacity;
 
         //copy type and component.
@@ -425,17 +464,40 @@ public class Deck<T extends Component> extends Component implements IComponentCo
 
 
     protected void copyTo(Deck<T> deck, int playerId) {
-        List<T> newComponents = new ArrayList<>();
-        for (T c : components) {
-            newComponents.add((T) c.copy(playerId));
-        }
-        deck.components = newComponents;
+        copyComponentsTo(deck, c -> (T) c.copy(playerId));
         deck.capacity = capacity;
 
         //copy type and component.
         copyComponentTo(deck);
     }
 
+    /**
+     * Copies the components to the other deck. Many games have immutable cards that return themselves from copy().
+     * If all the components are like this then the new deck can share a list, and takes its own copy only if it is
+     * changed. Copying never changes this deck, so it is safe to copy the same deck from several threads at once.
+     */
+    private void copyComponentsTo(Deck<T> deck, UnaryOperator<T> copier) {
+        List<T> newComponents = null;
+        for (int i = 0; i < components.size(); i++) {
+            T c = components.get(i);
+            T copy = copier.apply(c);
+            if (newComponents == null && copy != c) {
+                newComponents = new ArrayList<>(components.size());
+                newComponents.addAll(components.subList(0, i));
+            }
+            if (newComponents != null)
+                newComponents.add(copy);
+        }
+        if (newComponents == null) {
+            // we may only share a list that we do not change ourselves
+            deck.components = componentsShared ? components : new ArrayList<>(components);
+            deck.componentsShared = true;
+        } else {
+            deck.components = newComponents;
+            deck.componentsShared = false;
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -20,6 +20,9 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
 
     // List of nodes in the board graph, mapping component ID to object reference
     protected Map<Integer, BoardNode> boardNodes;
+    // The connections between the nodes, built when first needed and shared with copies. Changes made through the
+    // board clear it; changes made to the nodes directly are not seen once it has been built.
+    protected BoardTopology topology;
 
     public GraphBoard(String name)
     {
@@ -53,30 +56,57 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     public GraphBoard copy()
     {
         GraphBoard b = new GraphBoard(componentName, componentID);
-        HashMap<Integer, BoardNode> nodeCopies = new HashMap<>();
+        BoardTopology topology = getTopology();
+        BoardNode[] nodeCopies = new BoardNode[topology.nNodes()];
+        Map<Integer, BoardNode> nodeMap = new HashMap<>(boardNodes.size() * 2);
         // Copy board nodes
-        for (BoardNode bn: boardNodes.values()) {
-            BoardNode bnCopy = new BoardNode(bn.getMaxNeighbours(), "", bn.getComponentID());
-            bn.copyComponentTo(bnCopy);
-            nodeCopies.put(bn.getComponentID(), bnCopy);
+        for (int i = 0; i < nodeCopies.length; i++) {
+            BoardNode bn = boardNodes.get(topology.getNodeID(i));
+            nodeCopies[i] = new BoardNode(bn.getMaxNeighbours(), "", bn.getComponentID());
+            bn.copyComponentTo(nodeCopies[i]);
+            nodeMap.put(bn.getComponentID(), nodeCopies[i]);
         }
         // Assign neighbours
-        for (BoardNode bn: boardNodes.values()) {
-            BoardNode bnCopy = nodeCopies.get(bn.getComponentID());
-            for (BoardNode neighbour: bn.getNeighbours()) {
-                bnCopy.addNeighbour(nodeCopies.get(neighbour.getComponentID()));
-            }
-            for (Map.Entry<BoardNode, Integer> e: bn.getNeighbourSideMapping().entrySet()) {
-                bnCopy.addNeighbour(nodeCopies.get(e.getKey().componentID), e.getValue());
+        for (int i = 0; i < nodeCopies.length; i++) {
+            for (int e = topology.start(i); e < topology.end(i); e++) {
+                BoardNode neighbour = nodeCopies[topology.target(e)];
+                if (topology.side(e) == -1) nodeCopies[i].addNeighbour(neighbour);
+                else nodeCopies[i].addNeighbour(neighbour, topology.side(e));
             }
         }
         // Assign new neighbours
-        b.setBoardNodes(new ArrayList<>(nodeCopies.values()));
+        b.setBoardNodes(nodeMap);
+        b.topology = topology;
         // Copy properties
         copyComponentTo(b);
         return b;
     }
 
+    /**
+     * @return the connections between the nodes on this board (those to nodes that are not on it are left out).
+     * Node i of the topology is the node with the i-th lowest component ID.
+     */
+    public BoardTopology getTopology() {
+        if (topology == null) {
+            int[] ids = boardNodes.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            int[][] neighbours = new int[ids.length][];
+            int[][] sides = new int[ids.length][];
+            for (int i = 0; i < ids.length; i++) {
+                BoardNode bn = boardNodes.get(ids[i]);
+                neighbours[i] = bn.getNeighbours().stream()
+                        .mapToInt(n -> Arrays.binarySearch(ids, n.getComponentID()))
+                        .filter(n -> n >= 0).sorted().toArray();
+                sides[i] = new int[neighbours[i].length];
+                for (int n = 0; n < neighbours[i].length; n++) {
+                    Integer side = bn.getNeighbourSideMapping().get(boardNodes.get(ids[neighbours[i][n]]));
+                    sides[i][n] = side == null ? -1 : side;
+                }
+            }
+            topology = new BoardTopology(ids, neighbours, sides, null);
+        }
+        return topology;
+    }
+
     /**
      * Returns the node in the list which matches the given property
      * @param prop_id - ID of the property to look for.
@@ -127,23 +157,28 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @param boardNodes - new list of board nodes.
      */
     public void setBoardNodes(List<BoardNode> boardNodes) {
+        topology = null;
         for (BoardNode bn: boardNodes) {
             this.boardNodes.put(bn.componentID, bn);
         }
     }
     public void setBoardNodes(Map<Integer, BoardNode> boardNodes) {
+        topology = null;
         this.boardNodes = boardNodes;
     }
 
     public void addBoardNode(BoardNode bn) {
+        topology = null;
         this.boardNodes.put(bn.getComponentID(), bn);
     }
 
     public void removeBoardNode(BoardNode bn) {
+        topology = null;
         this.boardNodes.remove(bn.getComponentID());
     }
 
     public void breakConnection(BoardNode bn1, BoardNode bn2) {
+        topology = null;
         bn1.removeNeighbour(bn2);
         bn2.removeNeighbour(bn1);
 
@@ -168,6 +203,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     }
 
     public void addConnection(BoardNode bn1, BoardNode bn2) {
+        topology = null;
         bn1.addNeighbour(bn2);
         bn2.addNeighbour(bn1);
         if (!boardNodes.containsKey(bn1.componentID)) {
@@ -179,6 +215,7 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
     }
 
     public void addConnection(BoardNode bn1, BoardNode bn2, int edgeValue) {
+        topology = null;
         bn1.addNeighbour(bn2, edgeValue);
         bn2.addNeighbour(bn1, edgeValue);
         if (!boardNodes.containsKey(bn1.componentID)) {
@@ -232,15 +269,16 @@ public class GraphBoard extends Component implements IComponentContainer<BoardNo
      * @param board - board to load in JSON format
      */
     public void loadBoard(JSONObject board) {
+        topology = null;
         componentName = (String) board.get("id");
         String boardType = (String) board.get("type");
         String verticesKey = (String) board.get("verticesKey");
         String neighboursKey = (String) board.get("neighboursKey");
         int maxNeighbours = (int) (long) board.get("maxNeighbours");
 
-        properties.put(Hash.GetInstance().hash("boardType"), new PropertyString("boardType", boardType));
+        setProperty(Hash.GetInstance().hash("boardType"), new PropertyString("boardType", boardType));
         if (board.get("img") != null) {
-            properties.put(imgHash, new PropertyString("img", (String) board.get("img")));
+            setProperty(imgHash, new PropertyString("img", (String) board.get("img")));
         }
 
         JSONArray nodeList = (JSONArray) board.get("nodes");
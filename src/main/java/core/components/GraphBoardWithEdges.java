@@ -8,6 +8,9 @@ public class GraphBoardWithEdges extends Component implements IComponentContaine
 
     // List of nodes in the board graph, mapping component ID to object reference
     protected Map<Integer, BoardNodeWithEdges> boardNodes;
+    // The connections between the nodes, built when first needed and shared with copies. Changes made through the
+    // board clear it; changes made to the nodes directly are not seen once it has been built.
+    protected BoardTopology topology;
 
     public GraphBoardWithEdges(String name)
     {
@@ -41,35 +44,66 @@ public class GraphBoardWithEdges extends Component implements IComponentContaine
     public GraphBoardWithEdges copy()
     {
         GraphBoardWithEdges b = new GraphBoardWithEdges(componentName, componentID);
-        HashMap<Integer, BoardNodeWithEdges> nodeCopies = new HashMap<>();
-        HashMap<Integer, Edge> edgeCopies = new HashMap<>();
+        BoardTopology topology = getTopology();
+        BoardNodeWithEdges[] nodeCopies = new BoardNodeWithEdges[topology.nNodes()];
+        Map<Integer, BoardNodeWithEdges> nodeMap = new HashMap<>(boardNodes.size() * 2);
         // Copy board nodes
-        for (BoardNodeWithEdges bn: boardNodes.values()) {
+        for (int i = 0; i < nodeCopies.length; i++) {
+            BoardNodeWithEdges bn = boardNodes.get(topology.getNodeID(i));
             BoardNodeWithEdges bnCopy = bn.copy();
             if (bnCopy == null) bnCopy = new BoardNodeWithEdges(bn.ownerId, bn.getComponentID());
             bn.copyComponentTo(bnCopy);
-            nodeCopies.put(bn.getComponentID(), bnCopy);
-            // Copy edges
-            for (Edge e: bn.neighbourEdgeMapping.keySet()) {
-                edgeCopies.put(e.componentID, e.copy());
-            }
+            nodeCopies[i] = bnCopy;
+            nodeMap.put(bn.getComponentID(), bnCopy);
         }
-        // Assign neighbours and edges
-        for (BoardNodeWithEdges bn: boardNodes.values()) {
-            BoardNodeWithEdges bnCopy = nodeCopies.get(bn.getComponentID());
+        // Assign neighbours and edges, copying each edge once, from the end with the lower index
+        for (int i = 0; i < nodeCopies.length; i++) {
+            BoardNodeWithEdges bn = boardNodes.get(topology.getNodeID(i));
             for (Map.Entry<Edge, BoardNodeWithEdges> e: bn.neighbourEdgeMapping.entrySet()) {
-                bnCopy.addNeighbour(nodeCopies.get(e.getValue().getComponentID()), edgeCopies.get(e.getKey().componentID));
+                int neighbour = topology.indexOf(e.getValue().getComponentID());
+                if (neighbour > i) {
+                    nodeCopies[i].addNeighbour(nodeCopies[neighbour], e.getKey().copy());
+                }
             }
         }
 
         // Assign new neighbours
-        b.setBoardNodes(nodeCopies);
+        b.setBoardNodes(nodeMap);
+        b.topology = topology;
 
         // Copy properties
         copyComponentTo(b);
         return b;
     }
 
+    /**
+     * @return the connections between the nodes on this board (those to nodes that are not on it are left out),
+     * with the component ID of the Edge that makes each one. Node i of the topology is the node with the i-th lowest
+     * component ID.
+     */
+    public BoardTopology getTopology() {
+        if (topology == null) {
+            int[] ids = boardNodes.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            int[][] neighbours = new int[ids.length][];
+            int[][] edgeIDs = new int[ids.length][];
+            for (int i = 0; i < ids.length; i++) {
+                List<Map.Entry<Edge, BoardNodeWithEdges>> connections = new ArrayList<>();
+                for (Map.Entry<Edge, BoardNodeWithEdges> e : boardNodes.get(ids[i]).neighbourEdgeMapping.entrySet()) {
+                    if (Arrays.binarySearch(ids, e.getValue().getComponentID()) >= 0) connections.add(e);
+                }
+                connections.sort(Comparator.comparingInt(e -> e.getKey().getComponentID()));
+                neighbours[i] = new int[connections.size()];
+                edgeIDs[i] = new int[connections.size()];
+                for (int n = 0; n < connections.size(); n++) {
+                    neighbours[i][n] = Arrays.binarySearch(ids, connections.get(n).getValue().getComponentID());
+                    edgeIDs[i][n] = connections.get(n).getKey().getComponentID();
+                }
+            }
+            topology = new BoardTopology(ids, neighbours, null, edgeIDs);
+        }
+        return topology;
+    }
+
     /**
      * @return the list of board nodes
      */
@@ -91,23 +125,28 @@ public class GraphBoardWithEdges extends Component implements IComponentContaine
      * @param boardNodes - new list of board nodes.
      */
     public void setBoardNodes(List<BoardNodeWithEdges> boardNodes) {
+        topology = null;
         for (BoardNodeWithEdges bn: boardNodes) {
             this.boardNodes.put(bn.getComponentID(), bn);
         }
     }
     public void setBoardNodes(Map<Integer, BoardNodeWithEdges> boardNodes) {
+        topology = null;
         this.boardNodes = boardNodes;
     }
 
     public void addBoardNode(BoardNodeWithEdges bn) {
+        topology = null;
         this.boardNodes.put(bn.getComponentID(), bn);
     }
 
     public void removeBoardNode(BoardNodeWithEdges bn) {
+        topology = null;
         this.boardNodes.remove(bn.getComponentID());
     }
 
     public void breakConnection(BoardNodeWithEdges bn1, BoardNodeWithEdges bn2, Edge edge) {
+        topology = null;
         bn1.removeNeighbour(bn2, edge);
         bn2.removeNeighbour(bn1, edge);
 
@@ -146,6 +185,7 @@ public class GraphBoardWithEdges extends Component implements IComponentContaine
     }
 
     public void addConnection(BoardNodeWithEdges bn1, BoardNodeWithEdges bn2, Edge edge) {
+        topology = null;
         bn1.addNeighbour(bn2, edge);
         bn2.addNeighbour(bn1, edge);
     }
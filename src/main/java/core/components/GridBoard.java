@@ -25,6 +25,9 @@ public class GridBoard<T extends Component> extends Component implements ICompon
     private int height;  // Height of the board
 
     private Component[][] grid;  // 2D grid representation of this board
+    // rowShared[y] is true if row y of the grid may also be used by other boards, in which case the row is cloned
+    // before it is changed. Null if no rows are shared. Only ever set on a new copy, so copying never changes a board.
+    private boolean[] rowShared;
 
     protected GridBoard() {
         super(CoreConstants.ComponentType.BOARD);
@@ -122,6 +125,7 @@ public class GridBoard<T extends Component> extends Component implements ICompon
             if (w >= 0) System.arraycopy(this.grid[i], 0, grid[i + offsetY], offsetX, w);
         }
         this.grid = grid;
+        this.rowShared = null;
     }
 
     /**
@@ -134,6 +138,10 @@ public class GridBoard<T extends Component> extends Component implements ICompon
      */
     public boolean setElement(int x, int y, T value) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
+            if (rowShared != null && rowShared[y]) {
+                grid[y] = grid[y].clone();
+                rowShared[y] = false;
+            }
             grid[y][x] = value;
             return true;
         } else
@@ -167,6 +175,14 @@ public class GridBoard<T extends Component> extends Component implements ICompon
      * @return - 2D grid.
      */
     public Component[][] getGridValues() {
+        // the caller may change the grid directly, so we need all rows to be our own
+        if (rowShared != null) {
+            for (int y = 0; y < height; y++) {
+                if (rowShared[y])
+                    grid[y] = grid[y].clone();
+            }
+            rowShared = null;
+        }
         return grid;
     }
 
@@ -231,11 +247,16 @@ public class GridBoard<T extends Component> extends Component implements ICompon
 
     @Override
     public GridBoard<T> copy() {
-        Component[][] gridCopy = new Component[getHeight()][getWidth()];
-        for (int i = 0; i < height; i++) {
-            if (width >= 0) System.arraycopy(grid[i], 0, gridCopy[i], 0, width);
+        // The copy holds the same elements as this board, so it shares any rows that are already shared, and
+        // takes its own copy of the rows we change in place. All of its rows can then be shared by further copies.
+        Component[][] rows = grid.clone();
+        for (int y = 0; y < height; y++) {
+            if (rowShared == null || !rowShared[y])
+                rows[y] = rows[y].clone();
         }
-        GridBoard<T> g = new GridBoard<>(gridCopy, componentID);
+        GridBoard<T> g = new GridBoard<>(rows, componentID);
+        g.rowShared = new boolean[height];
+        Arrays.fill(g.rowShared, true);
         copyComponentTo(g);
         return g;
     }
@@ -298,10 +319,11 @@ public class GridBoard<T extends Component> extends Component implements ICompon
         this.height = (int) (long) size.get(1);
 
         if (board.get("img") != null) {
-            properties.put(imgHash, new PropertyString((String) board.get("img")));
+            setProperty(imgHash, new PropertyString((String) board.get("img")));
         }
 
         this.grid = new Component[height][width];
+        this.rowShared = null;
 
         JSONArray grids = (JSONArray) board.get("grid");
         int y = 0;
@@ -5,7 +5,6 @@ import core.CoreConstants.VisibilityMode;
 import utilities.Pair;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -17,13 +16,21 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
 
     // Visibility of each component in the deck, order corresponds to order of elements in the deck;
     protected List<boolean[]> elementVisibility = new ArrayList<>();
+    // True if elementVisibility may also be used by other decks, in which case unshareVisibility() must be called
+    // before changing it. Only ever set on a new copy, so that copying never changes the deck copied.
+    // The arrays in it are never changed once they are in the list (they are replaced instead), so they can always
+    // be shared
+    private boolean visibilityShared;
 
     public boolean getVisibilityForPlayer(int elementIdx, int playerID) {
         return elementVisibility.get(elementIdx)[playerID];
     }
 
+    /**
+     * @return a copy of the visibility of the component to each player; use setVisibilityOfComponent() to change it
+     */
     public boolean[] getVisibilityOfComponent(int elementIdx) {
-        return elementVisibility.get(elementIdx);
+        return elementVisibility.get(elementIdx).clone();
     }
 
     public PartialObservableDeck(String id, boolean[] defaultVisibility) {
@@ -99,6 +106,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public void setComponents(ArrayList<T> components, ArrayList<boolean[]> visibilityPerPlayer) {
         super.setComponents(components);
         this.elementVisibility = visibilityPerPlayer;
+        this.visibilityShared = false;
     }
 
     /**
@@ -112,6 +120,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
                 throw new IllegalArgumentException("All entries of visibility need to have length " + deckVisibility.length +
                         " but at least one entry is of length " + b.length);
         this.elementVisibility = visibility;
+        this.visibilityShared = false;
     }
 
     /**
@@ -123,9 +132,12 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      */
     public void setVisibilityOfComponent(int index, int playerID, boolean visibility) {
         if (index >= 0 && index < elementVisibility.size()) {
-            if (playerID >= 0 && playerID < deckVisibility.length)
-                this.elementVisibility.get(index)[playerID] = visibility;
-            else
+            if (playerID >= 0 && playerID < deckVisibility.length) {
+                unshareVisibility();
+                boolean[] newVisibility = elementVisibility.get(index).clone();
+                newVisibility[playerID] = visibility;
+                this.elementVisibility.set(index, newVisibility);
+            } else
                 throw new IllegalArgumentException("playerID " + playerID + "needs to be in range [0," + (deckVisibility.length-1) + "]");
         } else {
             throw new IllegalArgumentException("component index " + index + " needs to be in range [0," + (components.size()-1) + "]");
@@ -140,6 +152,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      */
     public void setVisibilityOfComponent(int index, boolean[] visibility) {
         if (index >= 0 && index < elementVisibility.size()) {
+            unshareVisibility();
             this.elementVisibility.set(index, visibility.clone());
         } else {
             throw new IllegalArgumentException("component index " + index + " needs to be in range [0," + components.size() + "]");
@@ -168,6 +181,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(T c, int index, boolean[] visibilityPerPlayer) {
+        unshareVisibility();
         this.elementVisibility.add(index, visibilityPerPlayer.clone());
         return super.add(c, index);
     }
@@ -180,6 +194,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return true if not over capacity, false otherwise.
      */
     public boolean add(Deck<T> d, int index) {
+        unshareVisibility();
         for (int i = 0; i < d.components.size(); i++) {
             this.elementVisibility.add(index, deckVisibility.clone());
         }
@@ -195,6 +210,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public boolean add(PartialObservableDeck<T> d) {
         if (d == null)
             throw new IllegalArgumentException("d cannot be null");
+        unshareVisibility();
         elementVisibility.addAll(d.elementVisibility);
         for (int i = 0; i < deckVisibility.length; i++) {
             deckVisibility[i] &= d.deckVisibility[i];
@@ -206,6 +222,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public boolean add(Deck<T> d) {
         if (d == null)
             throw new IllegalArgumentException("d cannot be null");
+        unshareVisibility();
         for (int i = 0; i < d.getSize(); i++) {
             elementVisibility.add(deckVisibility.clone());
         }
@@ -216,7 +233,8 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public void setComponents(ArrayList<T> components) {
         super.setComponents(components);
 
-        elementVisibility.clear();
+        elementVisibility = new ArrayList<>();
+        visibilityShared = false;
         for (int i = 0; i < components.size(); i++) {
             elementVisibility.add(deckVisibility.clone());
         }
@@ -226,6 +244,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     public T pick(int idx) {
         T el = super.pick(idx);
         if (el != null) {
+            unshareVisibility();
             elementVisibility.remove(idx);
             return el;
         }
@@ -252,6 +271,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     @Override
     public boolean remove(int idx) {
         if (super.remove(idx)) {
+            unshareVisibility();
             elementVisibility.remove(idx);
             return true;
         }
@@ -261,14 +281,17 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
     @Override
     public void clear() {
         super.clear();
-        elementVisibility.clear();
+        elementVisibility = new ArrayList<>();
+        visibilityShared = false;
     }
 
     @Override
     public void shuffle(Random rnd) {
+        // both lists are replaced with new ones (but the visibility arrays themselves are kept)
         Pair<List<T>, List<boolean[]>> shuffled = shuffleLists(components, elementVisibility, rnd);
         components = shuffled.a;
         elementVisibility = shuffled.b;
+        visibilityShared = false;
     }
 
     /**
@@ -291,23 +314,34 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @return - both lists shuffled, keeping the mapping from component to visibility at the same index.
      */
     private Pair<List<T>, List<boolean[]>> shuffleLists(List<T> comps, List<boolean[]> vis, Random rnd) {
-        List<T> tmp_components = new ArrayList<>();
-        List<boolean[]> tmp_visibility = new ArrayList<>();
-
-        List<Integer> indexList = new ArrayList<>();
-        for (int i = 0; i < comps.size(); i++)
-            indexList.add(i);
-        Collections.shuffle(indexList, rnd);
-
-        for (int targetIndex = 0; targetIndex < indexList.size(); targetIndex++) {
-            int sourceIndex = indexList.get(targetIndex);
-            tmp_components.add(targetIndex, comps.get(sourceIndex));
-            tmp_visibility.add(targetIndex, vis.get(sourceIndex));
+        int[] order = shuffledOrder(comps.size(), rnd);
+        List<T> tmp_components = new ArrayList<>(order.length);
+        List<boolean[]> tmp_visibility = new ArrayList<>(order.length);
+        for (int sourceIndex : order) {
+            tmp_components.add(comps.get(sourceIndex));
+            tmp_visibility.add(vis.get(sourceIndex));
         }
 
         return new Pair(tmp_components, tmp_visibility);
     }
 
+    /**
+     * @return a random permutation of 0 .. n-1. This is exactly the permutation that Collections.shuffle() would
+     * make of a list of n elements with the same Random (so the same random numbers are drawn), but without boxing.
+     */
+    static int[] shuffledOrder(int n, Random rnd) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        for (int i = n; i > 1; i--) {
+            int j = rnd.nextInt(i);
+            int tmp = order[i - 1];
+            order[i - 1] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
     /**
      * Shuffles components based on visibility, leaving those with opposite visibility in the same place.
      *
@@ -316,32 +350,33 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
      * @param visible  - if true, shuffles only visible cards; otherwise, shuffles only hidden cards.
      */
     public void shuffleVisible(Random rnd, int playerId, boolean visible) {
-        ArrayList<T> visibleComponents = new ArrayList<>();
-        ArrayList<boolean[]> visibility = new ArrayList<>();
-        for (int i = 0; i < components.size(); i++) {
-            boolean[] b = elementVisibility.get(i);
-            if (b[playerId] == visible) {
-                visibleComponents.add(components.get(i));
-                visibility.add(b);
-            }
-        }
-        Pair<List<T>, List<boolean[]>> shuffled = shuffleLists(visibleComponents, visibility, rnd);
-
+        unshareComponents();
+        unshareVisibility();
+        // the positions of the cards to shuffle, and what is there now
+        int[] positions = new int[components.size()];
         int n = 0;
         for (int i = 0; i < components.size(); i++) {
-            boolean[] b = elementVisibility.get(i);
-            if (b[playerId] == visible) {
-                // Draw element from shuffled lists
-                components.set(i, shuffled.a.get(n));
-                /*
-                if other players can see a card, we know which card position they can see, but
-                not the actual card (otherwise, it would by definition be visible to us). Therefore
-                we do *not* shuffle element visibility, and keep this in the same order
-                */
-                if (visible)
-                    elementVisibility.set(i, shuffled.b.get(n));
-                n++;
-            }
+            if (elementVisibility.get(i)[playerId] == visible)
+                positions[n++] = i;
+        }
+        List<T> oldComponents = new ArrayList<>(n);
+        List<boolean[]> oldVisibility = new ArrayList<>(n);
+        for (int k = 0; k < n; k++) {
+            oldComponents.add(components.get(positions[k]));
+            oldVisibility.add(elementVisibility.get(positions[k]));
+        }
+        int[] order = shuffledOrder(n, rnd);
+
+        for (int k = 0; k < n; k++) {
+            // Draw element from shuffled lists
+            components.set(positions[k], oldComponents.get(order[k]));
+            /*
+            if other players can see a card, we know which card position they can see, but
+            not the actual card (otherwise, it would by definition be visible to us). Therefore
+            we do *not* shuffle element visibility, and keep this in the same order
+            */
+            if (visible)
+                elementVisibility.set(positions[k], oldVisibility.get(order[k]));
         }
     }
 
@@ -355,13 +390,7 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
         this.copyTo(dp); // Copy super
 
         dp.deckVisibility = deckVisibility.clone();
-
-        ArrayList<boolean[]> newVisibility = new ArrayList<>();
-        for (boolean[] visibility : elementVisibility) {
-            newVisibility.add(visibility.clone());
-        }
-        dp.elementVisibility = newVisibility;
-
+        shareVisibilityWith(dp);
         return dp;
     }
 
@@ -370,14 +399,28 @@ public class PartialObservableDeck<T extends Component> extends Deck<T> {
         this.copyTo(dp, playerId); // Copy super
 
         dp.deckVisibility = deckVisibility.clone();
+        shareVisibilityWith(dp);
+        return dp;
+    }
 
-        ArrayList<boolean[]> newVisibility = new ArrayList<>();
-        for (boolean[] visibility : elementVisibility) {
-            newVisibility.add(visibility.clone());
-        }
-        dp.elementVisibility = newVisibility;
+    /**
+     * The new deck shares its element visibility until it changes it. A list we change in place ourselves cannot be
+     * shared, so then the new deck has a copy of it instead; either way this deck is left untouched.
+     */
+    private void shareVisibilityWith(PartialObservableDeck<T> dp) {
+        dp.elementVisibility = visibilityShared ? elementVisibility : new ArrayList<>(elementVisibility);
+        dp.visibilityShared = true;
+    }
 
-        return dp;
+    /**
+     * If elementVisibility is shared with another deck, replaces it with a private copy (of the list only, as the
+     * arrays in it are never changed in place).
+     */
+    protected void unshareVisibility() {
+        if (visibilityShared) {
+            elementVisibility = new ArrayList<>(elementVisibility);
+            visibilityShared = false;
+        }
     }
 
     public String toString(AbstractGameState gs, int playerID) {
@@ -0,0 +1,97 @@
+package core.components;
+
+import java.util.Arrays;
+
+/**
+ * Gives each property key (the hash of the property's name, see utilities.Hash) a small id of its own, numbered
+ * from zero in the order the keys are first stored. PropertyStore keys its tables on these ids, which are spread
+ * evenly by a simple mask and take half the space of the keys.
+ * <p>
+ * There are only ever a few hundred different keys, so the table is replaced with a new copy whenever a key is
+ * added. Look-ups read whichever table is current without locking, so they are safe on any thread.
+ */
+final class PropertyKeys {
+
+    static final int MAX_IDS = Character.MAX_VALUE;
+
+    private static final class Table {
+        final int[] keys;  // open-addressed, with ids + 1 in the same slot of slotIds (0 for an empty slot)
+        final char[] slotIds;
+        final int[] keyById;
+        final int size;
+
+        Table(int capacity, int[] keyById, int size) {
+            this.keys = new int[capacity];
+            this.slotIds = new char[capacity];
+            this.keyById = keyById;
+            this.size = size;
+        }
+    }
+
+    private static volatile Table table = new Table(256, new int[128], 0);
+
+    private PropertyKeys() {
+    }
+
+    /**
+     * @return the id of the key, or -1 if no property has been stored with it
+     */
+    static int idOf(int key) {
+        Table t = table;
+        int mask = t.keys.length - 1;
+        for (int slot = slotFor(key, mask); t.slotIds[slot] != 0; slot = (slot + 1) & mask) {
+            if (t.keys[slot] == key)
+                return t.slotIds[slot] - 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the id of the key, giving it the next id if it does not have one yet
+     */
+    static int intern(int key) {
+        int id = idOf(key);
+        return id >= 0 ? id : add(key);
+    }
+
+    private static synchronized int add(int key) {
+        int id = idOf(key);  // another thread may have just added it
+        if (id >= 0)
+            return id;
+        Table old = table;
+        id = old.size;
+        if (id >= MAX_IDS)
+            throw new IllegalStateException("Too many different property keys");
+        // we keep the table at most half full, so that probe sequences stay short
+        int capacity = 2 * (id + 1) > old.keys.length ? old.keys.length * 2 : old.keys.length;
+        int[] keyById = id < old.keyById.length ? old.keyById.clone() : Arrays.copyOf(old.keyById, old.keyById.length * 2);
+        keyById[id] = key;
+        Table t = new Table(capacity, keyById, id + 1);
+        for (int i = 0; i <= id; i++)
+            insert(t, keyById[i], i);
+        table = t;
+        return id;
+    }
+
+    private static void insert(Table t, int key, int id) {
+        int mask = t.keys.length - 1;
+        int slot = slotFor(key, mask);
+        while (t.slotIds[slot] != 0)
+            slot = (slot + 1) & mask;
+        t.keys[slot] = key;
+        t.slotIds[slot] = (char) (id + 1);
+    }
+
+    /**
+     * @return the key with the given id
+     */
+    static int keyOf(int id) {
+        return table.keyById[id];
+    }
+
+    private static int slotFor(int key, int mask) {
+        // the keys are String hash codes, so we spread the bits before masking
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,123 @@
+package core.components;
+
+import core.properties.Property;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The properties of a Component, keyed by the hash of their names.
+ * <p>
+ * This is an open-addressed table in two parallel arrays (the ids of the keys, see PropertyKeys, and the properties
+ * themselves), which takes a small fraction of the memory of a HashMap with its boxed keys and entry objects.
+ * <p>
+ * A store is never changed once made: with() returns a new store instead. So a component whose properties are all
+ * immutable can share its store with all of its copies without either of them having to know (see
+ * Component.copyComponentTo()), and a component with no properties uses the shared EMPTY store.
+ * Properties are set far less often than components are copied, mostly when they are loaded.
+ */
+final class PropertyStore {
+
+    static final PropertyStore EMPTY = new PropertyStore(new char[0], new Property[0], 0, 0);
+
+    private final char[] ids;
+    private final Property[] values;  // null for an empty slot
+    private final int size;
+    private final int nMutable;  // the number of properties that are not immutable (see Property.isImmutable())
+
+    private PropertyStore(char[] ids, Property[] values, int size, int nMutable) {
+        this.ids = ids;
+        this.values = values;
+        this.size = size;
+        this.nMutable = nMutable;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return true if none of the properties can be changed once stored, so that this can be shared by copies
+     */
+    boolean isImmutable() {
+        return nMutable == 0;
+    }
+
+    Property get(int key) {
+        if (size == 0) return null;
+        int id = PropertyKeys.idOf(key);
+        return id < 0 ? null : values[find(id)];
+    }
+
+    // the slot that holds the id, or the empty slot where it would go
+    private int find(int id) {
+        int mask = values.length - 1;
+        int slot = id & mask;
+        while (values[slot] != null && ids[slot] != id)
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    /**
+     * @return a store with the same properties as this one, apart from the given property, which is added or
+     * replaces the one with the same key
+     */
+    PropertyStore with(int key, Property property) {
+        int id = PropertyKeys.intern(key);
+        int slot = size == 0 ? -1 : find(id);
+        boolean replacing = slot >= 0 && values[slot] != null;
+        int newMutable = nMutable + (property.isImmutable() ? 0 : 1)
+                - (replacing && !values[slot].isImmutable() ? 1 : 0);
+        PropertyStore retValue;
+        // we keep the table at most half full, so that probe sequences stay short
+        if (!replacing && 2 * (size + 1) > values.length) {
+            retValue = resized(Math.max(4, values.length * 2), size + 1, newMutable);
+            slot = retValue.find(id);
+        } else {
+            retValue = new PropertyStore(ids.clone(), values.clone(), replacing ? size : size + 1, newMutable);
+        }
+        retValue.ids[slot] = (char) id;
+        retValue.values[slot] = property;
+        return retValue;
+    }
+
+    /**
+     * @return a copy that can be used independently of this one. Immutable properties are shared, and all the
+     * others are copied; if all are immutable then this store itself is returned.
+     */
+    PropertyStore copy() {
+        if (nMutable == 0) return this;
+        Property[] newValues = values.clone();
+        for (int i = 0; i < newValues.length; i++) {
+            if (newValues[i] != null && !newValues[i].isImmutable())
+                newValues[i] = newValues[i].copy();
+        }
+        return new PropertyStore(ids, newValues, size, nMutable);
+    }
+
+    Map<Integer, Property> toMap() {
+        Map<Integer, Property> retValue = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) retValue.put(PropertyKeys.keyOf(ids[i]), values[i]);
+        }
+        return Collections.unmodifiableMap(retValue);
+    }
+
+    private PropertyStore resized(int capacity, int newSize, int newMutable) {
+        PropertyStore retValue = new PropertyStore(new char[capacity], new Property[capacity], newSize, newMutable);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                int slot = retValue.find(ids[i]);
+                retValue.ids[slot] = ids[i];
+                retValue.values[slot] = values[i];
+            }
+        }
+        return retValue;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -8,4 +8,38 @@ public interface IStateFeatureVector {
 
     String[] names();
 
+    /**
+     * Writes the feature vector for the player into out, starting at out[offset], instead of returning a new array.
+     * The default copies the result of featureVector().
+     */
+    default void featureVector(AbstractGameState state, int playerID, double[] out, int offset) {
+        double[] phi = featureVector(state, playerID);
+        System.arraycopy(phi, 0, out, offset, phi.length);
+    }
+
+    /**
+     * Writes the feature vectors of all players into out as one flat block, with that of player p starting
+     * at out[offset + p * names().length].
+     * Implementations where some features are the same for every player (or need a pass over all of them)
+     * can override this to compute them only once per state.
+     */
+    default void featureVectors(AbstractGameState state, double[] out, int offset) {
+        int nFeatures = names().length;
+        for (int p = 0; p < state.getNPlayers(); p++)
+            featureVector(state, p, out, offset + p * nFeatures);
+    }
+
+    /**
+     * Writes the feature vectors of all players in each of the states into out, one state after another, so that
+     * the block for states[s] (as laid out by featureVectors(state, out, offset)) starts at
+     * out[s * nPlayers * names().length]. All the states must have the same number of players.
+     */
+    default void featureVectors(AbstractGameState[] states, double[] out) {
+        if (states.length == 0)
+            return;
+        int blockSize = states[0].getNPlayers() * names().length;
+        for (int s = 0; s < states.length; s++)
+            featureVectors(states[s], out, s * blockSize);
+    }
+
 }
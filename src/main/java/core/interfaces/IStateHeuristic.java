@@ -1,4 +1,3 @@
-
 package core.interfaces;
 
 import core.AbstractGameState;
@@ -13,4 +12,18 @@ public interface IStateHeuristic {
      * @return - value of given state.
      */
     double evaluateState(AbstractGameState gs, int playerId);
-}
\ No newline at end of file
+
+    /**
+     * Scores the state for every player at once, writing the value for player p into values[p] (values must have
+     * room for gs.getNPlayers() entries). This gives the same results as calling evaluateState() for each player,
+     * which is what the default does; heuristics that share work between players (such as computing the
+     * features of the state) should override it, as the search algorithms call this whenever they need all players'
+     * values.
+     * @param gs - game state to evaluate and score.
+     * @param values - array to write the value of the state for each player into.
+     */
+    default void evaluateAllPlayers(AbstractGameState gs, double[] values) {
+        for (int p = 0; p < gs.getNPlayers(); p++)
+            values[p] = evaluateState(gs, p);
+    }
+}
@@ -0,0 +1,15 @@
+package core.interfaces;
+
+/**
+ * Implemented by game states that can provide a cheap key for their position, kept up to date incrementally by the
+ * forward model (a Zobrist hash - see utilities.Zobrist). This is used in place of hashCode() and equals() by
+ * transposition tables (see MCTSParams.transpositionTableSize), for which these are often too slow.
+ * <p>
+ * States that are equal must have the same key. States with the same key are taken to be the same position, so
+ * the key should include everything that affects play from here on (including the player to move), and be
+ * wide enough that different positions practically never collide.
+ */
+public interface IStateKey {
+
+    long getStateKey();
+}
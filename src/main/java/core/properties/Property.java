@@ -40,13 +40,21 @@ public abstract class Property
     @Override
     public int hashCode() { return hashKey; }
 
+    /**
+     * Immutable properties can be shared between copies of a component, instead of being copied.
+     * @return - true if the value of this property can never change.
+     */
+    public boolean isImmutable() {
+        return false;
+    }
+
     /* Final methods */
 
     /**
      * Creates a copy of this property.
-     * @return - a new Property object with the same hashString and hashKey.
+     * @return - a new Property object with the same hashString and hashKey, or this property if it is immutable.
      */
     public final Property copy() {
-        return _copy();
+        return isImmutable() ? this : _copy();
     }
 }
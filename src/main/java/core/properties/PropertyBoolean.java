@@ -3,7 +3,7 @@ package core.properties;
 
 public class PropertyBoolean extends Property
 {
-    public Boolean value;
+    public final Boolean value;
 
     public PropertyBoolean(boolean value)
     {
@@ -23,6 +23,11 @@ public class PropertyBoolean extends Property
         this.value = value;
     }
 
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return ""+value;
@@ -3,7 +3,7 @@ package core.properties;
 
 public class PropertyInt extends Property
 {
-    public int value;
+    public final int value;
 
     public PropertyInt(String hashString, int value)
     {
@@ -18,6 +18,11 @@ public class PropertyInt extends Property
     }
 
 
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return ""+value;
@@ -2,7 +2,7 @@ package core.properties;
 
 public class PropertyLong extends Property
 {
-    public long value;
+    public final long value;
 
     public PropertyLong(String hashString, long value)
     {
@@ -17,6 +17,11 @@ public class PropertyLong extends Property
     }
 
 
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return ""+value;
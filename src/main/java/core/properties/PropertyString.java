@@ -3,7 +3,7 @@ package core.properties;
 
 public class PropertyString extends Property
 {
-    public String value;
+    public final String value;
 
     public PropertyString (String value)
     {
@@ -24,6 +24,11 @@ public class PropertyString extends Property
     }
 
 
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
     @Override
     public String toString() {
         return value;
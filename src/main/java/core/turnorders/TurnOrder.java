@@ -149,14 +149,14 @@ public abstract class TurnOrder {
     // helper function to avoid time-consuming string manipulations if the message is not actually
     // going to be logged anywhere
     public void logEvent(Supplier<String> eventText, AbstractGameState state) {
-        if (listeners.isEmpty() && !state.getCoreGameParameters().recordEventHistory)
+        if (listeners.isEmpty() && !state.isRecordingEventHistory())
             return; // to avoid expensive string manipulations
         logEvent(eventText.get(), state);
     }
     public void logEvent(String eventText, AbstractGameState state) {
         LogEvent logAction = new LogEvent(eventText);
         listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.GAME_EVENT, state, logAction)));
-        if (state.getCoreGameParameters().recordEventHistory) {
+        if (state.isRecordingEventHistory()) {
             state.recordHistory(eventText);
         }
     }
@@ -175,7 +175,7 @@ public abstract class TurnOrder {
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementRound();
 
         listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ROUND_OVER, gameState, getCurrentPlayer(gameState))));
-        if (gameState.getCoreGameParameters().recordEventHistory) {
+        if (gameState.isRecordingEventHistory()) {
             gameState.recordHistory(Event.GameEvent.ROUND_OVER.name());
         }
 
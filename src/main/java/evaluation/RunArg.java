@@ -22,6 +22,10 @@ public enum RunArg {
             "\t This may be useful if you want to use the same destDir for multiple experiments.",
             false,
             new Usage[]{Usage.RunGames}),
+    asyncListeners("(Optional) If true (default is false), then each listener processes the events of the games on a thread of its own,\n" +
+            "\t working from copies of the game state so that the games are not held up (see AsyncGameListener).",
+            false,
+            new Usage[]{Usage.RunGames}),
     byTeam("If true (the default) and the game supports teams, then one player type will be assigned to all players on a team.\n" +
             "\t If false, then each player will be assigned a player type independently.",
             true,
@@ -96,6 +100,12 @@ public enum RunArg {
     nPlayers("The number of players in each game. Overrides playerRange.",
             -1,
             new Usage[]{Usage.ParameterSearch, Usage.RunGames}),
+    nThreads("(Optional) The number of games to run in parallel. Defaults to 1, which runs every game in turn on the main thread.\n" +
+            "\t If greater than 1, each game is played on its own copy of the Game, forward model and players, and results\n" +
+            "\t are aggregated in the same order as a run with nThreads=1 would use, so that they are reproducible for a given seed.\n" +
+            "\t In NTBEA this many candidate settings are evaluated at the same time, and added to the model together.",
+            1,
+            new Usage[]{Usage.RunGames, Usage.ParameterSearch}),
     neighbourhood("The size of neighbourhood to look at in NTBEA. Default is min(50, |searchSpace|/100) ",
             50,
             new Usage[]{Usage.ParameterSearch}),
@@ -3,6 +3,7 @@ package evaluation;
 import core.AbstractParameters;
 import core.AbstractPlayer;
 import core.interfaces.IGameRunner;
+import evaluation.listeners.AsyncGameListener;
 import evaluation.listeners.IGameListener;
 import evaluation.tournaments.AbstractTournament;
 import evaluation.tournaments.RandomRRTournament;
@@ -132,10 +133,14 @@ public class RunGames implements IGameRunner {
                         new RandomRRTournament(agents, gameType, playerCount, params, tournamentMode, config);
 
                 // Add listeners
+                List<IGameListener> gameTrackers = new ArrayList<>();
                 //noinspection unchecked
                 for (String listenerClass : ((List<String>) config.get(listener))) {
                     IGameListener gameTracker = IGameListener.createListener(listenerClass, (String) config.get(metrics));
+                    if ((boolean) config.get(asyncListeners))
+                        gameTracker = new AsyncGameListener(gameTracker);
                     tournament.addListener(gameTracker);
+                    gameTrackers.add(gameTracker);
                     String outputDir = (String) config.get(destDir);
                     List<String> directories = new ArrayList<>(Arrays.asList(outputDir.split(Pattern.quote(File.separator))));
                     if (gamesAndPlayerCounts.size() > 1)
@@ -153,6 +158,8 @@ public class RunGames implements IGameRunner {
                 tournament.setResultsFile((String) config.get(output));
                 tournament.setRandomGameParams((boolean) config.get(randomGameParams));
                 tournament.run();
+                for (IGameListener gameTracker : gameTrackers)
+                    gameTracker.allGamesFinished();
             }
         }
     }
@@ -0,0 +1,279 @@
+package evaluation.listeners;
+
+import core.AbstractGameState;
+import core.Game;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import utilities.Pair;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Wraps an IGameListener so that it processes events on a thread of its own, rather than holding up the game.
+ * <p>
+ * When an event arrives, the game thread takes a snapshot of it: a full copy of the state and action, and a
+ * snapshot of the Game with its timings and counts as they are now (see Game.snapshot()). This is passed to a
+ * single-thread executor, which gives the events to the wrapped listener one at a time and in the order they arrived.
+ * Only so many events can wait to be processed; beyond that the game thread waits for the worker to catch up.
+ * <p>
+ * A MetricsGameListener does not need all that if the metrics that listen to the event are stateless (see
+ * MetricsGameListener.collect()). The game thread then runs them there and then, and only what they record is passed
+ * to the worker, which adds it to their data loggers. Nothing is copied.
+ * <p>
+ * As the events of each game are processed in order, each against a snapshot taken when it happened, the wrapped
+ * listener records exactly what it would if it were called directly. The one exception is the Game's
+ * instrumentation, which is only copied for the events that happen once per game (ABOUT_TO_START and GAME_OVER), and
+ * is otherwise shared with the running game. The players and forward model are shared too, but the snapshot takes
+ * their action cache counts with it.
+ * <p>
+ * The other calls (init, reset, setOutputDirectory, report and allGamesFinished) are also passed on by the worker, in
+ * order with the events. setOutputDirectory() and report() wait until the worker has done everything before them, so
+ * that report() covers all the events so far. allGamesFinished() waits for everything to be done and then shuts the
+ * worker down, after which the listener cannot be used.
+ * If the wrapped listener throws an exception, it stops receiving events, and the exception is rethrown on the next
+ * call to onEvent() or report().
+ * <p>
+ * To listen to several games that run at once (as in a tournament with nThreads > 1), give each Game its own
+ * forGame(). Each game thread then takes its snapshots itself, with no lock shared with the other games, and the
+ * worker still gives the events to the wrapped listener one at a time (with the events of each game in order).
+ */
+public class AsyncGameListener implements IGameListener {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final IGameListener wrapped;
+    private final ExecutorService worker;
+    private final Semaphore capacity;  // one permit for each event that can wait to be processed
+    private Game game;
+    private volatile Throwable failure;
+
+    public AsyncGameListener(IGameListener wrapped) {
+        this(wrapped, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param queueCapacity - the number of events that can wait to be processed before the game waits for the worker
+     */
+    public AsyncGameListener(IGameListener wrapped, int queueCapacity) {
+        this.wrapped = wrapped;
+        this.capacity = new Semaphore(queueCapacity);
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "AsyncGameListener-" + wrapped.getClass().getSimpleName());
+            // allGamesFinished() stops the worker, but if it is never called the JVM should still be able to exit
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private void enqueue(Runnable task) {
+        if (worker.isShutdown())
+            throw new IllegalStateException("All games have finished for " + wrapped);
+        try {
+            capacity.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for space on the event queue of " + wrapped, e);
+        }
+        worker.execute(() -> {
+            try {
+                if (failure == null)
+                    task.run();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                capacity.release();
+            }
+        });
+    }
+
+    private void checkFailure() {
+        if (failure != null)
+            throw new RuntimeException("Listener " + wrapped + " failed processing events : " + failure.getMessage(), failure);
+    }
+
+    /**
+     * Waits until the worker has processed everything queued so far.
+     */
+    public void flush() {
+        Future<?> done = worker.submit(() -> {
+        });
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the events of " + wrapped + " to be processed", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Runs something on the wrapped listener on the worker thread, after all the events queued so far.
+     */
+    public void execute(Consumer<IGameListener> task) {
+        enqueue(() -> task.accept(wrapped));
+    }
+
+    /**
+     * @return true if the wrapped listener could do anything with the event. MetricsGameListener ignores any events
+     * its metrics do not listen to, so there is no need to copy the state for those.
+     */
+    private boolean isOfInterest(Event event) {
+        if (wrapped instanceof MetricsGameListener)
+            return ((MetricsGameListener) wrapped).eventsOfInterest.contains(event.type);
+        return true;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        onEvent(event, game);
+    }
+
+    private void onEvent(Event event, Game game) {
+        checkFailure();
+        if (!isOfInterest(event))
+            return;
+        if (wrapped instanceof MetricsGameListener) {
+            MetricsGameListener metricsListener = (MetricsGameListener) wrapped;
+            List<Pair<AbstractMetric, Map<String, Object>>> data;
+            try {
+                data = metricsListener.collect(event, game);
+            } catch (RuntimeException e) {
+                // as if the worker had failed on the event
+                failure = e;
+                throw e;
+            }
+            if (data != null) {
+                enqueue(() -> metricsListener.record(data));
+                return;
+            }
+        }
+        AbstractGameState state = event.state == null ? null : event.state.copy();
+        Event snapshot = Event.createEvent(event.type, state, event.action == null ? null : event.action.copy(), event.playerID);
+        boolean oncePerGame = event.type instanceof Event.GameEvent && ((Event.GameEvent) event.type).isOncePerGame();
+        Game gameSnapshot = game == null ? null : game.snapshot(state, oncePerGame);
+        enqueue(() -> {
+            wrapped.setGame(gameSnapshot);
+            wrapped.onEvent(snapshot);
+        });
+    }
+
+    @Override
+    public void report() {
+        enqueue(wrapped::report);
+        flush();
+        checkFailure();
+    }
+
+    /**
+     * Waits for the worker to process everything queued so far, including the call to allGamesFinished() on the
+     * wrapped listener, and then shuts it down. Calling this again does nothing.
+     */
+    @Override
+    public void allGamesFinished() {
+        if (worker.isShutdown())
+            return;
+        enqueue(wrapped::allGamesFinished);
+        // the executor runs everything already queued before it terminates
+        worker.shutdown();
+        try {
+            worker.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the events of " + wrapped + " to be processed", e);
+        }
+        checkFailure();
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        boolean[] retValue = new boolean[1];
+        enqueue(() -> retValue[0] = wrapped.setOutputDirectory(nestedDirectories));
+        flush();
+        return retValue[0];
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public void reset() {
+        enqueue(wrapped::reset);
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        this.game = game;
+        Game snapshot = game == null || game.getGameState() == null ? game : game.snapshot(game.getGameState().copy(), true);
+        enqueue(() -> wrapped.init(snapshot, nPlayersPerGame, playerNames));
+    }
+
+    public IGameListener getWrappedListener() {
+        return wrapped;
+    }
+
+    /**
+     * @return a listener for one of several Games running at once, which passes the events of that Game to this one
+     */
+    public IGameListener forGame() {
+        return new GameListener();
+    }
+
+    /**
+     * Remembers the Game it is attached to, and takes the snapshots of its events on the thread of that Game.
+     */
+    private class GameListener implements IGameListener {
+        private Game game;
+
+        @Override
+        public void onEvent(Event event) {
+            AsyncGameListener.this.onEvent(event, game);
+        }
+
+        @Override
+        public void report() {
+            AsyncGameListener.this.report();
+        }
+
+        @Override
+        public void allGamesFinished() {
+            AsyncGameListener.this.allGamesFinished();
+        }
+
+        @Override
+        public boolean setOutputDirectory(String... nestedDirectories) {
+            return AsyncGameListener.this.setOutputDirectory(nestedDirectories);
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+
+        @Override
+        public void reset() {
+            AsyncGameListener.this.reset();
+        }
+
+        @Override
+        public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+            this.game = game;
+        }
+    }
+}
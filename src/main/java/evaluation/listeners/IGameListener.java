@@ -33,6 +33,13 @@ public interface IGameListener {
      */
     void report();
 
+    /**
+     * This is called once no more games will be played with this listener, after the last call to report().
+     * Listeners that hold on to resources (such as threads) should release them here.
+     */
+    default void allGamesFinished() {
+    }
+
     default boolean setOutputDirectory(String... nestedDirectories) {
         return true;
     }
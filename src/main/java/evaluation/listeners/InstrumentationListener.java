@@ -0,0 +1,179 @@
+package evaluation.listeners;
+
+import core.Game;
+import core.GameInstrumentation;
+import core.GameInstrumentation.Phase;
+import evaluation.metrics.Event;
+import evaluation.summarisers.TAGHistogram;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import utilities.Utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exports the GameInstrumentation of every game it listens to as a JSON file, written when report() is called.
+ * <p>
+ * For each game there is a summary (count, mean, percentiles and max, in milliseconds) of how long each phase of the
+ * game loop took and how many bytes it allocated, for each player and for the game as a whole. The histograms are also
+ * merged across all games for each agent (by name), so that it is easy to see which games and which agents use up the
+ * time budget of a tournament. Each game also records how often the available actions were found already cached on
+ * the state (if CoreParameters.cacheAvailableActions is on). Only the summaries are kept for each game, so memory use
+ * does not grow with the length of the games.
+ */
+@SuppressWarnings("unchecked")
+public class InstrumentationListener implements IGameListener {
+
+    private final String fileName;
+    private String destDir = "metrics/out/"; //by default
+    private Game game;
+    private final JSONArray games = new JSONArray();
+    private final Map<String, TAGHistogram[]> agentLatencies = new TreeMap<>();
+    private final Map<String, long[]> agentAllocations = new TreeMap<>();
+
+    public InstrumentationListener() {
+        this("Instrumentation.json");
+    }
+
+    public InstrumentationListener(String fileName) {
+        this.fileName = fileName;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        if (event.type == Event.GameEvent.GAME_OVER)
+            recordGame();
+    }
+
+    private void recordGame() {
+        GameInstrumentation instrumentation = game.getInstrumentation();
+        JSONObject gameRecord = new JSONObject();
+        gameRecord.put("Game", game.getGameType().name());
+        gameRecord.put("GameID", game.getGameState().getGameID());
+        gameRecord.put("Ticks", game.getTick());
+        gameRecord.put("Decisions", game.getNDecisions());
+
+        JSONObject total = new JSONObject();
+        for (Phase phase : Phase.values())
+            total.put(phase.name(), summary(instrumentation.getLatencies(phase), instrumentation.getAllocatedBytes(phase)));
+        total.put("ActionSpace", actionSpaceSummary(instrumentation.getActionSpaceSizes()));
+        gameRecord.put("Total", total);
+
+        JSONArray players = new JSONArray();
+        for (int p = 0; p < instrumentation.getNPlayers(); p++) {
+            String name = game.getPlayers().get(p).toString();
+            JSONObject playerRecord = new JSONObject();
+            playerRecord.put("Player", p);
+            playerRecord.put("Name", name);
+            TAGHistogram[] latencies = agentLatencies.computeIfAbsent(name, n -> newHistograms());
+            long[] allocations = agentAllocations.computeIfAbsent(name, n -> new long[Phase.values().length]);
+            for (Phase phase : Phase.values()) {
+                TAGHistogram h = instrumentation.getLatencies(phase, p);
+                long bytes = instrumentation.getAllocatedBytes(phase, p);
+                playerRecord.put(phase.name(), summary(h, bytes));
+                latencies[phase.ordinal()].add(h);
+                allocations[phase.ordinal()] += bytes;
+            }
+            playerRecord.put("ActionSpace", actionSpaceSummary(instrumentation.getActionSpaceSizes(p)));
+            players.add(playerRecord);
+        }
+        gameRecord.put("Players", players);
+        gameRecord.put("ActionCache", actionCacheSummary());
+        games.add(gameRecord);
+    }
+
+    private static TAGHistogram[] newHistograms() {
+        TAGHistogram[] retValue = new TAGHistogram[Phase.values().length];
+        for (int i = 0; i < retValue.length; i++)
+            retValue[i] = new TAGHistogram();
+        return retValue;
+    }
+
+    private static JSONObject summary(TAGHistogram nanos, long allocatedBytes) {
+        JSONObject retValue = new JSONObject();
+        retValue.put("n", nanos.n());
+        retValue.put("Total", nanos.sum() / 1e6);
+        retValue.put("Mean", nanos.mean() / 1e6);
+        retValue.put("P50", nanos.percentile(50) / 1e6);
+        retValue.put("P90", nanos.percentile(90) / 1e6);
+        retValue.put("P99", nanos.percentile(99) / 1e6);
+        retValue.put("Max", nanos.max() / 1e6);
+        retValue.put("AllocatedBytes", allocatedBytes);
+        return retValue;
+    }
+
+    // over the game's own forward model and those of the players (see Game.getActionCacheHits())
+    private JSONObject actionCacheSummary() {
+        long hits = game.getActionCacheHits();
+        long misses = game.getActionCacheMisses();
+        JSONObject retValue = new JSONObject();
+        retValue.put("Hits", hits);
+        retValue.put("Misses", misses);
+        retValue.put("HitRate", hits + misses == 0 ? 0.0 : hits / (double) (hits + misses));
+        return retValue;
+    }
+
+    private static JSONObject actionSpaceSummary(TAGHistogram sizes) {
+        JSONObject retValue = new JSONObject();
+        retValue.put("n", sizes.n());
+        retValue.put("Mean", sizes.mean());
+        retValue.put("P90", sizes.percentile(90));
+        retValue.put("Max", sizes.max());
+        return retValue;
+    }
+
+    @Override
+    public void report() {
+        JSONObject agents = new JSONObject();
+        for (String name : agentLatencies.keySet()) {
+            JSONObject agentRecord = new JSONObject();
+            for (Phase phase : Phase.values())
+                agentRecord.put(phase.name(), summary(agentLatencies.get(name)[phase.ordinal()],
+                        agentAllocations.get(name)[phase.ordinal()]));
+            agents.put(name, agentRecord);
+        }
+        JSONObject output = new JSONObject();
+        output.put("TimeUnit", "ms");
+        output.put("Agents", agents);
+        output.put("Games", games);
+
+        File folder = new File(destDir);
+        if (!folder.exists() && !folder.mkdirs())
+            throw new AssertionError("Unable to create output directory " + folder.getAbsolutePath());
+        File file = new File(folder, fileName);
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(output.toJSONString());
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Error writing : " + file);
+        }
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        String folder = Utils.createDirectory(nestedDirectories);
+        destDir = new File(folder).getAbsolutePath() + File.separator;
+        return true;
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public void reset() {
+        games.clear();
+        agentLatencies.clear();
+        agentAllocations.clear();
+    }
+}
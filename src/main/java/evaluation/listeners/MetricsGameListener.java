@@ -7,6 +7,7 @@ import evaluation.metrics.Event;
 import evaluation.metrics.IDataLogger;
 import evaluation.metrics.IMetricsCollection;
 import evaluation.metrics.tablessaw.DataTableSaw;
+import utilities.Pair;
 import utilities.Utils;
 
 import java.io.File;
@@ -61,13 +62,20 @@ public class MetricsGameListener implements IGameListener {
         this.reportTypes = Arrays.asList(dataTypes);
         this.metrics = new LinkedHashMap<>();
         for (AbstractMetric m : metrics) {
-            m.setDataLogger(new DataTableSaw(m)); //todo this logger needs to be read from JSON
+            m.setDataLogger(createDataLogger(m)); //todo this logger needs to be read from JSON
             this.metrics.put(m.getName(), m);
             eventsOfInterest.addAll(m.getEventTypes());
         }
         eventsOfInterest.add(Event.GameEvent.GAME_OVER);
     }
 
+    /**
+     * @return the data logger the given metric records its data in. This is called from the constructor.
+     */
+    protected IDataLogger createDataLogger(AbstractMetric metric) {
+        return new DataTableSaw(metric);
+    }
+
     /**
      * Manages all events.
      *
@@ -86,9 +94,60 @@ public class MetricsGameListener implements IGameListener {
                 // Apply metric
                 metric.run(this, event);
             }
+        }
+
+        if (event.type == GAME_OVER)
+            gameOver(event);
+    }
 
-            if (event.type == GAME_OVER)
-                metric.notifyGameOver();
+    /**
+     * Runs the metrics that listen to the event, as onEvent() does, but returns what they record rather than
+     * recording it, so that it can be passed to record() later, from another thread. AsyncGameListener uses this to
+     * run the metrics while the event happens, and so only passes on what they record rather than a copy of the state.
+     * <p>
+     * This can only be done if all of those metrics are stateless (see AbstractMetric.isStateless()), and not for
+     * the GAME_OVER event (gameOver() is run with the event itself). Otherwise this returns null, and the event has to
+     * be passed to onEvent(). Subclasses that change what onEvent() does should return null too.
+     *
+     * @param game - the Game the event comes from, which the metrics see as getGame()
+     */
+    public List<Pair<AbstractMetric, Map<String, Object>>> collect(Event event, Game game) {
+        if (event.type == GAME_OVER)
+            return null;
+        for (AbstractMetric metric : metrics.values()) {
+            if (metric.listens(event.type) && !metric.isStateless())
+                return null;
+        }
+        // this may be called for several games at once, so the metrics are given the Game through a listener of
+        // their own rather than this one
+        MetricsGameListener gameListener = new MetricsGameListener();
+        gameListener.game = game;
+        List<Pair<AbstractMetric, Map<String, Object>>> retValue = new ArrayList<>();
+        for (AbstractMetric metric : metrics.values()) {
+            if (metric.listens(event.type)) {
+                Map<String, Object> data = metric.collect(gameListener, event);
+                if (data != null)
+                    retValue.add(new Pair<>(metric, data));
+            }
+        }
+        return retValue;
+    }
+
+    /**
+     * Records what the metrics returned from collect().
+     */
+    public void record(List<Pair<AbstractMetric, Map<String, Object>>> data) {
+        for (Pair<AbstractMetric, Map<String, Object>> metricData : data) {
+            metricData.a.record(metricData.b);
+        }
+    }
+
+    /**
+     * Called at the end of each game, after the metrics have run for the GAME_OVER event.
+     */
+    protected void gameOver(Event event) {
+        for (AbstractMetric metric : metrics.values()) {
+            metric.notifyGameOver(event.state.getGameID());
         }
     }
 
@@ -141,15 +200,23 @@ public class MetricsGameListener implements IGameListener {
                         }
                     }
                     if (!eventMetrics.isEmpty()) {
-                        IDataLogger dataLogger = new DataTableSaw(eventMetrics, event, eventToIndexingColumn(event));
-                        dataLogger.getDefaultProcessor().processRawDataToFile(dataLogger, destDir);
+                        reportRawDataPerEvent(event, eventMetrics);
                     }
                 }
             }
         }
     }
 
-    private String eventToIndexingColumn(IGameEvent e) {
+    /**
+     * Writes a file of the raw data of all the given metrics for the given event, with one row per game and value of
+     * the indexing column for the event (see eventToIndexingColumn()).
+     */
+    protected void reportRawDataPerEvent(IGameEvent event, List<AbstractMetric> eventMetrics) {
+        IDataLogger dataLogger = new DataTableSaw(eventMetrics, event, eventToIndexingColumn(event));
+        dataLogger.getDefaultProcessor().processRawDataToFile(dataLogger, destDir);
+    }
+
+    protected String eventToIndexingColumn(IGameEvent e) {
         if (e == ABOUT_TO_START || e == GAME_OVER) {
             return "GameID";
         } else if (e == ROUND_OVER) {
@@ -0,0 +1,148 @@
+package evaluation.listeners;
+
+import core.interfaces.IGameEvent;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.streaming.CsvChunks;
+import evaluation.metrics.streaming.StreamingDataLogger;
+
+import java.io.File;
+import java.util.*;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.ToConsole;
+import static evaluation.metrics.IDataLogger.ReportType.*;
+
+/**
+ * A MetricsGameListener whose memory use does not grow with the number of games, for long runs and tournaments.
+ * <p>
+ * Each metric records its data in a {@link StreamingDataLogger}, which writes the rows of each game to disk when the
+ * game is over, and keeps running summaries of each column for the Summary and Plot reports.
+ * If RawDataPerEvent reports are wanted, the rows of all the metrics for each event are combined when each game is
+ * over (rather than when report() is called), and also written to disk.
+ * <p>
+ * To use this in place of MetricsGameListener, give evaluation.listeners.StreamingMetricsGameListener as the
+ * listener class.
+ */
+public class StreamingMetricsGameListener extends MetricsGameListener {
+
+    // Directory the data is written to until it is reported (set when the first logger is created)
+    private File directory;
+    // Combined rows of all the metrics for each event, for the RawDataPerEvent report
+    private final Map<IGameEvent, CsvChunks> eventData = new HashMap<>();
+
+    public StreamingMetricsGameListener(AbstractMetric[] metrics) {
+        this(ToConsole, metrics);
+    }
+
+    public StreamingMetricsGameListener(IDataLogger.ReportDestination logTo, AbstractMetric[] metrics) {
+        this(logTo, new IDataLogger.ReportType[]{Summary, Plot}, metrics);
+    }
+
+    public StreamingMetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics) {
+        super(logTo, dataTypes, metrics);
+    }
+
+    @Override
+    protected IDataLogger createDataLogger(AbstractMetric metric) {
+        // this is called from the super-constructor, so before any field initialisers have run
+        if (directory == null)
+            directory = StreamingDataLogger.createTempDirectory();
+        return new StreamingDataLogger(metric, directory, StreamingDataLogger.DEFAULT_ROWS_PER_CHUNK);
+    }
+
+    @Override
+    protected void gameOver(Event event) {
+        if (reportTypes.contains(RawDataPerEvent)) {
+            int gameID = event.state.getGameID();
+            for (IGameEvent e : eventsOfInterest) {
+                List<AbstractMetric> eventMetrics = new ArrayList<>();
+                for (AbstractMetric metric : metrics.values()) {
+                    if (metric.listens(e))
+                        eventMetrics.add(metric);
+                }
+                if (!eventMetrics.isEmpty())
+                    recordEventRows(e, eventMetrics, gameID);
+            }
+        }
+        super.gameOver(event);
+    }
+
+    /**
+     * Combines the rows of the given metrics for one game and event into one row per value of the indexing column
+     * for the event, as DataTableSaw does for all the games at once. A metric only contributes to a row if it has
+     * exactly one row with that value.
+     */
+    private void recordEventRows(IGameEvent event, List<AbstractMetric> eventMetrics, int gameID) {
+        String indexingColumn = eventToIndexingColumn(event);
+        if (indexingColumn == null)
+            return;
+        boolean indexingColumnIsGameID = indexingColumn.equals("GameID");
+
+        // Default columns first, then those of each metric
+        LinkedHashSet<String> columns = new LinkedHashSet<>();
+        for (AbstractMetric m : eventMetrics)
+            columns.addAll(m.getDefaultColumns().keySet());
+        for (AbstractMetric m : eventMetrics)
+            for (String c : m.getColumnNames())
+                columns.add(m.getName() + "(" + c + ")");
+        List<String> header = new ArrayList<>(columns);
+
+        // The rows of each metric for this event, by value of the indexing column
+        Map<AbstractMetric, Map<Object, List<Map<String, Object>>>> rowsByIndex = new LinkedHashMap<>();
+        TreeSet<Integer> indices = new TreeSet<>();
+        for (AbstractMetric m : eventMetrics) {
+            Map<Object, List<Map<String, Object>>> byIndex = new HashMap<>();
+            for (Map<String, Object> row : ((StreamingDataLogger) m.getDataLogger()).getRowsOfGame(gameID)) {
+                if (m.filterByEventTypeWhenReporting() && !event.name().equals(row.get("Event")))
+                    continue;
+                Object index = indexingColumnIsGameID ? gameID : row.get(indexingColumn);
+                if (index instanceof Integer) {
+                    byIndex.computeIfAbsent(index, k -> new ArrayList<>()).add(row);
+                    indices.add((Integer) index);
+                }
+            }
+            rowsByIndex.put(m, byIndex);
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int index : indices) {
+            Object[] row = new Object[header.size()];
+            boolean record = false;
+            for (Map.Entry<AbstractMetric, Map<Object, List<Map<String, Object>>>> entry : rowsByIndex.entrySet()) {
+                List<Map<String, Object>> matching = entry.getValue().get(index);
+                if (matching == null || matching.size() != 1)
+                    continue;
+                record = true;
+                AbstractMetric m = entry.getKey();
+                for (Map.Entry<String, Object> value : matching.get(0).entrySet()) {
+                    String column = m.getColumnNames().contains(value.getKey()) ? m.getName() + "(" + value.getKey() + ")" : value.getKey();
+                    int position = header.indexOf(column);
+                    if (position >= 0)
+                        row[position] = value.getValue();
+                }
+            }
+            if (record)
+                rows.add(row);
+        }
+        if (!rows.isEmpty())
+            eventData.computeIfAbsent(event, e -> new CsvChunks(directory, e.name(), StreamingDataLogger.DEFAULT_ROWS_PER_CHUNK))
+                    .append(header, rows);
+    }
+
+    @Override
+    protected void reportRawDataPerEvent(IGameEvent event, List<AbstractMetric> eventMetrics) {
+        // any games that are not over have not been combined
+        CsvChunks data = eventData.get(event);
+        if (data != null)
+            data.writeTo(new File(destDir + event.name() + ".csv"));
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        for (CsvChunks data : eventData.values())
+            data.clear();
+        eventData.clear();
+    }
+}
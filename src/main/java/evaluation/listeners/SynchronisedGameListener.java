@@ -0,0 +1,80 @@
+package evaluation.listeners;
+
+import core.Game;
+import evaluation.metrics.Event;
+
+import java.util.Set;
+
+/**
+ * Wraps a single IGameListener so that it can be attached to several Games that are running concurrently
+ * (for example when a tournament is run with nThreads > 1).
+ * <p>
+ * Each running Game has its own wrapper, which remembers that Game. When an event arrives we lock the underlying
+ * listener, point it at the Game that generated the event, and only then pass the event on. This means that
+ * metrics that call listener.getGame() (to find the players, for example) see the correct Game, and the underlying
+ * listener never has to process two events at once.
+ */
+public class SynchronisedGameListener implements IGameListener {
+
+    private final IGameListener wrapped;
+    private Game game;
+
+    public SynchronisedGameListener(IGameListener wrapped) {
+        this.wrapped = wrapped;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        synchronized (wrapped) {
+            wrapped.setGame(game);
+            wrapped.onEvent(event);
+        }
+    }
+
+    @Override
+    public void report() {
+        synchronized (wrapped) {
+            wrapped.report();
+        }
+    }
+
+    @Override
+    public void allGamesFinished() {
+        synchronized (wrapped) {
+            wrapped.allGamesFinished();
+        }
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        synchronized (wrapped) {
+            return wrapped.setOutputDirectory(nestedDirectories);
+        }
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+
+    @Override
+    public void reset() {
+        synchronized (wrapped) {
+            wrapped.reset();
+        }
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        this.game = game;
+    }
+
+    public IGameListener getWrappedListener() {
+        return wrapped;
+    }
+}
@@ -0,0 +1,345 @@
+package evaluation.loggers;
+
+import core.interfaces.IStatisticLogger;
+import evaluation.summarisers.TAGStatSummary;
+
+import java.io.*;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Logs numeric data to a binary file, for training data that is too large to write and read back as text (see
+ * FileStatsLogger). Values are written as full precision doubles, and read back through a memory-mapped file.
+ * <p>
+ * The file starts with a header: the magic number "TAGB", a format version, the number of columns, and the name of
+ * each column (as written by DataOutput.writeUTF()). The names are the keys of the first record, in order.
+ * This is followed by blocks of rows, one per call of processDataAndNotFinish() (typically one per game), or every
+ * maxRowsPerBlock rows: the number of rows in the block, followed by each column in turn, as that many doubles.
+ * Values that are not numbers (or are missing) are written as NaN, and true / false as 1 / 0.
+ * <p>
+ * exportToTSV() writes a binary log out as tab-separated text in the same layout as FileStatsLogger.
+ */
+public class BinaryStatsLogger implements IStatisticLogger {
+
+    public static final int MAGIC = ('T' << 24) | ('A' << 16) | ('G' << 8) | 'B';
+    public static final int VERSION = 1;
+    // the largest part of a file that is mapped into memory at once
+    private static final long MAP_WINDOW = 1L << 28;
+
+    private final String fileName;
+    private final boolean append;
+    public int maxRowsPerBlock = 4096;
+    private FileChannel channel;
+    private String[] keys;
+    private Map<String, Integer> keyIndex;
+    private double[][] columns;
+    private int nRows;
+
+    /**
+     * @param fileName The full location of the file to write results to
+     * @param append   If true, and the file exists, then the data are added to the end of it. The data must then have
+     *                 the same keys as those already in the file.
+     */
+    public BinaryStatsLogger(String fileName, boolean append) {
+        this.fileName = fileName;
+        this.append = append;
+    }
+
+    public BinaryStatsLogger(String fileName) {
+        this(fileName, true);
+    }
+
+    private void initialise(Set<String> firstKeys) {
+        keys = firstKeys.toArray(new String[0]);
+        keyIndex = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) keyIndex.put(keys[i], i);
+        columns = new double[keys.length][64];
+        try {
+            Path path = Paths.get(fileName);
+            if (append && Files.exists(path) && Files.size(path) > 0) {
+                String[] existing = readHeader(fileName);
+                if (!Arrays.equals(existing, keys))
+                    throw new AssertionError("Data do not match the columns already in " + fileName + " : " + Arrays.toString(existing));
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } else {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream header = new DataOutputStream(bytes);
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeInt(keys.length);
+                for (String key : keys) header.writeUTF(key);
+                header.flush();
+                write(ByteBuffer.wrap(bytes.toByteArray()));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem opening file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Use to register a set of data in one go. The keys of the first call of record(Map) are the columns of the file;
+     * data linked to new, previously unseen keys are ignored.
+     *
+     * @param rawData A map of name -> value pairs
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void record(Map<String, ?> rawData) {
+        // first we preprocess data to remove nesting, as FileStatsLogger does
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String key : rawData.keySet()) {
+            Object thing = rawData.get(key);
+            if (thing instanceof Map) {
+                data.putAll((Map<? extends String, ?>) thing);
+            } else {
+                data.put(key, thing);
+            }
+        }
+        if (channel == null) initialise(data.keySet());
+        if (nRows == columns[0].length) {
+            for (int c = 0; c < columns.length; c++)
+                columns[c] = Arrays.copyOf(columns[c], nRows * 2);
+        }
+        for (int c = 0; c < columns.length; c++) columns[c][nRows] = Double.NaN;
+        for (Map.Entry<String, Object> e : data.entrySet()) {
+            Integer c = keyIndex.get(e.getKey());
+            if (c == null) continue;
+            Object datum = e.getValue();
+            if (datum instanceof Number)
+                columns[c][nRows] = ((Number) datum).doubleValue();
+            else if (datum instanceof Boolean)
+                columns[c][nRows] = (Boolean) datum ? 1.0 : 0.0;
+        }
+        nRows++;
+        if (nRows >= maxRowsPerBlock) writeBlock();
+    }
+
+    @Override
+    public void record(String key, Object datum) {
+        // Datum ignored - as for FileStatsLogger, only to be used with record(Map)
+    }
+
+    private void writeBlock() {
+        if (nRows == 0) return;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 * nRows * columns.length);
+        buffer.putInt(nRows);
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        for (double[] column : columns) doubles.put(column, 0, nRows);
+        ((Buffer) buffer).rewind();  // the cast keeps this working on Java 8, where ByteBuffer has no rewind() of its own
+        write(buffer);
+        nRows = 0;
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem writing to file " + fileName + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes out the current block, and closes the file
+     */
+    @Override
+    public void processDataAndFinish() {
+        if (channel == null) return;
+        writeBlock();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem closing file " + fileName + " : " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Writes out the current block
+     */
+    @Override
+    public void processDataAndNotFinish() {
+        if (channel == null) return;
+        writeBlock();
+    }
+
+    /**
+     * This always returns an empty Map
+     *
+     * @return A summary of the data
+     */
+    @Override
+    public Map<String, TAGStatSummary> summary() {
+        return new HashMap<>();
+    }
+
+    @Override
+    public BinaryStatsLogger emptyCopy(String id) {
+        String[] fileParts = fileName.split(Pattern.quote("."));
+        if (fileParts.length != 2)
+            throw new AssertionError("Filename does not conform to expected <stem>.<type>");
+        BinaryStatsLogger retValue = new BinaryStatsLogger(fileParts[0] + "_" + id + "." + fileParts[1], append);
+        retValue.maxRowsPerBlock = maxRowsPerBlock;
+        return retValue;
+    }
+
+    /**
+     * Receives the rows of a binary log a block at a time
+     */
+    public interface BlockConsumer {
+        /**
+         * @param columns - the values in each column; only the first nRows of each are from this block
+         * @param nRows   - the number of rows in the block
+         */
+        void accept(double[][] columns, int nRows);
+    }
+
+    /**
+     * @return true if the file starts with the header of a binary log
+     */
+    public static boolean isBinaryLog(String file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the names of the columns of a binary log
+     */
+    public static String[] readHeader(String file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return readHeader(in, file);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem reading file " + file + " : " + e.getMessage());
+        }
+    }
+
+    private static String[] readHeader(DataInput in, String file) throws IOException {
+        if (in.readInt() != MAGIC)
+            throw new AssertionError("Not a binary log : " + file);
+        int version = in.readInt();
+        if (version != VERSION)
+            throw new AssertionError("Unknown binary log version " + version + " : " + file);
+        String[] names = new String[in.readInt()];
+        for (int i = 0; i < names.length; i++) names[i] = in.readUTF();
+        return names;
+    }
+
+    /**
+     * @return the number of rows in a binary log (only the block headers are read)
+     */
+    public static long countRows(String file) {
+        long[] count = new long[1];
+        scan(file, null, (columns, nRows) -> count[0] += nRows);
+        return count[0];
+    }
+
+    /**
+     * Reads the rows of a binary log, through a memory-mapped file, passing them to the consumer a block at a time.
+     * The arrays passed are reused from one block to the next.
+     */
+    public static void readBlocks(String file, BlockConsumer consumer) {
+        scan(file, consumer, null);
+    }
+
+    // Passes the data of each block to dataConsumer, if there is one, or else just the size of each to sizeConsumer
+    private static void scan(String file, BlockConsumer dataConsumer, BlockConsumer sizeConsumer) {
+        try (FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowStart = 0;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAP_WINDOW));
+            int nColumns = readHeader(new DataInputStream(new ByteBufferInputStream(window)), file).length;
+            long position = window.position();
+            double[][] columns = new double[nColumns][0];
+            while (position < size) {
+                if (position + 4 > windowStart + window.limit()) {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, MAP_WINDOW));
+                }
+                int nRows = window.getInt((int) (position - windowStart));
+                long blockSize = 4 + 8L * nRows * nColumns;
+                if (position + blockSize > size)
+                    throw new AssertionError("Incomplete block at " + position + " : " + file);
+                if (dataConsumer == null) {
+                    sizeConsumer.accept(columns, nRows);
+                } else {
+                    if (position + blockSize > windowStart + window.limit()) {
+                        windowStart = position;
+                        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(size - position, Math.max(blockSize, MAP_WINDOW)));
+                    }
+                    ByteBuffer block = window.duplicate();
+                    ((Buffer) block).position((int) (position - windowStart) + 4);
+                    DoubleBuffer doubles = block.slice().asDoubleBuffer();
+                    for (int c = 0; c < nColumns; c++) {
+                        if (columns[c].length < nRows) columns[c] = new double[nRows];
+                        doubles.get(columns[c], 0, nRows);
+                    }
+                    dataConsumer.accept(columns, nRows);
+                }
+                position += blockSize;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem reading file " + file + " : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a binary log out as tab-separated text, with a header line of the column names, as FileStatsLogger does
+     *
+     * @param doubleFormat - the format for each value, e.g. "%.3g" (as FileStatsLogger) or "%s" for full precision
+     */
+    public static void exportToTSV(String binaryFile, String textFile, String doubleFormat) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(textFile))) {
+            writer.write(String.join("\t", readHeader(binaryFile)) + "\n");
+            readBlocks(binaryFile, (columns, nRows) -> {
+                try {
+                    StringBuilder line = new StringBuilder();
+                    for (int r = 0; r < nRows; r++) {
+                        line.setLength(0);
+                        for (int c = 0; c < columns.length; c++) {
+                            if (c > 0) line.append('\t');
+                            double value = columns[c][r];
+                            line.append(Double.isNaN(value) ? "NA" : String.format(doubleFormat, value));
+                        }
+                        writer.write(line.append('\n').toString());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+            throw new AssertionError("Problem writing file " + textFile + " : " + e.getMessage());
+        }
+    }
+
+    // Reads the header from the start of a mapped file, leaving the buffer positioned after it
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+    }
+}
@@ -89,26 +89,51 @@ public abstract class AbstractMetric {
      * @param e        - event, which includes game event type, state, action and player ID
      */
     public final void run(MetricsGameListener listener, Event e) {
-        // Ask for custom records from the metric and record these too
+        Map<String, Object> data = collect(listener, e);
+        if (data != null)
+            record(data);
+    }
+
+    /**
+     * Runs the metric, as run() does, but returns the data rather than adding it to the data logger: the data for
+     * the default columns first, then that of the metric itself. This can be passed to record() later, so that
+     * AsyncGameListener can run a metric that isStateless() while the event happens, rather than copying the state
+     * for it.
+     *
+     * @return the data to record, or null if the metric records nothing for this event
+     */
+    public final Map<String, Object> collect(MetricsGameListener listener, Event e) {
+        // Ask for custom records from the metric
         Map<String, Object> records = new HashMap<>();
+        if (!_run(listener, e, records))
+            return null;
+        Map<String, Object> retValue = getDefaultData(e);
+        retValue.putAll(records);
+        return retValue;
+    }
 
-        // Fill in the map with column names and null values for the custom columns we need data for
+    /**
+     * Adds data returned by collect() to the data logger, with null for any of the custom columns of this metric
+     * that it has no value for.
+     */
+    public final void record(Map<String, Object> data) {
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            dataLogger.addData(entry.getKey(), entry.getValue());
+        }
         for (String name : columnNames) {
-            records.put(name, null);
+            if (!data.containsKey(name))
+                dataLogger.addData(name, null);
         }
+    }
 
-        // Run the metric and fill in the map with recorded data
-        boolean record = _run(listener, e, records);
-
-        if (record) {
-            // Record default column data first, custom data for each default column
-            addDefaultData(e);
-
-            // Add the recorded data to the table
-            for (Map.Entry<String, Object> entry : records.entrySet()) {
-                dataLogger.addData(entry.getKey(), entry.getValue());
-            }
-        }
+    /**
+     * @return true if _run() only reads the event and the Game (listener.getGame()), and keeps nothing from one call
+     * to the next (nor needs anything set up by init()). It can then be run for several games at once, and
+     * AsyncGameListener runs it while the event happens, rather than copying the state for it to be run later.
+     * False unless the metric says otherwise.
+     */
+    public boolean isStateless() {
+        return false;
     }
 
     /**
@@ -148,14 +173,25 @@ public abstract class AbstractMetric {
      * @param e event for which the data is recorded
      */
     public void addDefaultData(Event e) {
-        dataLogger.addData("GameID", String.valueOf(e.state.getGameID()));
-        dataLogger.addData("GameName", e.state.getGameType().name());
-        dataLogger.addData("PlayerCount", String.valueOf(e.state.getNPlayers()));
-        dataLogger.addData("GameSeed", String.valueOf(e.state.getGameParameters().getRandomSeed()));
-        dataLogger.addData("Tick", e.state.getGameTick());
-        dataLogger.addData("Turn", e.state.getTurnCounter());
-        dataLogger.addData("Round", e.state.getRoundCounter());
-        dataLogger.addData("Event", e.type.name());
+        for (Map.Entry<String, Object> entry : getDefaultData(e).entrySet()) {
+            dataLogger.addData(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @return the data for the default columns, in the order they are recorded
+     */
+    protected Map<String, Object> getDefaultData(Event e) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("GameID", String.valueOf(e.state.getGameID()));
+        data.put("GameName", e.state.getGameType().name());
+        data.put("PlayerCount", String.valueOf(e.state.getNPlayers()));
+        data.put("GameSeed", String.valueOf(e.state.getGameParameters().getRandomSeed()));
+        data.put("Tick", e.state.getGameTick());
+        data.put("Turn", e.state.getTurnCounter());
+        data.put("Round", e.state.getRoundCounter());
+        data.put("Event", e.type.name());
+        return data;
     }
 
     /**
@@ -259,8 +295,14 @@ public abstract class AbstractMetric {
         return columnNames;
     }
 
-    public void notifyGameOver() {
+    /**
+     * Called when a game is over, after the metric has run for the GAME_OVER event of the game.
+     *
+     * @param gameID - ID of the game that is over
+     */
+    public void notifyGameOver(int gameID) {
         this.gamesCompleted++;
+        dataLogger.gameOver(gameID);
     }
 
     public int getGamesCompleted() {
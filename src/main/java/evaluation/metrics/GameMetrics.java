@@ -5,8 +5,7 @@ import core.actions.AbstractAction;
 import core.interfaces.IComponentContainer;
 import core.interfaces.IGameEvent;
 import evaluation.listeners.MetricsGameListener;
-import evaluation.summarisers.TAGStatSummary;
-import evaluation.summarisers.TAGSummariser;
+import evaluation.summarisers.TAGHistogram;
 import utilities.Pair;
 
 import java.util.*;
@@ -62,6 +61,11 @@ public class GameMetrics implements IMetricsCollection {
             columns.put("LeaderGap", Double.class);
             return columns;
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
     public static class FinalScore extends AbstractMetric {
@@ -96,6 +100,11 @@ public class GameMetrics implements IMetricsCollection {
             }
             return columns;
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
 
@@ -117,6 +126,11 @@ public class GameMetrics implements IMetricsCollection {
             columns.put("Size", Integer.class);
             return columns;
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
 
@@ -143,6 +157,11 @@ public class GameMetrics implements IMetricsCollection {
 
             return columns;
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
 
@@ -168,6 +187,11 @@ public class GameMetrics implements IMetricsCollection {
                 put("Percentage", Double.class);
             }};
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
 
@@ -196,6 +220,11 @@ public class GameMetrics implements IMetricsCollection {
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.ACTION_TAKEN);
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
     public static class OrdinalPosition extends AbstractMetric {
@@ -225,6 +254,11 @@ public class GameMetrics implements IMetricsCollection {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
         }
 
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
     public static class Decisions extends AbstractMetric {
@@ -241,18 +275,13 @@ public class GameMetrics implements IMetricsCollection {
         @Override
         protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
 
-            List<Pair<Integer, Integer>> actionSpaceRecord = listener.getGame().getActionSpaceSize();
-            TAGStatSummary statsDecisionsAll = actionSpaceRecord.stream()
-                    .map(r -> r.b)
-                    .collect(new TAGSummariser());
-            TAGStatSummary statsDecisions = actionSpaceRecord.stream()
-                    .map(r -> r.b)
-                    .filter(size -> size > 1)
-                    .collect(new TAGSummariser());
+            TAGHistogram actionSpaceSizes = listener.getGame().getInstrumentation().getActionSpaceSizes();
+            // a decision point is any time the player had more than one action to choose from
+            int decisions = (int) (actionSpaceSizes.n() - actionSpaceSizes.countAtOrBelow(1));
 
             records.put("ActionsPerTurn (Sum)", listener.getGame().getNActionsPerTurn());
-            records.put("Decisions", statsDecisions.n());
-            records.put("DecisionPoints (Mean)", statsDecisions.n() * 1.0 / statsDecisionsAll.n());
+            records.put("Decisions", decisions);
+            records.put("DecisionPoints (Mean)", decisions * 1.0 / actionSpaceSizes.n());
             return true;
         }
 
@@ -260,6 +289,11 @@ public class GameMetrics implements IMetricsCollection {
         public Set<IGameEvent> getDefaultEventTypes() {
             return Collections.singleton(Event.GameEvent.GAME_OVER);
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
     public static class Actions extends AbstractMetric {
@@ -317,6 +351,11 @@ public class GameMetrics implements IMetricsCollection {
             columns.put("Action Space Size", Integer.class);
             return columns;
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
     public static class Winner extends AbstractMetric {
@@ -353,6 +392,11 @@ public class GameMetrics implements IMetricsCollection {
                 put("PlayerIdx", String.class);
             }};
         }
+
+        @Override
+        public boolean isStateless() {
+            return true;
+        }
     }
 
     /**
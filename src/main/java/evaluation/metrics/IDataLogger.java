@@ -32,6 +32,13 @@ public interface IDataLogger
     void init(Game game, int nPlayersPerGame, Set<String> playerNames);
 
 
+    /**
+     * Called when a game that this logger may have data for is over. Loggers that do not keep all the data in
+     * memory can use this to write out the data for the game.
+     * @param gameID - ID of the game that is over
+     */
+    default void gameOver(int gameID) {}
+
     /**
      * Add a piece of data to a specific column.
      * @param columnName - name of column to add data to
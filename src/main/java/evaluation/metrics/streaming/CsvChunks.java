@@ -0,0 +1,217 @@
+package evaluation.metrics.streaming;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Rows of data spilled to disk as a sequence of append-only CSV files (chunks). Each chunk starts with a header line
+ * naming its columns; a new chunk is started when the current one is full, or when the columns change.
+ * Only the list of chunks and their headers is kept in memory.
+ * <p>
+ * The chunk files are opened (in append mode) only while rows are being written, so any number of these can be in
+ * use at the same time without running out of file handles.
+ */
+public class CsvChunks {
+
+    private final File directory;
+    private final String name;
+    private final int rowsPerChunk;
+
+    private final List<File> chunks = new ArrayList<>();
+    private final List<List<String>> headers = new ArrayList<>();
+    private int rowsInChunk;
+    private long rows;
+
+    public CsvChunks(File directory, String name, int rowsPerChunk) {
+        if (rowsPerChunk < 1)
+            throw new IllegalArgumentException("rowsPerChunk must be at least 1");
+        this.directory = directory;
+        this.name = name;
+        this.rowsPerChunk = rowsPerChunk;
+    }
+
+    /**
+     * @return a copy of the data, in new chunk files in the same directory
+     */
+    CsvChunks copy() {
+        CsvChunks retValue = new CsvChunks(directory, name, rowsPerChunk);
+        try {
+            for (int c = 0; c < chunks.size(); c++) {
+                File chunk = File.createTempFile(name + "-", ".csv", directory);
+                chunk.deleteOnExit();
+                Files.copy(chunks.get(c).toPath(), chunk.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                retValue.chunks.add(chunk);
+                retValue.headers.add(headers.get(c));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        retValue.rowsInChunk = rowsInChunk;
+        retValue.rows = rows;
+        return retValue;
+    }
+
+    /**
+     * Appends rows to the end of the data.
+     *
+     * @param header - the names of the columns, in the order of the values in each row
+     * @param newRows - the rows to append; a null value is written as a missing value
+     */
+    public void append(List<String> header, List<Object[]> newRows) {
+        int next = 0;
+        while (next < newRows.size()) {
+            if (chunks.isEmpty() || rowsInChunk >= rowsPerChunk || !header.equals(headers.get(headers.size() - 1)))
+                startChunk(header);
+            int end = Math.min(newRows.size(), next + rowsPerChunk - rowsInChunk);
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(chunks.get(chunks.size() - 1), true), StandardCharsets.UTF_8))) {
+                for (int r = next; r < end; r++)
+                    writer.write(toLine(newRows.get(r)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rowsInChunk += end - next;
+            rows += end - next;
+            next = end;
+        }
+    }
+
+    private void startChunk(List<String> header) {
+        try {
+            if (!directory.exists() && !directory.mkdirs())
+                throw new IOException("Could not create directory " + directory);
+            File chunk = File.createTempFile(name + "-", ".csv", directory);
+            chunk.deleteOnExit();
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(chunk), StandardCharsets.UTF_8)) {
+                writer.write(toLine(header.toArray()));
+            }
+            chunks.add(chunk);
+            headers.add(new ArrayList<>(header));
+            rowsInChunk = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the total number of rows appended
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * @return all the columns in any chunk, in the order they first appear
+     */
+    List<String> columns() {
+        LinkedHashSet<String> retValue = new LinkedHashSet<>();
+        for (List<String> header : headers)
+            retValue.addAll(header);
+        return new ArrayList<>(retValue);
+    }
+
+    /**
+     * Writes all the rows as a single CSV table, with the columns given by columns(). Values in columns a chunk
+     * does not have are left missing.
+     */
+    void writeTo(Writer out) throws IOException {
+        List<String> columns = columns();
+        out.write(toLine(columns.toArray()));
+        for (int c = 0; c < chunks.size(); c++) {
+            List<String> header = headers.get(c);
+            int[] position = new int[header.size()];
+            boolean sameColumns = header.equals(columns);
+            for (int i = 0; i < position.length; i++)
+                position[i] = columns.indexOf(header.get(i));
+            try (BufferedReader reader = Files.newBufferedReader(chunks.get(c).toPath(), StandardCharsets.UTF_8)) {
+                reader.readLine();  // header
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (sameColumns) {
+                        out.write(line);
+                        out.write('\n');
+                    } else {
+                        List<String> values = parseLine(line);
+                        Object[] row = new Object[columns.size()];
+                        for (int i = 0; i < position.length; i++)
+                            row[position[i]] = values.get(i).isEmpty() ? null : values.get(i);
+                        out.write(toLine(row));
+                    }
+                }
+            }
+        }
+    }
+
+    public void writeTo(File file) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writeTo(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes all the chunks
+     */
+    public void clear() {
+        for (File chunk : chunks)
+            if (!chunk.delete())
+                chunk.deleteOnExit();
+        chunks.clear();
+        headers.clear();
+        rowsInChunk = 0;
+        rows = 0;
+    }
+
+    static String toLine(Object[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(',');
+            if (values[i] == null) continue;
+            String value = values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(value);
+            }
+        }
+        return sb.append('\n').toString();
+    }
+
+    /**
+     * Splits a line written by toLine() back into its values (missing values are returned as empty strings).
+     * Values with line breaks in are not supported.
+     */
+    static List<String> parseLine(String line) {
+        List<String> retValue = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                retValue.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        retValue.add(value.toString());
+        return retValue;
+    }
+}
@@ -0,0 +1,226 @@
+package evaluation.metrics.streaming;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Summary statistics of a stream of numbers that uses the same (small) amount of memory however many numbers are added.
+ * <p>
+ * Count, mean, variance, min and max are exact (the mean and variance are kept with Welford's online algorithm, so
+ * they do not lose precision as the sum of squares would). Quantiles are estimated from a uniform reservoir sample of
+ * at most sampleSize of the numbers, so they are exact until more than sampleSize numbers have been added.
+ * The sample is drawn with a fixed seed, so the same stream always gives the same estimates. Its array grows as
+ * numbers are added, so a summary of only a few numbers takes little memory.
+ * <p>
+ * Summaries can be merged (see merge()), and the same number added many times (see add(x, times)), in time that
+ * depends only on the sample size.
+ */
+public class OnlineNumericSummary {
+
+    public static final int DEFAULT_SAMPLE_SIZE = 1024;
+
+    private long n;
+    private double mean, m2;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+    private static final double[] EMPTY = new double[0];
+    private static final int INITIAL_SAMPLE_ARRAY = 8;
+
+    private final int sampleSize;
+    private double[] sample = EMPTY;  // grows up to sampleSize
+    private int sampleCount;
+    private final Random rnd = new Random(0);
+
+    public OnlineNumericSummary() {
+        this(DEFAULT_SAMPLE_SIZE);
+    }
+
+    public OnlineNumericSummary(int sampleSize) {
+        if (sampleSize < 1)
+            throw new IllegalArgumentException("sampleSize must be at least 1");
+        this.sampleSize = sampleSize;
+    }
+
+    public OnlineNumericSummary(OnlineNumericSummary other) {
+        n = other.n;
+        mean = other.mean;
+        m2 = other.m2;
+        sum = other.sum;
+        min = other.min;
+        max = other.max;
+        sampleSize = other.sampleSize;
+        sample = Arrays.copyOf(other.sample, other.sampleCount);
+        sampleCount = other.sampleCount;
+        // the copy goes on sampling with its own random number generator, so later samples will differ from other's
+    }
+
+    public void add(double x) {
+        n++;
+        double delta = x - mean;
+        mean += delta / n;
+        m2 += delta * (x - mean);
+        sum += x;
+        if (x < min) min = x;
+        if (x > max) max = x;
+
+        // reservoir sampling (Algorithm R)
+        if (sampleCount < sampleSize) {
+            ensureSampleArray(sampleCount + 1);
+            sample[sampleCount++] = x;
+        } else {
+            long j = (long) (rnd.nextDouble() * n);
+            if (j < sampleSize)
+                sample[(int) j] = x;
+        }
+    }
+
+    /**
+     * Adds the same number several times (e.g. the zero counts of a category in all the games before it was
+     * first seen), as a single update.
+     */
+    public void add(double x, long times) {
+        if (times <= 0)
+            return;
+        mergeSample(times, null, x);
+        combine(times, x, 0, x * times, x, x);
+    }
+
+    /**
+     * Adds all the numbers summarised by other to this summary, which is then as if they had been added to it
+     * directly (with its sample drawn uniformly from both). other is not changed.
+     */
+    public void merge(OnlineNumericSummary other) {
+        if (other.n == 0)
+            return;
+        mergeSample(other.n, other, 0);
+        combine(other.n, other.mean, other.m2, other.sum, other.min, other.max);
+    }
+
+    // Adds a group of n2 numbers with the given mean, sum of squared differences from it, sum, min and max
+    // (Chan et al.'s pairwise update of Welford's algorithm)
+    private void combine(long n2, double mean2, double m2Other, double sum2, double min2, double max2) {
+        long total = n + n2;
+        double delta = mean2 - mean;
+        mean += delta * n2 / total;
+        m2 += m2Other + delta * delta * ((double) n / total) * n2;
+        sum += sum2;
+        n = total;
+        if (min2 < min) min = min2;
+        if (max2 > max) max = max2;
+    }
+
+    /**
+     * Makes the sample a uniform sample of the numbers already added and n2 more, which are either those of other,
+     * or (if other is null) n2 copies of x. This must be called before n is updated.
+     */
+    private void mergeSample(long n2, OnlineNumericSummary other, double x) {
+        long total = n + n2;
+        if (total <= sampleSize) {
+            // both samples hold all their numbers, and there is room for all of them
+            ensureSampleArray((int) total);
+            for (int i = 0; i < n2; i++)
+                sample[sampleCount++] = other == null ? x : other.sample[i];
+            return;
+        }
+        // The number of the new numbers in a uniform sample of sampleSize from all of them is hypergeometric
+        int fromOther = 0;
+        long othersLeft = n2;
+        long left = total;
+        for (int i = 0; i < sampleSize; i++, left--) {
+            if (rnd.nextDouble() * left < othersLeft) {
+                fromOther++;
+                othersLeft--;
+            }
+        }
+        // keep a uniform choice of the rest from our own sample (which holds at least that many)
+        int keep = sampleSize - fromOther;
+        for (int i = 0; i < keep; i++)
+            swap(sample, i, i + rnd.nextInt(sampleCount - i));
+        ensureSampleArray(sampleSize);
+        if (other == null) {
+            Arrays.fill(sample, keep, sampleSize, x);
+        } else {
+            double[] theirs = other.getSample();
+            for (int i = 0; i < fromOther; i++) {
+                swap(theirs, i, i + rnd.nextInt(theirs.length - i));
+                sample[keep + i] = theirs[i];
+            }
+        }
+        sampleCount = sampleSize;
+    }
+
+    private static void swap(double[] array, int i, int j) {
+        double tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
+
+    private void ensureSampleArray(int size) {
+        if (size > sample.length)
+            sample = Arrays.copyOf(sample, Math.min(sampleSize, Math.max(size, Math.max(INITIAL_SAMPLE_ARRAY, sample.length * 2))));
+    }
+
+    public long n() {
+        return n;
+    }
+
+    public double sum() {
+        return sum;
+    }
+
+    public double mean() {
+        return n == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return the sample variance (with n - 1 in the denominator, as TableSaw uses)
+     */
+    public double variance() {
+        return n < 2 ? Double.NaN : m2 / (n - 1);
+    }
+
+    public double sd() {
+        return Math.sqrt(variance());
+    }
+
+    public double stdErr() {
+        return n < 2 ? 0 : sd() / Math.sqrt(n);
+    }
+
+    public double min() {
+        return n == 0 ? Double.NaN : min;
+    }
+
+    public double max() {
+        return n == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @param p - in [0, 1]
+     * @return the estimated p-quantile, interpolating linearly between the closest sampled values
+     */
+    public double quantile(double p) {
+        if (p < 0 || p > 1)
+            throw new IllegalArgumentException("p must be in [0, 1]");
+        if (sampleCount == 0)
+            return Double.NaN;
+        double[] sorted = getSample();
+        Arrays.sort(sorted);
+        double pos = p * (sorted.length - 1);
+        int lower = (int) Math.floor(pos);
+        int upper = Math.min(lower + 1, sorted.length - 1);
+        return sorted[lower] + (pos - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    public double median() {
+        return quantile(0.5);
+    }
+
+    /**
+     * @return a copy of the numbers currently in the reservoir sample
+     */
+    public double[] getSample() {
+        return Arrays.copyOf(sample, sampleCount);
+    }
+}
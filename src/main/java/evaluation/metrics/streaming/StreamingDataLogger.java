@@ -0,0 +1,316 @@
+package evaluation.metrics.streaming;
+
+import core.Game;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.IDataProcessor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Data logger that does not keep the data in memory, so it can be used for any number of games.
+ * <p>
+ * The rows of each game are held in memory only until the game is over. They are then appended to CSV files on disk
+ * (see {@link CsvChunks}), and added to summaries of each column that are updated as they go along:
+ * - numeric columns: count, mean, variance, min, max and (estimated) quantiles, see {@link OnlineNumericSummary}
+ * - other columns: the number of times each value was seen
+ * - for plots of the progression through a game: numeric summaries of each column at each row position of a game,
+ * and of the number of times each value of each other column was seen in a game.
+ * So that these also take bounded memory, the row positions are merged in pairs (see {@link RowSummaries}) when a game
+ * has more than MAX_ROW_POINTS rows, and only the first MAX_CATEGORIES values of a column have summaries of their
+ * own per game, with the rest summarised together as OTHER_CATEGORIES. The total count of each value is kept exactly.
+ * Reports are made from these summaries, and from the files for raw data, by {@link StreamingDataProcessor}.
+ * <p>
+ * As several games can be in progress at once (when they are run in parallel), the rows are kept by GameID until
+ * gameOver() is called for that game. A row ends when a column that it already has a value for is added again.
+ */
+public class StreamingDataLogger implements IDataLogger {
+
+    public static final int DEFAULT_ROWS_PER_CHUNK = 100_000;
+    public static final int MAX_ROW_POINTS = 512;
+    public static final int MAX_CATEGORIES = 100;
+    public static final String OTHER_CATEGORIES = "(other)";
+
+    final AbstractMetric metric;
+    private final File directory;
+    private final int rowsPerChunk;
+
+    // Names and types of the columns, in the order they are written
+    final Map<String, Class<?>> columns = new LinkedHashMap<>();
+    CsvChunks chunks;
+
+    // The row being recorded, and the finished rows of each game that is not over yet
+    private Map<String, Object> currentRow = new HashMap<>();
+    private final Map<String, List<Map<String, Object>>> rowsByGame = new LinkedHashMap<>();
+
+    // Number of games added to the summaries
+    long games;
+    // Summaries of all the values of each of the metric's columns
+    final Map<String, OnlineNumericSummary> numericSummaries = new LinkedHashMap<>();
+    final Map<String, Map<String, Long>> categoryCounts = new LinkedHashMap<>();
+    // For progression through a game: summaries of the values at each row of a game, and of the per-game counts of
+    // each category (over the games in which the column has any value, of which there are gamesWithValues)
+    final Map<String, RowSummaries> numericSummariesByRow = new LinkedHashMap<>();
+    final Map<String, Map<String, OnlineNumericSummary>> categoryCountsPerGame = new LinkedHashMap<>();
+    final Map<String, Long> gamesWithValues = new HashMap<>();
+
+    public StreamingDataLogger(AbstractMetric metric) {
+        this(metric, createTempDirectory(), DEFAULT_ROWS_PER_CHUNK);
+    }
+
+    /**
+     * @param directory    - directory to write the chunks of raw data to. These files are deleted when the
+     *                     logger is reset, or when the JVM exits
+     * @param rowsPerChunk - maximum number of rows in each chunk file
+     */
+    public StreamingDataLogger(AbstractMetric metric, File directory, int rowsPerChunk) {
+        this.metric = metric;
+        this.directory = directory;
+        this.rowsPerChunk = rowsPerChunk;
+        this.chunks = new CsvChunks(directory, metric.getName(), rowsPerChunk);
+    }
+
+    public static File createTempDirectory() {
+        try {
+            File retValue = Files.createTempDirectory("metrics").toFile();
+            retValue.deleteOnExit();
+            return retValue;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public void reset() {
+        chunks.clear();
+        columns.clear();
+        currentRow = new HashMap<>();
+        rowsByGame.clear();
+        games = 0;
+        numericSummaries.clear();
+        categoryCounts.clear();
+        numericSummariesByRow.clear();
+        categoryCountsPerGame.clear();
+        gamesWithValues.clear();
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        // Default columns first, then those of the metric
+        for (Map.Entry<String, Class<?>> entry : metric.getDefaultColumns().entrySet())
+            columns.putIfAbsent(entry.getKey(), entry.getValue());
+        for (Map.Entry<String, Class<?>> entry : metric.getColumns(nPlayersPerGame, playerNames).entrySet()) {
+            if (!columns.containsKey(entry.getKey())) {
+                columns.put(entry.getKey(), entry.getValue());
+                metric.addColumnName(entry.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void addData(String columnName, Object data) {
+        if (!columns.containsKey(columnName))
+            throw new IllegalArgumentException("Column " + columnName + " does not exist in " + metric.getName());
+        if (currentRow.containsKey(columnName))
+            endRow();
+        currentRow.put(columnName, data);
+    }
+
+    private void endRow() {
+        if (currentRow.isEmpty())
+            return;
+        String gameID = String.valueOf(currentRow.get("GameID"));
+        rowsByGame.computeIfAbsent(gameID, k -> new ArrayList<>()).add(currentRow);
+        currentRow = new HashMap<>();
+    }
+
+    /**
+     * @return the rows recorded so far for a game that is not over yet (each a map from column name to value)
+     */
+    public List<Map<String, Object>> getRowsOfGame(int gameID) {
+        endRow();
+        return Collections.unmodifiableList(rowsByGame.getOrDefault(String.valueOf(gameID), Collections.emptyList()));
+    }
+
+    @Override
+    public void gameOver(int gameID) {
+        endRow();
+        List<Map<String, Object>> rows = rowsByGame.remove(String.valueOf(gameID));
+        if (rows != null)
+            addGame(rows);
+    }
+
+    /**
+     * Writes out and summarises the rows of any games that are not over yet (for example when a game was
+     * stopped before the end). This is called before any report is made.
+     */
+    public void finish() {
+        endRow();
+        for (List<Map<String, Object>> rows : rowsByGame.values())
+            addGame(rows);
+        rowsByGame.clear();
+    }
+
+    private void addGame(List<Map<String, Object>> rows) {
+        List<String> header = new ArrayList<>(columns.keySet());
+        List<Object[]> values = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object[] line = new Object[header.size()];
+            for (int i = 0; i < line.length; i++)
+                line[i] = row.get(header.get(i));
+            values.add(line);
+        }
+        chunks.append(header, values);
+
+        for (String column : metric.getColumnNames()) {
+            Class<?> type = columns.get(column);
+            if (type == null) continue;
+            if (type == Integer.class || type == Double.class)
+                summariseNumeric(column, rows);
+            else
+                summariseCategories(column, rows);
+        }
+        games++;
+    }
+
+    private void summariseNumeric(String column, List<Map<String, Object>> rows) {
+        OnlineNumericSummary all = numericSummaries.computeIfAbsent(column, k -> new OnlineNumericSummary());
+        RowSummaries byRow = numericSummariesByRow.computeIfAbsent(column, k -> new RowSummaries());
+        for (int r = 0; r < rows.size(); r++) {
+            Object value = rows.get(r).get(column);
+            if (value == null) continue;
+            double x = ((Number) value).doubleValue();
+            all.add(x);
+            byRow.add(r, x);
+        }
+    }
+
+    private void summariseCategories(String column, List<Map<String, Object>> rows) {
+        Map<String, Long> thisGame = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            Object value = row.get(column);
+            if (value != null)
+                thisGame.merge(value.toString(), 1L, Long::sum);
+        }
+        if (thisGame.isEmpty())
+            return;
+
+        Map<String, Long> counts = categoryCounts.computeIfAbsent(column, k -> new LinkedHashMap<>());
+        Map<String, OnlineNumericSummary> perGame = categoryCountsPerGame.computeIfAbsent(column, k -> new LinkedHashMap<>());
+        long previousGames = gamesWithValues.getOrDefault(column, 0L);
+        Map<String, Long> thisGamePerSummary = new HashMap<>();
+        for (Map.Entry<String, Long> entry : thisGame.entrySet()) {
+            counts.merge(entry.getKey(), entry.getValue(), Long::sum);
+            String category = entry.getKey();
+            if (!perGame.containsKey(category)) {
+                // this category was not seen in any of the games before
+                if (perGame.size() >= MAX_CATEGORIES)
+                    category = OTHER_CATEGORIES;
+                if (!perGame.containsKey(category)) {
+                    OnlineNumericSummary summary = new OnlineNumericSummary();
+                    summary.add(0, previousGames);
+                    perGame.put(category, summary);
+                }
+            }
+            thisGamePerSummary.merge(category, entry.getValue(), Long::sum);
+        }
+        for (Map.Entry<String, OnlineNumericSummary> entry : perGame.entrySet())
+            entry.getValue().add(thisGamePerSummary.getOrDefault(entry.getKey(), 0L));
+        gamesWithValues.put(column, previousGames + 1);
+    }
+
+    /**
+     * @return the number of rows written out so far
+     */
+    public long getRowCount() {
+        return chunks.rows();
+    }
+
+    @Override
+    public IDataProcessor getDefaultProcessor() {
+        return new StreamingDataProcessor();
+    }
+
+    @Override
+    public IDataLogger copy() {
+        StreamingDataLogger retValue = (StreamingDataLogger) emptyCopy();
+        retValue.chunks = chunks.copy();
+        for (Map.Entry<String, List<Map<String, Object>>> entry : rowsByGame.entrySet()) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (Map<String, Object> row : entry.getValue())
+                rows.add(new HashMap<>(row));
+            retValue.rowsByGame.put(entry.getKey(), rows);
+        }
+        retValue.currentRow = new HashMap<>(currentRow);
+        retValue.games = games;
+        numericSummaries.forEach((k, v) -> retValue.numericSummaries.put(k, new OnlineNumericSummary(v)));
+        categoryCounts.forEach((k, v) -> retValue.categoryCounts.put(k, new LinkedHashMap<>(v)));
+        numericSummariesByRow.forEach((k, v) -> retValue.numericSummariesByRow.put(k, new RowSummaries(v)));
+        categoryCountsPerGame.forEach((k, v) -> {
+            Map<String, OnlineNumericSummary> perGame = new LinkedHashMap<>();
+            v.forEach((c, s) -> perGame.put(c, new OnlineNumericSummary(s)));
+            retValue.categoryCountsPerGame.put(k, perGame);
+        });
+        retValue.gamesWithValues.putAll(gamesWithValues);
+        return retValue;
+    }
+
+    @Override
+    public IDataLogger emptyCopy() {
+        StreamingDataLogger retValue = (StreamingDataLogger) create();
+        retValue.columns.putAll(columns);
+        return retValue;
+    }
+
+    @Override
+    public IDataLogger create() {
+        return new StreamingDataLogger(metric, directory, rowsPerChunk);
+    }
+
+    /**
+     * Summaries of the values of a column at each row position of a game, for at most MAX_ROW_POINTS positions.
+     * Each point summarises rowsPerPoint consecutive rows; when a game has more rows than there are points for,
+     * neighbouring points are merged in pairs and rowsPerPoint doubles.
+     */
+    static class RowSummaries {
+        int rowsPerPoint = 1;
+        final List<OnlineNumericSummary> points = new ArrayList<>();
+
+        RowSummaries() {
+        }
+
+        RowSummaries(RowSummaries other) {
+            rowsPerPoint = other.rowsPerPoint;
+            for (OnlineNumericSummary s : other.points)
+                points.add(new OnlineNumericSummary(s));
+        }
+
+        void add(int row, double x) {
+            while (row / rowsPerPoint >= MAX_ROW_POINTS)
+                halve();
+            int point = row / rowsPerPoint;
+            while (points.size() <= point)
+                points.add(new OnlineNumericSummary());
+            points.get(point).add(x);
+        }
+
+        private void halve() {
+            for (int i = 0; i < points.size(); i += 2) {
+                OnlineNumericSummary merged = points.get(i);
+                if (i + 1 < points.size())
+                    merged.merge(points.get(i + 1));
+                points.set(i / 2, merged);
+            }
+            points.subList((points.size() + 1) / 2, points.size()).clear();
+            rowsPerPoint *= 2;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package evaluation.metrics.streaming;
+
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.IDataProcessor;
+import evaluation.metrics.tablessaw.TableSawDataProcessor;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.plotly.components.Axis;
+import tech.tablesaw.plotly.components.Figure;
+import tech.tablesaw.plotly.components.Layout;
+import tech.tablesaw.plotly.components.Line;
+import tech.tablesaw.plotly.traces.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static evaluation.metrics.tablessaw.TableSawDataProcessor.getLabel;
+
+/**
+ * Reports the data of a {@link StreamingDataLogger}. Summaries and plots are made from the summaries the logger
+ * keeps as the data comes in, so they take the same time and memory however many games were played.
+ * The raw data is copied from the chunk files the logger wrote.
+ * <p>
+ * The reports are laid out as those of {@link TableSawDataProcessor}, with these differences, as the raw data is
+ * not available:
+ * - quantiles are estimated from a sample (of OnlineNumericSummary.DEFAULT_SAMPLE_SIZE values)
+ * - the summary of a categorical column over the course of a game has the statistics of the count of each category
+ * per game (for at most StreamingDataLogger.MAX_CATEGORIES categories), but not the table of the counts in each game
+ * - the progression of a numeric column through a game has a point for each group of rows, rather than each row,
+ * when games have more than StreamingDataLogger.MAX_ROW_POINTS rows
+ * - a numeric column with one value per game is plotted as a histogram rather than against the GameID, and the box
+ * plots of categorical counts per game are drawn from the sample of the counts
+ */
+public class StreamingDataProcessor implements IDataProcessor {
+
+    @Override
+    public void processRawDataToFile(IDataLogger logger, String folderName) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        sdl.finish();
+        sdl.chunks.writeTo(new File(folderName + "/" + sdl.metric.getName() + ".csv"));
+    }
+
+    @Override
+    public void processRawDataToConsole(IDataLogger logger) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        sdl.finish();
+        System.out.println();
+        try {
+            // not closed, as that would close System.out
+            Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            sdl.chunks.writeTo(writer);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return true if the logger has more than one row per game, so the data shows the progression through a game
+     */
+    private boolean isProgression(StreamingDataLogger sdl) {
+        return sdl.games < sdl.getRowCount();
+    }
+
+    private Map<String, List<Table>> getSummarisedData(StreamingDataLogger sdl) {
+        sdl.finish();
+        String name = sdl.metric.getName();
+        boolean progression = isProgression(sdl);
+        Map<String, List<Table>> allDataSummaries = new LinkedHashMap<>();
+        for (String column : sdl.columns.keySet()) {
+            if (!sdl.metric.getColumnNames().contains(column))
+                continue;
+            if (sdl.numericSummaries.containsKey(column)) {
+                allDataSummaries.put(column, Collections.singletonList(
+                        numericSummary(name + "_" + column, sdl.numericSummaries.get(column))));
+            } else if (progression && sdl.categoryCountsPerGame.containsKey(column)) {
+                allDataSummaries.put(column, Collections.singletonList(
+                        categoryStats("Stats " + column, sdl.categoryCountsPerGame.get(column))));
+            } else if (sdl.categoryCounts.containsKey(column)) {
+                allDataSummaries.put(column, Collections.singletonList(
+                        categoryCounts(name + "_" + column, sdl.categoryCounts.get(column))));
+            }
+        }
+        return allDataSummaries;
+    }
+
+    private Table numericSummary(String name, OnlineNumericSummary summary) {
+        return Table.create(name,
+                StringColumn.create("Measure", "Count", "Sum", "Mean", "Min", "Max", "Range", "Variance",
+                        "Std. Dev", "25th Percentile (est.)", "Median (est.)", "75th Percentile (est.)"),
+                DoubleColumn.create("Value", summary.n(), summary.sum(), summary.mean(), summary.min(), summary.max(),
+                        summary.max() - summary.min(), summary.variance(), summary.sd(),
+                        summary.quantile(0.25), summary.quantile(0.5), summary.quantile(0.75)));
+    }
+
+    private Table categoryCounts(String name, Map<String, Long> counts) {
+        StringColumn categories = StringColumn.create("Category");
+        DoubleColumn values = DoubleColumn.create("Count");
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            categories.append(entry.getKey());
+            values.append(entry.getValue());
+        }
+        return Table.create(name, categories, values);
+    }
+
+    private Table categoryStats(String name, Map<String, OnlineNumericSummary> countsPerGame) {
+        StringColumn categories = StringColumn.create("Category");
+        DoubleColumn n = DoubleColumn.create("Count"), mean = DoubleColumn.create("Mean"),
+                min = DoubleColumn.create("Min"), max = DoubleColumn.create("Max"),
+                sd = DoubleColumn.create("Std. Dev"), median = DoubleColumn.create("Median (est.)");
+        for (Map.Entry<String, OnlineNumericSummary> entry : countsPerGame.entrySet()) {
+            OnlineNumericSummary s = entry.getValue();
+            categories.append(entry.getKey());
+            n.append(s.n());
+            mean.append(s.mean());
+            min.append(s.min());
+            max.append(s.max());
+            sd.append(s.sd());
+            median.append(s.median());
+        }
+        return Table.create(name, categories, n, mean, min, max, sd, median).sortDescendingOn("Mean");
+    }
+
+    @Override
+    public void processSummaryToConsole(IDataLogger logger) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        for (List<Table> tables : getSummarisedData(sdl).values()) {
+            System.out.println();
+            for (Table t : tables) {
+                System.out.println(t + "\n");
+            }
+        }
+    }
+
+    @Override
+    public void processSummaryToFile(IDataLogger logger, String folderName) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        Map<String, List<Table>> summarisedData = getSummarisedData(sdl);
+
+        File summaryFolderMetric = new File(folderName + "/summaries/" + sdl.metric.getName());
+        if (summaryFolderMetric.exists() || summaryFolderMetric.mkdirs()) {
+            for (List<Table> tables : summarisedData.values()) {
+                for (Table t : tables) {
+                    t.write().csv(summaryFolderMetric + "/" + t.name() + ".csv");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void processPlotToFile(IDataLogger logger, String folderName) {
+        StreamingDataLogger sdl = (StreamingDataLogger) logger;
+        sdl.finish();
+        File plotFolderMetric = new File(folderName + "/plots/" + sdl.metric.getName());
+        if (plotFolderMetric.exists() || plotFolderMetric.mkdirs()) {
+            Map<String, Figure> figures = isProgression(sdl) ? plotDataProgression(sdl) : plotData(sdl);
+            for (Map.Entry<String, Figure> figure : figures.entrySet()) {
+                TableSawDataProcessor.TAGPlot.save(figure.getValue(), new File(plotFolderMetric + "/" + figure.getKey() + ".html"));
+            }
+        }
+    }
+
+    @Override
+    public void processPlotToConsole(IDataLogger logger) {
+        System.out.println("Plot report to console not implemented yet");
+    }
+
+    /**
+     * Progression over the course of a game, averaged across the different games recorded.
+     */
+    protected Map<String, Figure> plotDataProgression(StreamingDataLogger sdl) {
+        String name = sdl.metric.getName();
+        Map<String, Figure> figures = new LinkedHashMap<>();
+        for (String column : sdl.columns.keySet()) {
+            if (!sdl.metric.getColumnNames().contains(column))
+                continue;
+            if (sdl.numericSummariesByRow.containsKey(column)) {
+                // Make a line plot - actually 3 lines, mean, mean+sd, mean-sd
+                StreamingDataLogger.RowSummaries rowSummaries = sdl.numericSummariesByRow.get(column);
+                List<OnlineNumericSummary> byRow = rowSummaries.points;
+                double[] x = new double[byRow.size()];
+                double[] yMean = new double[byRow.size()];
+                double[] yMeanSdMinus = new double[byRow.size()];
+                double[] yMeanSdPlus = new double[byRow.size()];
+                for (int j = 0; j < byRow.size(); j++) {
+                    OnlineNumericSummary ss = byRow.get(j);
+                    x[j] = j * rowSummaries.rowsPerPoint;  // the first row of each point
+                    yMean[j] = ss.mean();
+                    yMeanSdMinus[j] = yMean[j] - ss.stdErr();
+                    yMeanSdPlus[j] = yMean[j] + ss.stdErr();
+                }
+
+                Trace yMeanSdPlusTrace = ScatterTrace.builder(x, yMeanSdPlus).name("Mean + SD")
+                        .opacity(0.3)
+                        .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
+                        .mode(ScatterTrace.Mode.LINE).build();
+                Trace yMeanTrace = ScatterTrace.builder(x, yMean).name("Mean")
+                        .mode(ScatterTrace.Mode.LINE)
+                        .line(Line.builder().width(2).color("rgb(0, 0, 255)").build())
+                        .build();
+                Trace yMeanSdMinusTrace = ScatterTrace.builder(x, yMeanSdMinus).name("Mean - SD")
+                        .opacity(0.3)
+                        .line(Line.builder().simplify(true).dash(Line.Dash.DASH_DOT).color("rgb(0, 0, 255)").build())
+                        .mode(ScatterTrace.Mode.LINE).build();
+
+                Layout layout = Layout.builder().title(name)
+                        .height(600).width(800)
+                        .yAxis(Axis.builder().title(column).build())
+                        .xAxis(Axis.builder().title(getLabel(sdl.metric)).build())
+                        .build();
+                figures.put(column, new Figure(layout, yMeanSdPlusTrace, yMeanTrace, yMeanSdMinusTrace));
+            } else if (sdl.categoryCountsPerGame.containsKey(column)) {
+                // Make box plots from the (sampled) categorical counts across games
+                List<Object> categories = new ArrayList<>();
+                List<Double> counts = new ArrayList<>();
+                for (Map.Entry<String, OnlineNumericSummary> entry : sdl.categoryCountsPerGame.get(column).entrySet()) {
+                    for (double count : entry.getValue().getSample()) {
+                        categories.add(entry.getKey());
+                        counts.add(count);
+                    }
+                }
+                Layout layout = Layout.builder().title(name)
+                        .height(600).width(800)
+                        .yAxis(Axis.builder().title("Count").build())
+                        .xAxis(Axis.builder().title(column).categoryOrder(Axis.CategoryOrder.CATEGORY_ASCENDING).build())
+                        .build();
+                BoxTrace trace = BoxTrace.builder(categories.toArray(),
+                        counts.stream().mapToDouble(Double::doubleValue).toArray()).build();
+                figures.put(column, new Figure(layout, trace));
+            }
+        }
+        return figures;
+    }
+
+    /**
+     * Plots of data with one row per game.
+     */
+    protected Map<String, Figure> plotData(StreamingDataLogger sdl) {
+        String name = sdl.metric.getName();
+        Map<String, Figure> figures = new LinkedHashMap<>();
+        for (String column : sdl.columns.keySet()) {
+            if (!sdl.metric.getColumnNames().contains(column))
+                continue;
+            if (sdl.numericSummaries.containsKey(column)) {
+                Layout layout = Layout.builder().title(name)
+                        .xAxis(Axis.builder().title(column).build())
+                        .yAxis(Axis.builder().title("Games (sample)").build())
+                        .build();
+                HistogramTrace trace = HistogramTrace.builder(sdl.numericSummaries.get(column).getSample()).build();
+                figures.put(column, new Figure(layout, trace));
+            } else if (sdl.categoryCounts.containsKey(column)) {
+                // Make a bar plot from the categorical count
+                Map<String, Long> counts = sdl.categoryCounts.get(column);
+                double[] y = counts.values().stream().mapToDouble(Long::doubleValue).toArray();
+                Layout layout = Layout.builder()
+                        .title(name)
+                        .yAxis(Axis.builder().title(column).build())
+                        .xAxis(Axis.builder().categoryOrder(Axis.CategoryOrder.TRACE).build())
+                        .build();
+                BarTrace trace = BarTrace.builder(counts.keySet().toArray(), y).build();
+                figures.put(column, new Figure(layout, trace));
+            }
+        }
+        return figures;
+    }
+}
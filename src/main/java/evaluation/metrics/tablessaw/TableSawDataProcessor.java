@@ -354,7 +354,7 @@ public class TableSawDataProcessor implements IDataProcessor {
      * @param metric - the metric
      * @return - the label
      */
-    protected String getLabel(AbstractMetric metric) {
+    public static String getLabel(AbstractMetric metric) {
         if (metric.listens(Event.GameEvent.GAME_EVENT)
                 || metric.listens(Event.GameEvent.ACTION_CHOSEN)
                 || metric.listens(Event.GameEvent.ACTION_TAKEN)) {
@@ -399,7 +399,7 @@ public class TableSawDataProcessor implements IDataProcessor {
     /**
      * Overwrites functionality to only save the figures as .html files, rather than opening the browsers too.
      */
-    static class TAGPlot extends Plot {
+    public static class TAGPlot extends Plot {
         public static void save(Figure figure, File outputFile) {
             Page page = Page.pageBuilder(figure, "target").build();
             String output = page.asJavascript();
@@ -12,6 +12,7 @@ import evodef.SolutionEvaluator;
 import games.GameType;
 
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
@@ -94,6 +95,47 @@ public class GameEvaluator implements SolutionEvaluator {
      */
     @Override
     public double evaluate(int[] settings) {
+        return prepareEvaluation(settings, false).call();
+    }
+
+    /**
+     * Evaluates a batch of settings, playing the games in parallel on the executor.
+     * <p>
+     * Everything that uses the random number generator (the choice of opponents and their seeds, the seed of the
+     * agent being tuned, and the seed for each game) is decided here in turn, before any game starts, so the results
+     * are the same as calling evaluate(int[]) on each of the settings in order, whatever order the games finish in.
+     *
+     * @param batch    the settings to evaluate
+     * @param executor runs the games; each game has its own Game, game parameters and players. If null the games
+     *                 are run in turn on the calling thread.
+     * @return the game score for each of the settings, in the same order as batch
+     */
+    public double[] evaluate(List<int[]> batch, ExecutorService executor) {
+        if (executor == null)
+            return batch.stream().mapToDouble(this::evaluate).toArray();
+        List<Future<Double>> results = new ArrayList<>(batch.size());
+        for (int[] settings : batch)
+            results.add(executor.submit(prepareEvaluation(settings, true)));
+        double[] retValue = new double[batch.size()];
+        try {
+            for (int i = 0; i < retValue.length; i++)
+                retValue[i] = results.get(i).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for evaluation games to finish", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Evaluation game failed : " + e.getCause().getMessage(), e.getCause());
+        }
+        return retValue;
+    }
+
+    /**
+     * Sets up the game for a single evaluation, and returns the task that plays it and scores the result.
+     *
+     * @param copyParams if true the game has its own copy of the game parameters, so that it can be run at the same
+     *                   time as other games (and after the search space has moved on to other settings)
+     */
+    private Evaluation prepareEvaluation(int[] settings, boolean copyParams) {
         if (debug)
             System.out.printf("Starting evaluation %d of %s at %tT%n", nEvals,
                     Arrays.toString(settings), System.currentTimeMillis());
@@ -101,7 +143,17 @@ public class GameEvaluator implements SolutionEvaluator {
         boolean tuningPlayer = configuredThing instanceof AbstractPlayer;
         boolean tuningGame = configuredThing instanceof Game;
 
-        Game newGame = tuningGame ? (Game) configuredThing : game.createGameInstance(nPlayers, gameParams);
+        Game newGame;
+        if (!copyParams) {
+            newGame = tuningGame ? (Game) configuredThing : game.createGameInstance(nPlayers, gameParams);
+        } else if (tuningGame) {
+            // the configured game uses the search space's own parameters, which change for the next settings
+            Game configuredGame = (Game) configuredThing;
+            newGame = configuredGame.getGameType().createGameInstance(configuredGame.getGameState().getNPlayers(),
+                    configuredGame.getGameState().getGameParameters().copy());
+        } else {
+            newGame = game.createGameInstance(nPlayers, gameParams == null ? null : gameParams.copy());
+        }
         // we assign one player to each team (the default for a game is each player being their own team of 1)
         int nTeams = newGame.getGameState().getNTeams();
         List<AbstractPlayer> allPlayers = new ArrayList<>(nTeams);
@@ -113,37 +165,46 @@ public class GameEvaluator implements SolutionEvaluator {
         // create a random permutation of opponents - this is used if we want to avoid opponent duplicates
         // if we allow duplicates, then we randomise them all independently
         List<Integer> opponentOrdering = IntStream.range(0, opponents.size()).boxed().collect(toList());
-        Collections.shuffle(opponentOrdering);
+        Collections.shuffle(opponentOrdering, rnd);
         int count = 0;
         for (int i = 0; i < nTeams; i++) {
             if (!fullyCoop && i != playerIndex) {
                 int oppIndex = (avoidOppDupes) ? count : rnd.nextInt(opponents.size());
                 count = (count + 1) % nTeams;
-                allPlayers.add(opponents.get(oppIndex).copy());
+                // seeded from rnd, so that the games do not depend on how the opponents were seeded
+                allPlayers.add(opponents.get(oppIndex).copyWithSeed(rnd.nextLong()));
             } else {
                 AbstractPlayer tunedPlayer = (AbstractPlayer) searchSpace.getAgent(settings); // we create for each, in case this is coop
-                allPlayers.add(tunedPlayer);
+                allPlayers.add(tunedPlayer.copyWithSeed(rnd.nextLong()));
             }
         }
 
         // always reset the random seed for each new game
-        newGame.reset(allPlayers, rnd.nextLong());
-
-        newGame.run();
-        int playerOnTeam = -1;
-        for (int p = 0; p < newGame.getGameState().getNPlayers(); p++) {
-            if (newGame.getGameState().getTeam(p) == playerIndex) {
-                playerOnTeam = p;
+        long seed = rnd.nextLong();
+        nEvals++;
+        return () -> {
+            newGame.reset(allPlayers, seed);
+
+            newGame.run();
+            // when tuning a game there is no player being tuned (playerIndex is -99), so we just score the game
+            if (tuningGame)
+                return gameHeuristic.evaluateGame(newGame);
+            int playerOnTeam = -1;
+            for (int p = 0; p < newGame.getGameState().getNPlayers(); p++) {
+                if (newGame.getGameState().getTeam(p) == playerIndex) {
+                    playerOnTeam = p;
+                }
             }
-        }
-        if (playerOnTeam == -1)
-            throw new AssertionError("No Player found on team " + playerIndex);
-        double retValue = tuningGame ? gameHeuristic.evaluateGame(newGame) : stateHeuristic.evaluateState(newGame.getGameState(), playerOnTeam);
-
-    //    System.out.println("GameEvaluator: " + retValue);
+            if (playerOnTeam == -1)
+                throw new AssertionError("No Player found on team " + playerIndex);
+            return stateHeuristic.evaluateState(newGame.getGameState(), playerOnTeam);
+        };
+    }
 
-        nEvals++;
-        return retValue;
+    // A Callable that does not throw checked exceptions, so that evaluate(int[]) can run it directly
+    private interface Evaluation extends Callable<Double> {
+        @Override
+        Double call();
     }
 
     public void addListener(IGameListener listener) {
@@ -12,6 +12,7 @@ import static java.util.stream.Collectors.toMap;
 
 public class MultiNTBEA extends NTBEA {
 
+    MultiNTupleBanditEA searchFramework;
     GameMultiPlayerEvaluator multiPlayerEvaluator;
 
     public MultiNTBEA(NTBEAParameters parameters, GameType game, int nPlayers) {
@@ -10,7 +10,6 @@ import evaluation.listeners.IGameListener;
 import evaluation.tournaments.RoundRobinTournament;
 import org.apache.commons.math3.util.CombinatoricsUtils;
 import games.GameType;
-import ntbea.NTupleBanditEA;
 import ntbea.NTupleSystem;
 import players.PlayerFactory;
 import players.heuristics.OrdinalPosition;
@@ -25,6 +24,8 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.IntToDoubleFunction;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -39,7 +40,6 @@ public class NTBEA {
 
     NTBEAParameters params;
     NTupleSystem landscapeModel;
-    NTupleBanditEA searchFramework;
     List<Object> winnersPerRun = new ArrayList<>();
     List<int[]> winnerSettings = new ArrayList<>();
     List<int[]> elites = new ArrayList<>();
@@ -50,6 +50,10 @@ public class NTBEA {
     int currentIteration = 0;
     IStateHeuristic stateHeuristic;
     IGameHeuristic gameHeuristic;
+    // With nThreads > 1 the evaluation games are played on this (otherwise it is null)
+    ExecutorService executor;
+    // Our version of the search of the NTBEA library, as that does not allow its random number generator to be seeded
+    NTBEASearch search;
 
     public NTBEA(NTBEAParameters parameters, GameType game, int nPlayers) {
         // Now initialise the other bits and pieces needed for the NTBEA package
@@ -58,9 +62,9 @@ public class NTBEA {
         landscapeModel.setUse3Tuple(params.useThreeTuples);
         landscapeModel.addTuples();
 
-        searchFramework = new NTupleBanditEA(landscapeModel, params.kExplore, params.neighbourhoodSize);
         this.game = game;
         this.nPlayers = nPlayers;
+        search = new NTBEASearch(landscapeModel, params.kExplore, params.neighbourhoodSize, new Random(params.seed));
         // Set up opponents
         // if we are in coop mode, then we have no opponents. This is indicated by leaving the list empty.
         List<AbstractPlayer> opponents = params.mode == NTBEAParameters.Mode.CoopNTBEA ? new ArrayList<>()
@@ -128,8 +132,17 @@ public class NTBEA {
      */
     public Pair<Object, int[]> run() {
 
-        for (currentIteration = 0; currentIteration < params.repeats; currentIteration++) {
-            runIteration();
+        if (params.nThreads > 1)
+            executor = Executors.newFixedThreadPool(params.nThreads);
+        try {
+            for (currentIteration = 0; currentIteration < params.repeats; currentIteration++) {
+                runIteration();
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
         }
 
         // After all runs are complete, if tournamentGames are specified, then we allow all the
@@ -167,6 +180,7 @@ public class NTBEA {
                 config.put(matchups, gamesPerMatchup);
                 config.put(byTeam, false);
                 config.put(RunArg.distinctRandomSeeds, 0);
+                config.put(RunArg.nThreads, params.nThreads);
                 RoundRobinTournament tournament = new RoundRobinTournament(players, game, nPlayers, params.gameParams,
                         NO_SELF_PLAY, config);
                 tournament.verbose = false;
@@ -219,7 +233,20 @@ public class NTBEA {
 
     protected void runTrials() {
         evaluator.reset();
-        searchFramework.runTrial(evaluator, params.iterationsPerRun);
+        runSearch();
+    }
+
+    /**
+     * Runs nThreads searches side by side on the one landscape model (see NTBEASearch), with one thread the same
+     * single search as NTupleBanditEA.
+     * <p>
+     * Everything random in the search is driven by its own random number generator, and everything random in the
+     * evaluation games (including the seeds of the opponents and of the agent being tuned) by the evaluator's, both
+     * of which are seeded from params.seed. So for a given seed and number of threads, the results are the same each
+     * time, as long as the game and players only use the seeds they are given.
+     */
+    protected void runSearch() {
+        search.run(params.iterationsPerRun, params.nThreads, batch -> evaluator.evaluate(batch, executor));
     }
 
     protected void runIteration() {
@@ -258,8 +285,9 @@ public class NTBEA {
 
     protected Pair<Double, Double> evaluateWinner(int[] winnerSettings) {
 
-        double[] results = IntStream.range(0, params.evalGames)
-                .mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray();
+        double[] results = executor != null
+                ? evaluator.evaluate(Collections.nCopies(params.evalGames, winnerSettings), executor)
+                : IntStream.range(0, params.evalGames).mapToDouble(answer -> evaluator.evaluate(winnerSettings)).toArray();
 
         double avg = Arrays.stream(results).average().orElse(0.0);
         double stdErr = Math.sqrt(Arrays.stream(results)
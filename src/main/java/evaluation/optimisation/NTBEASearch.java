@@ -0,0 +1,97 @@
+package evaluation.optimisation;
+
+import evodef.SearchSpace;
+import evodef.SearchSpaceUtil;
+import ntbea.NTupleSystem;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Our version of NTupleBanditEA.runTrial(), which NTBEA uses whatever the number of threads. This runs a number of
+ * searches side by side that share the one landscape model (a single search is the same as NTupleBanditEA). At each
+ * step the current settings of each search are evaluated together, the results are added to the model in a fixed
+ * order, and then each search moves to the most promising of the neighbours of its current settings, with the same
+ * UCB score, neighbourhood size and mutation as NTupleBanditEA.
+ * <p>
+ * Unlike the library, everything random is driven by the random number generator we are given, so that a search
+ * can be repeated from a seed.
+ */
+class NTBEASearch {
+
+    private final NTupleSystem landscapeModel;
+    private final SearchSpace searchSpace;
+    private final double kExplore;
+    private final int nNeighbours;
+    private final Random rnd;
+
+    NTBEASearch(NTupleSystem landscapeModel, double kExplore, int neighbourhoodSize, Random rnd) {
+        this.landscapeModel = landscapeModel;
+        this.searchSpace = landscapeModel.getSearchSpace();
+        this.kExplore = kExplore;
+        this.nNeighbours = (int) Math.max(5, Math.min(neighbourhoodSize, SearchSpaceUtil.size(searchSpace) / 4));
+        this.rnd = rnd;
+    }
+
+    /**
+     * @param iterations - the total number of settings to evaluate, over all the searches
+     * @param nSearches  - the number of searches to run side by side
+     * @param evaluate   - scores a batch of settings (one from each search, or fewer at the end), in the same order
+     */
+    void run(int iterations, int nSearches, Function<List<int[]>, double[]> evaluate) {
+        int[][] current = new int[Math.max(1, nSearches)][];
+        for (int i = 0; i < current.length; i++)
+            current[i] = randomPoint();
+        for (int done = 0; done < iterations; done += current.length) {
+            List<int[]> batch = Arrays.asList(current).subList(0, Math.min(current.length, iterations - done));
+            double[] results = evaluate.apply(batch);
+            for (int i = 0; i < results.length; i++)
+                landscapeModel.addPoint(batch.get(i), results[i]);
+            for (int i = 0; i < current.length; i++)
+                current[i] = bestNeighbour(current[i]);
+        }
+    }
+
+    private int[] randomPoint() {
+        return IntStream.range(0, searchSpace.nDims())
+                .map(i -> rnd.nextInt(searchSpace.nValues(i)))
+                .toArray();
+    }
+
+    // as NTupleBanditEA, this considers nNeighbours different neighbours (as far as there are that many)
+    private int[] bestNeighbour(int[] point) {
+        int[] retValue = point;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        Set<String> considered = new HashSet<>();
+        for (int attempt = 0; considered.size() < nNeighbours && attempt < nNeighbours * 10; attempt++) {
+            int[] neighbour = mutate(point);
+            if (!considered.add(Arrays.toString(neighbour)))
+                continue;
+            // a little noise to break ties at random
+            double score = landscapeModel.getMeanEstimate(neighbour)
+                    + kExplore * landscapeModel.getExplorationEstimate(neighbour)
+                    + rnd.nextDouble() * 1e-6;
+            if (score > bestScore) {
+                bestScore = score;
+                retValue = neighbour;
+            }
+        }
+        return retValue;
+    }
+
+    // as DefaultMutator: each dimension changes with probability 1/nDims, and at least one always changes
+    private int[] mutate(int[] point) {
+        int[] retValue = point.clone();
+        int nDims = retValue.length;
+        int alwaysMutate = rnd.nextInt(nDims);
+        for (int i = 0; i < nDims; i++) {
+            int nValues = searchSpace.nValues(i);
+            if (nValues > 1 && (i == alwaysMutate || rnd.nextDouble() < 1.0 / nDims)) {
+                int newValue = rnd.nextInt(nValues - 1);
+                retValue[i] = newValue < point[i] ? newValue : newValue + 1;
+            }
+        }
+        return retValue;
+    }
+}
@@ -0,0 +1,128 @@
+package evaluation.summarisers;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative whole numbers (typically durations in nanoseconds) that uses a fixed amount of memory
+ * however many values are recorded, in the style of HdrHistogram.
+ * <p>
+ * Values below 128 each have their own bucket. Above that the buckets double in width with each power of two, with
+ * 64 buckets per power of two, so that any percentile is known to within 1/64 (about 1.5%) of its true value. Values
+ * of 2^44 or more (about 4.9 hours in nanoseconds) are counted as 2^44 - 1. The count, min, max and mean are exact.
+ */
+public class TAGHistogram {
+
+    private static final int LINEAR_BITS = 7;
+    private static final int N_LINEAR = 1 << LINEAR_BITS;
+    private static final int SUB_BUCKETS = N_LINEAR / 2;
+    public static final long MAX_VALUE = (1L << 44) - 1;
+    private static final int N_BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    private final long[] counts = new long[N_BUCKETS];
+    private long n, sum;
+    private long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+
+    static int indexOf(long value) {
+        if (value < N_LINEAR)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (LINEAR_BITS - 1);
+        return N_LINEAR + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    // the lowest value that is counted in the bucket
+    static long lowestValue(int index) {
+        if (index < N_LINEAR)
+            return index;
+        int shift = (index - N_LINEAR) / SUB_BUCKETS + 1;
+        return (long) ((index - N_LINEAR) % SUB_BUCKETS + SUB_BUCKETS) << shift;
+    }
+
+    public void record(long value) {
+        value = Math.max(0, Math.min(value, MAX_VALUE));
+        counts[indexOf(value)]++;
+        n++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all the values recorded in the other histogram to this one.
+     */
+    public void add(TAGHistogram other) {
+        if (other.n == 0)
+            return;
+        for (int i = 0; i < N_BUCKETS; i++)
+            counts[i] += other.counts[i];
+        n += other.n;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        n = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    public long n() {
+        return n;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    public long min() {
+        return n == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return n == 0 ? 0 : max;
+    }
+
+    public double mean() {
+        return n == 0 ? 0.0 : sum / (double) n;
+    }
+
+    /**
+     * @param percentile - between 0 and 100
+     * @return the highest value in the bucket that holds the given percentile of the values recorded (or 0 if none
+     * have been), which is never more than max()
+     */
+    public long percentile(double percentile) {
+        if (n == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < N_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.max(min, Math.min(max, lowestValue(i + 1) - 1));
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of values recorded that are no more than the given value; this is exact for values
+     * below 128, and otherwise includes all of the values in the same bucket
+     */
+    public long countAtOrBelow(long value) {
+        if (value < 0)
+            return 0;
+        int last = indexOf(Math.min(value, MAX_VALUE));
+        long retValue = 0;
+        for (int i = 0; i <= last; i++)
+            retValue += counts[i];
+        return retValue;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n: %d, mean: %.1f, p50: %d, p90: %d, p99: %d, max: %d",
+                n, mean(), percentile(50), percentile(90), percentile(99), max());
+    }
+}
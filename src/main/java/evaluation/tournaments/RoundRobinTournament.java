@@ -1,9 +1,13 @@
 package evaluation.tournaments;
 
+import core.AbstractGameState;
 import core.AbstractParameters;
 import core.AbstractPlayer;
+import core.Game;
 import evaluation.RunArg;
+import evaluation.listeners.AsyncGameListener;
 import evaluation.listeners.IGameListener;
+import evaluation.listeners.SynchronisedGameListener;
 import evaluation.listeners.TournamentMetricsGameListener;
 import evaluation.tournaments.AbstractTournament.TournamentMode;
 import games.GameType;
@@ -11,6 +15,10 @@ import utilities.Pair;
 
 import java.io.FileWriter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -41,9 +49,17 @@ public class RoundRobinTournament extends AbstractTournament {
     protected long randomSeed = System.currentTimeMillis();
     private int[] gameSeeds;
     long currentSeed;
+    // The seed of the last game played (or submitted), from which the next is found if there are no gameSeeds
+    private long lastGameSeed;
     int tournamentSeeds;
     Random seedRnd = new Random(randomSeed);
 
+    // Parallel execution: games are submitted to the executor, and their outcomes are then recorded strictly in
+    // submission order (see drainPendingGames()) so that the results do not depend on which game finishes first
+    protected int nThreads;
+    private ExecutorService executor;
+    private final List<Pair<List<Integer>, Future<GameOutcome>>> pendingGames = new ArrayList<>();
+
 
     /**
      * Create a round robin tournament, which plays all agents against all others.
@@ -83,6 +99,7 @@ public class RoundRobinTournament extends AbstractTournament {
         this.gamesPerPlayer = new int[agents.size()];
         this.byTeam = (boolean) config.getOrDefault(RunArg.byTeam, false);
         this.tournamentSeeds = (int) config.getOrDefault(RunArg.distinctRandomSeeds, 0);
+        this.nThreads = (int) config.getOrDefault(RunArg.nThreads, 1);
         this.name = String.format("Game: %s, Players: %d, GamesPerMatchup: %d, Mode: %s",
                 gameToPlay.name(), playersPerGame, gamesPerMatchUp, tournamentMode.name());
     }
@@ -105,14 +122,24 @@ public class RoundRobinTournament extends AbstractTournament {
             game.addListener(gameTracker);
         }
         gameSeeds = IntStream.range(0, gamesPerMatchUp).map(i -> seedRnd.nextInt()).toArray();
+        lastGameSeed = game.getGameState().getGameParameters().getRandomSeed();
 
         LinkedList<Integer> matchUp = new LinkedList<>();
         // add outer loop if we have tournamentSeeds enabled; if not this will just run once
-        for (int iter = 0; iter < Math.max(1, tournamentSeeds); iter++) {
-            currentSeed = seedRnd.nextInt();
-            createAndRunMatchUp(matchUp);
+        if (nThreads > 1)
+            executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            for (int iter = 0; iter < Math.max(1, tournamentSeeds); iter++) {
+                currentSeed = seedRnd.nextInt();
+                createAndRunMatchUp(matchUp);
+            }
+            reportResults();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+                executor = null;
+            }
         }
-        reportResults();
 
         for (IGameListener listener : listeners)
             listener.report();
@@ -220,7 +247,17 @@ public class RoundRobinTournament extends AbstractTournament {
         Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
         for (IGameListener listener : listeners) {
             if (listener instanceof TournamentMetricsGameListener) {
+                // the listener records results against the current matchup, so all earlier games must be finished first
+                drainPendingGames();
                 ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, new HashSet<>(matchUpPlayers));
+            } else if (listener instanceof AsyncGameListener &&
+                    ((AsyncGameListener) listener).getWrappedListener() instanceof TournamentMetricsGameListener) {
+                // as above, but the listener's worker thread only gets to this after the events of all the earlier
+                // games, by when our game will have moved on, so it is given a snapshot of it
+                drainPendingGames();
+                Game snapshot = game.snapshot(game.getGameState().copy(), true);
+                Set<AbstractPlayer> players = new HashSet<>(matchUpPlayers);
+                ((AsyncGameListener) listener).execute(l -> ((TournamentMetricsGameListener) l).tournamentInit(snapshot, nPlayers, agentNames, players));
             }
         }
 
@@ -229,10 +266,20 @@ public class RoundRobinTournament extends AbstractTournament {
             // if tournamentSeeds > 0, then we are running this many tournaments, each with a different random seed fixed for the whole tournament
             // otherwise (the lines below), we are running a single tournament with a different random seed for each game
             if (tournamentSeeds == 0) {
-                currentSeed = gameSeeds == null ? game.getGameState().getGameParameters().getRandomSeed() + (i * 255) : gameSeeds[i];
+                currentSeed = gameSeeds == null ? lastGameSeed + (i * 255) : gameSeeds[i];
+            }
+            lastGameSeed = currentSeed;
+            // Each game is played by copies of the agents, made here in the order the games are played, whether or
+            // not the game is then run in parallel; so the results are the same for any number of threads
+            List<AbstractPlayer> gamePlayers = new ArrayList<>();
+            for (AbstractPlayer player : matchUpPlayers)
+                gamePlayers.add(player.copyForGame());
+            if (executor != null) {
+                submitGame(agentIDsInThisGame, gamePlayers, currentSeed);
+                continue;
             }
             // unless we are running a tournament for each individual random seed
-            game.reset(matchUpPlayers, currentSeed);
+            game.reset(gamePlayers, currentSeed);
 
             // Randomize parameters
             if (randomGameParams) {
@@ -241,61 +288,112 @@ public class RoundRobinTournament extends AbstractTournament {
             }
 
             game.run();  // Always running tournaments without visuals
-            GameResult[] results = game.getGameState().getPlayerResults();
-
-            int numDraws = 0;
-            for (int j = 0; j < matchUpPlayers.size(); j++) {
-                nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
-                for (int k = 0; k < matchUpPlayers.size(); k++) {
-                    if (k != j) {
-                        nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
-                    }
+            recordOutcome(agentIDsInThisGame, new GameOutcome(game.getGameState()));
+        }
+    }
+
+    /**
+     * Plays one game on a worker thread. The worker has its own Game (and hence forward model and game state), its
+     * own copy of the game parameters, and the given copies of the players, so nothing is shared with any other game
+     * in progress.
+     */
+    private void submitGame(List<Integer> agentIDsInThisGame, List<AbstractPlayer> gamePlayers, long seed) {
+        // the parameters are copied here on the main thread, and the seed set on the copy
+        AbstractParameters params = game.getGameState().getGameParameters().copy();
+        params.setRandomSeed(seed);
+        GameType gameType = game.getGameType();
+        Future<GameOutcome> outcome = executor.submit(() -> {
+            Game worker = gameType.createGameInstance(nPlayers, seed, params);
+            // an AsyncGameListener takes its snapshots of the events on this thread, outside any lock shared with the
+            // other games
+            for (IGameListener listener : listeners)
+                worker.addListener(listener instanceof AsyncGameListener ? ((AsyncGameListener) listener).forGame()
+                        : new SynchronisedGameListener(listener));
+            worker.reset(gamePlayers, seed);
+            if (randomGameParams) {
+                worker.getGameState().getGameParameters().randomize();
+                System.out.println("Game parameters: " + worker.getGameState().getGameParameters());
+            }
+            worker.run();
+            return new GameOutcome(worker.getGameState());
+        });
+        pendingGames.add(new Pair<>(new ArrayList<>(agentIDsInThisGame), outcome));
+    }
+
+    /**
+     * Waits for all games submitted to the executor, and records their results in the order they were submitted.
+     */
+    protected void drainPendingGames() {
+        try {
+            for (Pair<List<Integer>, Future<GameOutcome>> pending : pendingGames) {
+                recordOutcome(pending.a, pending.b.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for tournament games to finish", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Tournament game failed : " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pendingGames.clear();
+        }
+    }
+
+    private void recordOutcome(List<Integer> agentIDsInThisGame, GameOutcome outcome) {
+        GameResult[] results = outcome.results;
+        int nAgents = agentIDsInThisGame.size();
+
+        int numDraws = 0;
+        for (int j = 0; j < nAgents; j++) {
+            nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
+            for (int k = 0; k < nAgents; k++) {
+                if (k != j) {
+                    nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
                 }
+            }
 
-                // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
-                if (byTeam) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+            // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
+            if (byTeam) {
+                for (int player = 0; player < results.length; player++) {
+                    if (outcome.teams[player] == j) {
+                        numDraws += updatePoints(outcome, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
+                        break; // we stop after one player on the team to avoid double counting
                     }
-                } else {
-                    numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
                 }
+            } else {
+                numDraws += updatePoints(outcome, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
             }
+        }
 
-            if (numDraws > 0) {
-                double pointsPerDraw = 1.0 / numDraws;
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
-                    if (results[j] == GameResult.DRAW_GAME)
-                        pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
-                }
+        if (numDraws > 0) {
+            double pointsPerDraw = 1.0 / numDraws;
+            for (int j = 0; j < nAgents; j++) {
+                if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
+                if (results[j] == GameResult.DRAW_GAME)
+                    pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
             }
+        }
 
-            if (verbose) {
-                StringBuffer sb = new StringBuffer();
-                sb.append("[");
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            sb.append(results[player]).append(",");
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+        if (verbose) {
+            StringBuffer sb = new StringBuffer();
+            sb.append("[");
+            for (int j = 0; j < nAgents; j++) {
+                for (int player = 0; player < results.length; player++) {
+                    if (outcome.teams[player] == j) {
+                        sb.append(results[player]).append(",");
+                        break; // we stop after one player on the team to avoid double counting
                     }
                 }
-                sb.setCharAt(sb.length() - 1, ']');
-                System.out.println(sb);
             }
-
+            sb.setCharAt(sb.length() - 1, ']');
+            System.out.println(sb);
         }
-        totalGamesRun += nGames;
+        totalGamesRun++;
     }
 
-    private int updatePoints(GameResult[] results, List<Integer> matchUpPlayers, int j, int player) {
+    private int updatePoints(GameOutcome outcome, List<Integer> matchUpPlayers, int j, int player) {
         // j is the index of the agent in the matchup; player is the corresponding player number in the game
-        int ordinalPos = game.getGameState().getOrdinalPosition(player);
+        GameResult[] results = outcome.results;
+        int ordinalPos = outcome.ordinalPositions[player];
         rankPerPlayer[j] += ordinalPos;
         rankPerPlayerSquared[j] += ordinalPos * ordinalPos;
 
@@ -339,6 +437,7 @@ public class RoundRobinTournament extends AbstractTournament {
     }
 
     protected void reportResults() {
+        drainPendingGames();
         calculateFinalResults();
         boolean toFile = resultsFile != null && !resultsFile.equals("");
         ArrayList<String> dataDump = new ArrayList<>();
@@ -449,4 +548,25 @@ public class RoundRobinTournament extends AbstractTournament {
     public int getNumberOfAgents() {
         return agents.size();
     }
+
+    /**
+     * The parts of a finished game that the tournament needs to score it. This is extracted as soon as the
+     * game finishes, so that the Game itself can be reset (serial) or discarded (parallel).
+     */
+    protected static class GameOutcome {
+        final GameResult[] results;
+        final int[] ordinalPositions;
+        final int[] teams;
+
+        GameOutcome(AbstractGameState state) {
+            int n = state.getNPlayers();
+            results = state.getPlayerResults().clone();
+            ordinalPositions = new int[n];
+            teams = new int[n];
+            for (int p = 0; p < n; p++) {
+                ordinalPositions[p] = state.getOrdinalPosition(p);
+                teams[p] = state.getTeam(p);
+            }
+        }
+    }
 }
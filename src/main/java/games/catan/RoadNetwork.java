@@ -0,0 +1,210 @@
+package games.catan;
+
+import core.components.BoardNodeWithEdges;
+import core.components.BoardTopology;
+import core.components.Edge;
+import core.components.GraphBoardWithEdges;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the roads and buildings of each player on the Catan graph, and the length of their longest road.
+ * <p>
+ * The graph itself never changes after setup, so the connections between its vertices are taken from the (shared)
+ * BoardTopology of the graph, and each road is a bit in a per-player set over the edges. The longest road is the
+ * longest trail through a player's roads (no road used twice, though vertices may be) that does not pass through a
+ * vertex built on by another player; it is found by a depth-first search over edge indices, which is cheap as a
+ * player has at most 15 roads.
+ * <p>
+ * It is updated as roads and buildings are added: a new road can only lengthen the road network it joins, so only
+ * that network is searched; a new building can only break the roads of other players that run through it.
+ */
+public class RoadNetwork {
+
+    private final BoardTopology topology;
+    // the index (0 to nEdges - 1) of the edge each connection of the topology is on, shared between copies
+    private final int[] connectionEdge;
+    // the component ID of each edge, in ascending order, shared between copies
+    private final int[] edgeIDs;
+    // the vertices at the two ends of each edge (edgeEnds[2 * e] and edgeEnds[2 * e + 1]), shared between copies
+    private final int[] edgeEnds;
+    private final int nWords;
+
+    // the roads of each player, as a set of edge indices: bit e of roads[player * nWords + e / 64]
+    private long[] roads;
+    // the player who has built on each vertex, or -1 if nobody has
+    private byte[] buildingOwner;
+    private int[] lengths;
+
+    /**
+     * Builds the network from the roads and buildings already on the graph.
+     */
+    public RoadNetwork(GraphBoardWithEdges graph, int nPlayers) {
+        topology = graph.getTopology();
+        int[] ids = new int[topology.nConnections()];
+        for (int e = 0; e < ids.length; e++) ids[e] = topology.edgeID(e);
+        edgeIDs = Arrays.stream(ids).distinct().sorted().toArray();
+        connectionEdge = new int[ids.length];
+        edgeEnds = new int[2 * edgeIDs.length];
+        for (int v = 0; v < topology.nNodes(); v++) {
+            for (int e = topology.start(v); e < topology.end(v); e++) {
+                connectionEdge[e] = Arrays.binarySearch(edgeIDs, ids[e]);
+                if (v < topology.target(e)) {
+                    edgeEnds[2 * connectionEdge[e]] = v;
+                    edgeEnds[2 * connectionEdge[e] + 1] = topology.target(e);
+                }
+            }
+        }
+        nWords = (edgeIDs.length + 63) / 64;
+
+        roads = new long[nPlayers * nWords];
+        buildingOwner = new byte[topology.nNodes()];
+        lengths = new int[nPlayers];
+        for (int v = 0; v < topology.nNodes(); v++) {
+            BoardNodeWithEdges node = graph.getNodeByID(topology.getNodeID(v));
+            buildingOwner[v] = (byte) node.getOwnerId();
+            for (Edge edge : node.getEdges()) {
+                if (edge.getOwnerId() >= 0) setRoad(edge.getOwnerId(), indexOfEdge(edge.getComponentID()));
+            }
+        }
+        for (int p = 0; p < nPlayers; p++) lengths[p] = longestRoad(p);
+    }
+
+    private RoadNetwork(RoadNetwork other) {
+        topology = other.topology;
+        connectionEdge = other.connectionEdge;
+        edgeIDs = other.edgeIDs;
+        edgeEnds = other.edgeEnds;
+        nWords = other.nWords;
+        roads = other.roads.clone();
+        buildingOwner = other.buildingOwner.clone();
+        lengths = other.lengths.clone();
+    }
+
+    public RoadNetwork copy() {
+        return new RoadNetwork(this);
+    }
+
+    /**
+     * Adds a road for the player.
+     *
+     * @param edgeID - component ID of the Edge the road is built on
+     * @return the length of the player's longest road with it
+     */
+    public int addRoad(int edgeID, int player) {
+        int edge = indexOfEdge(edgeID);
+        setRoad(player, edge);
+        // Any trail through the new road lies in the network it joins, so we search from each vertex of that
+        int best = lengths[player];
+        long[] used = new long[nWords];
+        boolean[] visited = new boolean[topology.nNodes()];
+        int[] stack = new int[topology.nNodes()];
+        int n = 0;
+        stack[n++] = edgeEnds[2 * edge];
+        visited[edgeEnds[2 * edge]] = true;
+        while (n > 0) {
+            int v = stack[--n];
+            best = Math.max(best, longestFrom(player, v, used));
+            for (int c = topology.start(v); c < topology.end(v); c++) {
+                int next = topology.target(c);
+                if (!visited[next] && hasRoad(player, connectionEdge[c])) {
+                    visited[next] = true;
+                    stack[n++] = next;
+                }
+            }
+        }
+        lengths[player] = best;
+        return best;
+    }
+
+    /**
+     * Adds a building (settlement) for the player, which may break the roads of other players through the vertex.
+     *
+     * @param vertexID - component ID of the vertex built on
+     */
+    public void addBuilding(int vertexID, int player) {
+        int v = topology.indexOf(vertexID);
+        buildingOwner[v] = (byte) player;
+        for (int p = 0; p < lengths.length; p++) {
+            if (p != player && nRoadsAt(p, v) >= 2) lengths[p] = longestRoad(p);
+        }
+    }
+
+    /**
+     * @return the length of the player's longest road, as kept up to date by addRoad() and addBuilding()
+     */
+    public int getLength(int player) {
+        return lengths[player];
+    }
+
+    public int[] getLengths() {
+        return lengths.clone();
+    }
+
+    /**
+     * Finds the length of the player's longest road from scratch, searching from every vertex.
+     */
+    public int longestRoad(int player) {
+        int best = 0;
+        long[] used = new long[nWords];
+        for (int v = 0; v < topology.nNodes(); v++) {
+            if (nRoadsAt(player, v) > 0) best = Math.max(best, longestFrom(player, v, used));
+        }
+        return best;
+    }
+
+    // The longest trail through the player's roads starting at the vertex, not using any road in used
+    private int longestFrom(int player, int vertex, long[] used) {
+        int best = 0;
+        for (int c = topology.start(vertex); c < topology.end(vertex); c++) {
+            int edge = connectionEdge[c];
+            if (hasRoad(player, edge) && (used[edge >>> 6] & (1L << edge)) == 0) {
+                int next = topology.target(c);
+                used[edge >>> 6] |= 1L << edge;
+                // the road can end at another player's building, but not carry on through it
+                int length = 1;
+                if (buildingOwner[next] == -1 || buildingOwner[next] == player)
+                    length += longestFrom(player, next, used);
+                used[edge >>> 6] &= ~(1L << edge);
+                best = Math.max(best, length);
+            }
+        }
+        return best;
+    }
+
+    private int nRoadsAt(int player, int vertex) {
+        int n = 0;
+        for (int c = topology.start(vertex); c < topology.end(vertex); c++) {
+            if (hasRoad(player, connectionEdge[c])) n++;
+        }
+        return n;
+    }
+
+    private boolean hasRoad(int player, int edge) {
+        return (roads[player * nWords + (edge >>> 6)] & (1L << edge)) != 0;
+    }
+
+    private void setRoad(int player, int edge) {
+        roads[player * nWords + (edge >>> 6)] |= 1L << edge;
+    }
+
+    private int indexOfEdge(int edgeID) {
+        int edge = Arrays.binarySearch(edgeIDs, edgeID);
+        if (edge < 0) throw new IllegalArgumentException("Edge not on the board: " + edgeID);
+        return edge;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoadNetwork)) return false;
+        RoadNetwork that = (RoadNetwork) o;
+        return Arrays.equals(roads, that.roads) && Arrays.equals(buildingOwner, that.buildingOwner) &&
+                Arrays.equals(lengths, that.lengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(roads) + Arrays.hashCode(buildingOwner)) + Arrays.hashCode(lengths);
+    }
+}
@@ -50,7 +50,7 @@ public class BuildRoad extends AbstractAction {
             edgeObj.setOwnerId(playerID);
 
             // Check longest road
-            int new_length = cgs.getRoadDistance(x, y, edge);
+            int new_length = cgs.getRoadNetwork().addRoad(edgeObj.getComponentID(), playerID);
             cgs.getRoadLengths()[playerID] = new_length;
             if (new_length > cgs.getLongestRoadLength() && new_length > cp.min_longest_road) {
                 cgs.setLongestRoadLength(new_length);
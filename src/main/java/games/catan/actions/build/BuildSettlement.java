@@ -49,6 +49,11 @@ public class BuildSettlement extends AbstractAction {
             settleTokens.increment();
 
             settlement.setOwnerId(playerID);
+            // which may break the roads of other players
+            cgs.getRoadNetwork().addBuilding(settlement.getComponentID(), playerID);
+            for (int p = 0; p < cgs.getNPlayers(); p++) {
+                cgs.getRoadLengths()[p] = cgs.getRoadNetwork().getLength(p);
+            }
             if(settlement.getHarbour() != null){
                 gs.logEvent(PortSettle, String.valueOf(playerID));
 
@@ -4,8 +4,8 @@ import core.AbstractGameState;
 import core.CoreConstants;
 import core.StandardForwardModel;
 import core.actions.AbstractAction;
+import core.components.BoardTopology;
 import games.chinesecheckers.actions.MovePeg;
-import games.chinesecheckers.components.CCNode;
 import games.chinesecheckers.components.Peg;
 import games.chinesecheckers.components.StarBoard;
 
@@ -47,15 +47,6 @@ public class CCForwardModel extends StandardForwardModel {
         return loadPlayerActions(player, state);
     }
 
-    private static CCNode neighbourInDirection(CCNode node, int dir) {
-        for (CCNode neig : node.getNeighbours()) {
-            if (node.getNeighbourSideMapping().get(neig) == dir) {
-                return neig;
-            }
-        }
-        return null;
-    }
-
     /**
      * Returns true if the peg can be placed on the node
      * All board nodes in the main areas are neutral; the colour here refers just to the 10
@@ -72,10 +63,11 @@ public class CCForwardModel extends StandardForwardModel {
     private List<AbstractAction> loadPlayerActions(int player, CCGameState state) {
         //player index to colour
         Peg.Colour playerCol = state.getPlayerColour(player);
+        StarBoard board = state.starBoard;
         List<AbstractAction> actions = new ArrayList<>();
-        for (CCNode node : state.starBoard.getBoardNodes()) { // Check all Nodes
-            if (node.getOccupiedPeg() != null && node.getOccupiedPeg().getColour() == playerCol) {
-                actions.addAll(exploreNodeAction(node, state));
+        for (int node = 0; node < board.getNNodes(); node++) { // Check all Nodes
+            if (board.getPegColour(node) == playerCol) {
+                exploreNodeAction(node, board, actions);
             }
         }
         return actions;
@@ -85,68 +77,61 @@ public class CCForwardModel extends StandardForwardModel {
      * In which we use a form of breadth-first search to find all the possible moves we can make
      * starting from the given node
      * @param node
-     * @param state
-     * @return
+     * @param board
+     * @param actions - the list to add the moves to
      */
-    private static List<AbstractAction> exploreNodeAction(CCNode node, CCGameState state) {
-        Peg.Colour playerCol = node.getOccupiedPeg().getColour();
-        List<AbstractAction> actions = new ArrayList<>();
+    private static void exploreNodeAction(int node, StarBoard board, List<AbstractAction> actions) {
+        BoardTopology topology = board.getTopology();
+        Peg.Colour playerCol = board.getPegColour(node);
+        // the nodes we have already added a move to
+        boolean[] targets = new boolean[board.getNNodes()];
         // first get the single directly adjacent moves
-        for (CCNode nei_0 : node.getNeighbours()) {
-            if (!nei_0.isNodeOccupied() && isPlayerPlaceable(nei_0.getBaseColour(), playerCol)) {
-                if (node.getOccupiedPeg().getInDestination()) {
-                    if (nei_0.getBaseColour() != Peg.Colour.neutral) {
-                        MovePeg action = new MovePeg(node.getID(), nei_0.getID());
-                        if (!actions.contains(action)) {
-                            actions.add(action);
-                        }
-                    }
-                } else {
-                    MovePeg action = new MovePeg(node.getID(), nei_0.getID());
-                    if (!actions.contains(action)) {
-                        actions.add(action);
-                    }
+        for (int e = topology.start(node); e < topology.end(node); e++) {
+            int nei_0 = topology.target(e);
+            if (!board.isOccupied(nei_0) && isPlayerPlaceable(board.getBaseColour(nei_0), playerCol)) {
+                if (!board.isInDestination(node) || board.getBaseColour(nei_0) != Peg.Colour.neutral) {
+                    targets[nei_0] = true;
+                    actions.add(new MovePeg(node, nei_0));
                 }
             }
         }
         // then get the jumping stuff
-        repeatAction(node, actions, playerCol);
-        return actions;
+        repeatAction(node, board, actions, targets, playerCol);
     }
 
-    private static void repeatAction(CCNode node, List<AbstractAction> actions, Peg.Colour playerCol) {
-        HashSet<CCNode> visited = new HashSet<>();
-        HashSet<CCNode> toVisit = new HashSet<>();
-        toVisit.add(node);
+    private static void repeatAction(int node, StarBoard board, List<AbstractAction> actions, boolean[] targets, Peg.Colour playerCol) {
+        BoardTopology topology = board.getTopology();
+        boolean[] visited = new boolean[board.getNNodes()];
+        int[] toVisit = new int[board.getNNodes()];
+        int nToVisit = 0;
+        toVisit[nToVisit++] = node;
+        visited[node] = true;
 
         // This should be looking for a chain of moves, without revisiting previous nodes
         // that starts at the given node. Hence (if true), it should only be called once per peg
         // and not once per neighbouring peg
 
-        while (!toVisit.isEmpty()) {
-            CCNode expNode = toVisit.iterator().next();
-            visited.add(expNode);
-            toVisit.remove(expNode);
+        while (nToVisit > 0) {
+            int expNode = toVisit[--nToVisit];
             // once in target zone, a peg may not leave it
-            boolean canLeaveZone = expNode.getBaseColour() != playerCol;
-            for (CCNode neighbour : expNode.getNeighbours()) {
-                int side = expNode.getNeighbourSideMapping().get(neighbour);
-                if (neighbour.isNodeOccupied()) {
-                    CCNode stride = neighbourInDirection(neighbour, side);
-                    if (stride != null && !stride.isNodeOccupied() &&
-                            (canLeaveZone || stride.getBaseColour() == playerCol) &&
-                            !visited.contains(stride)) {
-                        toVisit.add(stride);
+            boolean canLeaveZone = board.getBaseColour(expNode) != playerCol;
+            for (int e = topology.start(expNode); e < topology.end(expNode); e++) {
+                int neighbour = topology.target(e);
+                if (board.isOccupied(neighbour)) {
+                    int stride = topology.neighbourOnSide(neighbour, topology.side(e));
+                    if (stride != -1 && !board.isOccupied(stride) &&
+                            (canLeaveZone || board.getBaseColour(stride) == playerCol) &&
+                            !visited[stride]) {
+                        visited[stride] = true;
+                        toVisit[nToVisit++] = stride;
                     }
                 }
             }
         }
-        visited.remove(node);
-        visited.removeIf(n -> (!isPlayerPlaceable(n.getBaseColour(), playerCol)));
-        for (CCNode v : visited) {
-            MovePeg action = new MovePeg(node.getID(), v.getID());
-            if (!actions.contains(action)) {
-                actions.add(action);
+        for (int v = 0; v < visited.length; v++) {
+            if (visited[v] && v != node && !targets[v] && isPlayerPlaceable(board.getBaseColour(v), playerCol)) {
+                targets[v] = true;
+                actions.add(new MovePeg(node, v));
             }
         }
     }
@@ -186,12 +171,12 @@ public class CCForwardModel extends StandardForwardModel {
         int[] colourIndices = params.colourIndices.get(colour);
         int counter = 0;
         boolean PegIn = false;
-        List<CCNode> nodes = state.getStarBoard().getBoardNodes();
+        StarBoard board = state.getStarBoard();
         for (int i : colourIndices) {
-            if (nodes.get(i).isNodeOccupied() && nodes.get(i).getOccupiedPeg().getColour() == colour) {
+            if (board.getPegColour(i) == colour) {
                 PegIn = true;
             }
-            if (nodes.get(i).isNodeOccupied()) {
+            if (board.isOccupied(i)) {
                 counter++;
             }
         }
@@ -202,7 +187,7 @@ public class CCForwardModel extends StandardForwardModel {
         CCParameters params = (CCParameters) state.getGameParameters();
         int[] indices = params.colourIndices.get(params.boardOpposites.get(colour));
         for (int i : indices) {
-            state.starBoard.getBoardNodes().get(i).setOccupiedPeg(new Peg(colour, state.starBoard.getBoardNodes().get(i)));
+            state.starBoard.setPeg(i, colour);
         }
     }
 }
@@ -3,15 +3,17 @@ package games.chinesecheckers;
 import core.AbstractGameState;
 import core.AbstractParameters;
 import core.components.Component;
+import core.interfaces.IStateKey;
 import games.GameType;
 import games.chinesecheckers.components.Peg;
 import games.chinesecheckers.components.StarBoard;
+import utilities.Zobrist;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-public class CCGameState extends AbstractGameState {
+public class CCGameState extends AbstractGameState implements IStateKey {
 
     StarBoard starBoard;
 
@@ -67,11 +69,15 @@ public class CCGameState extends AbstractGameState {
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof CCGameState)) return false;
-        if (!super.equals(o)) return false;
         CCGameState that = (CCGameState) o;
         return Objects.equals(starBoard, that.starBoard);
     }
 
+    @Override
+    public long getStateKey() {
+        return starBoard.getKey() ^ Zobrist.playerToMove(getCurrentPlayer());
+    }
+
     @Override
     public int hashCode() {
         int result = Objects.hash(super.hashCode(), starBoard);
@@ -1,57 +1,46 @@
 package games.chinesecheckers.components;
 
 import core.CoreConstants;
-import core.components.BoardNode;
+import core.components.BoardTopology;
 import core.components.Component;
-import core.properties.Property;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
 
 import java.util.*;
 
+/**
+ * A view of one hole of a StarBoard. The hole's neighbours come from the board's (shared) topology, and its peg from
+ * the board's occupancy arrays, so the node holds no state of its own.
+ */
 public class CCNode extends Component {
 
-    private Peg.Colour colour;
+    private final StarBoard board;
 
-    private Peg occupiedPeg;
-
-    private int x;
-    private int y;
-
-    private Set<CCNode> neighbours;  // Neighbours of this board node
-    private Map<CCNode, Integer> neighbourSideMapping;  // Neighbours mapping to a side of this board node
-    private int maxNeighbours = 6;  // Maximum number of neighbours for this board node
-
-
-    public CCNode() {
-        super(CoreConstants.ComponentType.BOARD_NODE, "CC", 0);
-        this.neighbours = new HashSet<>();
-        this.neighbourSideMapping = new HashMap<>();
-    }
-
-    public CCNode(int id) {
+    public CCNode(StarBoard board, int id) {
         super(CoreConstants.ComponentType.BOARD_NODE, "CC", id);
-        colour = Peg.Colour.neutral;
-        this.neighbours = new HashSet<>();
-        this.neighbourSideMapping = new HashMap<>();
+        this.board = board;
     }
 
+    /**
+     * Puts the peg in this hole, or empties it if the peg is null.
+     */
     public void setOccupiedPeg(Peg peg) {
-        occupiedPeg = peg;
-    }
-
-    public void setColourNode(Peg.Colour colour) {
-        this.colour = colour;
-    }
-
-    public void setCoordinates(int x, int y) {
-        this.x = x;
-        this.y = y;
+        if (peg == null) {
+            board.setPeg(componentID, null);
+        } else {
+            board.setPeg(componentID, peg.getColour());
+            board.setInDestination(componentID, peg.getInDestination());
+        }
     }
 
+    /**
+     * @return the peg in this hole, or null if it is empty. This is a new Peg each time; changing it does not change
+     * the board.
+     */
     public Peg getOccupiedPeg() {
-        if (occupiedPeg == null) return null;
-        return occupiedPeg;
+        Peg.Colour colour = board.getPegColour(componentID);
+        if (colour == null) return null;
+        Peg peg = new Peg(colour, this);
+        peg.setInDestination(board.isInDestination(componentID));
+        return peg;
     }
 
     public int getID() {
@@ -59,69 +48,26 @@ public class CCNode extends Component {
     }
 
     public int getX() {
-        return x;
+        return board.getX(componentID);
     }
 
     public int getY() {
-        return y;
+        return board.getY(componentID);
     }
 
     public Peg.Colour getBaseColour() {
-        return colour;
+        return board.getBaseColour(componentID);
     }
 
     public boolean isNodeOccupied() {
-        return occupiedPeg != null;
+        return board.isOccupied(componentID);
     }
 
-
     /**
-     * Adds a neighbour for this node.
-     *
-     * @param neighbour - new neighbour of this node.
-     */
-    public void addNeighbour(CCNode neighbour) {
-        if (neighbours.size() <= maxNeighbours || maxNeighbours == -1) {
-            neighbours.add(neighbour);
-        }
-    }
-
-    /**
-     * Removes neighbour of this node.
-     *
-     * @param neighbour - neighbour to remove.
-     */
-    public void removeNeighbour(CCNode neighbour) {
-        if (neighbours.contains(neighbour)) {
-            neighbours.remove(neighbour);
-            neighbourSideMapping.remove(neighbour);
-        }
-    }
-
-    /**
-     * Adds neighbour to specific side of this node.
-     *
-     * @param neighbour - new neighbour to be added.
-     * @param side      - side of this node to be added in.
-     * @return - true if added successfully, false otherwise. may fail if too many neighbours added already.
-     */
-    public void addNeighbour(CCNode neighbour, int side) {
-        if (neighbours.size() <= maxNeighbours && side <= maxNeighbours || maxNeighbours == -1) {
-            if (!(neighbours.contains(neighbour)) && !(neighbourSideMapping.containsKey(neighbour))) {
-                neighbours.add(neighbour);
-                neighbourSideMapping.put(neighbour, side);
-            }
-        }
-    }
-
-    /**
-     * Copies all node properties to a new instance of this node.
-     *
-     * @return - a new instance of this node.
+     * Nodes are views of a board, so copying one on its own makes no sense: copy the StarBoard instead.
      */
     @Override
-    public BoardNode copy() {
-        // WARNING: DO not copy this directly, the GraphBoard copies it to correctly assign neighbour references!
+    public CCNode copy() {
         return null;
     }
 
@@ -129,30 +75,25 @@ public class CCNode extends Component {
      * @return the neighbours of this node.
      */
     public Set<CCNode> getNeighbours() {
-        return neighbours;
+        return getNeighbourSideMapping().keySet();
     }
 
     /**
      * @return the neighbours mapping to sides of this node.
      */
     public Map<CCNode, Integer> getNeighbourSideMapping() {
-        return neighbourSideMapping;
-    }
-
-    public void loadBoardNode(JSONObject node) {
-        this.componentName = (String) ((JSONArray) node.get("name")).get(1);
-        parseComponent(this, node);
+        BoardTopology topology = board.getTopology();
+        List<CCNode> nodes = board.getBoardNodes();
+        Map<CCNode, Integer> retValue = new LinkedHashMap<>();
+        for (int e = topology.start(componentID); e < topology.end(componentID); e++) {
+            retValue.put(nodes.get(topology.target(e)), topology.side(e));
+        }
+        return retValue;
     }
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{id: " + componentID + "; maxNeighbours: " + maxNeighbours + "; ");
-        for (int prop_key : properties.keySet()) {
-            Property prop = properties.get(prop_key);
-            sb.append(prop.getHashString() + ": " + prop.toString() + "; ");
-        }
-        return sb.toString();
+        return "{id: " + componentID + "; x: " + getX() + "; y: " + getY() + "; peg: " + board.getPegColour(componentID) + "}";
     }
 
     @Override
@@ -164,10 +105,9 @@ public class CCNode extends Component {
     public boolean equals(Object o) {
         if (o instanceof CCNode) {
             CCNode other = (CCNode) o;
-            return componentID == other.componentID && occupiedPeg.equals(other.occupiedPeg) && x == other.x && y == other.y && Objects.equals(neighbours, other.neighbours) && Objects.equals(neighbourSideMapping, other.neighbourSideMapping) && maxNeighbours == other.maxNeighbours;
+            return componentID == other.componentID && board.getPegColour(componentID) == other.board.getPegColour(componentID) &&
+                    board.isInDestination(componentID) == other.board.isInDestination(componentID);
         }
         return false;
     }
-
-
 }
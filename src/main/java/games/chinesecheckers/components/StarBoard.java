@@ -1,28 +1,101 @@
 package games.chinesecheckers.components;
 
 import core.CoreConstants;
+import core.components.BoardTopology;
 import core.components.Component;
 import core.interfaces.IComponentContainer;
 import games.chinesecheckers.CCParameters;
+import utilities.Zobrist;
+
 import java.util.*;
 
+/**
+ * The 121 holes of a Chinese Checkers board.
+ * <p>
+ * The layout of the board never changes, so it is built once (see layout()) and shared by every board. Each board
+ * only holds which peg, if any, is in each hole, in flat arrays indexed by node that are cloned when it is copied.
+ * The CCNode objects returned by getBoardNodes() are views onto these, created the first time they are asked for.
+ */
 public class StarBoard extends Component implements IComponentContainer<CCNode> {
 
-    // List of nodes in the board graph
-    protected List<CCNode> boardNodes;
-    
+    // The holes in each row of the board, from top to bottom: the x coordinate of the first, and how many there are
+    private static final int[] rowStartX = {6, 5, 5, 4, 0, 0, 1, 1, 2, 1, 1, 0, 0, 4, 5, 5, 6};
+    private static final int[] rowLength = {1, 2, 3, 4, 13, 12, 11, 10, 9, 10, 11, 12, 13, 4, 3, 2, 1};
+    // The offset (dx, dy) of the neighbour on each of the six sides of a hole, clockwise from the top right. Odd
+    // rows are set half a hole to the right of even ones, which changes the offsets of the diagonal neighbours.
+    private static final int[][] evenRowSides = {{0, -1}, {1, 0}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}};
+    private static final int[][] oddRowSides = {{1, -1}, {1, 0}, {1, 1}, {0, 1}, {-1, 0}, {0, -1}};
+
+    private static final int nNodes = 121;
+    private static final int[] xs = new int[nNodes];
+    private static final int[] ys = new int[nNodes];
+    private static final Peg.Colour[] baseColours = new Peg.Colour[nNodes];
+    private static final BoardTopology topology = layout();
+
+    // The colour of the peg in each hole (as Peg.Colour.ordinal()), or -1 if it is empty
+    private byte[] pegs;
+    // Whether the peg in each hole has reached its destination zone (see Peg.getInDestination())
+    private boolean[] inDestination;
+    // Zobrist key of the pegs (and their destination flags), kept up to date as they are placed and moved
+    private long key;
+    // Views of each hole, created when first needed
+    private List<CCNode> boardNodes;
+
     public StarBoard() {
         super(CoreConstants.ComponentType.BOARD);
-        boardNodes = new ArrayList<>();
-        buildBoard();
-        loadNodeBaseColours();
+        emptyBoard();
     }
 
     public StarBoard(String name, int ID) {
         super(CoreConstants.ComponentType.BOARD, name, ID);
-        boardNodes = new ArrayList<>();
-        buildBoard();
-        loadNodeBaseColours();
+        emptyBoard();
+    }
+
+    private void emptyBoard() {
+        pegs = new byte[nNodes];
+        Arrays.fill(pegs, (byte) -1);
+        inDestination = new boolean[nNodes];
+    }
+
+    private static BoardTopology layout() {
+        Map<Integer, Integer> nodeAt = new HashMap<>();
+        int node = 0;
+        for (int y = 0; y < rowLength.length; y++) {
+            for (int x = rowStartX[y]; x < rowStartX[y] + rowLength[y]; x++) {
+                xs[node] = x;
+                ys[node] = y;
+                nodeAt.put(y * 100 + x, node);
+                node++;
+            }
+        }
+        int[] ids = new int[nNodes];
+        int[][] neighbours = new int[nNodes][];
+        int[][] sides = new int[nNodes][];
+        for (int i = 0; i < nNodes; i++) {
+            ids[i] = i;
+            int[][] offsets = ys[i] % 2 == 0 ? evenRowSides : oddRowSides;
+            List<Integer> n = new ArrayList<>(), s = new ArrayList<>();
+            for (int side = 0; side < offsets.length; side++) {
+                Integer neighbour = nodeAt.get((ys[i] + offsets[side][1]) * 100 + xs[i] + offsets[side][0]);
+                if (neighbour != null) {
+                    n.add(neighbour);
+                    s.add(side);
+                }
+            }
+            neighbours[i] = n.stream().mapToInt(Integer::intValue).toArray();
+            sides[i] = s.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // technically we would not have access to CCParameters here...but it prettifies the code
+        // enough to be warranted
+        Arrays.fill(baseColours, Peg.Colour.neutral);
+        CCParameters params = new CCParameters();
+        for (Peg.Colour colour : params.colourIndices.keySet()) {
+            for (int i : params.colourIndices.get(colour)) {
+                baseColours[i] = colour;
+            }
+        }
+        return new BoardTopology(ids, neighbours, sides, null);
     }
 
     /**
@@ -32,61 +105,120 @@ public class StarBoard extends Component implements IComponentContainer<CCNode>
     @Override
     public StarBoard copy() {
         StarBoard b = new StarBoard(componentName, componentID);
-        HashMap<Integer, CCNode> nodeCopies = new HashMap<>();
-        // Copy board nodes
-        for (CCNode bn: boardNodes) {
-            CCNode bnCopy = new CCNode(bn.getComponentID());
-            bn.copyComponentTo(bnCopy);
-            bnCopy.setColourNode(bn.getBaseColour());
-            if(bn.isNodeOccupied()){
-                bnCopy.setOccupiedPeg((Peg) bn.getOccupiedPeg().copy());
-            }
-            bnCopy.setCoordinates(bn.getX(), bn.getY());
-            nodeCopies.put(bn.getComponentID(), bnCopy);
-        }
-        // Assign neighbours
-        for (CCNode bn: boardNodes) {
-            CCNode bnCopy = nodeCopies.get(bn.getComponentID());
-            for (Map.Entry<CCNode, Integer> e: bn.getNeighbourSideMapping().entrySet()) {
-                bnCopy.addNeighbour(nodeCopies.get(e.getKey().getComponentID()), e.getValue());
-            }
-        }
-        // Assign new neighbours
-        b.setBoardNodes(new ArrayList<>(nodeCopies.values()));
+        System.arraycopy(pegs, 0, b.pegs, 0, nNodes);
+        System.arraycopy(inDestination, 0, b.inDestination, 0, nNodes);
+        b.key = key;
         // Copy properties
         copyComponentTo(b);
-
         return b;
     }
 
     /**
-     * @return the list of board nodes
+     * @return the connections between the holes, which are the same for every board. Hole i is node i, and the
+     * sides of each hole are numbered from 0 to 5, clockwise from the top right.
      */
-    public List<CCNode> getBoardNodes() {
-        return boardNodes;
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    public int getNNodes() {
+        return nNodes;
+    }
+
+    public boolean isOccupied(int node) {
+        return pegs[node] >= 0;
+    }
+
+    /**
+     * @return the colour of the peg in this hole, or null if it is empty
+     */
+    public Peg.Colour getPegColour(int node) {
+        return pegs[node] >= 0 ? Peg.Colour.values()[pegs[node]] : null;
+    }
+
+    public boolean isInDestination(int node) {
+        return inDestination[node];
+    }
+
+    public void setInDestination(int node, boolean value) {
+        key ^= holeKey(node);
+        inDestination[node] = value;
+        key ^= holeKey(node);
+    }
+
+    /**
+     * Puts a peg of the given colour in the hole, or empties it if the colour is null.
+     */
+    public void setPeg(int node, Peg.Colour colour) {
+        key ^= holeKey(node);
+        pegs[node] = colour == null ? -1 : (byte) colour.ordinal();
+        inDestination[node] = false;
+        key ^= holeKey(node);
+    }
+
+    public void movePeg(int from, int to) {
+        key ^= holeKey(from) ^ holeKey(to);
+        pegs[to] = pegs[from];
+        inDestination[to] = inDestination[from];
+        pegs[from] = -1;
+        inDestination[from] = false;
+        key ^= holeKey(from) ^ holeKey(to);
+    }
+
+    /**
+     * @return the Zobrist key of the pegs on the board
+     */
+    public long getKey() {
+        return key;
     }
 
+    private long holeKey(int node) {
+        long retValue = pegs[node] >= 0 ? Zobrist.key(pegs[node], node) : 0;
+        return inDestination[node] ? retValue ^ Zobrist.key(-2, node) : retValue;
+    }
+
+    /**
+     * @return the colour of the hole itself: that of the player whose starting zone it is in, or neutral
+     */
+    public Peg.Colour getBaseColour(int node) {
+        return baseColours[node];
+    }
+
+    public int getX(int node) {
+        return xs[node];
+    }
+
+    public int getY(int node) {
+        return ys[node];
+    }
 
     /**
-     * Sets the list of board nodes to the given list.
-     * @param boardNodes - new list of board nodes.
+     * @return the list of board nodes
      */
-    public void setBoardNodes(List<CCNode> boardNodes) {
-        this.boardNodes = boardNodes;
+    public List<CCNode> getBoardNodes() {
+        if (boardNodes == null) {
+            List<CCNode> nodes = new ArrayList<>(nNodes);
+            for (int i = 0; i < nNodes; i++) {
+                nodes.add(new CCNode(this, i));
+            }
+            boardNodes = Collections.unmodifiableList(nodes);
+        }
+        return boardNodes;
     }
 
     @Override
     public boolean equals(Object o) {
         if (o instanceof StarBoard) {
             StarBoard other = (StarBoard) o;
-            return componentID == other.componentID && other.boardNodes.equals(boardNodes);
+            return componentID == other.componentID && Arrays.equals(pegs, other.pegs) &&
+                    Arrays.equals(inDestination, other.inDestination);
         }
         return false;
     }
 
     @Override
     public final int hashCode() {
-        return Objects.hash(componentID, boardNodes);
+        return 31 * (31 * componentID + Arrays.hashCode(pegs)) + Arrays.hashCode(inDestination);
     }
 
     @Override
@@ -98,885 +230,4 @@ public class StarBoard extends Component implements IComponentContainer<CCNode>
     public CoreConstants.VisibilityMode getVisibilityMode() {
         return CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
     }
-
-    private void loadNodeBaseColours(){
-        // technically we would not have access to CCParameters here...but it prettifies the code
-        // enough to be warranted
-        CCParameters params = new CCParameters();
-        // Load Purple Nodes
-        for (Peg.Colour colour : params.colourIndices.keySet()) {
-            for (int i : params.colourIndices.get(colour)) {
-                this.getBoardNodes().get(i).setColourNode(colour);
-            }
-        }
-    }
-    
-    public void buildBoard(){
-        for(int i = 0; i < 121; i++) {this.getBoardNodes().add(new CCNode(i));}
-        (this.getBoardNodes().get(0)).setCoordinates(6, 0);
-        this.getBoardNodes().get(0).addNeighbour(this.getBoardNodes().get(1),3);
-        this.getBoardNodes().get(0).addNeighbour(this.getBoardNodes().get(2),2);
-
-        ((CCNode)this.getBoardNodes().get(1)).setCoordinates(5, 1);
-        this.getBoardNodes().get(1).addNeighbour(this.getBoardNodes().get(3), 3);
-        this.getBoardNodes().get(1).addNeighbour(this.getBoardNodes().get(4), 2);
-        this.getBoardNodes().get(1).addNeighbour(this.getBoardNodes().get(2), 1);
-        this.getBoardNodes().get(1).addNeighbour(this.getBoardNodes().get(0), 0);
-
-        ((CCNode)this.getBoardNodes().get(2)).setCoordinates(6, 1);
-        this.getBoardNodes().get(2).addNeighbour(this.getBoardNodes().get(4),3);
-        this.getBoardNodes().get(2).addNeighbour(this.getBoardNodes().get(5),2);
-        this.getBoardNodes().get(2).addNeighbour(this.getBoardNodes().get(0),5);
-        this.getBoardNodes().get(2).addNeighbour(this.getBoardNodes().get(1),4);
-
-        ((CCNode)this.getBoardNodes().get(3)).setCoordinates(5, 2);
-        this.getBoardNodes().get(3).addNeighbour(this.getBoardNodes().get(6),3);
-        this.getBoardNodes().get(3).addNeighbour(this.getBoardNodes().get(7),2);
-        this.getBoardNodes().get(3).addNeighbour(this.getBoardNodes().get(4),1);
-        this.getBoardNodes().get(3).addNeighbour(this.getBoardNodes().get(1),0);
-
-        ((CCNode)this.getBoardNodes().get(4)).setCoordinates(6, 2);
-        this.getBoardNodes().get(4).addNeighbour(this.getBoardNodes().get(7),3);
-        this.getBoardNodes().get(4).addNeighbour(this.getBoardNodes().get(8),2);
-        this.getBoardNodes().get(4).addNeighbour(this.getBoardNodes().get(5),1);
-        this.getBoardNodes().get(4).addNeighbour(this.getBoardNodes().get(2),0);
-        this.getBoardNodes().get(4).addNeighbour(this.getBoardNodes().get(1),5);
-        this.getBoardNodes().get(4).addNeighbour(this.getBoardNodes().get(3),4);
-
-        ((CCNode)this.getBoardNodes().get(5)).setCoordinates(7, 2);
-        this.getBoardNodes().get(5).addNeighbour(this.getBoardNodes().get(8),3);
-        this.getBoardNodes().get(5).addNeighbour(this.getBoardNodes().get(9),2);
-        this.getBoardNodes().get(5).addNeighbour(this.getBoardNodes().get(2),5);
-        this.getBoardNodes().get(5).addNeighbour(this.getBoardNodes().get(4),4);
-
-        ((CCNode)this.getBoardNodes().get(6)).setCoordinates(4, 3);
-        this.getBoardNodes().get(6).addNeighbour(this.getBoardNodes().get(14),3);
-        this.getBoardNodes().get(6).addNeighbour(this.getBoardNodes().get(15),2);
-        this.getBoardNodes().get(6).addNeighbour(this.getBoardNodes().get(7),1);
-        this.getBoardNodes().get(6).addNeighbour(this.getBoardNodes().get(3),0);
-
-        ((CCNode)this.getBoardNodes().get(7)).setCoordinates(5, 3);
-        this.getBoardNodes().get(7).addNeighbour(this.getBoardNodes().get(15),3);
-        this.getBoardNodes().get(7).addNeighbour(this.getBoardNodes().get(16),2);
-        this.getBoardNodes().get(7).addNeighbour(this.getBoardNodes().get(8),1);
-        this.getBoardNodes().get(7).addNeighbour(this.getBoardNodes().get(4),0);
-        this.getBoardNodes().get(7).addNeighbour(this.getBoardNodes().get(3),5);
-        this.getBoardNodes().get(7).addNeighbour(this.getBoardNodes().get(6),4);
-
-        ((CCNode)this.getBoardNodes().get(8)).setCoordinates(6, 3);
-        this.getBoardNodes().get(8).addNeighbour(this.getBoardNodes().get(16),3);
-        this.getBoardNodes().get(8).addNeighbour(this.getBoardNodes().get(17),2);
-        this.getBoardNodes().get(8).addNeighbour(this.getBoardNodes().get(9),1);
-        this.getBoardNodes().get(8).addNeighbour(this.getBoardNodes().get(5),0);
-        this.getBoardNodes().get(8).addNeighbour(this.getBoardNodes().get(4),5);
-        this.getBoardNodes().get(8).addNeighbour(this.getBoardNodes().get(7),4);
-
-        ((CCNode)this.getBoardNodes().get(9)).setCoordinates(7, 3);
-        this.getBoardNodes().get(9).addNeighbour(this.getBoardNodes().get(17),3);
-        this.getBoardNodes().get(9).addNeighbour(this.getBoardNodes().get(18),2);
-        this.getBoardNodes().get(9).addNeighbour(this.getBoardNodes().get(5),5);
-        this.getBoardNodes().get(9).addNeighbour(this.getBoardNodes().get(8),4);
-
-        ((CCNode)this.getBoardNodes().get(10)).setCoordinates(0, 4);
-        this.getBoardNodes().get(10).addNeighbour(this.getBoardNodes().get(11),1);
-        this.getBoardNodes().get(10).addNeighbour(this.getBoardNodes().get(23),2);
-
-        ((CCNode)this.getBoardNodes().get(11)).setCoordinates(1, 4);
-        this.getBoardNodes().get(11).addNeighbour(this.getBoardNodes().get(12),1);
-        this.getBoardNodes().get(11).addNeighbour(this.getBoardNodes().get(24),2);
-        this.getBoardNodes().get(11).addNeighbour(this.getBoardNodes().get(23),3);
-        this.getBoardNodes().get(11).addNeighbour(this.getBoardNodes().get(10),4);
-
-        ((CCNode)this.getBoardNodes().get(12)).setCoordinates(2, 4);
-        this.getBoardNodes().get(12).addNeighbour(this.getBoardNodes().get(13),1);
-        this.getBoardNodes().get(12).addNeighbour(this.getBoardNodes().get(25),2);
-        this.getBoardNodes().get(12).addNeighbour(this.getBoardNodes().get(24),3);
-        this.getBoardNodes().get(12).addNeighbour(this.getBoardNodes().get(11),4);
-
-        ((CCNode)this.getBoardNodes().get(13)).setCoordinates(3, 4);
-        this.getBoardNodes().get(13).addNeighbour(this.getBoardNodes().get(14),1);
-        this.getBoardNodes().get(13).addNeighbour(this.getBoardNodes().get(26),2);
-        this.getBoardNodes().get(13).addNeighbour(this.getBoardNodes().get(25),3);
-        this.getBoardNodes().get(13).addNeighbour(this.getBoardNodes().get(12),4);
-
-        ((CCNode)this.getBoardNodes().get(14)).setCoordinates(4, 4);
-        this.getBoardNodes().get(14).addNeighbour(this.getBoardNodes().get(6),0);
-        this.getBoardNodes().get(14).addNeighbour(this.getBoardNodes().get(15),1);
-        this.getBoardNodes().get(14).addNeighbour(this.getBoardNodes().get(27),2);
-        this.getBoardNodes().get(14).addNeighbour(this.getBoardNodes().get(26),3);
-        this.getBoardNodes().get(14).addNeighbour(this.getBoardNodes().get(13),4);
-
-        ((CCNode)this.getBoardNodes().get(15)).setCoordinates(5, 4);
-        this.getBoardNodes().get(15).addNeighbour(this.getBoardNodes().get(7),0);
-        this.getBoardNodes().get(15).addNeighbour(this.getBoardNodes().get(16),1);
-        this.getBoardNodes().get(15).addNeighbour(this.getBoardNodes().get(28),2);
-        this.getBoardNodes().get(15).addNeighbour(this.getBoardNodes().get(27),3);
-        this.getBoardNodes().get(15).addNeighbour(this.getBoardNodes().get(14),4);
-        this.getBoardNodes().get(15).addNeighbour(this.getBoardNodes().get(6),5);
-
-        ((CCNode)this.getBoardNodes().get(16)).setCoordinates(6, 4);
-        this.getBoardNodes().get(16).addNeighbour(this.getBoardNodes().get(8),0);
-        this.getBoardNodes().get(16).addNeighbour(this.getBoardNodes().get(17),1);
-        this.getBoardNodes().get(16).addNeighbour(this.getBoardNodes().get(29),2);
-        this.getBoardNodes().get(16).addNeighbour(this.getBoardNodes().get(28),3);
-        this.getBoardNodes().get(16).addNeighbour(this.getBoardNodes().get(15),4);
-        this.getBoardNodes().get(16).addNeighbour(this.getBoardNodes().get(7),5);
-
-        ((CCNode)this.getBoardNodes().get(17)).setCoordinates(7, 4);
-        this.getBoardNodes().get(17).addNeighbour(this.getBoardNodes().get(9),0);
-        this.getBoardNodes().get(17).addNeighbour(this.getBoardNodes().get(18),1);
-        this.getBoardNodes().get(17).addNeighbour(this.getBoardNodes().get(30),2);
-        this.getBoardNodes().get(17).addNeighbour(this.getBoardNodes().get(29),3);
-        this.getBoardNodes().get(17).addNeighbour(this.getBoardNodes().get(16),4);
-        this.getBoardNodes().get(17).addNeighbour(this.getBoardNodes().get(8),5);
-
-        ((CCNode)this.getBoardNodes().get(18)).setCoordinates(8, 4);
-        this.getBoardNodes().get(18).addNeighbour(this.getBoardNodes().get(19),1);
-        this.getBoardNodes().get(18).addNeighbour(this.getBoardNodes().get(31),2);
-        this.getBoardNodes().get(18).addNeighbour(this.getBoardNodes().get(30),3);
-        this.getBoardNodes().get(18).addNeighbour(this.getBoardNodes().get(17),4);
-        this.getBoardNodes().get(18).addNeighbour(this.getBoardNodes().get(9),5);
-
-        ((CCNode)this.getBoardNodes().get(19)).setCoordinates(9, 4);
-        this.getBoardNodes().get(19).addNeighbour(this.getBoardNodes().get(20),1);
-        this.getBoardNodes().get(19).addNeighbour(this.getBoardNodes().get(32),2);
-        this.getBoardNodes().get(19).addNeighbour(this.getBoardNodes().get(31),3);
-        this.getBoardNodes().get(19).addNeighbour(this.getBoardNodes().get(18),4);
-
-        ((CCNode)this.getBoardNodes().get(20)).setCoordinates(10, 4);
-        this.getBoardNodes().get(20).addNeighbour(this.getBoardNodes().get(21),1);
-        this.getBoardNodes().get(20).addNeighbour(this.getBoardNodes().get(33),2);
-        this.getBoardNodes().get(20).addNeighbour(this.getBoardNodes().get(32),3);
-        this.getBoardNodes().get(20).addNeighbour(this.getBoardNodes().get(19),4);
-
-        ((CCNode)this.getBoardNodes().get(21)).setCoordinates(11, 4);
-        this.getBoardNodes().get(21).addNeighbour(this.getBoardNodes().get(22),1);
-        this.getBoardNodes().get(21).addNeighbour(this.getBoardNodes().get(34),2);
-        this.getBoardNodes().get(21).addNeighbour(this.getBoardNodes().get(33),3);
-        this.getBoardNodes().get(21).addNeighbour(this.getBoardNodes().get(20),4);
-
-        ((CCNode)this.getBoardNodes().get(22)).setCoordinates(12, 4);
-        this.getBoardNodes().get(22).addNeighbour(this.getBoardNodes().get(34),3);
-        this.getBoardNodes().get(22).addNeighbour(this.getBoardNodes().get(21),4);
-
-        ((CCNode)this.getBoardNodes().get(23)).setCoordinates(0, 5);
-        this.getBoardNodes().get(23).addNeighbour(this.getBoardNodes().get(11),0);
-        this.getBoardNodes().get(23).addNeighbour(this.getBoardNodes().get(24),1);
-        this.getBoardNodes().get(23).addNeighbour(this.getBoardNodes().get(35),2);
-        this.getBoardNodes().get(23).addNeighbour(this.getBoardNodes().get(10),5);
-
-        ((CCNode)this.getBoardNodes().get(24)).setCoordinates(1, 5);
-        this.getBoardNodes().get(24).addNeighbour(this.getBoardNodes().get(12),0);
-        this.getBoardNodes().get(24).addNeighbour(this.getBoardNodes().get(25),1);
-        this.getBoardNodes().get(24).addNeighbour(this.getBoardNodes().get(36),2);
-        this.getBoardNodes().get(24).addNeighbour(this.getBoardNodes().get(36),3);
-        this.getBoardNodes().get(24).addNeighbour(this.getBoardNodes().get(23),4);
-        this.getBoardNodes().get(24).addNeighbour(this.getBoardNodes().get(10),5);
-
-        ((CCNode)this.getBoardNodes().get(25)).setCoordinates(2, 5);
-        this.getBoardNodes().get(25).addNeighbour(this.getBoardNodes().get(13),0);
-        this.getBoardNodes().get(25).addNeighbour(this.getBoardNodes().get(26),1);
-        this.getBoardNodes().get(25).addNeighbour(this.getBoardNodes().get(37),2);
-        this.getBoardNodes().get(25).addNeighbour(this.getBoardNodes().get(36),3);
-        this.getBoardNodes().get(25).addNeighbour(this.getBoardNodes().get(24),4);
-        this.getBoardNodes().get(25).addNeighbour(this.getBoardNodes().get(11),5);
-
-        ((CCNode)this.getBoardNodes().get(26)).setCoordinates(3, 5);
-        this.getBoardNodes().get(26).addNeighbour(this.getBoardNodes().get(14),0);
-        this.getBoardNodes().get(26).addNeighbour(this.getBoardNodes().get(27),1);
-        this.getBoardNodes().get(26).addNeighbour(this.getBoardNodes().get(38),2);
-        this.getBoardNodes().get(26).addNeighbour(this.getBoardNodes().get(37),3);
-        this.getBoardNodes().get(26).addNeighbour(this.getBoardNodes().get(25),4);
-        this.getBoardNodes().get(26).addNeighbour(this.getBoardNodes().get(13),5);
-
-        ((CCNode)this.getBoardNodes().get(27)).setCoordinates(4, 5);
-        this.getBoardNodes().get(27).addNeighbour(this.getBoardNodes().get(15),0);
-        this.getBoardNodes().get(27).addNeighbour(this.getBoardNodes().get(28),1);
-        this.getBoardNodes().get(27).addNeighbour(this.getBoardNodes().get(39),2);
-        this.getBoardNodes().get(27).addNeighbour(this.getBoardNodes().get(38),3);
-        this.getBoardNodes().get(27).addNeighbour(this.getBoardNodes().get(26),4);
-        this.getBoardNodes().get(27).addNeighbour(this.getBoardNodes().get(14),5);
-
-        ((CCNode)this.getBoardNodes().get(28)).setCoordinates(5, 5);
-        this.getBoardNodes().get(28).addNeighbour(this.getBoardNodes().get(16),0);
-        this.getBoardNodes().get(28).addNeighbour(this.getBoardNodes().get(29),1);
-        this.getBoardNodes().get(28).addNeighbour(this.getBoardNodes().get(40),2);
-        this.getBoardNodes().get(28).addNeighbour(this.getBoardNodes().get(39),3);
-        this.getBoardNodes().get(28).addNeighbour(this.getBoardNodes().get(27),4);
-        this.getBoardNodes().get(28).addNeighbour(this.getBoardNodes().get(15),5);
-
-        ((CCNode)this.getBoardNodes().get(29)).setCoordinates(6, 5);
-        this.getBoardNodes().get(29).addNeighbour(this.getBoardNodes().get(17),0);
-        this.getBoardNodes().get(29).addNeighbour(this.getBoardNodes().get(30),1);
-        this.getBoardNodes().get(29).addNeighbour(this.getBoardNodes().get(41),2);
-        this.getBoardNodes().get(29).addNeighbour(this.getBoardNodes().get(40),3);
-        this.getBoardNodes().get(29).addNeighbour(this.getBoardNodes().get(28),4);
-        this.getBoardNodes().get(29).addNeighbour(this.getBoardNodes().get(16),5);
-
-        ((CCNode)this.getBoardNodes().get(30)).setCoordinates(7, 5);
-        this.getBoardNodes().get(30).addNeighbour(this.getBoardNodes().get(18),0);
-        this.getBoardNodes().get(30).addNeighbour(this.getBoardNodes().get(31),1);
-        this.getBoardNodes().get(30).addNeighbour(this.getBoardNodes().get(42),2);
-        this.getBoardNodes().get(30).addNeighbour(this.getBoardNodes().get(41),3);
-        this.getBoardNodes().get(30).addNeighbour(this.getBoardNodes().get(29),4);
-        this.getBoardNodes().get(30).addNeighbour(this.getBoardNodes().get(17),5);
-
-        ((CCNode)this.getBoardNodes().get(31)).setCoordinates(8, 5);
-        this.getBoardNodes().get(31).addNeighbour(this.getBoardNodes().get(19),0);
-        this.getBoardNodes().get(31).addNeighbour(this.getBoardNodes().get(32),1);
-        this.getBoardNodes().get(31).addNeighbour(this.getBoardNodes().get(43),2);
-        this.getBoardNodes().get(31).addNeighbour(this.getBoardNodes().get(42),3);
-        this.getBoardNodes().get(31).addNeighbour(this.getBoardNodes().get(30),4);
-        this.getBoardNodes().get(31).addNeighbour(this.getBoardNodes().get(18),5);
-
-        ((CCNode)this.getBoardNodes().get(32)).setCoordinates(9, 5);
-        this.getBoardNodes().get(32).addNeighbour(this.getBoardNodes().get(20),0);
-        this.getBoardNodes().get(32).addNeighbour(this.getBoardNodes().get(33),1);
-        this.getBoardNodes().get(32).addNeighbour(this.getBoardNodes().get(44),2);
-        this.getBoardNodes().get(32).addNeighbour(this.getBoardNodes().get(43),3);
-        this.getBoardNodes().get(32).addNeighbour(this.getBoardNodes().get(31),4);
-        this.getBoardNodes().get(32).addNeighbour(this.getBoardNodes().get(19),5);
-
-        ((CCNode)this.getBoardNodes().get(33)).setCoordinates(10, 5);
-        this.getBoardNodes().get(33).addNeighbour(this.getBoardNodes().get(21),0);
-        this.getBoardNodes().get(33).addNeighbour(this.getBoardNodes().get(34),1);
-        this.getBoardNodes().get(33).addNeighbour(this.getBoardNodes().get(45),2);
-        this.getBoardNodes().get(33).addNeighbour(this.getBoardNodes().get(44),3);
-        this.getBoardNodes().get(33).addNeighbour(this.getBoardNodes().get(32),4);
-        this.getBoardNodes().get(33).addNeighbour(this.getBoardNodes().get(20),5);
-
-        ((CCNode)this.getBoardNodes().get(34)).setCoordinates(11, 5);
-        this.getBoardNodes().get(34).addNeighbour(this.getBoardNodes().get(22),0);
-        this.getBoardNodes().get(34).addNeighbour(this.getBoardNodes().get(45),3);
-        this.getBoardNodes().get(34).addNeighbour(this.getBoardNodes().get(33),4);
-        this.getBoardNodes().get(34).addNeighbour(this.getBoardNodes().get(21),5);
-
-        ((CCNode)this.getBoardNodes().get(35)).setCoordinates(1, 6);
-        this.getBoardNodes().get(35).addNeighbour(this.getBoardNodes().get(24),0);
-        this.getBoardNodes().get(35).addNeighbour(this.getBoardNodes().get(36),1);
-        this.getBoardNodes().get(35).addNeighbour(this.getBoardNodes().get(46),2);
-        this.getBoardNodes().get(35).addNeighbour(this.getBoardNodes().get(23),5);
-
-        ((CCNode)this.getBoardNodes().get(36)).setCoordinates(2, 6);
-        this.getBoardNodes().get(36).addNeighbour(this.getBoardNodes().get(25),0);
-        this.getBoardNodes().get(36).addNeighbour(this.getBoardNodes().get(37),1);
-        this.getBoardNodes().get(36).addNeighbour(this.getBoardNodes().get(47),2);
-        this.getBoardNodes().get(36).addNeighbour(this.getBoardNodes().get(46),3);
-        this.getBoardNodes().get(36).addNeighbour(this.getBoardNodes().get(35),4);
-        this.getBoardNodes().get(36).addNeighbour(this.getBoardNodes().get(24),5);
-
-        ((CCNode)this.getBoardNodes().get(37)).setCoordinates(3, 6);
-        this.getBoardNodes().get(37).addNeighbour(this.getBoardNodes().get(26),0);
-        this.getBoardNodes().get(37).addNeighbour(this.getBoardNodes().get(38),1);
-        this.getBoardNodes().get(37).addNeighbour(this.getBoardNodes().get(48),2);
-        this.getBoardNodes().get(37).addNeighbour(this.getBoardNodes().get(47),3);
-        this.getBoardNodes().get(37).addNeighbour(this.getBoardNodes().get(36),4);
-        this.getBoardNodes().get(37).addNeighbour(this.getBoardNodes().get(25),5);
-
-        ((CCNode)this.getBoardNodes().get(38)).setCoordinates(4, 6);
-        this.getBoardNodes().get(38).addNeighbour(this.getBoardNodes().get(27),0);
-        this.getBoardNodes().get(38).addNeighbour(this.getBoardNodes().get(39),1);
-        this.getBoardNodes().get(38).addNeighbour(this.getBoardNodes().get(49),2);
-        this.getBoardNodes().get(38).addNeighbour(this.getBoardNodes().get(48),3);
-        this.getBoardNodes().get(38).addNeighbour(this.getBoardNodes().get(37),4);
-        this.getBoardNodes().get(38).addNeighbour(this.getBoardNodes().get(26),5);
-
-        ((CCNode)this.getBoardNodes().get(39)).setCoordinates(5, 6);
-        this.getBoardNodes().get(39).addNeighbour(this.getBoardNodes().get(28),0);
-        this.getBoardNodes().get(39).addNeighbour(this.getBoardNodes().get(40),1);
-        this.getBoardNodes().get(39).addNeighbour(this.getBoardNodes().get(50),2);
-        this.getBoardNodes().get(39).addNeighbour(this.getBoardNodes().get(49),3);
-        this.getBoardNodes().get(39).addNeighbour(this.getBoardNodes().get(38),4);
-        this.getBoardNodes().get(39).addNeighbour(this.getBoardNodes().get(27),5);
-
-        ((CCNode)this.getBoardNodes().get(40)).setCoordinates(6, 6);
-        this.getBoardNodes().get(40).addNeighbour(this.getBoardNodes().get(29),0);
-        this.getBoardNodes().get(40).addNeighbour(this.getBoardNodes().get(41),1);
-        this.getBoardNodes().get(40).addNeighbour(this.getBoardNodes().get(51),2);
-        this.getBoardNodes().get(40).addNeighbour(this.getBoardNodes().get(50),3);
-        this.getBoardNodes().get(40).addNeighbour(this.getBoardNodes().get(39),4);
-        this.getBoardNodes().get(40).addNeighbour(this.getBoardNodes().get(28),5);
-
-        ((CCNode)this.getBoardNodes().get(41)).setCoordinates(7, 6);
-        this.getBoardNodes().get(41).addNeighbour(this.getBoardNodes().get(30),0);
-        this.getBoardNodes().get(41).addNeighbour(this.getBoardNodes().get(42),1);
-        this.getBoardNodes().get(41).addNeighbour(this.getBoardNodes().get(52),2);
-        this.getBoardNodes().get(41).addNeighbour(this.getBoardNodes().get(51),3);
-        this.getBoardNodes().get(41).addNeighbour(this.getBoardNodes().get(40),4);
-        this.getBoardNodes().get(41).addNeighbour(this.getBoardNodes().get(29),5);
-
-        ((CCNode)this.getBoardNodes().get(42)).setCoordinates(8, 6);
-        this.getBoardNodes().get(42).addNeighbour(this.getBoardNodes().get(31),0);
-        this.getBoardNodes().get(42).addNeighbour(this.getBoardNodes().get(43),1);
-        this.getBoardNodes().get(42).addNeighbour(this.getBoardNodes().get(53),2);
-        this.getBoardNodes().get(42).addNeighbour(this.getBoardNodes().get(52),3);
-        this.getBoardNodes().get(42).addNeighbour(this.getBoardNodes().get(41),4);
-        this.getBoardNodes().get(42).addNeighbour(this.getBoardNodes().get(30),5);
-
-        ((CCNode)this.getBoardNodes().get(43)).setCoordinates(9, 6);
-        this.getBoardNodes().get(43).addNeighbour(this.getBoardNodes().get(32),0);
-        this.getBoardNodes().get(43).addNeighbour(this.getBoardNodes().get(44),1);
-        this.getBoardNodes().get(43).addNeighbour(this.getBoardNodes().get(54),2);
-        this.getBoardNodes().get(43).addNeighbour(this.getBoardNodes().get(53),3);
-        this.getBoardNodes().get(43).addNeighbour(this.getBoardNodes().get(42),4);
-        this.getBoardNodes().get(43).addNeighbour(this.getBoardNodes().get(31),5);
-
-        ((CCNode)this.getBoardNodes().get(44)).setCoordinates(10, 6);
-        this.getBoardNodes().get(44).addNeighbour(this.getBoardNodes().get(33),0);
-        this.getBoardNodes().get(44).addNeighbour(this.getBoardNodes().get(45),1);
-        this.getBoardNodes().get(44).addNeighbour(this.getBoardNodes().get(55),2);
-        this.getBoardNodes().get(44).addNeighbour(this.getBoardNodes().get(54),3);
-        this.getBoardNodes().get(44).addNeighbour(this.getBoardNodes().get(43),4);
-        this.getBoardNodes().get(44).addNeighbour(this.getBoardNodes().get(32),5);
-
-        ((CCNode)this.getBoardNodes().get(45)).setCoordinates(11, 6);
-        this.getBoardNodes().get(45).addNeighbour(this.getBoardNodes().get(34),0);
-        this.getBoardNodes().get(45).addNeighbour(this.getBoardNodes().get(55),3);
-        this.getBoardNodes().get(45).addNeighbour(this.getBoardNodes().get(44),4);
-        this.getBoardNodes().get(45).addNeighbour(this.getBoardNodes().get(33),5);
-
-        ((CCNode)this.getBoardNodes().get(46)).setCoordinates(1, 7);
-        this.getBoardNodes().get(46).addNeighbour(this.getBoardNodes().get(36),0);
-        this.getBoardNodes().get(46).addNeighbour(this.getBoardNodes().get(47),1);
-        this.getBoardNodes().get(46).addNeighbour(this.getBoardNodes().get(56),2);
-        this.getBoardNodes().get(46).addNeighbour(this.getBoardNodes().get(35),5);
-
-        ((CCNode)this.getBoardNodes().get(47)).setCoordinates(2, 7);
-        this.getBoardNodes().get(47).addNeighbour(this.getBoardNodes().get(37),0);
-        this.getBoardNodes().get(47).addNeighbour(this.getBoardNodes().get(48),1);
-        this.getBoardNodes().get(47).addNeighbour(this.getBoardNodes().get(57),2);
-        this.getBoardNodes().get(47).addNeighbour(this.getBoardNodes().get(56),3);
-        this.getBoardNodes().get(47).addNeighbour(this.getBoardNodes().get(46),4);
-        this.getBoardNodes().get(47).addNeighbour(this.getBoardNodes().get(36),5);
-
-        ((CCNode)this.getBoardNodes().get(48)).setCoordinates(3, 7);
-        this.getBoardNodes().get(48).addNeighbour(this.getBoardNodes().get(38),0);
-        this.getBoardNodes().get(48).addNeighbour(this.getBoardNodes().get(49),1);
-        this.getBoardNodes().get(48).addNeighbour(this.getBoardNodes().get(58),2);
-        this.getBoardNodes().get(48).addNeighbour(this.getBoardNodes().get(57),3);
-        this.getBoardNodes().get(48).addNeighbour(this.getBoardNodes().get(47),4);
-        this.getBoardNodes().get(48).addNeighbour(this.getBoardNodes().get(37),5);
-
-        ((CCNode)this.getBoardNodes().get(49)).setCoordinates(4, 7);
-        this.getBoardNodes().get(49).addNeighbour(this.getBoardNodes().get(39),0);
-        this.getBoardNodes().get(49).addNeighbour(this.getBoardNodes().get(50),1);
-        this.getBoardNodes().get(49).addNeighbour(this.getBoardNodes().get(59),2);
-        this.getBoardNodes().get(49).addNeighbour(this.getBoardNodes().get(58),3);
-        this.getBoardNodes().get(49).addNeighbour(this.getBoardNodes().get(48),4);
-        this.getBoardNodes().get(49).addNeighbour(this.getBoardNodes().get(38),5);
-
-        ((CCNode)this.getBoardNodes().get(50)).setCoordinates(5, 7);
-        this.getBoardNodes().get(50).addNeighbour(this.getBoardNodes().get(40),0);
-        this.getBoardNodes().get(50).addNeighbour(this.getBoardNodes().get(51),1);
-        this.getBoardNodes().get(50).addNeighbour(this.getBoardNodes().get(60),2);
-        this.getBoardNodes().get(50).addNeighbour(this.getBoardNodes().get(59),3);
-        this.getBoardNodes().get(50).addNeighbour(this.getBoardNodes().get(49),4);
-        this.getBoardNodes().get(50).addNeighbour(this.getBoardNodes().get(39),5);
-
-        ((CCNode)this.getBoardNodes().get(51)).setCoordinates(6, 7);
-        this.getBoardNodes().get(51).addNeighbour(this.getBoardNodes().get(41),0);
-        this.getBoardNodes().get(51).addNeighbour(this.getBoardNodes().get(52),1);
-        this.getBoardNodes().get(51).addNeighbour(this.getBoardNodes().get(61),2);
-        this.getBoardNodes().get(51).addNeighbour(this.getBoardNodes().get(60),3);
-        this.getBoardNodes().get(51).addNeighbour(this.getBoardNodes().get(50),4);
-        this.getBoardNodes().get(51).addNeighbour(this.getBoardNodes().get(40),5);
-
-        ((CCNode)this.getBoardNodes().get(52)).setCoordinates(7, 7);
-        this.getBoardNodes().get(52).addNeighbour(this.getBoardNodes().get(42),0);
-        this.getBoardNodes().get(52).addNeighbour(this.getBoardNodes().get(53),1);
-        this.getBoardNodes().get(52).addNeighbour(this.getBoardNodes().get(62),2);
-        this.getBoardNodes().get(52).addNeighbour(this.getBoardNodes().get(61),3);
-        this.getBoardNodes().get(52).addNeighbour(this.getBoardNodes().get(51),4);
-        this.getBoardNodes().get(52).addNeighbour(this.getBoardNodes().get(41),5);
-
-        ((CCNode)this.getBoardNodes().get(53)).setCoordinates(8, 7);
-        this.getBoardNodes().get(53).addNeighbour(this.getBoardNodes().get(43),0);
-        this.getBoardNodes().get(53).addNeighbour(this.getBoardNodes().get(54),1);
-        this.getBoardNodes().get(53).addNeighbour(this.getBoardNodes().get(63),2);
-        this.getBoardNodes().get(53).addNeighbour(this.getBoardNodes().get(62),3);
-        this.getBoardNodes().get(53).addNeighbour(this.getBoardNodes().get(52),4);
-        this.getBoardNodes().get(53).addNeighbour(this.getBoardNodes().get(42),5);
-
-        ((CCNode)this.getBoardNodes().get(54)).setCoordinates(9, 7);
-        this.getBoardNodes().get(54).addNeighbour(this.getBoardNodes().get(44),0);
-        this.getBoardNodes().get(54).addNeighbour(this.getBoardNodes().get(55),1);
-        this.getBoardNodes().get(54).addNeighbour(this.getBoardNodes().get(64),2);
-        this.getBoardNodes().get(54).addNeighbour(this.getBoardNodes().get(63),3);
-        this.getBoardNodes().get(54).addNeighbour(this.getBoardNodes().get(53),4);
-        this.getBoardNodes().get(54).addNeighbour(this.getBoardNodes().get(43),5);
-
-        ((CCNode)this.getBoardNodes().get(55)).setCoordinates(10, 7);
-        this.getBoardNodes().get(55).addNeighbour(this.getBoardNodes().get(45),0);
-        this.getBoardNodes().get(55).addNeighbour(this.getBoardNodes().get(64),3);
-        this.getBoardNodes().get(55).addNeighbour(this.getBoardNodes().get(54),4);
-        this.getBoardNodes().get(55).addNeighbour(this.getBoardNodes().get(44),5);
-
-        ((CCNode)this.getBoardNodes().get(56)).setCoordinates(2, 8);
-        this.getBoardNodes().get(56).addNeighbour(this.getBoardNodes().get(47),0);
-        this.getBoardNodes().get(56).addNeighbour(this.getBoardNodes().get(57),1);
-        this.getBoardNodes().get(56).addNeighbour(this.getBoardNodes().get(66),2);
-        this.getBoardNodes().get(56).addNeighbour(this.getBoardNodes().get(65),3);
-        this.getBoardNodes().get(56).addNeighbour(this.getBoardNodes().get(46),5);
-
-        ((CCNode)this.getBoardNodes().get(57)).setCoordinates(3, 8);
-        this.getBoardNodes().get(57).addNeighbour(this.getBoardNodes().get(48),0);
-        this.getBoardNodes().get(57).addNeighbour(this.getBoardNodes().get(58),1);
-        this.getBoardNodes().get(57).addNeighbour(this.getBoardNodes().get(67),2);
-        this.getBoardNodes().get(57).addNeighbour(this.getBoardNodes().get(66),3);
-        this.getBoardNodes().get(57).addNeighbour(this.getBoardNodes().get(56),4);
-        this.getBoardNodes().get(57).addNeighbour(this.getBoardNodes().get(47),5);
-
-        ((CCNode)this.getBoardNodes().get(58)).setCoordinates(4, 8);
-        this.getBoardNodes().get(58).addNeighbour(this.getBoardNodes().get(49),0);
-        this.getBoardNodes().get(58).addNeighbour(this.getBoardNodes().get(59),1);
-        this.getBoardNodes().get(58).addNeighbour(this.getBoardNodes().get(68),2);
-        this.getBoardNodes().get(58).addNeighbour(this.getBoardNodes().get(67),3);
-        this.getBoardNodes().get(58).addNeighbour(this.getBoardNodes().get(57),4);
-        this.getBoardNodes().get(58).addNeighbour(this.getBoardNodes().get(48),5);
-
-        ((CCNode)this.getBoardNodes().get(59)).setCoordinates(5, 8);
-        this.getBoardNodes().get(59).addNeighbour(this.getBoardNodes().get(50),0);
-        this.getBoardNodes().get(59).addNeighbour(this.getBoardNodes().get(60),1);
-        this.getBoardNodes().get(59).addNeighbour(this.getBoardNodes().get(69),2);
-        this.getBoardNodes().get(59).addNeighbour(this.getBoardNodes().get(68),3);
-        this.getBoardNodes().get(59).addNeighbour(this.getBoardNodes().get(58),4);
-        this.getBoardNodes().get(59).addNeighbour(this.getBoardNodes().get(49),5);
-
-        ((CCNode)this.getBoardNodes().get(60)).setCoordinates(6, 8);
-        this.getBoardNodes().get(60).addNeighbour(this.getBoardNodes().get(51),0);
-        this.getBoardNodes().get(60).addNeighbour(this.getBoardNodes().get(61),1);
-        this.getBoardNodes().get(60).addNeighbour(this.getBoardNodes().get(70),2);
-        this.getBoardNodes().get(60).addNeighbour(this.getBoardNodes().get(69),3);
-        this.getBoardNodes().get(60).addNeighbour(this.getBoardNodes().get(59),4);
-        this.getBoardNodes().get(60).addNeighbour(this.getBoardNodes().get(50),5);
-
-        ((CCNode)this.getBoardNodes().get(61)).setCoordinates(7, 8);
-        this.getBoardNodes().get(61).addNeighbour(this.getBoardNodes().get(52),0);
-        this.getBoardNodes().get(61).addNeighbour(this.getBoardNodes().get(62),1);
-        this.getBoardNodes().get(61).addNeighbour(this.getBoardNodes().get(71),2);
-        this.getBoardNodes().get(61).addNeighbour(this.getBoardNodes().get(70),3);
-        this.getBoardNodes().get(61).addNeighbour(this.getBoardNodes().get(60),4);
-        this.getBoardNodes().get(61).addNeighbour(this.getBoardNodes().get(51),5);
-
-        ((CCNode)this.getBoardNodes().get(62)).setCoordinates(8, 8);
-        this.getBoardNodes().get(62).addNeighbour(this.getBoardNodes().get(53),0);
-        this.getBoardNodes().get(62).addNeighbour(this.getBoardNodes().get(63),1);
-        this.getBoardNodes().get(62).addNeighbour(this.getBoardNodes().get(72),2);
-        this.getBoardNodes().get(62).addNeighbour(this.getBoardNodes().get(71),3);
-        this.getBoardNodes().get(62).addNeighbour(this.getBoardNodes().get(61),4);
-        this.getBoardNodes().get(62).addNeighbour(this.getBoardNodes().get(52),5);
-
-        ((CCNode)this.getBoardNodes().get(63)).setCoordinates(9, 8);
-        this.getBoardNodes().get(63).addNeighbour(this.getBoardNodes().get(54),0);
-        this.getBoardNodes().get(63).addNeighbour(this.getBoardNodes().get(64),1);
-        this.getBoardNodes().get(63).addNeighbour(this.getBoardNodes().get(73),2);
-        this.getBoardNodes().get(63).addNeighbour(this.getBoardNodes().get(72),3);
-        this.getBoardNodes().get(63).addNeighbour(this.getBoardNodes().get(62),4);
-        this.getBoardNodes().get(63).addNeighbour(this.getBoardNodes().get(53),5);
-
-        ((CCNode)this.getBoardNodes().get(64)).setCoordinates(10, 8);
-        this.getBoardNodes().get(64).addNeighbour(this.getBoardNodes().get(55),0);
-        this.getBoardNodes().get(64).addNeighbour(this.getBoardNodes().get(74),2);
-        this.getBoardNodes().get(64).addNeighbour(this.getBoardNodes().get(73),3);
-        this.getBoardNodes().get(64).addNeighbour(this.getBoardNodes().get(63),4);
-        this.getBoardNodes().get(64).addNeighbour(this.getBoardNodes().get(54),5);
-
-        ((CCNode)this.getBoardNodes().get(65)).setCoordinates(1, 9);
-        this.getBoardNodes().get(65).addNeighbour(this.getBoardNodes().get(56),0);
-        this.getBoardNodes().get(65).addNeighbour(this.getBoardNodes().get(66),1);
-        this.getBoardNodes().get(65).addNeighbour(this.getBoardNodes().get(76),2);
-        this.getBoardNodes().get(65).addNeighbour(this.getBoardNodes().get(75),3);
-
-        ((CCNode)this.getBoardNodes().get(66)).setCoordinates(2, 9);
-        this.getBoardNodes().get(66).addNeighbour(this.getBoardNodes().get(57),0);
-        this.getBoardNodes().get(66).addNeighbour(this.getBoardNodes().get(67),1);
-        this.getBoardNodes().get(66).addNeighbour(this.getBoardNodes().get(77),2);
-        this.getBoardNodes().get(66).addNeighbour(this.getBoardNodes().get(76),3);
-        this.getBoardNodes().get(66).addNeighbour(this.getBoardNodes().get(65),4);
-        this.getBoardNodes().get(66).addNeighbour(this.getBoardNodes().get(56),5);
-
-        ((CCNode)this.getBoardNodes().get(67)).setCoordinates(3, 9);
-        this.getBoardNodes().get(67).addNeighbour(this.getBoardNodes().get(58),0);
-        this.getBoardNodes().get(67).addNeighbour(this.getBoardNodes().get(68),1);
-        this.getBoardNodes().get(67).addNeighbour(this.getBoardNodes().get(78),2);
-        this.getBoardNodes().get(67).addNeighbour(this.getBoardNodes().get(77),3);
-        this.getBoardNodes().get(67).addNeighbour(this.getBoardNodes().get(66),4);
-        this.getBoardNodes().get(67).addNeighbour(this.getBoardNodes().get(57),5);
-
-        ((CCNode)this.getBoardNodes().get(68)).setCoordinates(4, 9);
-        this.getBoardNodes().get(68).addNeighbour(this.getBoardNodes().get(59),0);
-        this.getBoardNodes().get(68).addNeighbour(this.getBoardNodes().get(69),1);
-        this.getBoardNodes().get(68).addNeighbour(this.getBoardNodes().get(79),2);
-        this.getBoardNodes().get(68).addNeighbour(this.getBoardNodes().get(78),3);
-        this.getBoardNodes().get(68).addNeighbour(this.getBoardNodes().get(67),4);
-        this.getBoardNodes().get(68).addNeighbour(this.getBoardNodes().get(58),5);
-
-        ((CCNode)this.getBoardNodes().get(69)).setCoordinates(5, 9);
-        this.getBoardNodes().get(69).addNeighbour(this.getBoardNodes().get(60),0);
-        this.getBoardNodes().get(69).addNeighbour(this.getBoardNodes().get(70),1);
-        this.getBoardNodes().get(69).addNeighbour(this.getBoardNodes().get(80),2);
-        this.getBoardNodes().get(69).addNeighbour(this.getBoardNodes().get(79),3);
-        this.getBoardNodes().get(69).addNeighbour(this.getBoardNodes().get(68),4);
-        this.getBoardNodes().get(69).addNeighbour(this.getBoardNodes().get(59),5);
-
-        ((CCNode)this.getBoardNodes().get(70)).setCoordinates(6, 9);
-        this.getBoardNodes().get(70).addNeighbour(this.getBoardNodes().get(61),0);
-        this.getBoardNodes().get(70).addNeighbour(this.getBoardNodes().get(71),1);
-        this.getBoardNodes().get(70).addNeighbour(this.getBoardNodes().get(81),2);
-        this.getBoardNodes().get(70).addNeighbour(this.getBoardNodes().get(80),3);
-        this.getBoardNodes().get(70).addNeighbour(this.getBoardNodes().get(69),4);
-        this.getBoardNodes().get(70).addNeighbour(this.getBoardNodes().get(60),5);
-
-        ((CCNode)this.getBoardNodes().get(71)).setCoordinates(7, 9);
-        this.getBoardNodes().get(71).addNeighbour(this.getBoardNodes().get(62),0);
-        this.getBoardNodes().get(71).addNeighbour(this.getBoardNodes().get(72),1);
-        this.getBoardNodes().get(71).addNeighbour(this.getBoardNodes().get(82),2);
-        this.getBoardNodes().get(71).addNeighbour(this.getBoardNodes().get(81),3);
-        this.getBoardNodes().get(71).addNeighbour(this.getBoardNodes().get(70),4);
-        this.getBoardNodes().get(71).addNeighbour(this.getBoardNodes().get(61),5);
-
-        ((CCNode)this.getBoardNodes().get(72)).setCoordinates(8, 9);
-        this.getBoardNodes().get(72).addNeighbour(this.getBoardNodes().get(63),0);
-        this.getBoardNodes().get(72).addNeighbour(this.getBoardNodes().get(73),1);
-        this.getBoardNodes().get(72).addNeighbour(this.getBoardNodes().get(83),2);
-        this.getBoardNodes().get(72).addNeighbour(this.getBoardNodes().get(82),3);
-        this.getBoardNodes().get(72).addNeighbour(this.getBoardNodes().get(71),4);
-        this.getBoardNodes().get(72).addNeighbour(this.getBoardNodes().get(62),5);
-
-        ((CCNode)this.getBoardNodes().get(73)).setCoordinates(9, 9);
-        this.getBoardNodes().get(73).addNeighbour(this.getBoardNodes().get(64),0);
-        this.getBoardNodes().get(73).addNeighbour(this.getBoardNodes().get(74),1);
-        this.getBoardNodes().get(73).addNeighbour(this.getBoardNodes().get(84),2);
-        this.getBoardNodes().get(73).addNeighbour(this.getBoardNodes().get(83),3);
-        this.getBoardNodes().get(73).addNeighbour(this.getBoardNodes().get(72),4);
-        this.getBoardNodes().get(73).addNeighbour(this.getBoardNodes().get(63),5);
-
-        ((CCNode)this.getBoardNodes().get(74)).setCoordinates(10, 9);
-        this.getBoardNodes().get(74).addNeighbour(this.getBoardNodes().get(85),2);
-        this.getBoardNodes().get(74).addNeighbour(this.getBoardNodes().get(84),3);
-        this.getBoardNodes().get(74).addNeighbour(this.getBoardNodes().get(73),4);
-        this.getBoardNodes().get(74).addNeighbour(this.getBoardNodes().get(64),5);
-
-        ((CCNode)this.getBoardNodes().get(75)).setCoordinates(1, 10);
-        this.getBoardNodes().get(75).addNeighbour(this.getBoardNodes().get(65),0);
-        this.getBoardNodes().get(75).addNeighbour(this.getBoardNodes().get(76),1);
-        this.getBoardNodes().get(75).addNeighbour(this.getBoardNodes().get(87),2);
-        this.getBoardNodes().get(75).addNeighbour(this.getBoardNodes().get(86),3);
-
-        ((CCNode)this.getBoardNodes().get(76)).setCoordinates(2, 10);
-        this.getBoardNodes().get(76).addNeighbour(this.getBoardNodes().get(66),0);
-        this.getBoardNodes().get(76).addNeighbour(this.getBoardNodes().get(77),1);
-        this.getBoardNodes().get(76).addNeighbour(this.getBoardNodes().get(88),2);
-        this.getBoardNodes().get(76).addNeighbour(this.getBoardNodes().get(87),3);
-        this.getBoardNodes().get(76).addNeighbour(this.getBoardNodes().get(75),4);
-        this.getBoardNodes().get(76).addNeighbour(this.getBoardNodes().get(65),5);
-
-        ((CCNode)this.getBoardNodes().get(77)).setCoordinates(3, 10);
-        this.getBoardNodes().get(77).addNeighbour(this.getBoardNodes().get(67),0);
-        this.getBoardNodes().get(77).addNeighbour(this.getBoardNodes().get(78),1);
-        this.getBoardNodes().get(77).addNeighbour(this.getBoardNodes().get(89),2);
-        this.getBoardNodes().get(77).addNeighbour(this.getBoardNodes().get(88),3);
-        this.getBoardNodes().get(77).addNeighbour(this.getBoardNodes().get(76),4);
-        this.getBoardNodes().get(77).addNeighbour(this.getBoardNodes().get(66),5);
-
-        ((CCNode)this.getBoardNodes().get(78)).setCoordinates(4, 10);
-        this.getBoardNodes().get(78).addNeighbour(this.getBoardNodes().get(68),0);
-        this.getBoardNodes().get(78).addNeighbour(this.getBoardNodes().get(79),1);
-        this.getBoardNodes().get(78).addNeighbour(this.getBoardNodes().get(90),2);
-        this.getBoardNodes().get(78).addNeighbour(this.getBoardNodes().get(89),3);
-        this.getBoardNodes().get(78).addNeighbour(this.getBoardNodes().get(77),4);
-        this.getBoardNodes().get(78).addNeighbour(this.getBoardNodes().get(67),5);
-
-        ((CCNode)this.getBoardNodes().get(79)).setCoordinates(5, 10);
-        this.getBoardNodes().get(79).addNeighbour(this.getBoardNodes().get(69),0);
-        this.getBoardNodes().get(79).addNeighbour(this.getBoardNodes().get(80),1);
-        this.getBoardNodes().get(79).addNeighbour(this.getBoardNodes().get(91),2);
-        this.getBoardNodes().get(79).addNeighbour(this.getBoardNodes().get(90),3);
-        this.getBoardNodes().get(79).addNeighbour(this.getBoardNodes().get(78),4);
-        this.getBoardNodes().get(79).addNeighbour(this.getBoardNodes().get(68),5);
-
-        ((CCNode)this.getBoardNodes().get(80)).setCoordinates(6, 10);
-        this.getBoardNodes().get(80).addNeighbour(this.getBoardNodes().get(70),0);
-        this.getBoardNodes().get(80).addNeighbour(this.getBoardNodes().get(81),1);
-        this.getBoardNodes().get(80).addNeighbour(this.getBoardNodes().get(92),2);
-        this.getBoardNodes().get(80).addNeighbour(this.getBoardNodes().get(91),3);
-        this.getBoardNodes().get(80).addNeighbour(this.getBoardNodes().get(79),4);
-        this.getBoardNodes().get(80).addNeighbour(this.getBoardNodes().get(69),5);
-
-        ((CCNode)this.getBoardNodes().get(81)).setCoordinates(7, 10);
-        this.getBoardNodes().get(81).addNeighbour(this.getBoardNodes().get(71),0);
-        this.getBoardNodes().get(81).addNeighbour(this.getBoardNodes().get(82),1);
-        this.getBoardNodes().get(81).addNeighbour(this.getBoardNodes().get(93),2);
-        this.getBoardNodes().get(81).addNeighbour(this.getBoardNodes().get(92),3);
-        this.getBoardNodes().get(81).addNeighbour(this.getBoardNodes().get(80),4);
-        this.getBoardNodes().get(81).addNeighbour(this.getBoardNodes().get(70),5);
-
-        ((CCNode)this.getBoardNodes().get(82)).setCoordinates(8, 10);
-        this.getBoardNodes().get(82).addNeighbour(this.getBoardNodes().get(72),0);
-        this.getBoardNodes().get(82).addNeighbour(this.getBoardNodes().get(83),1);
-        this.getBoardNodes().get(82).addNeighbour(this.getBoardNodes().get(94),2);
-        this.getBoardNodes().get(82).addNeighbour(this.getBoardNodes().get(93),3);
-        this.getBoardNodes().get(82).addNeighbour(this.getBoardNodes().get(81),4);
-        this.getBoardNodes().get(82).addNeighbour(this.getBoardNodes().get(71),5);
-
-        ((CCNode)this.getBoardNodes().get(83)).setCoordinates(9, 10);
-        this.getBoardNodes().get(83).addNeighbour(this.getBoardNodes().get(73),0);
-        this.getBoardNodes().get(83).addNeighbour(this.getBoardNodes().get(84),1);
-        this.getBoardNodes().get(83).addNeighbour(this.getBoardNodes().get(95),2);
-        this.getBoardNodes().get(83).addNeighbour(this.getBoardNodes().get(94),3);
-        this.getBoardNodes().get(83).addNeighbour(this.getBoardNodes().get(83),4);
-        this.getBoardNodes().get(83).addNeighbour(this.getBoardNodes().get(72),5);
-
-        ((CCNode)this.getBoardNodes().get(84)).setCoordinates(10, 10);
-        this.getBoardNodes().get(84).addNeighbour(this.getBoardNodes().get(74),0);
-        this.getBoardNodes().get(84).addNeighbour(this.getBoardNodes().get(85),1);
-        this.getBoardNodes().get(84).addNeighbour(this.getBoardNodes().get(96),2);
-        this.getBoardNodes().get(84).addNeighbour(this.getBoardNodes().get(95),3);
-        this.getBoardNodes().get(84).addNeighbour(this.getBoardNodes().get(83),4);
-        this.getBoardNodes().get(84).addNeighbour(this.getBoardNodes().get(73),5);
-
-        ((CCNode)this.getBoardNodes().get(85)).setCoordinates(11, 10);
-        this.getBoardNodes().get(85).addNeighbour(this.getBoardNodes().get(97),2);
-        this.getBoardNodes().get(85).addNeighbour(this.getBoardNodes().get(96),3);
-        this.getBoardNodes().get(85).addNeighbour(this.getBoardNodes().get(84),4);
-        this.getBoardNodes().get(85).addNeighbour(this.getBoardNodes().get(74),5);
-
-        ((CCNode)this.getBoardNodes().get(86)).setCoordinates(0, 11);
-        this.getBoardNodes().get(86).addNeighbour(this.getBoardNodes().get(75),0);
-        this.getBoardNodes().get(86).addNeighbour(this.getBoardNodes().get(87),1);
-        this.getBoardNodes().get(86).addNeighbour(this.getBoardNodes().get(99),2);
-        this.getBoardNodes().get(86).addNeighbour(this.getBoardNodes().get(98),3);
-
-        ((CCNode)this.getBoardNodes().get(87)).setCoordinates(1, 11);
-        this.getBoardNodes().get(87).addNeighbour(this.getBoardNodes().get(75),0);
-        this.getBoardNodes().get(87).addNeighbour(this.getBoardNodes().get(87),1);
-        this.getBoardNodes().get(87).addNeighbour(this.getBoardNodes().get(99),2);
-        this.getBoardNodes().get(87).addNeighbour(this.getBoardNodes().get(98),3);
-        this.getBoardNodes().get(87).addNeighbour(this.getBoardNodes().get(99),4);
-        this.getBoardNodes().get(87).addNeighbour(this.getBoardNodes().get(98),5);
-
-        ((CCNode)this.getBoardNodes().get(88)).setCoordinates(2, 11);
-        this.getBoardNodes().get(88).addNeighbour(this.getBoardNodes().get(77),0);
-        this.getBoardNodes().get(88).addNeighbour(this.getBoardNodes().get(89),1);
-        this.getBoardNodes().get(88).addNeighbour(this.getBoardNodes().get(101),2);
-        this.getBoardNodes().get(88).addNeighbour(this.getBoardNodes().get(100),3);
-        this.getBoardNodes().get(88).addNeighbour(this.getBoardNodes().get(87),4);
-        this.getBoardNodes().get(88).addNeighbour(this.getBoardNodes().get(76),5);
-
-        ((CCNode)this.getBoardNodes().get(89)).setCoordinates(3, 11);
-        this.getBoardNodes().get(89).addNeighbour(this.getBoardNodes().get(78),0);
-        this.getBoardNodes().get(89).addNeighbour(this.getBoardNodes().get(90),1);
-        this.getBoardNodes().get(89).addNeighbour(this.getBoardNodes().get(102),2);
-        this.getBoardNodes().get(89).addNeighbour(this.getBoardNodes().get(101),3);
-        this.getBoardNodes().get(89).addNeighbour(this.getBoardNodes().get(88),4);
-        this.getBoardNodes().get(89).addNeighbour(this.getBoardNodes().get(77),5);
-
-        ((CCNode)this.getBoardNodes().get(90)).setCoordinates(4, 11);
-        this.getBoardNodes().get(90).addNeighbour(this.getBoardNodes().get(79),0);
-        this.getBoardNodes().get(90).addNeighbour(this.getBoardNodes().get(91),1);
-        this.getBoardNodes().get(90).addNeighbour(this.getBoardNodes().get(103),2);
-        this.getBoardNodes().get(90).addNeighbour(this.getBoardNodes().get(102),3);
-        this.getBoardNodes().get(90).addNeighbour(this.getBoardNodes().get(89),4);
-        this.getBoardNodes().get(90).addNeighbour(this.getBoardNodes().get(78),5);
-
-        ((CCNode)this.getBoardNodes().get(91)).setCoordinates(5, 11);
-        this.getBoardNodes().get(91).addNeighbour(this.getBoardNodes().get(80),0);
-        this.getBoardNodes().get(91).addNeighbour(this.getBoardNodes().get(92),1);
-        this.getBoardNodes().get(91).addNeighbour(this.getBoardNodes().get(104),2);
-        this.getBoardNodes().get(91).addNeighbour(this.getBoardNodes().get(103),3);
-        this.getBoardNodes().get(91).addNeighbour(this.getBoardNodes().get(90),4);
-        this.getBoardNodes().get(91).addNeighbour(this.getBoardNodes().get(79),5);
-
-        ((CCNode)this.getBoardNodes().get(92)).setCoordinates(6, 11);
-        this.getBoardNodes().get(92).addNeighbour(this.getBoardNodes().get(81),0);
-        this.getBoardNodes().get(92).addNeighbour(this.getBoardNodes().get(93),1);
-        this.getBoardNodes().get(92).addNeighbour(this.getBoardNodes().get(105),2);
-        this.getBoardNodes().get(92).addNeighbour(this.getBoardNodes().get(104),3);
-        this.getBoardNodes().get(92).addNeighbour(this.getBoardNodes().get(91),4);
-        this.getBoardNodes().get(92).addNeighbour(this.getBoardNodes().get(80),5);
-
-        ((CCNode)this.getBoardNodes().get(93)).setCoordinates(7, 11);
-        this.getBoardNodes().get(93).addNeighbour(this.getBoardNodes().get(82),0);
-        this.getBoardNodes().get(93).addNeighbour(this.getBoardNodes().get(94),1);
-        this.getBoardNodes().get(93).addNeighbour(this.getBoardNodes().get(106),2);
-        this.getBoardNodes().get(93).addNeighbour(this.getBoardNodes().get(105),3);
-        this.getBoardNodes().get(93).addNeighbour(this.getBoardNodes().get(92),4);
-        this.getBoardNodes().get(93).addNeighbour(this.getBoardNodes().get(81),5);
-
-        ((CCNode)this.getBoardNodes().get(94)).setCoordinates(8, 11);
-        this.getBoardNodes().get(94).addNeighbour(this.getBoardNodes().get(83),0);
-        this.getBoardNodes().get(94).addNeighbour(this.getBoardNodes().get(95),1);
-        this.getBoardNodes().get(94).addNeighbour(this.getBoardNodes().get(107),2);
-        this.getBoardNodes().get(94).addNeighbour(this.getBoardNodes().get(106),3);
-        this.getBoardNodes().get(94).addNeighbour(this.getBoardNodes().get(93),4);
-        this.getBoardNodes().get(94).addNeighbour(this.getBoardNodes().get(82),5);
-
-        ((CCNode)this.getBoardNodes().get(95)).setCoordinates(9, 11);
-        this.getBoardNodes().get(95).addNeighbour(this.getBoardNodes().get(84),0);
-        this.getBoardNodes().get(95).addNeighbour(this.getBoardNodes().get(96),1);
-        this.getBoardNodes().get(95).addNeighbour(this.getBoardNodes().get(108),2);
-        this.getBoardNodes().get(95).addNeighbour(this.getBoardNodes().get(107),3);
-        this.getBoardNodes().get(95).addNeighbour(this.getBoardNodes().get(94),4);
-        this.getBoardNodes().get(95).addNeighbour(this.getBoardNodes().get(83),5);
-
-        ((CCNode)this.getBoardNodes().get(96)).setCoordinates(10, 11);
-        this.getBoardNodes().get(96).addNeighbour(this.getBoardNodes().get(85),0);
-        this.getBoardNodes().get(96).addNeighbour(this.getBoardNodes().get(97),1);
-        this.getBoardNodes().get(96).addNeighbour(this.getBoardNodes().get(109),2);
-        this.getBoardNodes().get(96).addNeighbour(this.getBoardNodes().get(108),3);
-        this.getBoardNodes().get(96).addNeighbour(this.getBoardNodes().get(95),4);
-        this.getBoardNodes().get(96).addNeighbour(this.getBoardNodes().get(84),5);
-
-        ((CCNode)this.getBoardNodes().get(97)).setCoordinates(11, 11);
-        this.getBoardNodes().get(97).addNeighbour(this.getBoardNodes().get(110),2);
-        this.getBoardNodes().get(97).addNeighbour(this.getBoardNodes().get(109),3);
-        this.getBoardNodes().get(97).addNeighbour(this.getBoardNodes().get(96),4);
-        this.getBoardNodes().get(97).addNeighbour(this.getBoardNodes().get(85),5);
-
-        ((CCNode)this.getBoardNodes().get(98)).setCoordinates(0, 12);
-        this.getBoardNodes().get(98).addNeighbour(this.getBoardNodes().get(86),0);
-        this.getBoardNodes().get(98).addNeighbour(this.getBoardNodes().get(99),1);
-
-        ((CCNode)this.getBoardNodes().get(99)).setCoordinates(1, 12);
-        this.getBoardNodes().get(99).addNeighbour(this.getBoardNodes().get(87),0);
-        this.getBoardNodes().get(99).addNeighbour(this.getBoardNodes().get(100),1);
-        this.getBoardNodes().get(99).addNeighbour(this.getBoardNodes().get(98),4);
-        this.getBoardNodes().get(99).addNeighbour(this.getBoardNodes().get(86),5);
-
-        ((CCNode)this.getBoardNodes().get(100)).setCoordinates(2, 12);
-        this.getBoardNodes().get(100).addNeighbour(this.getBoardNodes().get(88),0);
-        this.getBoardNodes().get(100).addNeighbour(this.getBoardNodes().get(101),1);
-        this.getBoardNodes().get(100).addNeighbour(this.getBoardNodes().get(99),4);
-        this.getBoardNodes().get(100).addNeighbour(this.getBoardNodes().get(87),5);;
-
-        ((CCNode)this.getBoardNodes().get(101)).setCoordinates(3, 12);
-        this.getBoardNodes().get(101).addNeighbour(this.getBoardNodes().get(89),0);
-        this.getBoardNodes().get(101).addNeighbour(this.getBoardNodes().get(102),1);
-        this.getBoardNodes().get(101).addNeighbour(this.getBoardNodes().get(100),4);
-        this.getBoardNodes().get(101).addNeighbour(this.getBoardNodes().get(88),5);;
-
-        ((CCNode)this.getBoardNodes().get(102)).setCoordinates(4, 12);
-        this.getBoardNodes().get(102).addNeighbour(this.getBoardNodes().get(90),0);
-        this.getBoardNodes().get(102).addNeighbour(this.getBoardNodes().get(103),1);
-        this.getBoardNodes().get(102).addNeighbour(this.getBoardNodes().get(111),2);
-        this.getBoardNodes().get(102).addNeighbour(this.getBoardNodes().get(101),4);
-        this.getBoardNodes().get(102).addNeighbour(this.getBoardNodes().get(89),5);;
-
-        ((CCNode)this.getBoardNodes().get(103)).setCoordinates(5, 12);
-        this.getBoardNodes().get(103).addNeighbour(this.getBoardNodes().get(91),0);
-        this.getBoardNodes().get(103).addNeighbour(this.getBoardNodes().get(104),1);
-        this.getBoardNodes().get(103).addNeighbour(this.getBoardNodes().get(112),2);
-        this.getBoardNodes().get(103).addNeighbour(this.getBoardNodes().get(111),3);
-        this.getBoardNodes().get(103).addNeighbour(this.getBoardNodes().get(102),4);
-        this.getBoardNodes().get(103).addNeighbour(this.getBoardNodes().get(90),5);;
-
-        ((CCNode)this.getBoardNodes().get(104)).setCoordinates(6, 12);
-        this.getBoardNodes().get(104).addNeighbour(this.getBoardNodes().get(92),0);
-        this.getBoardNodes().get(104).addNeighbour(this.getBoardNodes().get(105),1);
-        this.getBoardNodes().get(104).addNeighbour(this.getBoardNodes().get(113),2);
-        this.getBoardNodes().get(104).addNeighbour(this.getBoardNodes().get(112),3);
-        this.getBoardNodes().get(104).addNeighbour(this.getBoardNodes().get(103),4);
-        this.getBoardNodes().get(104).addNeighbour(this.getBoardNodes().get(91),5);;
-
-        ((CCNode)this.getBoardNodes().get(105)).setCoordinates(7, 12);
-        this.getBoardNodes().get(105).addNeighbour(this.getBoardNodes().get(93),0);
-        this.getBoardNodes().get(105).addNeighbour(this.getBoardNodes().get(106),1);
-        this.getBoardNodes().get(105).addNeighbour(this.getBoardNodes().get(114),2);
-        this.getBoardNodes().get(105).addNeighbour(this.getBoardNodes().get(113),3);
-        this.getBoardNodes().get(105).addNeighbour(this.getBoardNodes().get(104),4);
-        this.getBoardNodes().get(105).addNeighbour(this.getBoardNodes().get(92),5);;
-
-        ((CCNode)this.getBoardNodes().get(106)).setCoordinates(8, 12);
-        this.getBoardNodes().get(106).addNeighbour(this.getBoardNodes().get(94),0);
-        this.getBoardNodes().get(106).addNeighbour(this.getBoardNodes().get(107),1);
-        this.getBoardNodes().get(106).addNeighbour(this.getBoardNodes().get(114),3);
-        this.getBoardNodes().get(106).addNeighbour(this.getBoardNodes().get(105),4);
-        this.getBoardNodes().get(106).addNeighbour(this.getBoardNodes().get(93),5);;
-
-        ((CCNode)this.getBoardNodes().get(107)).setCoordinates(9, 12);
-        this.getBoardNodes().get(107).addNeighbour(this.getBoardNodes().get(95),0);
-        this.getBoardNodes().get(107).addNeighbour(this.getBoardNodes().get(108),1);
-        this.getBoardNodes().get(107).addNeighbour(this.getBoardNodes().get(106),4);
-        this.getBoardNodes().get(107).addNeighbour(this.getBoardNodes().get(94),5);;
-
-        ((CCNode)this.getBoardNodes().get(108)).setCoordinates(10, 12);
-        this.getBoardNodes().get(108).addNeighbour(this.getBoardNodes().get(96),0);
-        this.getBoardNodes().get(108).addNeighbour(this.getBoardNodes().get(109),1);
-        this.getBoardNodes().get(108).addNeighbour(this.getBoardNodes().get(107),4);
-        this.getBoardNodes().get(108).addNeighbour(this.getBoardNodes().get(95),5);;
-
-        ((CCNode)this.getBoardNodes().get(109)).setCoordinates(11, 12);
-        this.getBoardNodes().get(109).addNeighbour(this.getBoardNodes().get(97),0);
-        this.getBoardNodes().get(109).addNeighbour(this.getBoardNodes().get(110),1);
-        this.getBoardNodes().get(109).addNeighbour(this.getBoardNodes().get(108),4);
-        this.getBoardNodes().get(109).addNeighbour(this.getBoardNodes().get(96),5);;
-
-        ((CCNode)this.getBoardNodes().get(110)).setCoordinates(12, 12);
-        this.getBoardNodes().get(110).addNeighbour(this.getBoardNodes().get(109),4);
-        this.getBoardNodes().get(110).addNeighbour(this.getBoardNodes().get(97),5);;
-
-        ((CCNode)this.getBoardNodes().get(111)).setCoordinates(4, 13);
-        this.getBoardNodes().get(111).addNeighbour(this.getBoardNodes().get(103),0);
-        this.getBoardNodes().get(111).addNeighbour(this.getBoardNodes().get(112),1);
-        this.getBoardNodes().get(111).addNeighbour(this.getBoardNodes().get(115),2);
-        this.getBoardNodes().get(111).addNeighbour(this.getBoardNodes().get(102),5);;
-
-        ((CCNode)this.getBoardNodes().get(112)).setCoordinates(5, 13);
-        this.getBoardNodes().get(112).addNeighbour(this.getBoardNodes().get(104),0);
-        this.getBoardNodes().get(112).addNeighbour(this.getBoardNodes().get(113),1);
-        this.getBoardNodes().get(112).addNeighbour(this.getBoardNodes().get(116),2);
-        this.getBoardNodes().get(112).addNeighbour(this.getBoardNodes().get(115),3);
-        this.getBoardNodes().get(112).addNeighbour(this.getBoardNodes().get(111),4);
-        this.getBoardNodes().get(112).addNeighbour(this.getBoardNodes().get(103),5);;
-
-        ((CCNode)this.getBoardNodes().get(113)).setCoordinates(6, 13);
-        this.getBoardNodes().get(113).addNeighbour(this.getBoardNodes().get(105),0);
-        this.getBoardNodes().get(113).addNeighbour(this.getBoardNodes().get(114),1);
-        this.getBoardNodes().get(113).addNeighbour(this.getBoardNodes().get(117),2);
-        this.getBoardNodes().get(113).addNeighbour(this.getBoardNodes().get(116),3);
-        this.getBoardNodes().get(113).addNeighbour(this.getBoardNodes().get(112),4);
-        this.getBoardNodes().get(113).addNeighbour(this.getBoardNodes().get(104),5);;
-
-        ((CCNode)this.getBoardNodes().get(114)).setCoordinates(7, 13);
-        this.getBoardNodes().get(114).addNeighbour(this.getBoardNodes().get(106),0);
-        this.getBoardNodes().get(114).addNeighbour(this.getBoardNodes().get(117),3);
-        this.getBoardNodes().get(114).addNeighbour(this.getBoardNodes().get(113),4);
-        this.getBoardNodes().get(114).addNeighbour(this.getBoardNodes().get(105),5);;
-
-        ((CCNode)this.getBoardNodes().get(115)).setCoordinates(5, 14);
-        this.getBoardNodes().get(115).addNeighbour(this.getBoardNodes().get(112),0);
-        this.getBoardNodes().get(115).addNeighbour(this.getBoardNodes().get(116),1);
-        this.getBoardNodes().get(115).addNeighbour(this.getBoardNodes().get(118),2);
-        this.getBoardNodes().get(115).addNeighbour(this.getBoardNodes().get(111),5);;
-
-        ((CCNode)this.getBoardNodes().get(116)).setCoordinates(6, 14);
-        this.getBoardNodes().get(116).addNeighbour(this.getBoardNodes().get(113),0);
-        this.getBoardNodes().get(116).addNeighbour(this.getBoardNodes().get(117),1);
-        this.getBoardNodes().get(116).addNeighbour(this.getBoardNodes().get(119),2);
-        this.getBoardNodes().get(116).addNeighbour(this.getBoardNodes().get(118),3);
-        this.getBoardNodes().get(116).addNeighbour(this.getBoardNodes().get(115),4);
-        this.getBoardNodes().get(116).addNeighbour(this.getBoardNodes().get(112),5);;
-
-        this.getBoardNodes().get(117).setCoordinates(7, 14);
-        this.getBoardNodes().get(117).addNeighbour(this.getBoardNodes().get(114),0);
-        this.getBoardNodes().get(117).addNeighbour(this.getBoardNodes().get(119),3);
-        this.getBoardNodes().get(117).addNeighbour(this.getBoardNodes().get(116),4);
-        this.getBoardNodes().get(117).addNeighbour(this.getBoardNodes().get(113),5);;
-
-        this.getBoardNodes().get(118).setCoordinates(5, 15);
-        this.getBoardNodes().get(118).addNeighbour(this.getBoardNodes().get(116),0);
-        this.getBoardNodes().get(118).addNeighbour(this.getBoardNodes().get(119),1);
-        this.getBoardNodes().get(118).addNeighbour(this.getBoardNodes().get(120),2);
-        this.getBoardNodes().get(118).addNeighbour(this.getBoardNodes().get(115),5);;
-
-        this.getBoardNodes().get(119).setCoordinates(6, 15);
-        this.getBoardNodes().get(119).addNeighbour(this.getBoardNodes().get(117),0);
-        this.getBoardNodes().get(119).addNeighbour(this.getBoardNodes().get(120),3);
-        this.getBoardNodes().get(119).addNeighbour(this.getBoardNodes().get(118),4);
-        this.getBoardNodes().get(119).addNeighbour(this.getBoardNodes().get(116),5);;
-
-        this.getBoardNodes().get(120).setCoordinates(6, 16);
-        this.getBoardNodes().get(120).addNeighbour(this.getBoardNodes().get(119),0);
-        this.getBoardNodes().get(120).addNeighbour(this.getBoardNodes().get(118),5);;
-    }
 }
@@ -248,7 +248,6 @@ public class ColtExpressGameState extends AbstractGameStateWithTurnOrder impleme
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof ColtExpressGameState)) return false;
-        if (!super.equals(o)) return false;
         ColtExpressGameState gameState = (ColtExpressGameState) o;
         return playerPlayingBelle == gameState.playerPlayingBelle &&
                 Objects.equals(playerHandCards, gameState.playerHandCards) &&
@@ -6,6 +6,8 @@ import core.actions.SetGridValueAction;
 import core.components.GridBoard;
 import core.components.Token;
 import core.forwardModels.SequentialActionForwardModel;
+import utilities.Bitboard;
+import utilities.Zobrist;
 import utilities.Pair;
 
 import java.util.ArrayList;
@@ -16,13 +18,22 @@ import java.util.List;
 
 public class Connect4ForwardModel extends SequentialActionForwardModel {
 
+    // The directions in which a line of tokens can run: horizontal, vertical and the two diagonals
+    private static final int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+
     @Override
     protected void _setup(AbstractGameState firstState) {
         Connect4GameParameters c4gp = (Connect4GameParameters) firstState.getGameParameters();
         int gridSize = c4gp.gridSize;
         Connect4GameState state = (Connect4GameState) firstState;
-        state.gridBoard = new GridBoard<>(gridSize, gridSize, new Token(Connect4Constants.emptyCell));
+        state.emptyBoard = new GridBoard<>(gridSize, gridSize, new Token(Connect4Constants.emptyCell));
+        state.gridBoard = null;
         state.winnerCells = new LinkedList<>();
+        state.playerCells = new Bitboard[Connect4Constants.playerMapping.size()];
+        for (int i = 0; i < state.playerCells.length; i++)
+            state.playerCells[i] = new Bitboard(gridSize, gridSize);
+        state.columnCounts = new int[gridSize];
+        state.boardKey = 0;
     }
 
     @Override
@@ -31,22 +42,15 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         ArrayList<AbstractAction> actions = new ArrayList<>();
         int player = c4gs.getCurrentPlayer();
 
-        if (gameState.isNotTerminal())
-            for (int x = 0; x < c4gs.gridBoard.getWidth(); x++) {
-                int y = c4gs.gridBoard.getHeight() - 1; // this is bottom of column
-                boolean end = false;
-                while(!end)
-                {
-                    boolean newCol = false;
-                    if (c4gs.gridBoard.getElement(x, y).getTokenType().equals(Connect4Constants.emptyCell)) {
-                        actions.add(new SetGridValueAction<>(c4gs.gridBoard.getComponentID(), x, y, Connect4Constants.playerMapping.get(player)));
-                        newCol = true;
-                    }
-
-                    //Stop when reaching top (column is full) or on finding the first empty cell (action available)
-                    end = (--y <  0 || newCol);
-                }
+        if (gameState.isNotTerminal()) {
+            int height = c4gs.emptyBoard.getHeight();
+            for (int x = 0; x < c4gs.emptyBoard.getWidth(); x++) {
+                // tokens fill a column from the bottom (y = height - 1) up
+                int y = height - 1 - c4gs.columnCounts[x];
+                if (y >= 0)
+                    actions.add(new PlaceToken(c4gs.emptyBoard.getComponentID(), x, y, Connect4Constants.playerMapping.get(player)));
             }
+        }
         return actions;
     }
 
@@ -55,106 +59,43 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         Connect4GameState c4gs = (Connect4GameState) currentState;
 
         // game-specific check for end of game
-        if (checkGameEnd(c4gs)) {
+        if (action instanceof SetGridValueAction && checkGameEnd(c4gs, (SetGridValueAction<?>) action)) {
             return;
         }
         super._afterAction(currentState, action);
     }
 
     /**
-     * Checks if the game ended.
+     * Records the token just placed, and checks if the game ended. Any line of winCount tokens must pass through
+     * this one, so we only need to look along the four lines through it.
      *
      * @param gameState - game state to check game end.
+     * @param move      - the token just placed.
      */
-    private boolean checkGameEnd(Connect4GameState gameState) {
-        GridBoard<Token> gridBoard = gameState.getGridBoard();
+    private boolean checkGameEnd(Connect4GameState gameState, SetGridValueAction<?> move) {
         Connect4GameParameters c4gp = (Connect4GameParameters) gameState.getGameParameters();
-        boolean gap = false;
-        LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();;
-
-        // Check columns
-        for (int x = 0; x < gridBoard.getWidth(); x++) {
-            int count = 0;
-            String lastToken = null;
-            winning.clear();
-            for (int y = gridBoard.getHeight() - 1; y >= 0; y--) {
-                Token c = gridBoard.getElement(x, y);
-                if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                    count = 0;
-                    lastToken = null;
-                    winning.clear();
-                    gap = true;
-                } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                    winning.clear();
-                    count = 1;
-                    lastToken = c.getTokenType();
-                    winning.add(new Pair<>(x, y));
-                } else {
-                    {
-                        count++;
-                        winning.add(new Pair<>(x, y));
-                        if (count == c4gp.winCount) {
-                            registerWinner(gameState, c, winning);
-                            return true;
-                        }
-                    }
-                    lastToken = c.getTokenType();
-                }
-            }
-        }
-
-        // Check rows
-        for (int y = gridBoard.getHeight() - 1; y >= 0; y--) {
-            int count = 0;
-            String lastToken = null;
-            winning.clear();
-            for (int x = 0; x < gridBoard.getWidth(); x++) {
-                Token c = gridBoard.getElement(x, y);
-                if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                    count = 0;
-                    lastToken = null;
-                    winning.clear();
-                } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                    winning.clear();
-                    count = 1;
-                    lastToken = c.getTokenType();
-                    winning.add(new Pair<>(x, y));
-                } else {
-                    {
-                        count++;
-                        winning.add(new Pair<>(x, y));
-                        if (count == c4gp.winCount) {
-                            registerWinner(gameState, c, winning);
-                            return true;
-                        }
-                    }
-                    lastToken = c.getTokenType();
-                }
-            }
-        }
-
-        //Check main diagonals (from col 0)
-        for (int y = gridBoard.getHeight() - 1; y >= 0; y--) {
-            if (checkMainDiagonals(gameState, 0, y))
-                return true;
-
-        }
-
-        //Check main and inverse diagonals (from row 0)
-        for (int x = 1; x < gridBoard.getWidth(); x++) {
-            if (checkMainDiagonals(gameState, x, gridBoard.getHeight() - 1))
-                return true;
-            if (checkInvDiagonals(gameState, x, gridBoard.getHeight() - 1))
-                return true;
-        }
-
-        //Check inv diagonals (from last column)
-        for (int y = gridBoard.getHeight() - 2; y >= 0; y--) { //height -1 is checked in previous loop
-            if (checkInvDiagonals(gameState, gridBoard.getWidth()-1, y))
+        int x = move.getX(), y = move.getY();
+        int player = Connect4Constants.playerMapping.indexOf(move.getValue());
+        Bitboard cells = gameState.playerCells[player];
+        cells.set(x, y);
+        gameState.columnCounts[x]++;
+        gameState.boardKey ^= Zobrist.key(player, y * cells.getWidth() + x);
+
+        for (int[] d : directions) {
+            int back = cells.run(x, y, -d[0], -d[1]);
+            if (back + 1 + cells.run(x, y, d[0], d[1]) >= c4gp.winCount) {
+                LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();
+                for (int i = 0; i < c4gp.winCount; i++)
+                    winning.add(new Pair<>(x + (i - back) * d[0], y + (i - back) * d[1]));
+                registerWinner(gameState, player, winning);
                 return true;
+            }
         }
 
-        if (!gap) { //tie
+        int nTokens = 0;
+        for (Bitboard playerCells : gameState.playerCells)
+            nTokens += playerCells.count();
+        if (nTokens == cells.size()) { //tie
             gameState.setGameStatus(CoreConstants.GameResult.DRAW_GAME);
             Arrays.fill(gameState.getPlayerResults(), CoreConstants.GameResult.DRAW_GAME);
             return true;
@@ -163,83 +104,15 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         return false;
     }
 
-
-    private boolean checkMainDiagonals(Connect4GameState gameState, int xStart, int yStart)
-    {
-        GridBoard<Token> gridBoard = gameState.getGridBoard();
-        Connect4GameParameters c4gp = (Connect4GameParameters) gameState.getGameParameters();
-        int count = 0;
-        String lastToken = null;
-        LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();
-
-        for (int x = xStart, y = yStart; x < gridBoard.getWidth() && y >=0; x++, y--) {
-            Token c = gridBoard.getElement(x, y);
-
-            if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                count = 0;
-                lastToken = null;
-                winning.clear();
-            } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                winning.clear();
-                count = 1;
-                lastToken = c.getTokenType();
-                winning.add(new Pair<>(x, y));
-            } else {
-                count++;
-                winning.add(new Pair<>(x, y));
-                if (count == c4gp.winCount) {
-                    registerWinner(gameState, c, winning);
-                    return true;
-                }
-                lastToken = c.getTokenType();
-            }
-        }
-        return false;
-    }
-
-    private boolean checkInvDiagonals(Connect4GameState gameState, int xStart, int yStart)
-    {
-        GridBoard<Token> gridBoard = gameState.getGridBoard();
-        Connect4GameParameters c4gp = (Connect4GameParameters) gameState.getGameParameters();
-        int count = 0;
-        String lastToken = null;
-        LinkedList<Pair<Integer, Integer>> winning = new LinkedList<>();
-
-        for (int x = xStart, y = yStart; x >= 0 && y >= 0; x--, y--) {
-            Token c = gridBoard.getElement(x, y);
-
-            if (c.getTokenType().equals(Connect4Constants.emptyCell)) {
-                count = 0;
-                lastToken = null;
-                winning.clear();
-            } else if (lastToken == null || !lastToken.equals(c.getTokenType())) {
-                winning.clear();
-                count = 1;
-                lastToken = c.getTokenType();
-                winning.add(new Pair<>(x, y));
-            } else {
-                count++;
-                winning.add(new Pair<>(x, y));
-                if (count == c4gp.winCount) {
-                    registerWinner(gameState, c, winning);
-                    return true;
-                }
-                lastToken = c.getTokenType();
-            }
-        }
-        return false;
-    }
-
     /**
      * Inform the game this player has won.
      *
-     * @param winnerSymbol - which player won.
+     * @param winningPlayer - which player won.
      */
-    private void registerWinner(Connect4GameState gameState, Token winnerSymbol, LinkedList<Pair<Integer, Integer>> winPos) {
+    private void registerWinner(Connect4GameState gameState, int winningPlayer, LinkedList<Pair<Integer, Integer>> winPos) {
         gameState.setGameStatus(CoreConstants.GameResult.GAME_END);
-        int winningPlayer = Connect4Constants.playerMapping.indexOf(winnerSymbol);
         gameState.setPlayerResult(CoreConstants.GameResult.WIN_GAME, winningPlayer);
         gameState.setPlayerResult(CoreConstants.GameResult.LOSE_GAME, 1 - winningPlayer);
         gameState.registerWinningCells(winPos);
     }
-}
\ No newline at end of file
+}
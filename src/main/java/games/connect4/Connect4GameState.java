@@ -8,20 +8,34 @@ import core.components.GridBoard;
 import core.components.Token;
 import core.interfaces.IGridGameState;
 import core.interfaces.IPrintable;
+import core.interfaces.IStateKey;
 import core.turnorders.AlternatingTurnOrder;
 import core.turnorders.TurnOrder;
 import games.GameType;
+import utilities.Bitboard;
+import utilities.Zobrist;
 import utilities.Pair;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 
-public class Connect4GameState extends AbstractGameState implements IPrintable, IGridGameState<Token> {
+public class Connect4GameState extends AbstractGameState implements IPrintable, IGridGameState<Token>, IStateKey {
 
+    // The board as set up, which is never changed and is shared by all copies of the state. The GridBoard of a
+    // state is built from this and the bitboards when it is first asked for (see getGridBoard()), so that the
+    // many copies made by a search, which never look at it, do not have to copy it.
+    GridBoard<Token> emptyBoard;
     GridBoard<Token> gridBoard;
     LinkedList<Pair<Integer, Integer>> winnerCells;
+    // The cells taken by each player, and the number of tokens in each column. These are the record of the
+    // tokens placed, and are what the forward model uses to find the legal moves and to check for a win.
+    Bitboard[] playerCells;
+    int[] columnCounts;
+    // Zobrist key of the tokens on the board
+    long boardKey;
 
     public Connect4GameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
@@ -37,14 +51,19 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     @Override
     protected List<Component> _getAllComponents() {
         return new ArrayList<Component>() {{
-            add(gridBoard);
+            add(getGridBoard());
         }};
     }
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        Connect4GameState s = new Connect4GameState(gameParameters.copy(), getNPlayers());
-        s.gridBoard = gridBoard.copy();
+        Connect4GameState s = new Connect4GameState(gameParameters.shareableCopy(), getNPlayers());
+        s.emptyBoard = emptyBoard;
+        s.playerCells = new Bitboard[playerCells.length];
+        for (int i = 0; i < playerCells.length; i++)
+            s.playerCells[i] = playerCells[i].copy();
+        s.columnCounts = columnCounts.clone();
+        s.boardKey = boardKey;
 
         s.winnerCells.clear();
         for (Pair<Integer, Integer> wC : this.winnerCells)
@@ -75,9 +94,8 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Connect4GameState)) return false;
-        if (!super.equals(o)) return false;
         Connect4GameState that = (Connect4GameState) o;
-        return Objects.equals(gridBoard, that.gridBoard);
+        return Arrays.equals(playerCells, that.playerCells);
     }
 
     @Override
@@ -85,6 +103,7 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         StringBuilder sb = new StringBuilder();
         sb.append("{");
 
+        GridBoard<Token> gridBoard = getGridBoard();
         for (int y = 0; y < gridBoard.getHeight(); y++) {
             for (int x = 0; x < gridBoard.getWidth(); x++) {
                 if (y != 0 || x != 0) {
@@ -99,19 +118,42 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         return sb.toString();
     }
 
+    @Override
+    public long getStateKey() {
+        return boardKey ^ Zobrist.playerToMove(getCurrentPlayer());
+    }
+
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), gridBoard);
+        return Objects.hash(super.hashCode(), Arrays.hashCode(playerCells));
     }
 
     @Override
     public GridBoard<Token> getGridBoard() {
+        if (gridBoard == null) {
+            gridBoard = emptyBoard.copy();
+            for (int p = 0; p < playerCells.length; p++) {
+                Token token = Connect4Constants.playerMapping.get(p);
+                for (int y = 0; y < gridBoard.getHeight(); y++)
+                    for (int x = 0; x < gridBoard.getWidth(); x++)
+                        if (playerCells[p].get(x, y))
+                            gridBoard.setElement(x, y, token);
+            }
+        }
         return gridBoard;
     }
 
+    /**
+     * Places a token. It is recorded on the bitboards by the forward model (see Connect4ForwardModel.checkGameEnd()),
+     * so here we only need to update the GridBoard, if it has been built.
+     */
+    boolean placeToken(int x, int y, Token token) {
+        return gridBoard == null || gridBoard.setElement(x, y, token);
+    }
+
     @Override
     public void printToConsole() {
-        System.out.println(gridBoard.toString());
+        System.out.println(getGridBoard().toString());
     }
 
     void registerWinningCells(LinkedList<Pair<Integer, Integer>> winnerCells) {
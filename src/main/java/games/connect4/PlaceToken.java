@@ -0,0 +1,21 @@
+package games.connect4;
+
+import core.AbstractGameState;
+import core.actions.SetGridValueAction;
+import core.components.Token;
+
+/**
+ * Drops a token into the board. This is a SetGridValueAction like any other, but does not ask the state for its
+ * GridBoard, which a copy of the state only builds when it is first asked for (see Connect4GameState.getGridBoard()).
+ */
+public class PlaceToken extends SetGridValueAction<Token> {
+
+    public PlaceToken(int gridBoard, int x, int y, Token value) {
+        super(gridBoard, x, y, value);
+    }
+
+    @Override
+    public boolean execute(AbstractGameState gs) {
+        return ((Connect4GameState) gs).placeToken(getX(), getY(), getValue());
+    }
+}
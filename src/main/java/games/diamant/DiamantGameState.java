@@ -87,7 +87,7 @@ public class DiamantGameState extends AbstractGameState implements IPrintable {
     @Override
     protected AbstractGameState _copy(int playerId)
     {
-        DiamantGameState dgs = new DiamantGameState(gameParameters.copy(), getNPlayers());
+        DiamantGameState dgs = new DiamantGameState(gameParameters.shareableCopy(), getNPlayers());
 
         dgs.mainDeck    = mainDeck.copy();
         dgs.discardDeck = discardDeck.copy();
@@ -192,7 +192,6 @@ public class DiamantGameState extends AbstractGameState implements IPrintable {
     {
         if (this == o)                        return true;
         if (!(o instanceof DiamantGameState)) return false;
-        if (!super.equals(o))                 return false;
 
         DiamantGameState that = (DiamantGameState) o;
 
@@ -2,7 +2,6 @@ package games.dominion;
 
 import core.*;
 import core.actions.*;
-import core.components.Deck;
 import games.dominion.actions.*;
 import games.dominion.cards.*;
 import games.dominion.DominionConstants.*;
@@ -41,19 +40,20 @@ public class DominionForwardModel extends StandardForwardModel {
         state.spentSoFar = 0;
 
         int victoryCards = params.VICTORY_CARDS_PER_PLAYER[state.playerCount];
-        state.cardsIncludedInGame = new HashMap<>(16);
-        state.cardsIncludedInGame.put(CardType.PROVINCE, victoryCards);
-        state.cardsIncludedInGame.put(CardType.DUCHY, victoryCards);
-        state.cardsIncludedInGame.put(CardType.ESTATE, victoryCards);
-        state.cardsIncludedInGame.put(CardType.GOLD, params.GOLD_SUPPLY);
-        state.cardsIncludedInGame.put(CardType.SILVER, params.SILVER_SUPPLY);
-        state.cardsIncludedInGame.put(CardType.COPPER, params.COPPER_SUPPLY);
+        Map<CardType, Integer> supply = new HashMap<>(16);
+        supply.put(CardType.PROVINCE, victoryCards);
+        supply.put(CardType.DUCHY, victoryCards);
+        supply.put(CardType.ESTATE, victoryCards);
+        supply.put(CardType.GOLD, params.GOLD_SUPPLY);
+        supply.put(CardType.SILVER, params.SILVER_SUPPLY);
+        supply.put(CardType.COPPER, params.COPPER_SUPPLY);
         for (CardType ct : params.cardsUsed) {
             int cardsToUse = ct.isVictory ? victoryCards : params.KINGDOM_CARDS_OF_EACH_TYPE;
             if (ct == CardType.CURSE)
                 cardsToUse = (state.playerCount - 1) * params.CURSE_CARDS_PER_PLAYER;
-            state.cardsIncludedInGame.put(ct, cardsToUse);
+            supply.put(ct, cardsToUse);
         }
+        state.setSupply(supply);
         state.setGamePhase(DominionGameState.DominionGamePhase.Play);
     }
 
@@ -95,14 +95,7 @@ public class DominionForwardModel extends StandardForwardModel {
                         // 1) put hand and cards played into discard
                         // 2) draw 5 new cards
                         // 3) shuffle and move discard if we run out
-                        Deck<DominionCard> hand = state.playerHands[playerID];
-                        Deck<DominionCard> discard = state.playerDiscards[playerID];
-                        Deck<DominionCard> table = state.playerTableaux[playerID];
-
-                        discard.add(hand);
-                        discard.add(table);
-                        table.clear();
-                        hand.clear();
+                        state.discardHandAndTable(playerID);
                         for (int i = 0; i < state.params.HAND_SIZE; i++)
                             state.drawCard(playerID);
 
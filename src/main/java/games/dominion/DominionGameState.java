@@ -27,15 +27,29 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
 
     int playerCount;
     DominionParameters params;
-    // Counts of cards on the table should be fine
-    Map<CardType, Integer> cardsIncludedInGame = new HashMap<>();
+    // The supply is just a count of the cards of each type left on the table (indexed by CardType.ordinal())
+    int[] supply = new int[CardType.values().length];
+    // The types of card in the supply, most expensive first. This is fixed once the game is set up, so is shared
+    // between copies
+    CardType[] cardsInSupply = new CardType[0];
+    // One card of each type in the supply (indexed by CardType.ordinal()), to value the cards held as counts. Cards are
+    // immutable, so this is also shared between copies
+    DominionCard[] oneOfEach = new DominionCard[CardType.values().length];
     // Then Decks for each player - Hand, Discard and Draw
+    // These stay as decks of cards rather than counts of each type: action cards work on cards by their position
+    // (the top of the draw pile, the cards just drawn), and the order in which a discard pile is shuffled back into the
+    // draw pile decides which cards come up, so games played from the same seed would not stay the same with counts
     PartialObservableDeck<DominionCard>[] playerHands;
     PartialObservableDeck<DominionCard>[] playerDrawPiles;
     Deck<DominionCard>[] playerDiscards;
     Deck<DominionCard>[] playerTableaux;
     // Trash pile and other global decks
     Deck<DominionCard> trashPile;
+    // With params.unorderedPilesAsCounts the trash and the discard piles are held as counts of each type of card
+    // (indexed by CardType.ordinal()) in place of trashPile and playerDiscards. Nothing reads the order of these: cards
+    // are only looked for in them by type, and a discard pile is shuffled before anything is drawn from it
+    int[] trashCounts;
+    int[][] discardCounts;
     boolean[] defenceStatus;
     int buysLeftForCurrentPlayer = 1;
     int actionsLeftForCurrentPlayer = 1;
@@ -58,29 +72,144 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
         this._reset();
     }
 
+    @SuppressWarnings("unchecked")
+    private DominionGameState(DominionGameState copyFrom) {
+        // used by _copy only, which fills in the decks (so we do not create empty ones first as _reset() would)
+        super(copyFrom.gameParameters.shareableCopy(), copyFrom.playerCount);
+        playerCount = copyFrom.playerCount;
+        params = (DominionParameters) gameParameters;
+        supply = copyFrom.supply.clone();
+        cardsInSupply = copyFrom.cardsInSupply;
+        oneOfEach = copyFrom.oneOfEach;
+        playerHands = new PartialObservableDeck[playerCount];
+        playerDrawPiles = new PartialObservableDeck[playerCount];
+        if (copyFrom.trashCounts == null) {
+            playerDiscards = new Deck[playerCount];
+        } else {
+            trashCounts = copyFrom.trashCounts.clone();
+            discardCounts = new int[playerCount][];
+            for (int p = 0; p < playerCount; p++)
+                discardCounts[p] = copyFrom.discardCounts[p].clone();
+        }
+        playerTableaux = new Deck[playerCount];
+    }
+
     @Override
     protected GameType _getGameType() {
         return GameType.Dominion;
     }
 
     public boolean removeCardFromTable(CardType type) {
-        if (cardsIncludedInGame.getOrDefault(type, 0) > 0) {
-            cardsIncludedInGame.put(type, cardsIncludedInGame.get(type) - 1);
+        if (supply[type.ordinal()] > 0) {
+            supply[type.ordinal()]--;
             return true;
         }
         return false;
     }
 
+    /**
+     * Sets up the supply, with the given number of cards of each type.
+     * Cards of the same cost are offered in the order of CardType. (Taking them in the order they come out of the map
+     * made games depend on the identity hash codes of the CardTypes, so the same seeds did not always give the same
+     * game.)
+     */
+    void setSupply(Map<CardType, Integer> cards) {
+        supply = new int[CardType.values().length];
+        for (Map.Entry<CardType, Integer> entry : cards.entrySet())
+            supply[entry.getKey().ordinal()] = entry.getValue();
+        cardsInSupply = cards.keySet().stream()
+                .sorted(comparingInt((CardType c) -> -c.cost).thenComparingInt(Enum::ordinal))
+                .toArray(CardType[]::new);
+        oneOfEach = new DominionCard[CardType.values().length];
+        for (CardType type : cardsInSupply)
+            oneOfEach[type.ordinal()] = DominionCard.create(type);
+    }
+
     public void addCard(CardType type, int playerId, DeckType deckType) {
-        DominionCard newCard = DominionCard.create(type);
-        Deck<DominionCard> deck = getDeck(deckType, playerId);
-        deck.add(newCard);
+        int[] counts = counts(deckType, playerId);
+        if (counts != null)
+            counts[type.ordinal()]++;
+        else
+            getDeck(deckType, playerId).add(DominionCard.create(type));
+    }
+
+    private void addCard(DominionCard card, int playerId, DeckType deckType) {
+        int[] counts = counts(deckType, playerId);
+        if (counts != null)
+            counts[card.cardType().ordinal()]++;
+        else
+            getDeck(deckType, playerId).add(card);
+    }
+
+    private boolean removeCard(DominionCard card, int playerId, DeckType deckType) {
+        int[] counts = counts(deckType, playerId);
+        if (counts == null)
+            return getDeck(deckType, playerId).remove(card);
+        if (counts[card.cardType().ordinal()] == 0)
+            return false;
+        counts[card.cardType().ordinal()]--;
+        return true;
+    }
+
+    /**
+     * @return the counts of each type of card that hold the given pile, or null if it is held as a Deck
+     */
+    private int[] counts(DeckType deck, int playerId) {
+        if (trashCounts == null)
+            return null;
+        switch (deck) {
+            case TRASH:
+                return trashCounts;
+            case DISCARD:
+                return discardCounts[playerId];
+            default:
+                return null;
+        }
+    }
+
+    private static Deck<DominionCard> cardsFromCounts(String name, int[] counts) {
+        Deck<DominionCard> retValue = new Deck<>(name, VISIBLE_TO_ALL);
+        for (CardType type : CardType.values()) {
+            for (int i = 0; i < counts[type.ordinal()]; i++)
+                retValue.add(DominionCard.create(type));
+        }
+        return retValue;
+    }
+
+    private int discardSize(int playerId) {
+        return discardCounts == null ? playerDiscards[playerId].getSize() : Arrays.stream(discardCounts[playerId]).sum();
+    }
+
+    /**
+     * Puts the cards in the player's hand and on their table into their discard pile (at the end of their turn).
+     */
+    void discardHandAndTable(int playerId) {
+        Deck<DominionCard> hand = playerHands[playerId];
+        Deck<DominionCard> table = playerTableaux[playerId];
+        if (discardCounts == null) {
+            Deck<DominionCard> discard = playerDiscards[playerId];
+            discard.add(hand);
+            discard.add(table);
+        } else {
+            for (DominionCard card : hand.getComponents())
+                discardCounts[playerId][card.cardType().ordinal()]++;
+            for (DominionCard card : table.getComponents())
+                discardCounts[playerId][card.cardType().ordinal()]++;
+        }
+        table.clear();
+        hand.clear();
     }
 
 
     public boolean gameOver() {
-        return cardsIncludedInGame.get(CardType.PROVINCE) == 0 ||
-                cardsIncludedInGame.values().stream().filter(i -> i == 0).count() >= params.PILES_EXHAUSTED_FOR_GAME_END;
+        if (supply[CardType.PROVINCE.ordinal()] == 0)
+            return true;
+        int emptyPiles = 0;
+        for (CardType type : cardsInSupply) {
+            if (supply[type.ordinal()] == 0)
+                emptyPiles++;
+        }
+        return emptyPiles >= params.PILES_EXHAUSTED_FOR_GAME_END;
     }
 
     public boolean drawCard(int playerId) {
@@ -89,22 +218,35 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
 
     public boolean drawCard(int fromPlayer, DeckType fromDeck, int toPlayer, DeckType toDeck) {
         Deck<DominionCard> source = getDeck(fromDeck, fromPlayer);
-        Deck<DominionCard> destination = getDeck(toDeck, toPlayer);
+        Deck<DominionCard> destination = counts(toDeck, toPlayer) == null ? getDeck(toDeck, toPlayer) : null;
         if (source.getSize() == 0) {
             // do stuff
             if (fromDeck == DeckType.DRAW) {
-                Deck<DominionCard> discard = getDeck(DeckType.DISCARD, fromPlayer);
-                if (discard.getSize() == 0)
+                if (discardSize(fromPlayer) == 0)
                     return false;
-                source.add(discard);
-                discard.clear();
+                if (discardCounts == null) {
+                    source.add(playerDiscards[fromPlayer]);
+                    playerDiscards[fromPlayer].clear();
+                } else {
+                    for (CardType type : CardType.values()) {
+                        for (int i = discardCounts[fromPlayer][type.ordinal()]; i > 0; i--)
+                            source.add(DominionCard.create(type));
+                    }
+                    Arrays.fill(discardCounts[fromPlayer], 0);
+                }
                 source.shuffle(rnd);
             } else {
                 return false;
             }
         }
         DominionCard cardDrawn = source.draw();
-        destination.add(cardDrawn);
+        int[] sourceCounts = counts(fromDeck, fromPlayer);
+        if (sourceCounts != null)
+            sourceCounts[cardDrawn.cardType().ordinal()]--;
+        if (counts(toDeck, toPlayer) != null)
+            addCard(cardDrawn, toPlayer, toDeck);
+        else
+            destination.add(cardDrawn);
         return true;
     }
 
@@ -119,9 +261,8 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     }
 
     public boolean moveCard(DominionCard cardToMove, int fromPlayer, DeckType fromDeck, int toPlayer, DeckType toDeck) {
-        boolean cardFound = getDeck(fromDeck, fromPlayer).remove(cardToMove);
-        if (cardFound) {
-            getDeck(toDeck, toPlayer).add(cardToMove);
+        if (removeCard(cardToMove, fromPlayer, fromDeck)) {
+            addCard(cardToMove, toPlayer, toDeck);
             return true;
         }
         return false;
@@ -173,14 +314,24 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     protected List<Component> _getAllComponents() {
         List<Component> components = new ArrayList<>();
         components.addAll(Arrays.asList(playerHands));
-        components.addAll(Arrays.asList(playerDiscards));
+        if (trashCounts == null)
+            components.addAll(Arrays.asList(playerDiscards));
         components.addAll(Arrays.asList(playerTableaux));
         components.addAll(Arrays.asList(playerDrawPiles));
-        components.add(trashPile);
+        if (trashCounts == null)
+            components.add(trashPile);
         return components;
     }
 
+    /**
+     * Returns the given deck. If the trash and discard piles are held as counts (DominionParameters.unorderedPilesAsCounts)
+     * then for those this is a new Deck with the cards they hold, and changes to it do not change the game state.
+     */
     public Deck<DominionCard> getDeck(DeckType deck, int playerId) {
+        if (trashCounts != null && deck == DeckType.TRASH)
+            return cardsFromCounts("Trash", trashCounts);
+        if (discardCounts != null && deck == DeckType.DISCARD)
+            return cardsFromCounts("Discard of Player " + playerId + 1, discardCounts[playerId]);
         switch (deck) {
             case HAND:
                 return playerHands[playerId];
@@ -197,47 +348,56 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     }
 
     public int cardsOfType(CardType type, int playerId, DeckType deck) {
-        Deck<DominionCard> allCards;
         switch (deck) {
             case SUPPLY:
-                return cardsIncludedInGame.getOrDefault(type, 0);
+                return supply[type.ordinal()];
+            case DISCARD:
+            case TRASH:
+                int[] counts = counts(deck, playerId);
+                return counts != null ? counts[type.ordinal()] : cardsOfType(type, getDeck(deck, playerId));
             case HAND:
             case TABLE:
             case DRAW:
-            case DISCARD:
-            case TRASH:
-                allCards = getDeck(deck, playerId);
-                break;
+                return cardsOfType(type, getDeck(deck, playerId));
             case ALL:
-                allCards = new Deck<>("temp", VISIBLE_TO_ALL);
-                allCards.add(playerHands[playerId]);
-                allCards.add(playerDiscards[playerId]);
-                allCards.add(playerDrawPiles[playerId]);
-                allCards.add(playerTableaux[playerId]);
-                break;
+                return cardsOfType(type, playerHands[playerId]) + cardsOfType(type, playerId, DeckType.DISCARD) +
+                        cardsOfType(type, playerDrawPiles[playerId]) + cardsOfType(type, playerTableaux[playerId]);
             default:
                 throw new IllegalStateException("Unexpected value: " + deck);
         }
+    }
 
-        return (int) allCards.stream().filter(c -> c.cardType() == type).count();
+    private static int cardsOfType(CardType type, Deck<DominionCard> deck) {
+        int retValue = 0;
+        for (DominionCard card : deck.getComponents()) {
+            if (card.cardType() == type)
+                retValue++;
+        }
+        return retValue;
     }
 
     public List<CardType> cardsToBuy() {
-        return cardsIncludedInGame.keySet().stream()
-                .filter(c -> cardsIncludedInGame.get(c) > 0)
-                .sorted(comparingInt(c -> -c.cost))
-                .distinct()
-                .collect(toList());
+        List<CardType> retValue = new ArrayList<>(cardsInSupply.length);
+        for (CardType type : cardsInSupply) {
+            if (supply[type.ordinal()] > 0)
+                retValue.add(type);
+        }
+        return retValue;
     }
 
     public List<CardType> cardsIncludedInGame() {
-        return cardsIncludedInGame.keySet().stream()
-                .sorted(comparingInt(c -> -c.cost))
-                .collect(toList());
+        return new ArrayList<>(Arrays.asList(cardsInSupply));
     }
 
+    /**
+     * @return the number of cards of each type left in the supply. This is a copy, so changing it does not change
+     * the supply.
+     */
     public Map<CardType, Integer> getCardsIncludedInGame() {
-        return cardsIncludedInGame;
+        Map<CardType, Integer> retValue = new LinkedHashMap<>();
+        for (CardType type : cardsInSupply)
+            retValue.put(type, supply[type.ordinal()]);
+        return retValue;
     }
 
     public void setDefended(int playerId) {
@@ -256,10 +416,7 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
      */
     @Override
     protected AbstractGameState _copy(int playerId) {
-        DominionGameState retValue = new DominionGameState(gameParameters.copy(), playerCount);
-        for (CardType ct : cardsIncludedInGame.keySet()) {
-            retValue.cardsIncludedInGame.put(ct, cardsIncludedInGame.get(ct));
-        }
+        DominionGameState retValue = new DominionGameState(this);
         for (int p = 0; p < playerCount; p++) {
             if (playerId == -1) {
                 retValue.playerHands[p] = playerHands[p].copy();
@@ -292,14 +449,16 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
                         retValue.playerHands[p].add(retValue.playerDrawPiles[p].pick(retValue.playerDrawPiles[p].getSize() - 1), i);
                     } else {
                         // we know what this card is, so copy over visibility status
-                        retValue.playerHands[p].add(playerHands[p].get(i).copy(), playerHands[p].getVisibilityOfComponent(i).clone());
+                        retValue.playerHands[p].add(playerHands[p].get(i).copy(), playerHands[p].getVisibilityOfComponent(i));
                     }
                 }
             }
-            retValue.playerDiscards[p] = playerDiscards[p].copy();
+            if (trashCounts == null)
+                retValue.playerDiscards[p] = playerDiscards[p].copy();
             retValue.playerTableaux[p] = playerTableaux[p].copy();
         }
-        retValue.trashPile = trashPile.copy();
+        if (trashCounts == null)
+            retValue.trashPile = trashPile.copy();
         retValue.buysLeftForCurrentPlayer = buysLeftForCurrentPlayer;
         retValue.actionsLeftForCurrentPlayer = actionsLeftForCurrentPlayer;
         retValue.spentSoFar = spentSoFar;
@@ -348,14 +507,25 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
 
     public int getTotal(int playerId, Function<DominionCard, Integer> cardValuer) {
         int score = playerHands[playerId].sumInt(cardValuer);
-        score += playerDiscards[playerId].sumInt(cardValuer);
+        if (discardCounts == null) {
+            score += playerDiscards[playerId].sumInt(cardValuer);
+        } else {
+            // the value of a card depends only on its type
+            int[] counts = discardCounts[playerId];
+            for (CardType type : CardType.values()) {
+                if (counts[type.ordinal()] > 0) {
+                    DominionCard card = oneOfEach[type.ordinal()];
+                    score += counts[type.ordinal()] * cardValuer.apply(card != null ? card : DominionCard.create(type));
+                }
+            }
+        }
         score += playerTableaux[playerId].sumInt(cardValuer);
         score += playerDrawPiles[playerId].sumInt(cardValuer);
         return score;
     }
 
     public int getTotalCards(int playerId) {
-        return playerDrawPiles[playerId].getSize() + playerDiscards[playerId].getSize()
+        return playerDrawPiles[playerId].getSize() + discardSize(playerId)
                 + playerHands[playerId].getSize() + playerTableaux[playerId].getSize();
     }
 
@@ -377,16 +547,25 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     protected void _reset() {
         playerHands = new PartialObservableDeck[playerCount];
         playerDrawPiles = new PartialObservableDeck[playerCount];
-        playerDiscards = new Deck[playerCount];
         playerTableaux = new Deck[playerCount];
-
-        trashPile = new Deck<>("Trash", VISIBLE_TO_ALL);
+        if (params.unorderedPilesAsCounts) {
+            playerDiscards = null;
+            trashPile = null;
+            trashCounts = new int[CardType.values().length];
+            discardCounts = new int[playerCount][CardType.values().length];
+        } else {
+            playerDiscards = new Deck[playerCount];
+            trashPile = new Deck<>("Trash", VISIBLE_TO_ALL);
+            trashCounts = null;
+            discardCounts = null;
+        }
         for (int i = 0; i < playerCount; i++) {
             boolean[] handVisibility = new boolean[playerCount];
             handVisibility[i] = true;
             playerHands[i] = new PartialObservableDeck<>("Hand of Player " + i + 1, handVisibility);
             playerDrawPiles[i] = new PartialObservableDeck<>("Drawpile of Player " + i + 1, new boolean[playerCount]);
-            playerDiscards[i] = new Deck<>("Discard of Player " + i + 1, VISIBLE_TO_ALL);
+            if (playerDiscards != null)
+                playerDiscards[i] = new Deck<>("Discard of Player " + i + 1, VISIBLE_TO_ALL);
             playerTableaux[i] = new Deck<>("Tableau of Player " + i + 1, VISIBLE_TO_ALL);
         }
     }
@@ -402,13 +581,15 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
         if (this == o) return true;
         if (!(o instanceof DominionGameState)) return false;
         DominionGameState other = (DominionGameState) o;
-        return cardsIncludedInGame.equals(other.cardsIncludedInGame) &&
+        return Arrays.equals(supply, other.supply) &&
                 Arrays.equals(playerHands, other.playerHands) &&
                 Arrays.equals(playerResults, other.playerResults) &&
                 Arrays.equals(playerDiscards, other.playerDiscards) &&
                 Arrays.equals(playerTableaux, other.playerTableaux) &&
                 Arrays.equals(playerDrawPiles, other.playerDrawPiles) &&
-                trashPile.equals(other.trashPile) &&
+                Objects.equals(trashPile, other.trashPile) &&
+                Arrays.equals(trashCounts, other.trashCounts) &&
+                Arrays.deepEquals(discardCounts, other.discardCounts) &&
                 buysLeftForCurrentPlayer == other.buysLeftForCurrentPlayer &&
                 actionsLeftForCurrentPlayer == other.actionsLeftForCurrentPlayer &&
                 spentSoFar == other.spentSoFar && additionalSpendAvailable == other.additionalSpendAvailable &&
@@ -418,7 +599,8 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(cardsIncludedInGame, trashPile, buysLeftForCurrentPlayer, gamePhase, gameStatus,
+        int result = Objects.hash(Arrays.hashCode(supply), trashPile, Arrays.hashCode(trashCounts),
+                Arrays.deepHashCode(discardCounts), buysLeftForCurrentPlayer, gamePhase, gameStatus,
                 actionsLeftForCurrentPlayer, spentSoFar, additionalSpendAvailable, actionsInProgress, delayedActions);
         result = result + 31 * Arrays.hashCode(playerResults) + 743 * Arrays.hashCode(playerHands) + 353 * Arrays.hashCode(playerDiscards) +
                 11 * Arrays.hashCode(playerTableaux) + 41 * Arrays.hashCode(playerDrawPiles) + Arrays.hashCode(defenceStatus);
@@ -429,12 +611,12 @@ public class DominionGameState extends AbstractGameState implements IPrintable {
     public String toString() {
         StringBuilder retValue = new StringBuilder();
         retValue.append(String.format("Turn: %d, Current Player: %d, Phase: %s%n", getRoundCounter(), getCurrentPlayer(), gamePhase));
-        for (Map.Entry<CardType, Integer> s : cardsIncludedInGame.entrySet()) {
-            retValue.append(String.format("\t%2d %s%n", s.getValue(), s.getKey()));
+        for (CardType type : cardsInSupply) {
+            retValue.append(String.format("\t%2d %s%n", supply[type.ordinal()], type));
         }
         for (int p = 0; p < getNPlayers(); p++) {
             retValue.append(String.format("Player: %d, Score: %2.0f, Hand: %d, Deck: %d, Discard: %d, Actions: %d, Buys: %d%n",
-                    p, getGameScore(p), playerHands[p].getSize(), playerDrawPiles[p].getSize(), playerDiscards[p].getSize(),
+                    p, getGameScore(p), playerHands[p].getSize(), playerDrawPiles[p].getSize(), discardSize(p),
                     p == getCurrentPlayer() ? actionsLeftForCurrentPlayer : 0,
                     p == getCurrentPlayer() ? buysLeftForCurrentPlayer : 0));
             retValue.append("Tableau:\n\t");
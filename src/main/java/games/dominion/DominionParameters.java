@@ -11,6 +11,10 @@ public class DominionParameters extends TunableParameters {
 
     List<CardType> cardsUsed = new ArrayList<>();
     String dataPath = "data/dominion/";
+    // Hold the trash and discard piles as counts of each type of card rather than as decks of cards. These copy
+    // faster, but games from the same seed play out differently to those with the piles held as decks (the discard
+    // pile is in a different order when it is shuffled back into the draw pile)
+    public boolean unorderedPilesAsCounts = false;
 
     public int HAND_SIZE = 5;
     public int PILES_EXHAUSTED_FOR_GAME_END = 3;
@@ -105,6 +109,7 @@ public class DominionParameters extends TunableParameters {
         DominionParameters retValue = new DominionParameters();
         retValue.cardsUsed = new ArrayList<>(cardsUsed);
         retValue.dataPath = dataPath;
+        retValue.unorderedPilesAsCounts = unorderedPilesAsCounts;
         retValue.HAND_SIZE = HAND_SIZE;
         retValue.PILES_EXHAUSTED_FOR_GAME_END = PILES_EXHAUSTED_FOR_GAME_END;
         retValue.KINGDOM_CARDS_OF_EACH_TYPE = KINGDOM_CARDS_OF_EACH_TYPE;
@@ -128,7 +133,7 @@ public class DominionParameters extends TunableParameters {
     protected boolean _equals(Object o) {
         if (o instanceof DominionParameters) {
             DominionParameters dp = (DominionParameters) o;
-            return dp.cardsUsed.equals(cardsUsed);
+            return dp.cardsUsed.equals(cardsUsed) && dp.unorderedPilesAsCounts == unorderedPilesAsCounts;
         }
         return false;
     }
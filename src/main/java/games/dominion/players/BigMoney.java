@@ -3,6 +3,7 @@ package games.dominion.players;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
+import games.dominion.DominionConstants.DeckType;
 import games.dominion.DominionGameState;
 import games.dominion.actions.BuyCard;
 import games.dominion.actions.EndPhase;
@@ -23,7 +24,7 @@ public class BigMoney extends AbstractPlayer {
         DominionGameState state = (DominionGameState) gameState;
         int player = gameState.getCurrentPlayer();
         int cash = state.availableSpend(player);
-        int provinces = state.getCardsIncludedInGame().getOrDefault(CardType.PROVINCE, 0);
+        int provinces = state.cardsOfType(CardType.PROVINCE, -1, DeckType.SUPPLY);
 
         if (state.getGamePhase() != DominionGameState.DominionGamePhase.Buy)
             return new EndPhase();
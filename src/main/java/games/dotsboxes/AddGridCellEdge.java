@@ -2,8 +2,8 @@ package games.dotsboxes;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
+import utilities.Zobrist;
 
-import java.util.HashSet;
 import java.util.Objects;
 
 public class AddGridCellEdge extends AbstractAction {
@@ -18,20 +18,24 @@ public class AddGridCellEdge extends AbstractAction {
         // Find neighbouring cells
         DBGameState dbgs = (DBGameState) gs;
 
-        int nCellsCompleteBefore = dbgs.cellToOwnerMap.size();
+        int nCellsCompleteBefore = dbgs.countCompleteCells();
         // Mark this edge as complete by current player and check if connected cells are complete too
-        dbgs.edgeToOwnerMap.put(edge, gs.getCurrentPlayer());
+        int player = gs.getCurrentPlayer();
+        int e = dbgs.edgeIndex(edge);
+        dbgs.placedEdges.set(e);
+        dbgs.edgesByPlayer[player].set(e);
+        dbgs.boardKey ^= Zobrist.key(player, e);
 
-        HashSet<DBCell> cells = dbgs.edgeToCellMap.get(edge);
-        for (DBCell c : cells) {
+        for (int c : dbgs.edgeToCells[e]) {
             int nEdgesComplete = dbgs.countCompleteEdges(c);
-            if (nEdgesComplete == 4) {  // A cell has 4 sides
+            if (nEdgesComplete == 4 && dbgs.getCellOwner(c) == -1) {  // A cell has 4 sides
                 // All edges complete, this box complete
-                dbgs.cellToOwnerMap.put(c, gs.getCurrentPlayer());
-                dbgs.nCellsPerPlayer[gs.getCurrentPlayer()]++;
+                dbgs.cellsByPlayer[player].set(c);
+                dbgs.boardKey ^= Zobrist.key(gs.getNPlayers() + player, c);
+                dbgs.nCellsPerPlayer[player]++;
             }
         }
-        int nCellsCompleteAfter = dbgs.cellToOwnerMap.size();
+        int nCellsCompleteAfter = dbgs.countCompleteCells();
         dbgs.setLastActionScored(nCellsCompleteAfter == nCellsCompleteBefore);
         return true;  // Always able to execute
     }
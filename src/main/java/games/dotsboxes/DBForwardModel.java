@@ -3,11 +3,10 @@ package games.dotsboxes;
 import core.AbstractGameState;
 import core.StandardForwardModel;
 import core.actions.AbstractAction;
+import utilities.Bitboard;
 import utilities.Vector2D;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 
 public class DBForwardModel extends StandardForwardModel {
@@ -18,36 +17,51 @@ public class DBForwardModel extends StandardForwardModel {
         DBParameters dbp = (DBParameters) firstState.getGameParameters();
 
         dbgs.lastActionScored = false;
-        // Generate edge to cell mapping and all cell objects with appropriate constructor
-        dbgs.edgeToCellMap = new HashMap<>();
-        dbgs.cellToEdgesMap = new HashMap<>();
-        dbgs.cellToOwnerMap = new HashMap<>();
-        dbgs.edgeToOwnerMap = new HashMap<>();
-        dbgs.edges = new HashSet<>();
-        dbgs.cells = new HashSet<>();
-        for (int i = 0; i < dbp.gridHeight; i++) {
-            for (int j = 0; j < dbp.gridWidth; j++) {
-                DBCell c = new DBCell(j, i);
-                dbgs.cells.add(c);
-                HashSet<DBEdge> edges = new HashSet<>(4);
-                edges.add(new DBEdge(new Vector2D(j, i), new Vector2D(j, i + 1)));
-                edges.add(new DBEdge(new Vector2D(j, i), new Vector2D(j + 1, i)));
-                edges.add(new DBEdge(new Vector2D(j + 1, i), new Vector2D(j + 1, i + 1)));
-                edges.add(new DBEdge(new Vector2D(j, i + 1), new Vector2D(j + 1, i + 1)));
+        int width = dbp.gridWidth, height = dbp.gridHeight;
+        int nHorizontal = (height + 1) * width;
+        int nEdges = nHorizontal + height * (width + 1);
 
-                for (DBEdge edge : edges) {
-                    dbgs.edges.add(edge);
-                    if (!dbgs.edgeToCellMap.containsKey(edge)) {
-                        dbgs.edgeToCellMap.put(edge, new HashSet<>());
-                    }
-                    dbgs.edgeToCellMap.get(edge).add(c);
-                }
-
-                dbgs.cellToEdgesMap.put(c, edges);
+        // Generate all edge and cell objects, and the mapping between them. Horizontal edges are numbered first,
+        // row by row, then vertical edges (see DBGameState.edgeIndex()).
+        dbgs.edges = new DBEdge[nEdges];
+        dbgs.edgeToCells = new int[nEdges][];
+        for (int i = 0; i <= height; i++) {
+            for (int j = 0; j < width; j++) {
+                int e = i * width + j;
+                dbgs.edges[e] = new DBEdge(new Vector2D(j, i), new Vector2D(j + 1, i));
+                dbgs.edgeToCells[e] = i == 0 ? new int[]{j} :
+                        i == height ? new int[]{(i - 1) * width + j} : new int[]{(i - 1) * width + j, i * width + j};
+            }
+        }
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j <= width; j++) {
+                int e = nHorizontal + i * (width + 1) + j;
+                dbgs.edges[e] = new DBEdge(new Vector2D(j, i), new Vector2D(j, i + 1));
+                dbgs.edgeToCells[e] = j == 0 ? new int[]{i * width} :
+                        j == width ? new int[]{i * width + j - 1} : new int[]{i * width + j - 1, i * width + j};
+            }
+        }
+        dbgs.cells = new DBCell[width * height];
+        dbgs.cellToEdges = new int[width * height][];
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                int c = i * width + j;
+                dbgs.cells[c] = new DBCell(j, i);
+                dbgs.cellToEdges[c] = new int[]{i * width + j, (i + 1) * width + j,
+                        nHorizontal + i * (width + 1) + j, nHorizontal + i * (width + 1) + j + 1};
             }
         }
+
+        dbgs.placedEdges = new Bitboard(nEdges, 1);
+        dbgs.edgesByPlayer = new Bitboard[dbgs.getNPlayers()];
+        dbgs.cellsByPlayer = new Bitboard[dbgs.getNPlayers()];
+        for (int p = 0; p < dbgs.getNPlayers(); p++) {
+            dbgs.edgesByPlayer[p] = new Bitboard(nEdges, 1);
+            dbgs.cellsByPlayer[p] = new Bitboard(width, height);
+        }
         // Initialise other variables
         dbgs.nCellsPerPlayer = new int[dbgs.getNPlayers()];
+        dbgs.boardKey = 0;
     }
 
     @Override
@@ -56,7 +70,7 @@ public class DBForwardModel extends StandardForwardModel {
         DBParameters dbp = (DBParameters) currentState.getGameParameters();
 
         // Check end of game (when all cells completed)
-        if (dbgs.cellToOwnerMap.size() == dbp.gridWidth * dbp.gridHeight) {
+        if (dbgs.countCompleteCells() == dbp.gridWidth * dbp.gridHeight) {
             // Game is over. Set status and find winner
             endGame(dbgs);
         } else if (dbgs.getLastActionScored()) {
@@ -67,17 +81,14 @@ public class DBForwardModel extends StandardForwardModel {
 
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
-        HashSet<AbstractAction> actions = new HashSet<>();  // Same edge may appear in multiple cells, ensure unique actions
+        List<AbstractAction> actions = new ArrayList<>();
         DBGameState dbgs = (DBGameState) gameState;
 
         // Actions in this game are adding edges to the board (that don't already exist)
-        for (DBEdge e : dbgs.edges) {
-            if (!dbgs.edgeToOwnerMap.containsKey(e)) {
-                // Can add this edge
-                actions.add(new AddGridCellEdge(e));
-            }
+        for (int e = dbgs.placedEdges.nextClear(0); e != -1; e = dbgs.placedEdges.nextClear(e + 1)) {
+            actions.add(new AddGridCellEdge(dbgs.edges[e]));
         }
 
-        return new ArrayList<>(actions);
+        return actions;
     }
 }
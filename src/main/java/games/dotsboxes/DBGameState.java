@@ -5,31 +5,33 @@ import core.AbstractGameStateWithTurnOrder;
 import core.AbstractParameters;
 import core.components.Component;
 import core.interfaces.IStateHeuristic;
+import core.interfaces.IStateKey;
 import core.turnorders.AlternatingTurnOrder;
 import core.turnorders.StandardTurnOrder;
 import core.turnorders.TurnOrder;
 import games.GameType;
+import utilities.Bitboard;
+import utilities.Zobrist;
 
 import java.util.*;
 
-public class DBGameState extends AbstractGameState {
+public class DBGameState extends AbstractGameState implements IStateKey {
 
     IStateHeuristic heuristic;
 
-    // List of all edges possible
-    HashSet<DBEdge> edges;
-    // List of all cells possible
-    HashSet<DBCell> cells;
-    // Mapping from each edge to the cells it neighbours
-    HashMap<DBEdge, HashSet<DBCell>> edgeToCellMap;
-    // Mapping from each cell to its edges
-    HashMap<DBCell, HashSet<DBEdge>> cellToEdgesMap;
+    // The board, which is shared by all copies of the state (see DBForwardModel._setup() for how it is laid out):
+    DBEdge[] edges;  // All edges possible
+    DBCell[] cells;  // All cells possible, with the cell at (x, y) at index y * gridWidth + x
+    int[][] edgeToCells;  // The cells each edge neighbours (one or two)
+    int[][] cellToEdges;  // The four edges of each cell
 
     // Mutable state:
     int[] nCellsPerPlayer;
-    HashMap<DBCell, Integer> cellToOwnerMap;  // Mapping from each cell to its owner, if complete
-    HashMap<DBEdge, Integer> edgeToOwnerMap;  // Mapping from each edge to its owner, if placed
+    Bitboard placedEdges;  // All edges placed so far
+    Bitboard[] edgesByPlayer;  // The edges placed by each player
+    Bitboard[] cellsByPlayer;  // The cells completed by each player
     boolean lastActionScored;
+    long boardKey;  // Zobrist key of the edges and cells of each player
 
     /**
      * Constructor. Initialises some generic game state variables.
@@ -48,7 +50,7 @@ public class DBGameState extends AbstractGameState {
 
     @Override
     protected List<Component> _getAllComponents() {
-        return new ArrayList<Component>() {{ addAll(edges); addAll(cells); }};
+        return new ArrayList<Component>() {{ addAll(Arrays.asList(edges)); addAll(Arrays.asList(cells)); }};
     }
 
     @Override
@@ -56,13 +58,19 @@ public class DBGameState extends AbstractGameState {
         DBGameState dbgs = new DBGameState(gameParameters, getNPlayers());
         dbgs.edges = edges;
         dbgs.cells = cells;
-        dbgs.edgeToCellMap = edgeToCellMap;
-        dbgs.cellToEdgesMap = cellToEdgesMap;
+        dbgs.edgeToCells = edgeToCells;
+        dbgs.cellToEdges = cellToEdges;
         dbgs.lastActionScored = lastActionScored;
+        dbgs.boardKey = boardKey;
 
         dbgs.nCellsPerPlayer = nCellsPerPlayer.clone();
-        dbgs.cellToOwnerMap = (HashMap<DBCell, Integer>) cellToOwnerMap.clone();
-        dbgs.edgeToOwnerMap = (HashMap<DBEdge, Integer>) edgeToOwnerMap.clone();
+        dbgs.placedEdges = placedEdges.copy();
+        dbgs.edgesByPlayer = new Bitboard[edgesByPlayer.length];
+        dbgs.cellsByPlayer = new Bitboard[cellsByPlayer.length];
+        for (int i = 0; i < edgesByPlayer.length; i++) {
+            dbgs.edgesByPlayer[i] = edgesByPlayer[i].copy();
+            dbgs.cellsByPlayer[i] = cellsByPlayer[i].copy();
+        }
         dbgs.heuristic = heuristic;
         return dbgs;
     }
@@ -92,15 +100,26 @@ public class DBGameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof DBGameState)) return false;
-        if (!super.equals(o)) return false;
         DBGameState that = (DBGameState) o;
-        return lastActionScored == that.lastActionScored && Objects.equals(heuristic, that.heuristic) && Objects.equals(edges, that.edges) && Objects.equals(cells, that.cells) && Objects.equals(edgeToCellMap, that.edgeToCellMap) && Objects.equals(cellToEdgesMap, that.cellToEdgesMap) && Arrays.equals(nCellsPerPlayer, that.nCellsPerPlayer) && Objects.equals(cellToOwnerMap, that.cellToOwnerMap) && Objects.equals(edgeToOwnerMap, that.edgeToOwnerMap);
+        return lastActionScored == that.lastActionScored && Objects.equals(heuristic, that.heuristic) && Arrays.equals(edges, that.edges) && Arrays.equals(cells, that.cells) && Arrays.equals(nCellsPerPlayer, that.nCellsPerPlayer) && Arrays.equals(edgesByPlayer, that.edgesByPlayer) && Arrays.equals(cellsByPlayer, that.cellsByPlayer);
+    }
+
+    /**
+     * The edges and completed cells of each player, and the player to move, determine the rest of the game
+     */
+    @Override
+    public long getStateKey() {
+        return boardKey ^ Zobrist.playerToMove(getCurrentPlayer());
     }
 
     @Override
     public int hashCode() {
-        int result = Objects.hash(super.hashCode(), heuristic, edges, cells, edgeToCellMap, cellToEdgesMap, cellToOwnerMap, edgeToOwnerMap, lastActionScored);
+        int result = Objects.hash(super.hashCode(), heuristic, lastActionScored);
+        result = 31 * result + Arrays.hashCode(edges);
+        result = 31 * result + Arrays.hashCode(cells);
         result = 31 * result + Arrays.hashCode(nCellsPerPlayer);
+        result = 31 * result + Arrays.hashCode(edgesByPlayer);
+        result = 31 * result + Arrays.hashCode(cellsByPlayer);
         return result;
     }
 
@@ -109,36 +128,24 @@ public class DBGameState extends AbstractGameState {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
 
-        int i = 0;
-
-        for (DBEdge e: edges) {
-            if (i++ != 0) {
+        for (int i = 0; i < edges.length; i++) {
+            if (i != 0) {
                 sb.append(",");
             }
-            int owner = -1;
-            if (edgeToOwnerMap.get(e) != null) {
-                owner = edgeToOwnerMap.get(e);
-            }
+            DBEdge e = edges[i];
+            int owner = getEdgeOwner(i);
             sb.append("\"").append("Edge_Owner_").append(e.from.getX()).append("_").append(e.from.getY()).
                     append(e.to.getX()).append(e.to.getY()).append("\":").append(owner);
         }
 
-        for (DBCell c: cells) {
+        for (int i = 0; i < cells.length; i++) {
             sb.append(",");
-            int owner = -1;
-            if (cellToOwnerMap.get(c) != null) {
-                owner = cellToOwnerMap.get(c);
-            }
+            DBCell c = cells[i];
+            int owner = getCellOwner(i);
             sb.append("\"").append("Cell_Owner_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(owner);
             sb.append(",");
 
-            int edgeCount = 0;
-
-            for (DBEdge e : cellToEdgesMap.get(c)) {
-                if (edgeToOwnerMap.get(e) != null) {
-                    edgeCount++;
-                }
-            }
+            int edgeCount = countCompleteEdges(i);
             sb.append("\"").append("Cell_Edge_Count_").append(c.position.getX()).append("_").append(c.position.getY()).append("\":").append(edgeCount);
         }
 
@@ -148,14 +155,71 @@ public class DBGameState extends AbstractGameState {
 
 
     public int countCompleteEdges(DBCell c) {
+        return countCompleteEdges(cellIndex(c));
+    }
+
+    public int countCompleteEdges(int cell) {
         int retValue = 0;
-        for (DBEdge e: cellToEdgesMap.get(c)) {
-            if (edgeToOwnerMap.containsKey(e)) {
+        for (int e : cellToEdges[cell]) {
+            if (placedEdges.get(e)) {
                 retValue++;
             }
         }
         return retValue;
     }
+
+    /**
+     * @return the number of cells completed so far, by all players
+     */
+    public int countCompleteCells() {
+        int retValue = 0;
+        for (int n : nCellsPerPlayer) {
+            retValue += n;
+        }
+        return retValue;
+    }
+
+    /**
+     * @return the player who placed this edge, or -1 if it has not been placed
+     */
+    public int getEdgeOwner(int edge) {
+        if (placedEdges.get(edge)) {
+            for (int p = 0; p < edgesByPlayer.length; p++) {
+                if (edgesByPlayer[p].get(edge)) return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the player who completed this cell, or -1 if it is not complete
+     */
+    public int getCellOwner(int cell) {
+        for (int p = 0; p < cellsByPlayer.length; p++) {
+            if (cellsByPlayer[p].get(cell)) return p;
+        }
+        return -1;
+    }
+
+    int cellIndex(DBCell c) {
+        return c.position.getY() * cellsByPlayer[0].getWidth() + c.position.getX();
+    }
+
+    /**
+     * The horizontal edges come first, row by row (including the rows along the top and bottom of the grid), then
+     * the vertical ones, also row by row.
+     *
+     * @return the index of this edge in edges[]
+     */
+    int edgeIndex(DBEdge e) {
+        int gridWidth = cellsByPlayer[0].getWidth();
+        int gridHeight = cellsByPlayer[0].getHeight();
+        if (e.from.getY() == e.to.getY()) {
+            return e.from.getY() * gridWidth + Math.min(e.from.getX(), e.to.getX());
+        }
+        return (gridHeight + 1) * gridWidth + Math.min(e.from.getY(), e.to.getY()) * (gridWidth + 1) + e.from.getX();
+    }
+
     public boolean getLastActionScored(){return lastActionScored;}
     public void setLastActionScored(boolean value){lastActionScored = value;}
 }
@@ -29,7 +29,7 @@ public class DBStateFeatures extends AbstractStateFeature {
 
         // CELLS
         int[] cellCountByEdges = new int[5];
-        for (DBCell cell : state.cells) {
+        for (int cell = 0; cell < state.cells.length; cell++) {
             int edges = state.countCompleteEdges(cell);
             cellCountByEdges[edges]++;
         }
@@ -57,7 +57,7 @@ public class ExplodingKittensGameState extends AbstractGameStateWithTurnOrder im
 
     @Override
     protected AbstractGameStateWithTurnOrder __copy(int playerId) {
-        ExplodingKittensGameState ekgs = new ExplodingKittensGameState(gameParameters.copy(), getNPlayers());
+        ExplodingKittensGameState ekgs = new ExplodingKittensGameState(gameParameters.shareableCopy(), getNPlayers());
         ekgs.discardPile = discardPile.copy();
         ekgs.playerGettingAFavor = playerGettingAFavor;
         ekgs.actionStack = new Stack<>();
@@ -158,7 +158,6 @@ public class ExplodingKittensGameState extends AbstractGameStateWithTurnOrder im
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof ExplodingKittensGameState)) return false;
-        if (!super.equals(o)) return false;
         ExplodingKittensGameState gameState = (ExplodingKittensGameState) o;
         return playerGettingAFavor == gameState.playerGettingAFavor &&
                 Objects.equals(playerHandCards, gameState.playerHandCards) &&
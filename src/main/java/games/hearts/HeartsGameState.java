@@ -116,7 +116,7 @@ public class HeartsGameState extends AbstractGameState {
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        HeartsGameState copy = new HeartsGameState(gameParameters.copy(), getNPlayers());
+        HeartsGameState copy = new HeartsGameState(gameParameters.shareableCopy(), getNPlayers());
 
         // Deep Copy player decks
         copy.playerDecks = new ArrayList<>();
@@ -225,7 +225,6 @@ public class HeartsGameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof HeartsGameState)) return false;
-        if (!super.equals(o)) return false;
         HeartsGameState that = (HeartsGameState) o;
         return heartsBroken == that.heartsBroken &&
                 Arrays.equals(playerTricksTaken, that.playerTricksTaken) &&
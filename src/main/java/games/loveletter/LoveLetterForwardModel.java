@@ -186,9 +186,9 @@ public class LoveLetterForwardModel extends StandardForwardModel implements ITre
             // End the round and add up points
             Set<Integer> winners = roundEnd(llgs, playersAlive, soleWinner);
 
-            if (llgs.getCoreGameParameters().recordEventHistory && playersAlive == 1) {
+            if (llgs.isRecordingEventHistory() && playersAlive == 1) {
                 llgs.recordHistory("Winner only player left: " + soleWinner + " (" + actionPlayed.toString() + ")");
-            } else if (llgs.getCoreGameParameters().recordEventHistory && llgs.getRemainingCards() == 0) {
+            } else if (llgs.isRecordingEventHistory() && llgs.getRemainingCards() == 0) {
                 llgs.recordHistory("No more cards remaining. Winners: " + winners.toString());
             }
 
@@ -359,7 +359,7 @@ public class LoveLetterForwardModel extends StandardForwardModel implements ITre
         // todo test this
         root.resetTree();
 
-        ArrayList<AbstractAction> actions = (ArrayList<AbstractAction>) computeAvailableActions(gameState, ActionSpace.Default);
+        List<AbstractAction> actions = computeAvailableActions(gameState, ActionSpace.Default);
         for (AbstractAction action : actions) {
             PlayCard llAction = (PlayCard) action;
 
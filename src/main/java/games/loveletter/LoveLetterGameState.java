@@ -67,7 +67,7 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        LoveLetterGameState llgs = new LoveLetterGameState(gameParameters.copy(), getNPlayers());
+        LoveLetterGameState llgs = new LoveLetterGameState(gameParameters.shareableCopy(), getNPlayers());
         llgs.drawPile = drawPile.copy();
         llgs.reserveCards = reserveCards.copy();
         llgs.removedCard = removedCard.copy();
@@ -125,7 +125,6 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof LoveLetterGameState)) return false;
-        if (!super.equals(o)) return false;
         LoveLetterGameState that = (LoveLetterGameState) o;
         return Objects.equals(playerHandCards, that.playerHandCards) &&
                 Objects.equals(playerDiscardCards, that.playerDiscardCards) &&
@@ -25,7 +25,7 @@ public class GuardAction extends PlayCard implements IPrintable {
         LoveLetterCard card = opponentDeck.peek();
         if (card.cardType == this.targetCardType) {
             llgs.killPlayer(playerID, targetPlayer, cardType);
-            if (llgs.getCoreGameParameters().recordEventHistory) {
+            if (llgs.isRecordingEventHistory()) {
                 llgs.recordHistory("Guard guess correct!");
             }
         }
@@ -26,7 +26,7 @@ public class PriestAction extends PlayCard implements IPrintable {
             opponentDeck.setVisibilityOfComponent(i, playerID, true);
 
         targetCardType = opponentDeck.get(0).cardType;
-        if (llgs.getCoreGameParameters().recordEventHistory) {
+        if (llgs.isRecordingEventHistory()) {
             llgs.recordHistory("Priest sees " + targetCardType);
         }
         return true;
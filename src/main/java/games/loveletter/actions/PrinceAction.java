@@ -31,11 +31,11 @@ public class PrinceAction extends PlayCard implements IPrintable {
         targetCardType = card.cardType;
         if (targetCardType == LoveLetterCard.CardType.Princess) {
             llgs.killPlayer(playerID, targetPlayer, cardType);
-            if (llgs.getCoreGameParameters().recordEventHistory) {
+            if (llgs.isRecordingEventHistory()) {
                 llgs.recordHistory("Player " + targetPlayer + " discards Princess and loses!");
             }
         } else {
-            if (llgs.getCoreGameParameters().recordEventHistory) {
+            if (llgs.isRecordingEventHistory()) {
                 llgs.recordHistory("Player " + targetPlayer + " discards " + card.cardType);
             }
 
@@ -132,7 +132,6 @@ public class PandemicGameState extends AbstractGameStateWithTurnOrder implements
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof PandemicGameState)) return false;
-        if (!super.equals(o)) return false;
         PandemicGameState that = (PandemicGameState) o;
         return quietNight == that.quietNight &&
                 epidemic == that.epidemic &&
@@ -222,7 +221,7 @@ public class PandemicGameState extends AbstractGameStateWithTurnOrder implements
 
     @Override
     protected AbstractGameStateWithTurnOrder __copy(int playerId) {
-        PandemicGameState gs = new PandemicGameState(gameParameters.copy(), getNPlayers());
+        PandemicGameState gs = new PandemicGameState(gameParameters.shareableCopy(), getNPlayers());
 
         gs.areas = new HashMap<>();
         for(int key : areas.keySet())
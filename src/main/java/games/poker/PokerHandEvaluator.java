@@ -0,0 +1,180 @@
+package games.poker;
+
+import core.components.Deck;
+import core.components.FrenchCard;
+
+/**
+ * Scores poker hands of 5 to 7 cards as a single int, where a higher value is a better hand, and equal values are
+ * hands that tie. The best five cards are found without generating combinations, and nothing is allocated.
+ * <p>
+ * Cards are encoded as ints from 0 to 51, as (number - 2) * 4 + suite (see cardIndex()). A hand is accumulated into
+ * two longs: the count of cards of each number (4 bits per number), and the numbers held in each suite (16 bits per
+ * suite). The best hand is then read from these with lookup tables over the 8192 possible sets of numbers.
+ * <p>
+ * The value holds the type of hand (see PokerGameState.PokerHand) in its top bits, followed by the numbers that
+ * decide between two hands of that type (the pair before the kickers, say), 4 bits each.
+ */
+public final class PokerHandEvaluator {
+
+    // Types of hand, from worst to best
+    static final int HIGH_CARD = 0, ONE_PAIR = 1, TWO_PAIR = 2, THREE_OF_A_KIND = 3, STRAIGHT = 4, FLUSH = 5,
+            FULL_HOUSE = 6, FOUR_OF_A_KIND = 7, STRAIGHT_FLUSH = 8;
+    private static final int TYPE_SHIFT = 20;
+    private static final int nNumbers = 13;
+
+    // For each set of numbers (bit i is number i + 2), the number (0 - 12) at the top of the best straight in it,
+    // or -1 if there is none
+    private static final byte[] STRAIGHT_TOP = new byte[1 << nNumbers];
+    // For each set of numbers, the highest five of them, 4 bits each from the top down
+    private static final int[] TOP_FIVE = new int[1 << nNumbers];
+
+    static {
+        for (int mask = 0; mask < 1 << nNumbers; mask++) {
+            STRAIGHT_TOP[mask] = -1;
+            for (int top = nNumbers - 1; top >= 3; top--) {
+                // the Ace (12) also counts as the bottom of a 5-high straight
+                int straight = top == 3 ? 0b1000000001111 : 0b11111 << (top - 4);
+                if ((mask & straight) == straight) {
+                    STRAIGHT_TOP[mask] = (byte) top;
+                    break;
+                }
+            }
+            int kickers = 0, nKickers = 0;
+            for (int n = nNumbers - 1; n >= 0 && nKickers < 5; n--) {
+                if ((mask & (1 << n)) != 0) {
+                    kickers |= n << (4 * (4 - nKickers));
+                    nKickers++;
+                }
+            }
+            TOP_FIVE[mask] = kickers;
+        }
+    }
+
+    private PokerHandEvaluator() {
+    }
+
+    public static int cardIndex(FrenchCard card) {
+        return (card.number - 2) * 4 + card.suite.ordinal();
+    }
+
+    /**
+     * @param cards  - cards encoded as by cardIndex()
+     * @param nCards - the number of cards to use from the start of the array (5 to 7)
+     */
+    public static int evaluate(int[] cards, int nCards) {
+        long counts = 0, suites = 0;
+        for (int i = 0; i < nCards; i++) {
+            int number = cards[i] >> 2;
+            counts += 1L << (4 * number);
+            suites |= 1L << (16 * (cards[i] & 3) + number);
+        }
+        return evaluate(counts, suites);
+    }
+
+    /**
+     * Scores a player's hand together with the community cards. The decks are only read by index, as
+     * Deck.getComponents() would give a copy of the state its own list of cards.
+     */
+    public static int evaluate(Deck<FrenchCard> hand, Deck<FrenchCard> communityCards) {
+        long counts = 0, suites = 0;
+        int nHand = hand.getSize();
+        for (int i = 0; i < nHand + communityCards.getSize(); i++) {
+            FrenchCard card = i < nHand ? hand.get(i) : communityCards.get(i - nHand);
+            int number = card.number - 2;
+            counts += 1L << (4 * number);
+            suites |= 1L << (16 * card.suite.ordinal() + number);
+        }
+        return evaluate(counts, suites);
+    }
+
+    /**
+     * @return the type of hand a value from evaluate() represents
+     */
+    public static PokerGameState.PokerHand handType(int value) {
+        switch (value >>> TYPE_SHIFT) {
+            case STRAIGHT_FLUSH:
+                return (value & 0xF0000) >>> 16 == nNumbers - 1 ? PokerGameState.PokerHand.RoyalFlush : PokerGameState.PokerHand.StraightFlush;
+            case FOUR_OF_A_KIND:
+                return PokerGameState.PokerHand.FourOfAKind;
+            case FULL_HOUSE:
+                return PokerGameState.PokerHand.FullHouse;
+            case FLUSH:
+                return PokerGameState.PokerHand.Flush;
+            case STRAIGHT:
+                return PokerGameState.PokerHand.Straight;
+            case THREE_OF_A_KIND:
+                return PokerGameState.PokerHand.ThreeOfAKind;
+            case TWO_PAIR:
+                return PokerGameState.PokerHand.TwoPair;
+            case ONE_PAIR:
+                return PokerGameState.PokerHand.OnePair;
+            default:
+                return PokerGameState.PokerHand.HighCard;
+        }
+    }
+
+    private static int evaluate(long counts, long suites) {
+        // A flush beats anything but a straight flush, four of a kind or a full house, and with at most 7 cards
+        // there cannot be a flush as well as one of the last two
+        for (int suite = 0; suite < 4; suite++) {
+            int mask = (int) (suites >>> (16 * suite)) & 0x1FFF;
+            if (Integer.bitCount(mask) >= 5) {
+                int top = STRAIGHT_TOP[mask];
+                if (top >= 0) return value(STRAIGHT_FLUSH, top << 16);
+                return value(FLUSH, TOP_FIVE[mask]);
+            }
+        }
+
+        // the numbers held at least once, at least twice, three times and four times
+        int any = 0, pairs = 0, trips = 0, quads = 0;
+        for (int n = 0; n < nNumbers; n++) {
+            int count = (int) (counts >>> (4 * n)) & 0xF;
+            if (count == 0) continue;
+            any |= 1 << n;
+            if (count >= 2) pairs |= 1 << n;
+            if (count >= 3) trips |= 1 << n;
+            if (count == 4) quads |= 1 << n;
+        }
+
+        if (quads != 0) {
+            int quad = highest(quads);
+            return value(FOUR_OF_A_KIND, quad << 16 | top(any & ~(1 << quad), 1) << 12);
+        }
+        if (trips != 0) {
+            int trip = highest(trips);
+            int otherPairs = pairs & ~(1 << trip);
+            if (otherPairs != 0)
+                return value(FULL_HOUSE, trip << 16 | highest(otherPairs) << 12);
+        }
+        int straight = STRAIGHT_TOP[any];
+        if (straight >= 0)
+            return value(STRAIGHT, straight << 16);
+        if (trips != 0) {
+            int trip = highest(trips);
+            return value(THREE_OF_A_KIND, trip << 16 | top(any & ~(1 << trip), 2) << 8);
+        }
+        if (Integer.bitCount(pairs) >= 2) {
+            int high = highest(pairs);
+            int low = highest(pairs & ~(1 << high));
+            return value(TWO_PAIR, high << 16 | low << 12 | top(any & ~(1 << high) & ~(1 << low), 1) << 8);
+        }
+        if (pairs != 0) {
+            int pair = highest(pairs);
+            return value(ONE_PAIR, pair << 16 | top(any & ~(1 << pair), 3) << 4);
+        }
+        return value(HIGH_CARD, TOP_FIVE[any]);
+    }
+
+    private static int value(int type, int numbers) {
+        return type << TYPE_SHIFT | numbers;
+    }
+
+    private static int highest(int mask) {
+        return 31 - Integer.numberOfLeadingZeros(mask);
+    }
+
+    // the highest n numbers in the mask, 4 bits each from the top down
+    private static int top(int mask, int n) {
+        return TOP_FIVE[mask] >>> (4 * (5 - n));
+    }
+}
@@ -10,7 +10,6 @@ import gui.GamePanel;
 import gui.IScreenHighlight;
 import players.human.ActionController;
 import utilities.ImageIO;
-import utilities.Pair;
 
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -289,16 +288,14 @@ public class PokerGUIManager extends AbstractGUIManager {
                     }
                 }
 
-                Pair<Map<Integer, Integer>, Map<Integer, Set<Integer>>> translated = pfm.translatePokerHands(pgs);
-                Map<Integer, Integer> ranks = translated.a;
-                Map<Integer, Set<Integer>> hands = translated.b;
+                int[] handValues = pfm.evaluateHands(pgs);
 
                 int p = 0;
                 String winnerString = "";
                 for (MoneyPot pot: pgs.getMoneyPots()) {
                     // Calculate winners separately for each money pot
                     p++;
-                    Set<Integer> winners = pfm.getWinner(pgs, pot, ranks, hands);
+                    Set<Integer> winners = pfm.getWinner(pot, handValues);
                     if (winners != null) {
                         winnerString += "pot" + p + " {";
                         for (int win: winners) {
@@ -46,7 +46,6 @@ public class ResGameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof ResGameState)) return false;
-        if (!super.equals(o)) return false;
         ResGameState that = (ResGameState) o;
         return
                 leaderID == that.leaderID &&
@@ -111,7 +110,7 @@ public class ResGameState extends AbstractGameState {
 
     @Override
     protected ResGameState _copy(int playerId) {
-        ResGameState copy = new ResGameState(gameParameters.copy(), getNPlayers());
+        ResGameState copy = new ResGameState(gameParameters.shareableCopy(), getNPlayers());
         copy.gameBoard = gameBoard;
         copy.factions = factions;
 
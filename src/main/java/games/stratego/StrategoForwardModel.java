@@ -103,11 +103,11 @@ public class StrategoForwardModel extends StandardForwardModel implements ITreeA
         StrategoGameState sgs = (StrategoGameState) currentState;
         endPlayerTurn(sgs);
 
-        List<AbstractAction> actions = _computeAvailableActions(sgs, currentState.getCoreGameParameters().actionSpace);
+        // the state is now as the next player will see it, so (if caching is on) these are kept for their decision
+        List<AbstractAction> actions = computeAvailableActions(sgs, currentState.getCoreGameParameters().actionSpace);
         if (actions.isEmpty()){
             sgs.logEvent(StrategoMetrics.StrategoEvent.EndCondition, EndCondition.NO_MOVES_LEFT.name() + ":" + sgs.getCurrentPlayer());
             // If the player can't take any actions, they lose
-            _computeAvailableActions(sgs, currentState.getCoreGameParameters().actionSpace);
             sgs.setGameStatus(CoreConstants.GameResult.GAME_END);
             sgs.setPlayerResult(CoreConstants.GameResult.LOSE_GAME, sgs.getCurrentPlayer());
             sgs.setPlayerResult(CoreConstants.GameResult.WIN_GAME, 1-sgs.getCurrentPlayer());
@@ -297,17 +297,18 @@ public class SGForwardModel extends StandardForwardModel implements ITreeActionS
         if (gameState.isActionInProgress()){
             // only happens with chopstick
             for (AbstractAction action: gameState.getActionsInProgress().peek()._computeAvailableActions(gameState)) {
-                chopsticksNode.findChildrenByName(String.valueOf(((ChooseCard)action).cardIdx), true).setAction(action);
+                chopsticksNode.getChildren().get(((ChooseCard) action).cardIdx).setAction(action);
             }
             return root;
         }
         // normal action selection
+        // (the node for the card at index i in hand is child i of the play and chopsticks nodes, see initActionTree())
         for (int i = 0; i < currentPlayerHand.getSize(); i++) {
             // All players can do is choose a card in hand to play.
-            playNode.findChildrenByName(String.valueOf(i)).setAction(new ChooseCard(currentPlayer, i, false));
+            playNode.getChildren().get(i).setAction(new ChooseCard(currentPlayer, i, false));
             if (sggs.playedCardTypes[currentPlayer].get(Chopsticks).getValue() > 0 && currentPlayerHand.getSize() > 1) {
                 // If the player played chopsticks in a previous round, then they can choose to use the chopsticks now (and will choose one extra card in hand)
-                chopsticksNode.findChildrenByName(String.valueOf(i)).setAction(new ChooseCard(currentPlayer, i, true));
+                chopsticksNode.getChildren().get(i).setAction(new ChooseCard(currentPlayer, i, true));
             }
         }
         return root;
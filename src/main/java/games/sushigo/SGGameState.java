@@ -61,7 +61,7 @@ public class SGGameState extends AbstractGameState {
 
     @Override
     protected SGGameState _copy(int playerId) {
-        SGGameState copy = new SGGameState(gameParameters.copy(), getNPlayers());
+        SGGameState copy = new SGGameState(gameParameters.shareableCopy(), getNPlayers());
 
         copy.playerScore = new Counter[getNPlayers()];
         copy.playedCardTypes = new HashMap[getNPlayers()];
@@ -241,7 +241,6 @@ public class SGGameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof SGGameState)) return false;
-        if (!super.equals(o)) return false;
         SGGameState that = (SGGameState) o;
         return nCardsInHand == that.nCardsInHand && deckRotations == that.deckRotations &&
                 Objects.equals(playerHands, that.playerHands) && Objects.equals(drawPile, that.drawPile) &&
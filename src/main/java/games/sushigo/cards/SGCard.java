@@ -113,7 +113,7 @@ public class SGCard extends Card {
                     mostScore /= mostPlayers.size();
                     for (Integer mostPlayer : mostPlayers) {
                         gs.addPlayerScore(mostPlayer, mostScore, Maki);
-                        if (gs.getCoreGameParameters().recordEventHistory) {
+                        if (gs.isRecordingEventHistory()) {
                             gs.logEvent(Event.GameEvent.GAME_EVENT, "Player " + mostPlayer + " scores " + mostScore + " from Maki rolls (most:" + most + ")");
                         }
                     }
@@ -123,7 +123,7 @@ public class SGCard extends Card {
                     secondScore /= secondPlayers.size();
                     for (Integer secondPlayer : secondPlayers) {
                         gs.addPlayerScore(secondPlayer, secondScore, Maki);
-                        if (gs.getCoreGameParameters().recordEventHistory) {
+                        if (gs.isRecordingEventHistory()) {
                             gs.logEvent(Event.GameEvent.GAME_EVENT, "Player " + secondPlayer + " scores " + secondScore + " from Maki rolls (second most:" + secondMost + ")");
                         }
                     }
@@ -163,7 +163,7 @@ public class SGCard extends Card {
                         mostScore /= mostPlayers.size();
                         for (Integer mostPlayer : mostPlayers) {
                             gs.addPlayerScore(mostPlayer, mostScore, Pudding);
-                            if (gs.getCoreGameParameters().recordEventHistory) {
+                            if (gs.isRecordingEventHistory()) {
                                 gs.logEvent(Event.GameEvent.GAME_EVENT, "Player " + mostPlayer + " scores " + mostScore + " from Puddings (most:" + best + ")");
                             }
                         }
@@ -173,7 +173,7 @@ public class SGCard extends Card {
                         leastScore /= leastPlayers.size();
                         for (Integer leastPlayer : leastPlayers) {
                             gs.addPlayerScore(leastPlayer, leastScore, Pudding);
-                            if (gs.getCoreGameParameters().recordEventHistory) {
+                            if (gs.isRecordingEventHistory()) {
                                 gs.logEvent(Event.GameEvent.GAME_EVENT, "Player " + leastPlayer + " scores " + leastScore + " from Puddings (least:" + worst + ")");
                             }
                         }
@@ -321,7 +321,6 @@ public class TMHeuristic extends TunableParameters implements IStateHeuristic {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof TMHeuristic)) return false;
-        if (!super.equals(o)) return false;
         TMHeuristic that = (TMHeuristic) o;
         return Double.compare(that.cardsPlayedWeight, cardsPlayedWeight) == 0 && Double.compare(that.productionWeight, productionWeight) == 0 && Double.compare(that.bonusRewardWeight, bonusRewardWeight) == 0 && Double.compare(that.bonusPenaltyWeight, bonusPenaltyWeight) == 0 && Double.compare(that.milestoneRewardWeight, milestoneRewardWeight) == 0 && Double.compare(that.milestonePenaltyWeight, milestonePenaltyWeight) == 0 && Double.compare(that.milestoneUnclaimedWeight, milestoneUnclaimedWeight) == 0 && Double.compare(that.awardFundPenaltyWeight, awardFundPenaltyWeight) == 0 && Double.compare(that.awardFundRewardWeight, awardFundRewardWeight) == 0 && Double.compare(that.awardScoreWeight, awardScoreWeight) == 0 && Double.compare(that.unplayableCardWeight, unplayableCardWeight) == 0 && Double.compare(that.expensiveCardWeight, expensiveCardWeight) == 0 && Double.compare(that.unnecessaryEventCardWeight, unnecessaryEventCardWeight) == 0 && Double.compare(that.unnecessaryAutomatedCardWeight, unnecessaryAutomatedCardWeight) == 0 && nActiveCardsDiffForTerraform == that.nActiveCardsDiffForTerraform && maxProduction == that.maxProduction && maxAwardScore == that.maxAwardScore && expensiveCardThreshold == that.expensiveCardThreshold && Objects.equals(resourceProductionWeight, that.resourceProductionWeight);
     }
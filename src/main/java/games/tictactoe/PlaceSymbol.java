@@ -0,0 +1,21 @@
+package games.tictactoe;
+
+import core.AbstractGameState;
+import core.actions.SetGridValueAction;
+import core.components.Token;
+
+/**
+ * Places a symbol on the board. This is a SetGridValueAction like any other, but does not ask the state for its
+ * GridBoard, which a copy of the state only builds when it is first asked for (see TicTacToeGameState.getGridBoard()).
+ */
+public class PlaceSymbol extends SetGridValueAction<Token> {
+
+    public PlaceSymbol(int gridBoard, int x, int y, Token value) {
+        super(gridBoard, x, y, value);
+    }
+
+    @Override
+    public boolean execute(AbstractGameState gs) {
+        return ((TicTacToeGameState) gs).placeSymbol(getX(), getY(), getValue());
+    }
+}
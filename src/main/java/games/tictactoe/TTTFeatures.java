@@ -24,9 +24,9 @@ public class TTTFeatures implements IStateFeatureVector, IStateFeatureJSON {
         JSONObject json = new JSONObject();
         TicTacToeGameState tttgs = (TicTacToeGameState) gameState;
         String playerSymbol = (playerId == 0) ? "x" : "o";
-        for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
-            for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
-                String cellSymbol = tttgs.gridBoard.getElement(x, y).toString();
+        for (int x = 0; x < tttgs.getGridBoard().getWidth(); x++) {
+            for (int y = 0; y < tttgs.getGridBoard().getHeight(); y++) {
+                String cellSymbol = tttgs.getGridBoard().getElement(x, y).toString();
                 if (cellSymbol.equals(playerSymbol)) {
                     json.put(x + "," + y, 1);
                 } else if (cellSymbol.equals(".")) {
@@ -44,9 +44,9 @@ public class TTTFeatures implements IStateFeatureVector, IStateFeatureJSON {
         TicTacToeGameState tttgs = (TicTacToeGameState) state;
         List<Double> listVec = new ArrayList<>();
         String playerSymbol = (playerID == 0) ? "x" : "o";
-        for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
-            for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
-                String cellSymbol = tttgs.gridBoard.getElement(x, y).toString();
+        for (int x = 0; x < tttgs.getGridBoard().getWidth(); x++) {
+            for (int y = 0; y < tttgs.getGridBoard().getHeight(); y++) {
+                String cellSymbol = tttgs.getGridBoard().getElement(x, y).toString();
                 if (cellSymbol.equals(playerSymbol)) {
                     listVec.add(1.0);
                 } else if (cellSymbol.equals(".")) {
@@ -10,6 +10,8 @@ import core.components.GridBoard;
 import core.components.Token;
 import core.interfaces.ITreeActionSpace;
 import utilities.ActionTreeNode;
+import utilities.Bitboard;
+import utilities.Zobrist;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -18,12 +20,20 @@ import java.util.List;
 
 public class TicTacToeForwardModel extends StandardForwardModel implements ITreeActionSpace {
 
+    // The directions in which a line can run: horizontal, vertical and the two diagonals
+    private static final int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+
     @Override
     protected void _setup(AbstractGameState firstState) {
         TicTacToeGameParameters tttgp = (TicTacToeGameParameters) firstState.getGameParameters();
         int gridSize = tttgp.gridSize;
         TicTacToeGameState state = (TicTacToeGameState) firstState;
-        state.gridBoard = new GridBoard<>(gridSize, gridSize, new Token(TicTacToeConstants.emptyCell));
+        state.emptyBoard = new GridBoard<>(gridSize, gridSize, new Token(TicTacToeConstants.emptyCell));
+        state.gridBoard = null;
+        state.playerCells = new Bitboard[TicTacToeConstants.playerMapping.size()];
+        for (int i = 0; i < state.playerCells.length; i++)
+            state.playerCells[i] = new Bitboard(gridSize, gridSize);
+        state.boardKey = 0;
     }
 
 
@@ -39,10 +49,10 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
 
         if (gameState.isNotTerminal()){
             // Normal action space
-            for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
-                for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
-                    if (tttgs.gridBoard.getElement(x, y).getTokenType().equals(TicTacToeConstants.emptyCell)) {
-                        actions.add(new SetGridValueAction<>(tttgs.gridBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player)));
+            for (int x = 0; x < tttgs.emptyBoard.getWidth(); x++) {
+                for (int y = 0; y < tttgs.emptyBoard.getHeight(); y++) {
+                    if (tttgs.isEmpty(x, y)) {
+                        actions.add(new PlaceSymbol(tttgs.emptyBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player)));
                     }
                 }
             }
@@ -53,91 +63,39 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
 
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
-        if (checkAndProcessGameEnd((TicTacToeGameState) currentState)) {
+        if (action instanceof SetGridValueAction && checkAndProcessGameEnd((TicTacToeGameState) currentState, (SetGridValueAction<?>) action)) {
             return;
         }
         endPlayerTurn(currentState);
     }
 
     /**
-     * Checks if the game ended.
+     * Records the symbol just placed, and checks if the game ended. A winning line must pass through this
+     * symbol, so we only need to look along the row, column and diagonals through it.
      *
      * @param gameState - game state to check game end.
+     * @param move      - the symbol just placed.
      */
-    private boolean checkAndProcessGameEnd(TicTacToeGameState gameState) {
-        GridBoard<Token> gridBoard = gameState.getGridBoard();
-
-        // Check columns
-        for (int x = 0; x < gridBoard.getWidth(); x++) {
-            Token c = gridBoard.getElement(x, 0);
-            if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-                boolean win = true;
-                for (int y = 1; y < gridBoard.getHeight(); y++) {
-                    Token o = gridBoard.getElement(x, y);
-                    if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) {
-                    registerWinner(gameState, c);
-                    return true;
-                }
-            }
-        }
-
-        // Check rows
-        for (int y = 0; y < gridBoard.getHeight(); y++) {
-            Token c = gridBoard.getElement(0, y);
-            if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-                boolean win = true;
-                for (int x = 1; x < gridBoard.getWidth(); x++) {
-                    Token o = gridBoard.getElement(x, y);
-                    if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) {
-                    registerWinner(gameState, c);
-                    return true;
-                }
-            }
-        }
-
-        // Check diagonals
-        // Primary
-        Token c = gridBoard.getElement(0, 0);
-        if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-            boolean win = true;
-            for (int i = 1; i < gridBoard.getWidth(); i++) {
-                Token o = gridBoard.getElement(i, i);
-                if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                    win = false;
-                }
-            }
-            if (win) {
-                registerWinner(gameState, c);
+    private boolean checkAndProcessGameEnd(TicTacToeGameState gameState, SetGridValueAction<?> move) {
+        int x = move.getX(), y = move.getY();
+        int player = TicTacToeConstants.playerMapping.indexOf(move.getValue());
+        Bitboard cells = gameState.playerCells[player];
+        cells.set(x, y);
+        gameState.boardKey ^= Zobrist.key(player, y * cells.getWidth() + x);
+
+        // a line has to go all the way across the board; one that is not on a diagonal stops short of this
+        int gridSize = cells.getWidth();
+        for (int[] d : directions) {
+            if (cells.run(x, y, -d[0], -d[1]) + 1 + cells.run(x, y, d[0], d[1]) == gridSize) {
+                registerWinner(gameState, player);
                 return true;
             }
         }
 
-        // Secondary
-        c = gridBoard.getElement(gridBoard.getWidth() - 1, 0);
-        if (!c.getTokenType().equals(TicTacToeConstants.emptyCell)) {
-            boolean win = true;
-            for (int i = 1; i < gridBoard.getWidth(); i++) {
-                Token o = gridBoard.getElement(gridBoard.getWidth() - 1 - i, i);
-                if (o.getTokenType().equals(TicTacToeConstants.emptyCell) || !o.equals(c)) {
-                    win = false;
-                }
-            }
-            if (win) {
-                registerWinner(gameState, c);
-                return true;
-            }
-        }
-        boolean tie = gridBoard.getComponents().stream().noneMatch(t -> t.getTokenType().equals(TicTacToeConstants.emptyCell));
+        int nSymbols = 0;
+        for (Bitboard playerCells : gameState.playerCells)
+            nSymbols += playerCells.count();
+        boolean tie = nSymbols == cells.size();
 
         if (tie) {
             gameState.setGameStatus(CoreConstants.GameResult.DRAW_GAME);
@@ -150,17 +108,16 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
     /**
      * Inform the game this player has won.
      *
-     * @param winnerSymbol - which player won.
+     * @param winningPlayer - which player won.
      */
-    private void registerWinner(TicTacToeGameState gameState, Token winnerSymbol) {
+    private void registerWinner(TicTacToeGameState gameState, int winningPlayer) {
         gameState.setGameStatus(CoreConstants.GameResult.GAME_END);
-        int winningPlayer = TicTacToeConstants.playerMapping.indexOf(winnerSymbol);
         gameState.setPlayerResult(CoreConstants.GameResult.WIN_GAME, winningPlayer);
         gameState.setPlayerResult(CoreConstants.GameResult.LOSE_GAME, 1 - winningPlayer);
     }
 
     public ActionTreeNode initActionTree(AbstractGameState gameState){
-        int gridSize = ((TicTacToeGameState) gameState).gridBoard.getWidth();
+        int gridSize = ((TicTacToeGameState) gameState).emptyBoard.getWidth();
         ActionTreeNode root = new ActionTreeNode(0, "root");
         for (int x = 0; x < gridSize; x++) {
             ActionTreeNode xNode = root.addChild(0, "X" + x);
@@ -175,13 +132,14 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
 
         TicTacToeGameState tttgs = (TicTacToeGameState) gameState;
         int player = tttgs.getCurrentPlayer();
-        for (int x = 0; x < tttgs.gridBoard.getWidth(); x++) {
-            ActionTreeNode xNode = root.findChildrenByName("X" + x);
-            for (int y = 0; y < tttgs.gridBoard.getHeight(); y++) {
-                ActionTreeNode yNode = xNode.findChildrenByName("Y" + y);
-                if (tttgs.gridBoard.getElement(x, y).getTokenType().equals(TicTacToeConstants.emptyCell)) {
+        for (int x = 0; x < tttgs.emptyBoard.getWidth(); x++) {
+            // the nodes were added in order in initActionTree(), so "X" + x is child x of the root
+            ActionTreeNode xNode = root.getChildren().get(x);
+            for (int y = 0; y < tttgs.emptyBoard.getHeight(); y++) {
+                ActionTreeNode yNode = xNode.getChildren().get(y);
+                if (tttgs.isEmpty(x, y)) {
                     xNode.setValue(1); // make sure that we set parent available
-                    yNode.setAction(new SetGridValueAction<>(tttgs.gridBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player)));
+                    yNode.setAction(new PlaceSymbol(tttgs.emptyBoard.getComponentID(), x, y, TicTacToeConstants.playerMapping.get(player)));
                 }
             }
         }
@@ -8,17 +8,30 @@ import core.components.Token;
 import core.interfaces.IGridGameState;
 import core.interfaces.IPrintable;
 import core.interfaces.IStateFeatureJSON;
+import core.interfaces.IStateKey;
 import games.GameType;
 import org.json.simple.JSONObject;
+import utilities.Bitboard;
+import utilities.Zobrist;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
 
-public class TicTacToeGameState extends AbstractGameState implements IPrintable, IGridGameState<Token> {
+public class TicTacToeGameState extends AbstractGameState implements IPrintable, IGridGameState<Token>, IStateKey {
 
+    // The board as set up, which is never changed and is shared by all copies of the state. The GridBoard of a
+    // state is built from this and the bitboards when it is first asked for (see getGridBoard()), so that the
+    // many copies made by a search, which never look at it, do not have to copy it.
+    GridBoard<Token> emptyBoard;
     GridBoard<Token> gridBoard;
+    // The cells taken by each player. These are the record of the symbols placed, and are what the forward model
+    // uses to find the legal moves and to check for a win.
+    Bitboard[] playerCells;
+    // Zobrist key of the symbols on the board
+    long boardKey;
 
     public TicTacToeGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
@@ -32,14 +45,18 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
     @Override
     protected List<Component> _getAllComponents() {
         return new ArrayList<Component>() {{
-            add(gridBoard);
+            add(getGridBoard());
         }};
     }
 
     @Override
     protected TicTacToeGameState _copy(int playerId) {
-        TicTacToeGameState s = new TicTacToeGameState(gameParameters.copy(), getNPlayers());
-        s.gridBoard = gridBoard.copy();
+        TicTacToeGameState s = new TicTacToeGameState(gameParameters.shareableCopy(), getNPlayers());
+        s.emptyBoard = emptyBoard;
+        s.playerCells = new Bitboard[playerCells.length];
+        for (int i = 0; i < playerCells.length; i++)
+            s.playerCells[i] = playerCells[i].copy();
+        s.boardKey = boardKey;
         return s;
     }
 
@@ -66,12 +83,17 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
         if (this == o) return true;
         if (!(o instanceof TicTacToeGameState)) return false;
         TicTacToeGameState that = (TicTacToeGameState) o;
-        return Objects.equals(gridBoard, that.gridBoard);
+        return Arrays.equals(playerCells, that.playerCells);
+    }
+
+    @Override
+    public long getStateKey() {
+        return boardKey ^ Zobrist.playerToMove(getCurrentPlayer());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), gridBoard);
+        return Objects.hash(super.hashCode(), Arrays.hashCode(playerCells));
     }
     @Override
     public String toString() {
@@ -79,17 +101,44 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
                 Objects.hash(getAllComponents()) + "|" +
                 Objects.hash(gameStatus) + "|" +
                 Objects.hash(gamePhase) + "|*|" +
-                Objects.hash(gridBoard);
+                Objects.hash(getGridBoard());
     }
 
     @Override
     public GridBoard<Token> getGridBoard() {
+        if (gridBoard == null) {
+            gridBoard = emptyBoard.copy();
+            for (int p = 0; p < playerCells.length; p++) {
+                Token symbol = TicTacToeConstants.playerMapping.get(p);
+                for (int y = 0; y < gridBoard.getHeight(); y++)
+                    for (int x = 0; x < gridBoard.getWidth(); x++)
+                        if (playerCells[p].get(x, y))
+                            gridBoard.setElement(x, y, symbol);
+            }
+        }
         return gridBoard;
     }
 
+    /**
+     * Places a symbol. It is recorded on the bitboards by the forward model, so here we only need to update the
+     * GridBoard, if it has been built.
+     */
+    boolean placeSymbol(int x, int y, Token symbol) {
+        return gridBoard == null || gridBoard.setElement(x, y, symbol);
+    }
+
+    /**
+     * @return true if neither player has taken cell (x, y)
+     */
+    boolean isEmpty(int x, int y) {
+        for (Bitboard cells : playerCells)
+            if (cells.get(x, y)) return false;
+        return true;
+    }
+
     @Override
     public void printToConsole() {
-        System.out.println(gridBoard.toString());
+        System.out.println(getGridBoard().toString());
     }
 
 }
@@ -34,19 +34,19 @@ public class TicTacToeHeuristic extends TunableParameters implements IStateHeuri
         }
 
         // Count how many lines of player characters + rest empty, the more player characters the better
-        int[] nPlayer = new int[ttgs.gridBoard.getWidth()];
-        int[] nOpponent = new int[ttgs.gridBoard.getWidth()];
+        int[] nPlayer = new int[ttgs.getGridBoard().getWidth()];
+        int[] nOpponent = new int[ttgs.getGridBoard().getWidth()];
 
         double nTotalCount = nPlayer.length * 2 + 2;  // N rows + N columns + 2 diagonals
 
         Token playerChar = TicTacToeConstants.playerMapping.get(playerId);
 
         // Check columns
-        for (int x = 0; x < ttgs.gridBoard.getWidth(); x++){
+        for (int x = 0; x < ttgs.getGridBoard().getWidth(); x++){
             addCounts(countColumns(ttgs, x, playerChar), nPlayer, nOpponent);
         }
         // Check rows
-        for (int y = 0; y < ttgs.gridBoard.getHeight(); y++){
+        for (int y = 0; y < ttgs.getGridBoard().getHeight(); y++){
             addCounts(countRows(ttgs, y, playerChar), nPlayer, nOpponent);
         }
         // Check diagonals
@@ -67,32 +67,32 @@ public class TicTacToeHeuristic extends TunableParameters implements IStateHeuri
 
     private Pair<Integer, Integer> countColumns(TicTacToeGameState ttgs, int column, Token playerChar) {
         Pair<Integer, Integer> count = new Pair<>(0, 0);
-        for (int y = 0; y < ttgs.gridBoard.getHeight(); y++) {
-            checkChar(count, playerChar, ttgs.gridBoard.getElement(column, y));
+        for (int y = 0; y < ttgs.getGridBoard().getHeight(); y++) {
+            checkChar(count, playerChar, ttgs.getGridBoard().getElement(column, y));
         }
         return count;
     }
 
     private Pair<Integer, Integer> countRows(TicTacToeGameState ttgs, int row, Token playerChar) {
         Pair<Integer, Integer> count = new Pair<>(0, 0);
-        for (int x = 0; x < ttgs.gridBoard.getWidth(); x++) {
-            checkChar(count, playerChar, ttgs.gridBoard.getElement(x, row));
+        for (int x = 0; x < ttgs.getGridBoard().getWidth(); x++) {
+            checkChar(count, playerChar, ttgs.getGridBoard().getElement(x, row));
         }
         return count;
     }
 
     private Pair<Integer, Integer> countPrimaryDiagonal(TicTacToeGameState ttgs, Token playerChar) {
         Pair<Integer, Integer> count = new Pair<>(0, 0);
-        for (int x = 0; x < ttgs.gridBoard.getWidth(); x++) {
-            checkChar(count, playerChar, ttgs.gridBoard.getElement(x, x));
+        for (int x = 0; x < ttgs.getGridBoard().getWidth(); x++) {
+            checkChar(count, playerChar, ttgs.getGridBoard().getElement(x, x));
         }
         return count;
     }
 
     private Pair<Integer, Integer> countSecondaryDiagonal(TicTacToeGameState ttgs, Token playerChar) {
         Pair<Integer, Integer> count = new Pair<>(0, 0);
-        for (int x = 0; x < ttgs.gridBoard.getWidth(); x++) {
-            checkChar(count, playerChar, ttgs.gridBoard.getElement(ttgs.gridBoard.getWidth()-1-x, x));
+        for (int x = 0; x < ttgs.getGridBoard().getWidth(); x++) {
+            checkChar(count, playerChar, ttgs.getGridBoard().getElement(ttgs.getGridBoard().getWidth()-1-x, x));
         }
         return count;
     }
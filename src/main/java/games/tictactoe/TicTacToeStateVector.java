@@ -19,7 +19,7 @@ public class TicTacToeStateVector implements IStateFeatureVector {
         TicTacToeGameState state = (TicTacToeGameState) gs;
         String playerChar = TicTacToeConstants.playerMapping.get(playerID).getTokenType();
 
-        return Arrays.stream(state.gridBoard.flattenGrid()).mapToDouble(c -> {
+        return Arrays.stream(state.getGridBoard().flattenGrid()).mapToDouble(c -> {
             String pos = ((Token) c).getTokenType();
             if (pos.equals(playerChar)) {
                 return 1.0;
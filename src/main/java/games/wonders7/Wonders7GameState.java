@@ -57,7 +57,7 @@ public class Wonders7GameState extends AbstractGameState {
         // Including components that player with the given ID will see.
         // For example, some decks may be face down and unobservable to the player
         // All the components in the observation should be copies of those in the game state
-        Wonders7GameState copy = new Wonders7GameState(gameParameters.copy(), getNPlayers());
+        Wonders7GameState copy = new Wonders7GameState(gameParameters.shareableCopy(), getNPlayers());
         //Wonders7TurnOrder turnOrder = new Wonders7TurnOrder(getNPlayers());
         copy.playerResources = new ArrayList<>();
         copy.playerHands = new ArrayList<>();
@@ -228,7 +228,6 @@ public class Wonders7GameState extends AbstractGameState {
     public boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Wonders7GameState)) return false;
-        if (!super.equals(o)) return false;
         Wonders7GameState that = (Wonders7GameState) o;
         return currentAge == that.currentAge && direction == that.direction && Objects.equals(playerResources, that.playerResources) &&
                 Objects.equals(playerHands, that.playerHands) && Objects.equals(playedCards, that.playedCards) &&
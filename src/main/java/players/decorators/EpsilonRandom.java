@@ -31,6 +31,7 @@ public class EpsilonRandom implements AbstractPlayerDecorator {
     }
 
 
+    @Override
     public EpsilonRandom copy() {
         return new EpsilonRandom(rnd.nextInt(), epsilon);
     }
@@ -17,14 +17,45 @@ public abstract class AbstractStateFeature implements IStateFeatureVector {
     public double[] featureVector(AbstractGameState state, int playerID) {
         double[] localFeatures = localFeatureVector(state, playerID);
         double[] retValue = new double[coreNames.length + localFeatures.length];
+        coreFeatures(state, playerID, scores(state), retValue, 0);
+        System.arraycopy(localFeatures, 0, retValue, coreNames.length, localFeatures.length);
+        return retValue;
+    }
 
+    @Override
+    public void featureVector(AbstractGameState state, int playerID, double[] out, int offset) {
+        double[] localFeatures = localFeatureVector(state, playerID);
+        coreFeatures(state, playerID, scores(state), out, offset);
+        System.arraycopy(localFeatures, 0, out, offset + coreNames.length, localFeatures.length);
+    }
+
+    @Override
+    public void featureVectors(AbstractGameState state, double[] out, int offset) {
+        // the scores are needed for every player's core features, so we only look them up once
+        double[] scores = scores(state);
+        for (int p = 0; p < scores.length; p++) {
+            double[] localFeatures = localFeatureVector(state, p);
+            coreFeatures(state, p, scores, out, offset);
+            System.arraycopy(localFeatures, 0, out, offset + coreNames.length, localFeatures.length);
+            offset += coreNames.length + localFeatures.length;
+        }
+    }
+
+    private double[] scores(AbstractGameState state) {
+        double[] retValue = new double[state.getNPlayers()];
+        for (int p = 0; p < retValue.length; p++)
+            retValue[p] = state.getGameScore(p);
+        return retValue;
+    }
+
+    private void coreFeatures(AbstractGameState state, int playerID, double[] scores, double[] out, int offset) {
         // POINT_ADVANTAGE
         int ordinal = 1;
         double maxOtherScore = -1;
-        double ourSc = state.getGameScore(playerID);
-        for (int p = 0; p < state.getNPlayers(); p++) {
+        double ourSc = scores[playerID];
+        for (int p = 0; p < scores.length; p++) {
             if (p == playerID) continue;
-            double sc = state.getGameScore(p);
+            double sc = scores[p];
             if (sc > maxOtherScore) {
                 maxOtherScore = sc;
                 if (sc > ourSc)
@@ -33,17 +64,14 @@ public abstract class AbstractStateFeature implements IStateFeatureVector {
         }
 
         // POINTS
-        retValue[0] = ourSc / maxScore();
+        out[offset] = ourSc / maxScore();
         // POINT_ADVANTAGE
-        retValue[1] = (ourSc - maxOtherScore) / maxScore() * 2.0;
-        retValue[2] = ordinal / (double) state.getNPlayers();
-        retValue[3] = state.getCurrentPlayer() == playerID ? 1 : 0;
-        retValue[4] = state.getPlayerResults()[playerID] == CoreConstants.GameResult.WIN_GAME ? 1.0 : 0.0;
-        retValue[5] = state.isNotTerminal() ? 0.0 : state.getOrdinalPosition(playerID) / (double) state.getNPlayers();
-        retValue[6] = state.getRoundCounter() / maxRounds();
-
-        System.arraycopy(localFeatures, 0, retValue, coreNames.length, localFeatures.length);
-        return retValue;
+        out[offset + 1] = (ourSc - maxOtherScore) / maxScore() * 2.0;
+        out[offset + 2] = ordinal / (double) state.getNPlayers();
+        out[offset + 3] = state.getCurrentPlayer() == playerID ? 1 : 0;
+        out[offset + 4] = state.getPlayerResults()[playerID] == CoreConstants.GameResult.WIN_GAME ? 1.0 : 0.0;
+        out[offset + 5] = state.isNotTerminal() ? 0.0 : state.getOrdinalPosition(playerID) / (double) state.getNPlayers();
+        out[offset + 6] = state.getRoundCounter() / maxRounds();
     }
 
     @Override
@@ -1,5 +1,6 @@
 package players.heuristics;
 
+import core.AbstractGameState;
 import core.interfaces.IStateFeatureVector;
 import core.interfaces.IStateHeuristic;
 
@@ -14,6 +15,9 @@ public abstract class AbstractStateHeuristic implements IStateHeuristic {
     protected IStateFeatureVector features;
     protected double[] coefficients;
     protected IStateHeuristic defaultHeuristic;
+    // the feature vectors are written into a buffer that is reused for each state evaluated; there is one per
+    // thread, as the same heuristic is used by all the threads of a parallel search
+    private final ThreadLocal<double[]> featureBuffer = ThreadLocal.withInitial(() -> new double[0]);
 
     public AbstractStateHeuristic(String featureVectorClassName, String coefficientsFile, String defaultHeuristicClassName) {
         try {
@@ -64,4 +68,63 @@ public abstract class AbstractStateHeuristic implements IStateHeuristic {
         }
     }
 
+    /**
+     * Converts the linear predictor (the bias plus the dot product of the coefficients and the features) into the
+     * value of the state for a player still in the game.
+     */
+    protected abstract double fromLinearPredictor(double predictor);
+
+    @Override
+    public double evaluateState(AbstractGameState state, int playerId) {
+        if (coefficients == null)
+            return defaultHeuristic.evaluateState(state, playerId);
+        double[] phi = featureBuffer(coefficients.length - 1);
+        features.featureVector(state, playerId, phi, 0);
+        double retValue = coefficients[0]; // the bias term
+        for (int i = 1; i < coefficients.length; i++) {
+            retValue += phi[i - 1] * coefficients[i];
+        }
+        return fromLinearPredictor(retValue);
+    }
+
+    /**
+     * Computes the features of all players in one batch (IStateFeatureVector.featureVectors()), and then the linear
+     * predictor for each with a single pass over them.
+     * Players who are out of the game are scored by evaluateState(), so that subclasses which value a final result
+     * differently still get the same values as they would one player at a time.
+     */
+    @Override
+    public void evaluateAllPlayers(AbstractGameState state, double[] values) {
+        int nPlayers = state.getNPlayers();
+        if (coefficients == null || !state.isNotTerminal()) {
+            for (int p = 0; p < nPlayers; p++)
+                values[p] = evaluateState(state, p);
+            return;
+        }
+        int nFeatures = coefficients.length - 1;
+        double[] phi = featureBuffer(nPlayers * nFeatures);
+        features.featureVectors(state, phi, 0);
+        for (int p = 0, base = 0; p < nPlayers; p++, base += nFeatures) {
+            double retValue = coefficients[0]; // the bias term
+            for (int i = 1; i < coefficients.length; i++) {
+                retValue += phi[base + i - 1] * coefficients[i];
+            }
+            values[p] = fromLinearPredictor(retValue);
+        }
+        // only once we have finished with the buffer, as evaluateState() uses it too
+        for (int p = 0; p < nPlayers; p++) {
+            if (!state.isNotTerminalForPlayer(p))
+                values[p] = evaluateState(state, p);
+        }
+    }
+
+    private double[] featureBuffer(int size) {
+        double[] retValue = featureBuffer.get();
+        if (retValue.length < size) {
+            retValue = new double[size];
+            featureBuffer.set(retValue);
+        }
+        return retValue;
+    }
+
 }
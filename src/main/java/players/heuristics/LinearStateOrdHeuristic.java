@@ -28,4 +28,11 @@ public class LinearStateOrdHeuristic extends LinearStateHeuristic {
 
         return -state.getOrdinalPosition(playerId);
     }
+
+    @Override
+    public void evaluateAllPlayers(AbstractGameState state, double[] values) {
+        minValue = -state.getNPlayers();
+        maxValue = -1.0;
+        super.evaluateAllPlayers(state, values);
+    }
 }
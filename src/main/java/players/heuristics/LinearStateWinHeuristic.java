@@ -36,4 +36,11 @@ public class LinearStateWinHeuristic extends LinearStateHeuristic {
                 throw new AssertionError("Not reachable for " + state.getPlayerResults()[playerId]);
         }
     }
+
+    @Override
+    public void evaluateAllPlayers(AbstractGameState state, double[] values) {
+        minValue = 0.0;
+        maxValue = 1.0;
+        super.evaluateAllPlayers(state, values);
+    }
 }
@@ -1,6 +1,7 @@
 package players.learners;
 
 import core.interfaces.ILearner;
+import evaluation.loggers.BinaryStatsLogger;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -57,13 +58,22 @@ public abstract class AbstractLearner implements ILearner {
         targetType = newTarget;
     }
 
+    /**
+     * Loads the data in the files, which can be tab-separated text (as written by FileStatsLogger) or binary logs (as
+     * written by BinaryStatsLogger). Binary logs are read through memory-mapped files, a block at a time, straight
+     * into dataArray.
+     */
     protected void loadData(String... files) {
         List<double[]> data = new ArrayList<>();
+        long binaryRows = 0;
         for (String file : files) {
+            if (BinaryStatsLogger.isBinaryLog(file)) {
+                setHeader(BinaryStatsLogger.readHeader(file));
+                binaryRows += BinaryStatsLogger.countRows(file);
+                continue;
+            }
             try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                header = reader.readLine().split("\\t");
-                descriptions = new String[header.length - 11];
-                System.arraycopy(header, 5, descriptions, 0, descriptions.length);
+                setHeader(reader.readLine().split("\\t"));
                 while (reader.ready()) {
                     double[] datum = Arrays.stream(reader.readLine().split("\\t")).mapToDouble(Double::parseDouble).toArray();
                     data.add(datum);
@@ -92,37 +102,63 @@ public abstract class AbstractLearner implements ILearner {
             throw new AssertionError("Unexpected final header entries " + String.join("", header));
         }
 
-        dataArray = new double[data.size()][];
-        target = new double[data.size()][1];
-        currentScore = new double[data.size()][1];
-        for (int i = 0; i < dataArray.length; i++) {
-            double[] allData = data.get(i);
-            // calculate the number of turns from this point until the end of the game
-            double turns = allData[header.length - 5] - allData[2];
-            double playerCount = allData[header.length - 6];
-            // discount target (towards expected result where relevant)
-            double expectedAverage = 0.0;
-            if (targetType == Target.WIN_MEAN)
-                expectedAverage = 1.0 / playerCount;
-            if (targetType == Target.ORD_MEAN || targetType == Target.ORD_MEAN_SCALE)
-                expectedAverage = (1.0 + playerCount) / 2.0;
-
-            if (targetType == Target.SCORE_DELTA)
-                target[i][0] = (allData[header.length - targetType.indexOffset] - allData[4]) * Math.pow(gamma, turns);
-            else
-                target[i][0] = (allData[header.length - targetType.indexOffset] - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
-
-            if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
-                target[i][0] = -target[i][0];  // if we are targeting the Ordinal position, then high is bad!
-            if (targetType == Target.ORD_MEAN_SCALE || targetType == Target.ORD_SCALE)
-                target[i][0] = (playerCount - target[i][0]) / (playerCount - 1.0);  // scale to [0, 1]
-
-            currentScore[i][0] = allData[4];
-            double[] regressionData = new double[header.length - 10];
-            regressionData[0] = 1.0; // the bias term
-            System.arraycopy(allData, 5, regressionData, 1, regressionData.length - 1);
-            dataArray[i] = regressionData;
+        if (data.size() + binaryRows > Integer.MAX_VALUE)
+            throw new AssertionError("Too many rows of data to load : " + (data.size() + binaryRows));
+        int nRows = (int) (data.size() + binaryRows);
+        dataArray = new double[nRows][];
+        target = new double[nRows][1];
+        currentScore = new double[nRows][1];
+        for (int i = 0; i < data.size(); i++) {
+            addRow(i, data.get(i));
+        }
+        int[] next = {data.size()};
+        for (String file : files) {
+            if (!BinaryStatsLogger.isBinaryLog(file)) continue;
+            double[] allData = new double[header.length];
+            BinaryStatsLogger.readBlocks(file, (columns, n) -> {
+                if (columns.length != header.length)
+                    throw new AssertionError("Columns of " + file + " do not match those of the other files");
+                for (int r = 0; r < n; r++) {
+                    for (int c = 0; c < columns.length; c++) allData[c] = columns[c][r];
+                    addRow(next[0]++, allData);
+                }
+            });
         }
     }
 
+    private void setHeader(String[] newHeader) {
+        header = newHeader;
+        descriptions = new String[header.length - 11];
+        System.arraycopy(header, 5, descriptions, 0, descriptions.length);
+    }
+
+    // sets row i of dataArray, target and currentScore from one row of the data as logged
+    private void addRow(int i, double[] allData) {
+        // calculate the number of turns from this point until the end of the game
+        double turns = allData[header.length - 5] - allData[2];
+        double playerCount = allData[header.length - 6];
+        // discount target (towards expected result where relevant)
+        double expectedAverage = 0.0;
+        if (targetType == Target.WIN_MEAN)
+            expectedAverage = 1.0 / playerCount;
+        if (targetType == Target.ORD_MEAN || targetType == Target.ORD_MEAN_SCALE)
+            expectedAverage = (1.0 + playerCount) / 2.0;
+
+        if (targetType == Target.SCORE_DELTA)
+            target[i][0] = (allData[header.length - targetType.indexOffset] - allData[4]) * Math.pow(gamma, turns);
+        else
+            target[i][0] = (allData[header.length - targetType.indexOffset] - expectedAverage) * Math.pow(gamma, turns) + expectedAverage;
+
+        if (targetType == Target.ORDINAL || targetType == Target.ORD_MEAN)
+            target[i][0] = -target[i][0];  // if we are targeting the Ordinal position, then high is bad!
+        if (targetType == Target.ORD_MEAN_SCALE || targetType == Target.ORD_SCALE)
+            target[i][0] = (playerCount - target[i][0]) / (playerCount - 1.0);  // scale to [0, 1]
+
+        currentScore[i][0] = allData[4];
+        double[] regressionData = new double[header.length - 10];
+        regressionData[0] = 1.0; // the bias term
+        System.arraycopy(allData, 5, regressionData, 1, regressionData.length - 1);
+        dataArray[i] = regressionData;
+    }
+
 }
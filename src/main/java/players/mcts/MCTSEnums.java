@@ -28,6 +28,12 @@ public class MCTSEnums {
         DEFAULT, END_TURN, START_TURN, END_ROUND;
     }
 
+    public enum Parallelism {
+        NONE, ROOT, TREE
+        // ROOT searches nThreads independent trees, and adds up the visits to each action at their roots
+        // TREE has nThreads workers searching a single shared tree, with virtual loss to spread them across it
+    }
+
     public enum OpponentTreePolicy {
         SelfOnly(true), OneTree(false),
         MultiTree(true),
@@ -46,6 +46,10 @@ public class MCTSMetrics implements IMetricsCollection {
                 records.put("fmCalls", mctsPlayer.root.fmCallsCount / visits);
                 records.put("copyCalls", mctsPlayer.root.copyCount / visits);
                 records.put("time", mctsPlayer.root.timeTaken);
+                records.put("NodesAllocated", root.nodesAllocated);
+                records.put("NodesReused", root.nodesReused);
+                records.put("NodesEvicted", root.nodesEvicted);
+                records.put("Transpositions", root.transpositionHits);
                 return true;
             }
             return false;
@@ -74,6 +78,10 @@ public class MCTSMetrics implements IMetricsCollection {
             cols.put("fmCalls", Integer.class);
             cols.put("copyCalls", Integer.class);
             cols.put("time", Double.class);
+            cols.put("NodesAllocated", Integer.class);
+            cols.put("NodesReused", Integer.class);
+            cols.put("NodesEvicted", Integer.class);
+            cols.put("Transpositions", Integer.class);
             return cols;
         }
     }
@@ -56,6 +56,12 @@ public class MCTSParams extends PlayerParameters {
     public boolean nodesStoreScoreDelta = true;
     public boolean maintainMasterState = false;
     public boolean discardStateAfterEachIteration = true;  // default will remove reference to OpenLoopState in backup(). Saves memory!
+    public boolean reuseTree = false;  // keep the relevant part of the tree from one decision to the next
+    public int maxTreeNodes = 0;  // zero indicates no limit; otherwise the least visited leaves are evicted at this size
+    public int transpositionTableSize = 0;  // zero indicates no transposition table (which is only used in Closed_Loop); cannot be used with maxTreeNodes
+    public MCTSEnums.Parallelism parallelism = MCTSEnums.Parallelism.NONE;  // only used if nThreads > 1
+    public int nThreads = 1;
+    public boolean rootBudgetPerTree = false;  // ROOT only; by default the budget is split between the trees
     public MCTSEnums.RolloutTermination rolloutTermination = DEFAULT;
     public IStateHeuristic heuristic = AbstractGameState::getHeuristicScore;
     public IActionKey MASTActionKey;
@@ -94,6 +100,12 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("nodesStoreScoreDelta", true);
         addTunableParameter("maintainMasterState", false);
         addTunableParameter("discardStateAfterEachIteration", true);
+        addTunableParameter("reuseTree", false);
+        addTunableParameter("maxTreeNodes", 0);
+        addTunableParameter("transpositionTableSize", 0);
+        addTunableParameter("parallelism", MCTSEnums.Parallelism.NONE, Arrays.asList(MCTSEnums.Parallelism.values()));
+        addTunableParameter("nThreads", 1);
+        addTunableParameter("rootBudgetPerTree", false);
         addTunableParameter("advantageFunction", IActionHeuristic.nullReturn);
         addTunableParameter("omaVisits", 0);
         addTunableParameter("paranoid", false);
@@ -140,6 +152,13 @@ public class MCTSParams extends PlayerParameters {
         maintainMasterState = (boolean) getParameterValue("maintainMasterState");
         paranoid = (boolean) getParameterValue("paranoid");
         discardStateAfterEachIteration = (boolean) getParameterValue("discardStateAfterEachIteration");
+        reuseTree = (boolean) getParameterValue("reuseTree");
+        maxTreeNodes = (int) getParameterValue("maxTreeNodes");
+        transpositionTableSize = (int) getParameterValue("transpositionTableSize");
+        parallelism = (MCTSEnums.Parallelism) getParameterValue("parallelism");
+        nThreads = (int) getParameterValue("nThreads");
+        rootBudgetPerTree = (boolean) getParameterValue("rootBudgetPerTree");
+        checkTreeLimits();
         if (information == Closed_Loop)
             discardStateAfterEachIteration = false;
         if (expansionPolicy == MCTSEnums.Strategies.MAST || rolloutType == MCTSEnums.Strategies.MAST
@@ -158,6 +177,15 @@ public class MCTSParams extends PlayerParameters {
         rolloutPolicy = null;
     }
 
+    /**
+     * Nodes are evicted (to stay within maxTreeNodes) by removing them from their parent, but with a transposition
+     * table a node can have several parents, so the two cannot be used together.
+     */
+    void checkTreeLimits() {
+        if (maxTreeNodes > 0 && transpositionTableSize > 0)
+            throw new IllegalArgumentException("maxTreeNodes and transpositionTableSize cannot both be set");
+    }
+
     @Override
     protected MCTSParams _copy() {
         // All the copying is done in TunableParameters.copy()
@@ -190,12 +218,37 @@ public class MCTSParams extends PlayerParameters {
         return rolloutPolicy;
     }
 
+    /**
+     * In a parallel search each worker needs its own rollout policy and opponent model, as these can keep state
+     * (a random number generator, or MAST statistics) that is not safe to share between threads.
+     *
+     * @param seed - the random seed for this worker
+     * @return new instances of {rollout policy, opponent model}, constructed in the same way as those above
+     */
+    AbstractPlayer[] createWorkerPolicies(long seed) {
+        AbstractPlayer rollout = rolloutType == PARAMS
+                ? (AbstractPlayer) rolloutPolicyParams.instantiate()
+                : constructStrategy(rolloutType, rolloutClass, seed);
+        rollout.getParameters().actionSpace = actionSpace;
+        AbstractPlayer opponent = rollout;
+        if (oppModelType == PARAMS)
+            opponent = (AbstractPlayer) opponentModelParams.instantiate();
+        else if (oppModelType != MCTSEnums.Strategies.DEFAULT)
+            opponent = constructStrategy(oppModelType, oppModelClass, seed + 1);
+        opponent.getParameters().actionSpace = actionSpace;
+        return new AbstractPlayer[]{rollout, opponent};
+    }
+
     private AbstractPlayer constructStrategy(MCTSEnums.Strategies type, String details) {
+        return constructStrategy(type, details, getRandomSeed());
+    }
+
+    private AbstractPlayer constructStrategy(MCTSEnums.Strategies type, String details, long seed) {
         switch (type) {
             case RANDOM:
-                return new RandomPlayer(new Random(getRandomSeed()));
+                return new RandomPlayer(new Random(seed));
             case MAST:
-                return new MASTPlayer(MASTActionKey, MASTBoltzmann, 0.0, getRandomSeed(), MASTDefaultValue);
+                return new MASTPlayer(MASTActionKey, MASTBoltzmann, 0.0, seed, MASTDefaultValue);
             case CLASS:
                 // we have a bespoke Class to instantiate
                 return JSONUtils.loadClassFromString(details);
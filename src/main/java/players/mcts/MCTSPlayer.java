@@ -9,11 +9,15 @@ import evaluation.listeners.IGameListener;
 import core.interfaces.IStateHeuristic;
 import evaluation.metrics.Event;
 import players.IAnyTimePlayer;
+import players.PlayerConstants;
 import utilities.Pair;
 import utilities.RandomWrapper;
 import utilities.Utils;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -27,7 +31,14 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
     // Heuristics used for the agent
     protected boolean debug = false;
     protected SingleTreeNode root;
+    // The length of the game history when we last made a decision. If we reuse the tree, the actions taken since
+    // then tell us where to find the new root in the old tree.
+    private int historyLengthAtLastDecision;
     List<Map<Object, Pair<Integer, Double>>> MASTStats;
+    // Threads for parallel search (nThreads > 1), shared by all players. The calling thread is always used as well,
+    // so each search needs one fewer than nThreads. The pool only keeps idle threads for a short while, so nothing
+    // needs to be shut down when a player (or copy of one) is finished with.
+    private static ExecutorService searchThreads;
 
     public MCTSPlayer() {
         this(System.currentTimeMillis());
@@ -67,6 +78,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         if (getParameters().advantageFunction instanceof AbstractPlayer)
             ((AbstractPlayer) getParameters().advantageFunction).initializePlayer(state);
         MASTStats = null;
+        root = null;
         getParameters().getRolloutStrategy().initializePlayer(state);
         getParameters().getOpponentModel().initializePlayer(state);
     }
@@ -88,23 +100,30 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
     @Override
     public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> actions) {
         // Search for best action from the root
-        if (getParameters().opponentTreePolicy == MultiTree)
+        List<AbstractAction> history = gameState.getHistory();
+        SingleTreeNode oldTree = getParameters().reuseTree ? reusableSubtree(gameState, history) : null;
+        if (oldTree != null)
+            root = oldTree;
+        else if (getParameters().opponentTreePolicy == MultiTree)
             root = new MultiTreeNode(this, gameState, rnd);
         else
             root = SingleTreeNode.createRootNode(this, gameState, rnd, getFactory());
+        historyLengthAtLastDecision = history.size();
 
-        if (MASTStats != null)
-            root.MASTStatistics = MASTStats.stream()
-                    .map(m -> Utils.decay(m, getParameters().MASTGamma))
-                    .collect(Collectors.toList());
+        useMASTStats(root, getParameters().getRolloutStrategy(), getParameters().getOpponentModel());
 
-        if (getParameters().getRolloutStrategy() instanceof IMASTUser) {
-            ((IMASTUser) getParameters().getRolloutStrategy()).setStats(root.MASTStatistics);
+        List<SingleTreeNode> parallelRoots = null;
+        switch (parallelism()) {
+            case NONE:
+                root.mctsSearch();
+                break;
+            case ROOT:
+                parallelRoots = rootParallelSearch(gameState);
+                break;
+            case TREE:
+                treeParallelSearch();
+                break;
         }
-        if (getParameters().getOpponentModel() instanceof IMASTUser) {
-            ((IMASTUser) getParameters().getOpponentModel()).setStats(root.MASTStatistics);
-        }
-        root.mctsSearch();
 
         if (getParameters().advantageFunction instanceof ITreeProcessor)
             ((ITreeProcessor) getParameters().advantageFunction).process(root);
@@ -122,7 +141,123 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
         if (root.children.size() > 2 * actions.size() && !getParameters().actionSpace.equals(gameState.getCoreGameParameters().actionSpace))
             throw new AssertionError(String.format("Unexpectedly large number of children: %d with action size of %d", root.children.size(), actions.size()) );
-        return root.bestAction();
+        return parallelRoots == null ? root.bestAction() : SingleTreeNode.bestAction(parallelRoots);
+    }
+
+    private void useMASTStats(SingleTreeNode searchRoot, AbstractPlayer rolloutPolicy, AbstractPlayer opponentModel) {
+        if (MASTStats != null)
+            searchRoot.MASTStatistics = MASTStats.stream()
+                    .map(m -> Utils.decay(m, getParameters().MASTGamma))
+                    .collect(Collectors.toList());
+
+        if (rolloutPolicy instanceof IMASTUser) {
+            ((IMASTUser) rolloutPolicy).setStats(searchRoot.MASTStatistics);
+        }
+        if (opponentModel instanceof IMASTUser) {
+            ((IMASTUser) opponentModel).setStats(searchRoot.MASTStatistics);
+        }
+    }
+
+    /**
+     * MultiTree MCTS is always searched on a single thread. Tree parallelisation shares MAST statistics between
+     * workers, and these are updated during the search, so if we use MAST we fall back to root parallelisation
+     * (which gives each tree its own statistics).
+     */
+    MCTSEnums.Parallelism parallelism() {
+        MCTSParams params = getParameters();
+        if (params.nThreads <= 1 || params.opponentTreePolicy == MultiTree)
+            return MCTSEnums.Parallelism.NONE;
+        if (params.parallelism == MCTSEnums.Parallelism.TREE && params.useMAST)
+            return MCTSEnums.Parallelism.ROOT;
+        return params.parallelism;
+    }
+
+    /**
+     * Root parallelisation: we search nThreads independent trees from the same state, the first of which is root.
+     * Each of the others has its own copy of the state, forward model, random number generator and rollout policies.
+     * <p>
+     * The budget is split between the trees, so that the search costs the same in total as a single tree would.
+     * A time budget is the exception, as the trees are searched at the same time, and each has all of it.
+     * Set rootBudgetPerTree to give each tree the full budget of any type instead.
+     *
+     * @return the roots of all the trees searched
+     */
+    private List<SingleTreeNode> rootParallelSearch(AbstractGameState gameState) {
+        List<SingleTreeNode> roots = new ArrayList<>();
+        roots.add(root);
+        // all the set up uses rnd, and is done here, so that the search is reproducible for a given seed
+        for (int i = 1; i < getParameters().nThreads; i++) {
+            Random workerRnd = new Random(rnd.nextLong());
+            AbstractForwardModel workerModel = getForwardModel().copy();
+            AbstractPlayer[] policies = workerPolicies(workerRnd.nextLong(), workerModel);
+            SingleTreeNode treeRoot = SingleTreeNode.createRootNode(this, gameState.copy(), workerRnd, getFactory());
+            treeRoot.setWorkerResources(workerModel, policies[0], policies[1]);
+            useMASTStats(treeRoot, policies[0], policies[1]);
+            roots.add(treeRoot);
+        }
+        MCTSParams params = getParameters();
+        int budget = params.rootBudgetPerTree || params.budgetType == PlayerConstants.BUDGET_TIME ? params.budget
+                : Math.max(1, params.budget / params.nThreads);
+        List<Future<?>> otherTrees = new ArrayList<>();
+        for (SingleTreeNode treeRoot : roots.subList(1, roots.size()))
+            otherTrees.add(searchThreads().submit(() -> treeRoot.mctsSearch(budget)));
+        try {
+            root.mctsSearch(budget);
+        } finally {
+            SingleTreeNode.awaitWorkers(otherTrees);
+        }
+        return roots;
+    }
+
+    /**
+     * Tree parallelisation: nThreads workers search root together; see SingleTreeNode.treeParallelSearch()
+     */
+    private void treeParallelSearch() {
+        List<SingleTreeNode> workers = new ArrayList<>();
+        for (int i = 0; i < getParameters().nThreads; i++) {
+            Random workerRnd = new Random(rnd.nextLong());
+            AbstractForwardModel workerModel = getForwardModel().copy();
+            AbstractPlayer[] policies = workerPolicies(workerRnd.nextLong(), workerModel);
+            workers.add(root.createRolloutWorker(workerModel, workerRnd, policies[0], policies[1]));
+        }
+        root.treeParallelSearch(workers, searchThreads());
+    }
+
+    private AbstractPlayer[] workerPolicies(long seed, AbstractForwardModel workerModel) {
+        AbstractPlayer[] policies = getParameters().createWorkerPolicies(seed);
+        for (AbstractPlayer policy : policies)
+            policy.setForwardModel(workerModel);
+        return policies;
+    }
+
+    private static synchronized ExecutorService searchThreads() {
+        if (searchThreads == null) {
+            searchThreads = Executors.newCachedThreadPool(r -> {
+                // daemon threads, so that a search in progress does not stop the JVM from exiting
+                Thread thread = new Thread(r, "MCTS worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return searchThreads;
+    }
+
+    /**
+     * Tree reuse is supported for a single tree (OneTree) in Closed_Loop and Open_Loop. In Information_Set MCTS the
+     * tree is built from our information set at the time of the last decision, and this will have changed.
+     *
+     * @return the part of the tree from our last decision that matches the actions since taken in the game,
+     * or null if there is no such tree.
+     */
+    private SingleTreeNode reusableSubtree(AbstractGameState gameState, List<AbstractAction> history) {
+        MCTSParams params = getParameters();
+        if (root == null || root instanceof MultiTreeNode || params.opponentTreePolicy != OneTree
+                || params.information == MCTSEnums.Information.Information_Set)
+            return null;
+        // history is empty for copies of the state in competition mode
+        if (history.size() <= historyLengthAtLastDecision)
+            return null;
+        return root.reRoot(history.subList(historyLengthAtLastDecision, history.size()), gameState);
     }
 
     @Override
@@ -138,7 +273,15 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
     @Override
     public MCTSPlayer copy() {
-        return new MCTSPlayer((MCTSParams) getParameters().copy());
+        // seeded from this player, rather than the clock, so that copies are reproducible
+        return copyWithSeed(rnd.nextInt());
+    }
+
+    @Override
+    public MCTSPlayer copyWithSeed(long seed) {
+        MCTSParams newParams = (MCTSParams) getParameters().copy();
+        newParams.setRandomSeed(seed);
+        return new MCTSPlayer(newParams);
     }
 
     @Override
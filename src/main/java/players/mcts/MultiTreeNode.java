@@ -11,7 +11,6 @@ import utilities.Utils;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import static utilities.Utils.entropyOf;
 
@@ -78,8 +77,8 @@ public class MultiTreeNode extends SingleTreeNode {
         AbstractGameState currentState = this.openLoopState;  // this will have been set correctly before calling this method
         SingleTreeNode currentNode;
 
-        double[] startingValues = IntStream.range(0, openLoopState.getNPlayers())
-                .mapToDouble(i -> params.heuristic.evaluateState(currentState, i)).toArray();
+        double[] startingValues = new double[openLoopState.getNPlayers()];
+        params.heuristic.evaluateAllPlayers(currentState, startingValues);
 
         if (!currentState.isNotTerminal())
             return;
@@ -166,9 +165,10 @@ public class MultiTreeNode extends SingleTreeNode {
 
         // Evaluate final state and return normalised score
         double[] finalValues = new double[state.getNPlayers()];
-
-        for (int i = 0; i < finalValues.length; i++) {
-            finalValues[i] = params.heuristic.evaluateState(currentState, i) - (params.nodesStoreScoreDelta ? startingValues[i] : 0);
+        params.heuristic.evaluateAllPlayers(currentState, finalValues);
+        if (params.nodesStoreScoreDelta) {
+            for (int i = 0; i < finalValues.length; i++)
+                finalValues[i] -= startingValues[i];
         }
         for (SingleTreeNode singleTreeNode : currentLocation) {
             if (singleTreeNode != null)
@@ -3,16 +3,20 @@ package players.mcts;
 import core.*;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
+import core.interfaces.IStateKey;
 import players.PlayerConstants;
 import utilities.*;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.*;
 import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.*;
 import static players.PlayerConstants.*;
-import static players.mcts.MCTSEnums.Information.Closed_Loop;
+import static players.mcts.MCTSEnums.Information.*;
 import static players.mcts.MCTSEnums.OpponentTreePolicy.*;
 import static players.mcts.MCTSEnums.RolloutTermination.DEFAULT;
 import static players.mcts.MCTSEnums.SelectionPolicy.*;
@@ -21,7 +25,15 @@ import static utilities.Utils.*;
 
 public class SingleTreeNode {
 
-    private final Map<AbstractAction, Integer> nValidVisits = new HashMap<>();
+    // Each action seen at this node has a 'slot', in the order they were first seen (the same order as children).
+    // Selection and backup work with slots and these arrays (rather than hashing actions and boxing counts), with
+    // childSlots[slot] the same array as is stored in children, and validVisits[slot] the number of visits in which
+    // the action was available.
+    private final Map<AbstractAction, Integer> slotIndex = new HashMap<>();
+    private SingleTreeNode[][] childSlots = new SingleTreeNode[4][];
+    private int[] validVisits = new int[4];
+    // the slot of each action in actionsFromOpenLoopState
+    private int[] slotsFromOpenLoopState = new int[0];
     // State in this node (closed loop)
     protected AbstractGameState state;
     // State in this node (open loop - this is updated by onward trajectory....be very careful about using)
@@ -73,6 +85,27 @@ public class SingleTreeNode {
     // Total value of this node
     List<Pair<Integer, AbstractAction>> actionsInTree;
     List<Pair<Integer, AbstractAction>> actionsInRollout;
+    // In a parallel search each root (or rollout worker) has its own policies; otherwise these are null, and
+    // those in params are used
+    private AbstractPlayer rolloutPolicy, opponentModel;
+    // Used by treeParallelSearch(), to tell all the workers to finish
+    private volatile boolean stopSearch;
+    private int iterationsStarted;
+    // Used to keep the tree within MCTSParams.maxTreeNodes; these are only maintained on the root
+    int nodesInTree, nodesAllocated, nodesReused, nodesEvicted;
+    private Deque<SingleTreeNode> nodePool;
+    // the leaves of the tree, least visited first, which makeRoomFor() evicts from (see EvictionCandidate)
+    private PriorityQueue<EvictionCandidate> leaves;
+    // changed each time this node is recycled or dropped from the tree, so that its old EvictionCandidates are ignored
+    private int generation;
+    // the nodes that the workers of treeParallelSearch() are rolling out from, which must not be evicted
+    private List<SingleTreeNode> nodesInFlight;
+    // The nodes for each position, if we are using a transposition table (see usesTranspositions()); only on the root
+    private Map<Object, SingleTreeNode> transpositions;
+    int transpositionHits;
+    // The nodes visited by the current iteration, in order, which back-propagation follows when using a transposition
+    // table (as a node may then have several parents); only on the root
+    private List<SingleTreeNode> route;
 
     protected SingleTreeNode() {
 
@@ -82,28 +115,263 @@ public class SingleTreeNode {
     public static SingleTreeNode createRootNode(MCTSPlayer player, AbstractGameState state, Random rnd, Supplier<? extends SingleTreeNode> factory) {
         SingleTreeNode retValue = factory.get();
         MCTSParams mctsParams = player.getParameters();
+        mctsParams.checkTreeLimits();
         retValue.factory = factory;
         retValue.decisionPlayer = state.getCurrentPlayer();
         retValue.params = player.getParameters();
         retValue.forwardModel = player.getForwardModel();
         retValue.rnd = rnd;
-        // only root node maintains MAST statistics
-        retValue.MASTStatistics = new ArrayList<>();
-        for (int i = 0; i < state.getNPlayers(); i++)
-            retValue.MASTStatistics.add(new HashMap<>());
-        MASTActionHeuristic MASTHeuristic = new MASTActionHeuristic(retValue.MASTStatistics, retValue.params.MASTActionKey, retValue.params.MASTDefaultValue);
-        retValue.MASTFunction = MASTHeuristic::evaluateAction;
+        retValue.initialiseMASTStatistics(state.getNPlayers());
+        retValue.nodesInTree = 1;
+        retValue.nodesAllocated = 1;
+        retValue.nodePool = new ArrayDeque<>();
+        if (mctsParams.maxTreeNodes > 0)
+            retValue.leaves = new PriorityQueue<>();
+        retValue.nodesInFlight = new ArrayList<>();
+        if (usesTranspositions(player)) {
+            retValue.transpositions = transpositionTable(mctsParams.transpositionTableSize);
+            retValue.route = new ArrayList<>();
+        }
         retValue.instantiate(null, null, state);
         return retValue;
     }
 
+    /**
+     * With a transposition table (MCTSParams.transpositionTableSize) the tree becomes a DAG: a position reached by
+     * different sequences of actions has a single node, shared by all its parents, whose statistics then include
+     * all the visits made to it, by whichever route.
+     * <p>
+     * This is only done with Closed_Loop information, where each node holds the exact state reached, and the
+     * positions can be compared. In Open_Loop and Information_Set searches a node stands for a sequence of actions,
+     * and is visited in a different (determinised) state on each iteration, so there are no positions to share.
+     * We also need a single tree (OneTree), and not to be in a tree parallel search, as the root records the route
+     * taken by the current iteration, which back-propagation then follows.
+     * <p>
+     * The edges of the DAG are the children of each node, keyed by action. The parent and actionToReach of a shared
+     * node are those of the first of these edges to reach it, and are never changed as other parents reach it.
+     * Positions are only shared between nodes at the same depth, so there are never any cycles. States that
+     * implement IStateKey are looked up by their key; for other states we use hashCode() and equals().
+     * The tree cannot also be limited with MCTSParams.maxTreeNodes, as a shared node cannot be evicted from just
+     * one of its parents.
+     */
+    private static boolean usesTranspositions(MCTSPlayer player) {
+        MCTSParams params = player.getParameters();
+        return params.transpositionTableSize > 0 && params.information == Closed_Loop &&
+                params.opponentTreePolicy == OneTree && player.parallelism() != MCTSEnums.Parallelism.TREE;
+    }
+
+    private static Map<Object, SingleTreeNode> transpositionTable(int maxSize) {
+        // the least recently used positions are dropped once the table is full (but their nodes stay in the tree)
+        return new LinkedHashMap<Object, SingleTreeNode>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, SingleTreeNode> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private static Object positionKey(AbstractGameState state, int depth) {
+        if (state instanceof IStateKey)
+            return ((IStateKey) state).getStateKey() ^ Zobrist.key(-3, depth);
+        return new Pair<>(depth, state);
+    }
+
+    /**
+     * Gives this root its own forward model and rollout policies, so that it can be searched at the same time as
+     * other trees (or used as a rollout worker, see createRolloutWorker()). This must be called before any children
+     * are added, as they pick up the forward model of the root when they are created.
+     */
+    void setWorkerResources(AbstractForwardModel forwardModel, AbstractPlayer rolloutPolicy, AbstractPlayer opponentModel) {
+        this.forwardModel = forwardModel;
+        this.rolloutPolicy = rolloutPolicy;
+        this.opponentModel = opponentModel;
+    }
+
+    /**
+     * Creates a worker for treeParallelSearch(). This is not part of the tree, but stands in as the root of the
+     * rollouts that the worker runs, so that these use the worker's forward model, policies and counters rather
+     * than those of the shared tree.
+     */
+    SingleTreeNode createRolloutWorker(AbstractForwardModel forwardModel, Random rnd, AbstractPlayer rolloutPolicy, AbstractPlayer opponentModel) {
+        SingleTreeNode worker = factory.get();
+        worker.root = worker;
+        worker.factory = factory;
+        worker.params = params;
+        worker.rnd = rnd;
+        worker.decisionPlayer = decisionPlayer;
+        worker.setWorkerResources(forwardModel, rolloutPolicy, opponentModel);
+        return worker;
+    }
+
+    AbstractPlayer rolloutPolicy() {
+        return rolloutPolicy == null ? params.getRolloutStrategy() : rolloutPolicy;
+    }
+
+    AbstractPlayer opponentModel() {
+        return opponentModel == null ? params.getOpponentModel() : opponentModel;
+    }
+
+    // only root node maintains MAST statistics
+    private void initialiseMASTStatistics(int nPlayers) {
+        MASTStatistics = new ArrayList<>();
+        for (int i = 0; i < nPlayers; i++)
+            MASTStatistics.add(new HashMap<>());
+        MASTActionHeuristic MASTHeuristic = new MASTActionHeuristic(MASTStatistics, params.MASTActionKey, params.MASTDefaultValue);
+        MASTFunction = MASTHeuristic::evaluateAction;
+    }
+
+    /**
+     * Used to retain the tree between decisions (MCTSParams.reuseTree). This must be called on the root of the
+     * tree from our last decision. We follow the actions taken in the game since then (starting with the one we chose)
+     * down the tree, and the node reached becomes the root for a new search from newState. The rest of the
+     * tree is discarded.
+     *
+     * @param actionsTaken - the actions taken in the game since this root's state
+     * @param newState     - the state we now need to make a decision in
+     * @return the new root, or null if the tree does not contain the actions taken (or cannot otherwise be reused)
+     */
+    SingleTreeNode reRoot(List<AbstractAction> actionsTaken, AbstractGameState newState) {
+        if (actionsTaken.isEmpty() || state == null)
+            return null;
+        // We replay the actions on a copy of our old root state to find out who acts after each of them, as
+        // this determines the node to move to (children are indexed by the player who acts next)
+        AbstractGameState replayState = state.copy();
+        SingleTreeNode node = this;
+        try {
+            for (AbstractAction action : actionsTaken) {
+                SingleTreeNode[] nodeArray = node.children.get(action);
+                if (nodeArray == null)
+                    return null;
+                forwardModel.next(replayState, action.copy());
+                if (!replayState.isNotTerminal())
+                    return null;
+                node = nodeArray[replayState.getCurrentPlayer()];
+                if (node == null)
+                    return null;
+            }
+        } catch (RuntimeException | AssertionError e) {
+            // our old state may not be able to replay the moves made in the actual game (if it contains a
+            // different determinisation of hidden information, say). In which case we just start a new tree.
+            return null;
+        }
+        if (node.decisionPlayer != newState.getCurrentPlayer())
+            return null;
+        node.makeRoot(this, newState);
+        return node;
+    }
+
+    private void makeRoot(SingleTreeNode oldRoot, AbstractGameState newState) {
+        int depthOffset = depth;
+        List<SingleTreeNode> nodes = allNodesInTree();
+        for (SingleTreeNode node : nodes) {
+            node.root = this;
+            node.depth -= depthOffset;
+        }
+        parent = null;
+        actionToReach = null;
+        fmCallsCount = 0;
+        copyCount = 0;
+        nodesInTree = nodes.size();
+        nodesAllocated = 0;
+        nodesReused = 0;
+        nodesEvicted = 0;
+        nodePool = oldRoot.nodePool;
+        if (oldRoot.leaves != null) {
+            // the nodes left behind in the old tree are not recycled, so we start the queue again
+            leaves = new PriorityQueue<>();
+            for (SingleTreeNode node : nodes)
+                if (node != this && node.isLeaf())
+                    leaves.add(new EvictionCandidate(node));
+        }
+        nodesInFlight = oldRoot.nodesInFlight;
+        transpositionHits = 0;
+        if (oldRoot.transpositions != null) {
+            // the depths have changed, so we need a new table
+            transpositions = transpositionTable(params.transpositionTableSize);
+            route = new ArrayList<>();
+            Set<SingleTreeNode> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+            kept.addAll(nodes);
+            for (SingleTreeNode node : nodes) {
+                if (node != this && node.state != null)
+                    transpositions.put(positionKey(node.state, node.depth), node);
+                // a shared node whose first parent was left behind takes the first of its other parents instead
+                for (Map.Entry<AbstractAction, SingleTreeNode[]> entry : node.children.entrySet()) {
+                    if (entry.getValue() == null) continue;
+                    for (SingleTreeNode child : entry.getValue()) {
+                        if (child != null && !kept.contains(child.parent)) {
+                            child.parent = node;
+                            child.actionToReach = entry.getKey();
+                        }
+                    }
+                }
+            }
+        }
+        // keep the range of rewards seen so far, as this is used to normalise the statistics we are keeping
+        lowReward = oldRoot.lowReward;
+        highReward = oldRoot.highReward;
+        initialiseMASTStatistics(newState.getNPlayers());
+        if (params.information != Closed_Loop) {
+            copyCount++;
+            state = newState.copy();
+        } else {
+            state = newState;
+        }
+        // and pick up any actions that were not available in the tree's version of the state
+        setActionsFromOpenLoopState(newState);
+    }
+
     public static SingleTreeNode createChildNode(SingleTreeNode parent, AbstractAction actionToReach, AbstractGameState state,
                                                  Supplier<? extends SingleTreeNode> factory) {
-        SingleTreeNode retValue = factory.get();
+        SingleTreeNode retValue = parent.root.newNode(factory);
         retValue.instantiate(parent, actionToReach, state);
+        parent.root.nodesInTree++;
+        if (parent.root.leaves != null)
+            parent.root.leaves.add(new EvictionCandidate(retValue));
         return retValue;
     }
 
+    /**
+     * @return a node from the pool of evicted nodes if there is one, otherwise a new one
+     */
+    private SingleTreeNode newNode(Supplier<? extends SingleTreeNode> factory) {
+        if (nodePool != null && !nodePool.isEmpty()) {
+            nodesReused++;
+            return nodePool.pop();
+        }
+        nodesAllocated++;
+        return factory.get();
+    }
+
+    /**
+     * Clears this node once it has been evicted from the tree, so that it can be reused as a new node by
+     * createChildNode(). Anything a subclass keeps on the node needs to be cleared here as well.
+     */
+    protected void recycle() {
+        slotIndex.clear();
+        Arrays.fill(childSlots, null);
+        Arrays.fill(validVisits, 0);
+        slotsFromOpenLoopState = new int[0];
+        children.clear();
+        advantagesOfActionsFromOLS.clear();
+        actionsFromOpenLoopState = new ArrayList<>();
+        state = null;
+        openLoopState = null;
+        actionToReach = null;
+        parent = null;
+        root = null;
+        nVisits = 0;
+        rolloutActionsTaken = 0;
+        paranoidPlayer = -1;
+        timeTaken = 0.0;
+        highReward = Double.NEGATIVE_INFINITY;
+        lowReward = Double.POSITIVE_INFINITY;
+        Arrays.fill(totValue, 0.0);
+        Arrays.fill(totSquares, 0.0);
+        actionsInTree = null;
+        actionsInRollout = null;
+        generation++;
+    }
+
     protected void instantiate(SingleTreeNode parent, AbstractAction actionToReach, AbstractGameState state) {
         this.fmCallsCount = 0;
         this.parent = parent;
@@ -126,8 +394,10 @@ public class SingleTreeNode {
             depth = 0;
         }
 
-        totValue = new double[state.getNPlayers()];
-        totSquares = new double[state.getNPlayers()];
+        if (totValue == null || totValue.length != state.getNPlayers()) {
+            totValue = new double[state.getNPlayers()];
+            totSquares = new double[state.getNPlayers()];
+        }
         if (params.information != Closed_Loop && (params.maintainMasterState || depth == 0)) {
             // if we're using open loop, then we need to make sure the reference state is never changed
             // however this is only used at the root - and we can switch the copy off for other nodes for performance
@@ -180,13 +450,17 @@ public class SingleTreeNode {
                     }
                 }
             }
-            for (AbstractAction action : actionsFromOpenLoopState) {
-                if (!children.containsKey(action)) {
-                    children.put(action.copy(), null); // mark a new node to be expanded
+            slotsFromOpenLoopState = new int[actionsFromOpenLoopState.size()];
+            for (int i = 0; i < slotsFromOpenLoopState.length; i++) {
+                AbstractAction action = actionsFromOpenLoopState.get(i);
+                Integer slot = slotIndex.get(action);
+                if (slot == null) {
+                    slot = addSlot(action.copy()); // mark a new node to be expanded
                     // This *does* rely on a good equals method being implemented for Actions
-                    if (!children.containsKey(action))
+                    if (!slotIndex.containsKey(action))
                         throw new AssertionError("We have an action that does not obey the equals/hashcode contract" + action);
                 }
+                slotsFromOpenLoopState[i] = slot;
             }
         }
     }
@@ -195,6 +469,14 @@ public class SingleTreeNode {
      * Performs full MCTS search, using the defined budget limits.
      */
     public void mctsSearch() {
+        mctsSearch(params.budget);
+    }
+
+    /**
+     * Performs full MCTS search, with the given budget in place of that in the parameters (of the type given by
+     * params.budgetType).
+     */
+    void mctsSearch(int budget) {
 
         // Variables for tracking time budget
         double avgTimeTaken;
@@ -203,7 +485,7 @@ public class SingleTreeNode {
         int remainingLimit = params.breakMS;
         ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
         if (params.budgetType == BUDGET_TIME) {
-            elapsedTimer.setMaxTimeMillis(params.budget);
+            elapsedTimer.setMaxTimeMillis(budget);
         }
 
         // Tracking number of iterations for iteration budget
@@ -211,22 +493,10 @@ public class SingleTreeNode {
         rolloutActionsTaken = 0;
         boolean stop = false;
         while (!stop) {
-            switch (params.information) {
-                case Closed_Loop:
-                    openLoopState = state;
-                    break;
-                case Open_Loop:
-                    openLoopState = state.copy();
-                    copyCount++;
-                    break;
-                case Information_Set:
-                    openLoopState = state.copy(decisionPlayer);
-                    copyCount++;
-                    break;
-            }
+            setOpenLoopStateForIteration();
 
-            // New timer for this iteration
-            ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
+            // New timer for this iteration (reading the CPU time of the thread is not free, so only if we need it)
+            ElapsedCpuTimer elapsedTimerIteration = params.budgetType == BUDGET_TIME ? new ElapsedCpuTimer() : null;
 
             // Selection + expansion: navigate tree until a node not fully expanded is found, add a new node to the tree
             oneSearchIteration();
@@ -244,25 +514,41 @@ public class SingleTreeNode {
                 stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
             } else if (budgetType == BUDGET_ITERATIONS) {
                 // Iteration budget
-                stop = numIters >= params.budget;
+                stop = numIters >= budget;
             } else if (budgetType == BUDGET_FM_CALLS) {
                 // FM calls budget
-                stop = fmCallsCount > params.budget || numIters > params.budget;
+                stop = fmCallsCount > budget || numIters > budget;
             } else if (budgetType == BUDGET_COPY_CALLS) {
-                stop = copyCount > params.budget || numIters > params.budget;
+                stop = copyCount > budget || numIters > budget;
             } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
-                stop = (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
+                stop = (copyCount + fmCallsCount) > budget || numIters > budget;
             }
         }
     }
 
+    private void setOpenLoopStateForIteration() {
+        switch (params.information) {
+            case Closed_Loop:
+                openLoopState = state;
+                break;
+            case Open_Loop:
+                openLoopState = state.copy();
+                copyCount++;
+                break;
+            case Information_Set:
+                openLoopState = state.copy(decisionPlayer);
+                copyCount++;
+                break;
+        }
+    }
+
     /**
      * oneSearchIteration() implements the strategy for tree search (plus expansion, rollouts, backup and so on)
      * Its result is purely stored in the tree generated from root
      */
     protected void oneSearchIteration() {
-        double[] startingValues = IntStream.range(0, openLoopState.getNPlayers())
-                .mapToDouble(i -> params.heuristic.evaluateState(openLoopState, i)).toArray();
+        double[] startingValues = new double[openLoopState.getNPlayers()];
+        params.heuristic.evaluateAllPlayers(openLoopState, startingValues);
 
         actionsInTree = new ArrayList<>();
         actionsInRollout = new ArrayList<>();
@@ -304,12 +590,202 @@ public class SingleTreeNode {
     }
 
     /**
-     * Uses plain java loop instead of streams for performance
-     * (this is called often enough it can make a measurable difference)
+     * Tree parallelisation: several workers, each on its own thread, search this tree at the same time.
+     * Selection, expansion and back-propagation change the tree, so are done by one worker at a time (we
+     * synchronise on this root). Everything else - copying the state at the start of the iteration and at the
+     * selected node, evaluating the heuristic and the rollout itself - runs in parallel, each worker using its own
+     * forward model and policies.
+     * <p>
+     * While a worker's rollout is in progress, the nodes it selected carry a 'virtual loss' (an extra visit with the
+     * lowest reward seen so far). This steers the other workers down different paths, and is removed when the real
+     * result is backed up.
+     * <p>
+     * The first worker runs on the calling thread, and this is also the one that checks any time budget, as
+     * ElapsedCpuTimer measures the CPU time of the current thread.
+     *
+     * @param workers  - one per thread, from createRolloutWorker()
+     * @param executor - runs all the workers except the first
      */
-    public int actionVisits(AbstractAction action) {
+    void treeParallelSearch(List<SingleTreeNode> workers, ExecutorService executor) {
+        ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
+        if (params.budgetType == BUDGET_TIME) {
+            elapsedTimer.setMaxTimeMillis(params.budget);
+        }
+        timeTaken = 0.0;
+        rolloutActionsTaken = 0;
+        iterationsStarted = 0;
+        stopSearch = false;
+
+        List<Future<?>> otherWorkers = new ArrayList<>();
+        for (SingleTreeNode worker : workers.subList(1, workers.size())) {
+            otherWorkers.add(executor.submit(() -> {
+                while (parallelIteration(worker)) ;
+            }));
+        }
+        try {
+            int numIters = 0;
+            while (!stopSearch) {
+                ElapsedCpuTimer elapsedTimerIteration = params.budgetType == BUDGET_TIME ? new ElapsedCpuTimer() : null;
+                if (!parallelIteration(workers.get(0)))
+                    break;
+                numIters++;
+                if (params.budgetType == BUDGET_TIME) {
+                    timeTaken += (elapsedTimerIteration.elapsedMillis());
+                    double avgTimeTaken = timeTaken / numIters;
+                    long remaining = elapsedTimer.remainingTimeMillis();
+                    if (remaining <= 2 * avgTimeTaken || remaining <= params.breakMS)
+                        stopSearch = true;
+                }
+            }
+        } finally {
+            stopSearch = true;
+            awaitWorkers(otherWorkers);
+        }
+    }
+
+    /**
+     * One iteration of treeParallelSearch(), run by the specified worker.
+     *
+     * @return false if the budget has been used up (and no iteration was run)
+     */
+    private boolean parallelIteration(SingleTreeNode worker) {
+        if (stopSearch)
+            return false;
+        List<Pair<Integer, AbstractAction>> treeActions = new ArrayList<>();
+        SingleTreeNode selected;
+        double[] startingValues = null;
+        double virtualLoss;
+        int lastActorInTree;
+        // The lock is only needed to change the tree. Copying the state of the root (or of a node) never changes
+        // it, so in Closed_Loop and Open_Loop the state this iteration starts from, and its heuristic value, can be
+        // worked out first. The copy for an Information_Set may redeterminise using the random number generator of
+        // the state, so that one is made under the lock.
+        AbstractGameState iterationState = null;
+        if (params.information != Information_Set) {
+            if (params.information == Open_Loop) {
+                iterationState = state.copy();
+                worker.copyCount++;
+            } else {
+                iterationState = state;
+            }
+            startingValues = new double[iterationState.getNPlayers()];
+            params.heuristic.evaluateAllPlayers(iterationState, startingValues);
+        }
+        synchronized (this) {
+            if (stopSearch || parallelBudgetUsed()) {
+                stopSearch = true;
+                return false;
+            }
+            iterationsStarted++;
+            if (iterationState == null) {
+                setOpenLoopStateForIteration();
+                iterationState = openLoopState;
+                startingValues = new double[iterationState.getNPlayers()];
+                params.heuristic.evaluateAllPlayers(iterationState, startingValues);
+            } else {
+                openLoopState = iterationState;
+            }
+            selected = treePolicy(treeActions);
+            if (selected == this && iterationState.isNotTerminalForPlayer(decisionPlayer) && nVisits > 3)
+                throw new AssertionError("We have not expanded or selected a new node");
+            lastActorInTree = treeActions.isEmpty() ? decisionPlayer : treeActions.get(treeActions.size() - 1).a;
+
+            // In Open_Loop the state on the selected node belongs to this iteration, so the worker can roll it forward.
+            // In Closed_Loop it is the state stored on the node, which is copied below (and rollout() will copy it
+            // again before changing it).
+            worker.openLoopState = selected.openLoopState;
+            virtualLoss = Double.isFinite(lowReward) ? lowReward : 0.0;
+            selected.applyVirtualLoss(virtualLoss, 1);
+            // this also stops the node being evicted, so its state stays as it is until the result is backed up
+            nodesInFlight.add(selected);
+        }
+        if (params.information == Closed_Loop) {
+            worker.state = selected.state.copy();
+            worker.copyCount++;
+        }
+
+        worker.actionsInRollout = new ArrayList<>();
+        double[] delta = worker.rollout(startingValues, lastActorInTree);
+
+        synchronized (this) {
+            selected.applyVirtualLoss(virtualLoss, -1);
+            nodesInFlight.remove(selected);
+            selected.backUp(delta);
+            updateMASTStatistics(treeActions, worker.actionsInRollout, delta);
+            rolloutActionsTaken += worker.actionsInRollout.size();
+            fmCallsCount += worker.fmCallsCount;
+            copyCount += worker.copyCount;
+            worker.fmCallsCount = 0;
+            worker.copyCount = 0;
+        }
+        return true;
+    }
+
+    private boolean parallelBudgetUsed() {
+        switch (params.budgetType) {
+            case BUDGET_ITERATIONS:
+                return iterationsStarted >= params.budget;
+            case BUDGET_FM_CALLS:
+                return fmCallsCount > params.budget || iterationsStarted > params.budget;
+            case BUDGET_COPY_CALLS:
+                return copyCount > params.budget || iterationsStarted > params.budget;
+            case BUDGET_FMANDCOPY_CALLS:
+                return (copyCount + fmCallsCount) > params.budget || iterationsStarted > params.budget;
+            default:
+                // a time budget is checked by the first worker in treeParallelSearch()
+                return false;
+        }
+    }
+
+    /**
+     * Adds (sign = 1) or removes (sign = -1) a virtual loss of the given value to this node and all its parents.
+     */
+    private void applyVirtualLoss(double value, int sign) {
+        for (SingleTreeNode n = this; n != null; n = n.parent) {
+            n.nVisits += sign;
+            for (int j = 0; j < n.totValue.length; j++)
+                n.totValue[j] += sign * value;
+        }
+    }
+
+    /**
+     * Waits for all the workers of a parallel search to finish, passing on any exception they throw.
+     */
+    static void awaitWorkers(List<Future<?>> workers) {
+        try {
+            for (Future<?> worker : workers)
+                worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for MCTS workers to finish", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("MCTS worker failed : " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private int addSlot(AbstractAction action) {
+        int slot = slotIndex.size();
+        if (slot == childSlots.length) {
+            childSlots = Arrays.copyOf(childSlots, slot * 2);
+            validVisits = Arrays.copyOf(validVisits, slot * 2);
+        }
+        slotIndex.put(action, slot);
+        children.put(action, null);
+        return slot;
+    }
+
+    /**
+     * @return the slot of the i-th action in the list; this avoids a lookup when the list is actionsFromOpenLoopState
+     */
+    private int slotOf(List<AbstractAction> actions, int i) {
+        if (actions == actionsFromOpenLoopState)
+            return slotsFromOpenLoopState[i];
+        return slotIndex.get(actions.get(i));
+    }
+
+    private int visitsInSlot(int slot) {
         int retValue = 0;
-        SingleTreeNode[] nodes = children.get(action);
+        SingleTreeNode[] nodes = childSlots[slot];
         if (nodes != null) {
             for (SingleTreeNode node : nodes) {
                 if (node != null)
@@ -319,35 +795,72 @@ public class SingleTreeNode {
         return retValue;
     }
 
-    private int validVisitsFor(AbstractAction action) {
-        if (params.information == Closed_Loop)
-            return nVisits;
-        return nValidVisits.getOrDefault(action, 1);
+    private double totValueInSlot(int slot, int playerId) {
+        double retValue = 0.0;
+        SingleTreeNode[] nodes = childSlots[slot];
+        if (nodes != null) {
+            for (SingleTreeNode node : nodes) {
+                if (node != null)
+                    retValue += node.totValue[playerId];
+            }
+        }
+        return retValue;
+    }
+
+    private double squaredValueInSlot(int slot, int playerId) {
+        double retValue = 0.0;
+        SingleTreeNode[] nodes = childSlots[slot];
+        if (nodes != null) {
+            for (SingleTreeNode node : nodes) {
+                if (node != null)
+                    retValue += node.totSquares[playerId];
+            }
+        }
+        return retValue;
     }
 
     /**
      * Uses plain java loop instead of streams for performance
      * (this is called often enough it can make a measurable difference)
      */
-    public double actionTotValue(AbstractAction action, int playerId) {
-        double retValue = 0.0;
+    public int actionVisits(AbstractAction action) {
+        int retValue = 0;
         SingleTreeNode[] nodes = children.get(action);
         if (nodes != null) {
             for (SingleTreeNode node : nodes) {
                 if (node != null)
-                    retValue += node.totValue[playerId];
+                    retValue += node.nVisits;
             }
         }
         return retValue;
     }
 
-    private double actionSquaredValue(AbstractAction action, int playerId) {
+    /**
+     * @return the number of visits to this node in which the action was available, as used by ucb()
+     */
+    int actionValidVisits(AbstractAction action) {
+        Integer slot = slotIndex.get(action);
+        return slot == null ? 1 : validVisitsFor(slot);
+    }
+
+    private int validVisitsFor(int slot) {
+        if (params.information == Closed_Loop)
+            return nVisits;
+        // an action that has never been counted is treated as having been available once
+        return validVisits[slot] == 0 ? 1 : validVisits[slot];
+    }
+
+    /**
+     * Uses plain java loop instead of streams for performance
+     * (this is called often enough it can make a measurable difference)
+     */
+    public double actionTotValue(AbstractAction action, int playerId) {
         double retValue = 0.0;
         SingleTreeNode[] nodes = children.get(action);
         if (nodes != null) {
             for (SingleTreeNode node : nodes) {
                 if (node != null)
-                    retValue += node.totSquares[playerId];
+                    retValue += node.totValue[playerId];
             }
         }
         return retValue;
@@ -375,6 +888,10 @@ public class SingleTreeNode {
 
         SingleTreeNode cur = this;
         int actingPlayer = cur.decisionPlayer;
+        if (route != null) {
+            route.clear();
+            route.add(this);
+        }
 
         // Keep iterating while the state reached is not terminal and the depth of the tree is not exceeded
         while (cur.openLoopState.isNotTerminalForPlayer(actingPlayer) && cur.depth < params.maxTreeDepth && cur.actionsFromOpenLoopState.size() > 0) {
@@ -392,7 +909,15 @@ public class SingleTreeNode {
                 }
                 cur.advance(nextState, chosen, false);
                 // then create the new node
-                return cur.expandNode(chosen, nextState);
+                SingleTreeNode next = cur.expandNode(chosen, nextState);
+                if (route != null)
+                    route.add(next);
+                if (next.nVisits == 0)
+                    return next;
+                // or we have reached a position already in the tree (from the transposition table), and so carry on
+                // down the tree from there
+                treeActions.add(new Pair<>(actingPlayer, chosen));
+                cur = next;
             } else {
                 // Move to next child given by UCT function
                 AbstractAction chosen = cur.treePolicyAction(true);
@@ -403,6 +928,8 @@ public class SingleTreeNode {
                     cur.advance(cur.openLoopState, chosen, false);
                 }
                 cur = cur.nextNodeInTree(chosen);
+                if (route != null)
+                    route.add(cur);
                 // else we keep cur, but will exit immediately
                 treeActions.add(new Pair<>(actingPlayer, chosen));
             }
@@ -416,9 +943,10 @@ public class SingleTreeNode {
             actionsToConsider = Math.min(actionsToConsider - usedElsewhere, allAvailable.size());
             // takes account of the expanded actions
             if (actionsToConsider <= 0) return new ArrayList<>();
-            // sort in advantage order (descending)
-            allAvailable.sort(Comparator.comparingDouble(a -> -advantagesOfActionsFromOLS.getOrDefault(a, 0.0)));
-            return allAvailable.subList(0, actionsToConsider);
+            // sort in advantage order (descending); we sort a copy, as the list may be the state's cached one
+            List<AbstractAction> sorted = new ArrayList<>(allAvailable);
+            sorted.sort(Comparator.comparingDouble(a -> -advantagesOfActionsFromOLS.getOrDefault(a, 0.0)));
+            return sorted.subList(0, actionsToConsider);
         }
         return allAvailable;
     }
@@ -433,7 +961,11 @@ public class SingleTreeNode {
         List<AbstractAction> topActions = params.progressiveWideningConstant >= 1.0
                 ? actionsToConsider(actionsFromOpenLoopState, 0)
                 : actionsFromOpenLoopState;
-        List<AbstractAction> allUnexpanded = topActions.stream().filter(a -> children.get(a) == null).collect(toList());
+        List<AbstractAction> allUnexpanded = new ArrayList<>();
+        for (int i = 0; i < topActions.size(); i++) {
+            if (childSlots[slotOf(topActions, i)] == null)
+                allUnexpanded.add(topActions.get(i));
+        }
         return actionsToConsider(allUnexpanded, topActions.size() - allUnexpanded.size());
     }
 
@@ -472,13 +1004,147 @@ public class SingleTreeNode {
     protected SingleTreeNode expandNode(AbstractAction actionCopy, AbstractGameState nextState) {
         // then instantiate a new node
         int nextPlayer = params.opponentTreePolicy.selfOnlyTree ? decisionPlayer : nextState.getCurrentPlayer();
-        SingleTreeNode tn = SingleTreeNode.createChildNode(this, actionCopy, nextState, factory);
-        SingleTreeNode[] nodeArray = new SingleTreeNode[nextState.getNPlayers()];
-        nodeArray[nextPlayer] = tn; // we store this by id of the player who will take their turn next
-        children.put(actionCopy, nodeArray);
+        return addChild(actionCopy, nextState, nextPlayer);
+    }
+
+    /**
+     * Adds a new child reached by the action, stored by the id of the player who will take their turn next.
+     * If the tree has reached MCTSParams.maxTreeNodes, room is made for it first (see makeRoomFor()).
+     */
+    private SingleTreeNode addChild(AbstractAction action, AbstractGameState nextState, int nextPlayer) {
+        SingleTreeNode tn = null;
+        Object key = null;
+        if (root.transpositions != null) {
+            key = positionKey(nextState, depth + 1);
+            tn = root.transpositions.get(key);
+        }
+        if (tn != null) {
+            // we have reached this position before by another route, so this becomes one more parent of its node
+            root.transpositionHits++;
+        } else {
+            root.makeRoomFor(this);
+            tn = SingleTreeNode.createChildNode(this, action, nextState, factory);
+            if (key != null)
+                root.transpositions.put(key, tn);
+        }
+        int slot = slotIndex.get(action);
+        SingleTreeNode[] nodeArray = childSlots[slot];
+        if (nodeArray == null) {
+            nodeArray = new SingleTreeNode[nextState.getNPlayers()];
+            children.put(action, nodeArray);
+            childSlots[slot] = nodeArray;
+        } else if (nodeArray[nextPlayer] != null) {
+            // the node we replace is dropped from the tree, along with everything below it
+            List<SingleTreeNode> dropped = nodeArray[nextPlayer].allNodesInTree();
+            root.nodesInTree -= dropped.size();
+            for (SingleTreeNode n : dropped)
+                n.generation++;
+        }
+        nodeArray[nextPlayer] = tn;
         return tn;
     }
 
+    /**
+     * Called on the root before a node is added to the tree. Once the tree has reached MCTSParams.maxTreeNodes, the
+     * least visited leaves are evicted until it is down to 90% of this, so that we do not need to look for nodes to
+     * evict again on the next few expansions. The evicted nodes go into a pool, and are reused for new nodes.
+     * <p>
+     * An evicted child is simply unexpanded again at its parent (whose statistics still include the visits made to it),
+     * and once all its children have gone the parent is a leaf that can be evicted in turn. The leaves are kept in a
+     * queue as the tree grows, so we do not need to look through the whole tree each time.
+     * The node being expanded and its parents are never evicted, nor are the nodes that the workers of a tree parallel
+     * search are rolling out from, so the tree can go over the limit by a node if everything else is on these paths.
+     *
+     * @param expanding - the node a child is about to be added to
+     */
+    private void makeRoomFor(SingleTreeNode expanding) {
+        if (params.maxTreeNodes <= 0 || nodesInTree < params.maxTreeNodes)
+            return;
+        Set<SingleTreeNode> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (SingleTreeNode n = expanding; n != null; n = n.parent)
+            kept.add(n);
+        if (nodesInFlight != null) {
+            for (SingleTreeNode inFlight : nodesInFlight)
+                for (SingleTreeNode n = inFlight; n != null; n = n.parent)
+                    kept.add(n);
+        }
+        List<EvictionCandidate> setAside = new ArrayList<>();
+        int target = params.maxTreeNodes - Math.max(1, params.maxTreeNodes / 10);
+        while (nodesInTree > target && !leaves.isEmpty()) {
+            EvictionCandidate candidate = leaves.poll();
+            SingleTreeNode node = candidate.node;
+            if (candidate.generation != node.generation || !node.isLeaf())
+                continue;  // no longer in the tree, or no longer a leaf (it is queued again if it becomes one)
+            if (candidate.visits != node.nVisits) {
+                leaves.add(new EvictionCandidate(node));  // it has been visited since it was queued
+                continue;
+            }
+            if (kept.contains(node)) {
+                setAside.add(candidate);
+                continue;
+            }
+            SingleTreeNode parent = node.parent;
+            parent.removeChild(node);
+            node.recycle();
+            nodePool.push(node);
+            nodesInTree--;
+            nodesEvicted++;
+            if (parent != this && parent.isLeaf())
+                leaves.add(new EvictionCandidate(parent));
+        }
+        leaves.addAll(setAside);
+    }
+
+    private boolean isLeaf() {
+        for (SingleTreeNode[] nodeArray : children.values()) {
+            if (nodeArray != null)
+                for (SingleTreeNode child : nodeArray)
+                    if (child != null)
+                        return false;
+        }
+        return true;
+    }
+
+    /**
+     * A leaf in the queue of nodes to evict (see makeRoomFor()), least visited first, and the deepest first of those
+     * with the same visits. The queue is not updated as nodes are visited, or when they are recycled or gain children:
+     * instead each candidate records the visits and generation of its node when queued, and these are checked when it
+     * comes to the head of the queue.
+     */
+    private static final class EvictionCandidate implements Comparable<EvictionCandidate> {
+        final SingleTreeNode node;
+        final int visits, depth, generation;
+
+        EvictionCandidate(SingleTreeNode node) {
+            this.node = node;
+            this.visits = node.nVisits;
+            this.depth = node.depth;
+            this.generation = node.generation;
+        }
+
+        @Override
+        public int compareTo(EvictionCandidate other) {
+            if (visits != other.visits)
+                return Integer.compare(visits, other.visits);
+            return Integer.compare(other.depth, depth);
+        }
+    }
+
+    private void removeChild(SingleTreeNode child) {
+        int slot = slotIndex.get(child.actionToReach);
+        SingleTreeNode[] nodeArray = childSlots[slot];
+        boolean empty = true;
+        for (int i = 0; i < nodeArray.length; i++) {
+            if (nodeArray[i] == child)
+                nodeArray[i] = null;
+            else if (nodeArray[i] != null)
+                empty = false;
+        }
+        if (empty) {
+            childSlots[slot] = null;
+            children.put(child.actionToReach, null);
+        }
+    }
 
     /**
      * Advance the current game state with the given action, count the FM call and compute the next available actions.
@@ -513,7 +1179,7 @@ public class SingleTreeNode {
         AbstractAction action = null;
         while (gs.getCurrentPlayer() != id && gs.isNotTerminalForPlayer(id) && !(inRollout && finishRollout(gs))) {
             //       AbstractGameState preGS = gs.copy();
-            AbstractPlayer oppModel = params.getOpponentModel();
+            AbstractPlayer oppModel = root.opponentModel();
             List<AbstractAction> availableActions = forwardModel.computeAvailableActions(gs, params.actionSpace);
             if (availableActions.isEmpty())
                 throw new AssertionError("Should always have at least one action possible..." + (action != null? " Last action: " + action : ""));
@@ -585,11 +1251,9 @@ public class SingleTreeNode {
                 // need to create a new node - this is because we have a different player acting than expected
                 if (params.opponentTreePolicy.selfOnlyTree)
                     throw new AssertionError("Not sure this should be possible though");
-                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState, factory);
-                nextNode = nodeArray[nextPlayer];
+                nextNode = addChild(actionChosen.copy(), openLoopState, nextPlayer);
             } else if (params.opponentTreePolicy.selfOnlyTree && nextNode.decisionPlayer != decisionPlayer) {
-                nodeArray[nextPlayer] = SingleTreeNode.createChildNode(this, actionChosen.copy(), openLoopState, factory);
-                nextNode = nodeArray[nextPlayer];
+                nextNode = addChild(actionChosen.copy(), openLoopState, nextPlayer);
             } else {
                 // pick up the existing one, and set the state
                 nextNode.setActionsFromOpenLoopState(openLoopState);
@@ -607,15 +1271,16 @@ public class SingleTreeNode {
         double nodeValue = totValue[decisionPlayer] / nVisits;
         // nodeValue is the value of the state, V(s), and is used as a baseline when we use an Advantage function later
 
-        for (AbstractAction action : availableActions) {
-            SingleTreeNode[] childArray = children.get(action);
-            if (childArray == null)
+        for (int i = 0; i < availableActions.size(); i++) {
+            AbstractAction action = availableActions.get(i);
+            int slot = slotOf(availableActions, i);
+            if (childSlots[slot] == null)
                 throw new AssertionError("Should not be here with a null child array");
 
             // Find child value
-            double hvVal = actionTotValue(action, decisionPlayer);
+            double hvVal = totValueInSlot(slot, decisionPlayer);
 
-            int actionVisits = actionVisits(action);
+            int actionVisits = visitsInSlot(slot);
             double childValue = hvVal / (actionVisits + params.noiseEpsilon);
 
             // consider OMA term
@@ -651,7 +1316,7 @@ public class SingleTreeNode {
             }
 
             // default to standard UCB
-            int effectiveTotalVisits = validVisitsFor(action) + 1;
+            int effectiveTotalVisits = validVisitsFor(slot) + 1;
             double explorationTerm = params.K * Math.sqrt(Math.log(effectiveTotalVisits) / (actionVisits + params.noiseEpsilon));
             // unless we are using a variant
             switch (params.treePolicy) {
@@ -661,13 +1326,13 @@ public class SingleTreeNode {
                 case UCB_Tuned:
                     double range = root.highReward - root.lowReward;
                     if (range < 1e-6) range = 1e-6;
-                    double meanSq = actionSquaredValue(action, decisionPlayer) / (actionVisits + params.noiseEpsilon);
+                    double meanSq = squaredValueInSlot(slot, decisionPlayer) / (actionVisits + params.noiseEpsilon);
                     double standardVar = 0.25;
                     if (params.normaliseRewards) {
                         // we also need to standardise the sum of squares to calculate the variance
                         meanSq = (meanSq
                                 + root.lowReward * root.lowReward
-                                - 2 * root.lowReward * actionTotValue(action, decisionPlayer) / (actionVisits + params.noiseEpsilon)
+                                - 2 * root.lowReward * hvVal / (actionVisits + params.noiseEpsilon)
                         ) / (range * range);
                     } else {
                         // we need to modify the standard variance as it is not on a 0..1 basis (which is where 0.25 comes from)
@@ -804,7 +1469,7 @@ public class SingleTreeNode {
                 if (availableActions.isEmpty()) {
                     throw new AssertionError("No actions available in rollout!" + (next != null? " Last action: " + next : ""));
                 }
-                AbstractPlayer agent = rolloutState.getCurrentPlayer() == root.decisionPlayer ? params.getRolloutStrategy() : params.getOpponentModel();
+                AbstractPlayer agent = rolloutState.getCurrentPlayer() == root.decisionPlayer ? root.rolloutPolicy() : root.opponentModel();
                 next = agent.getAction(rolloutState, availableActions);
                 lastActorInRollout = rolloutState.getCurrentPlayer();
                 root.actionsInRollout.add(new Pair<>(lastActorInRollout, next));
@@ -813,9 +1478,9 @@ public class SingleTreeNode {
         }
         // Evaluate final state and return normalised score
         double[] retValue = new double[rolloutState.getNPlayers()];
-
+        params.heuristic.evaluateAllPlayers(rolloutState, retValue);
         for (int i = 0; i < retValue.length; i++) {
-            retValue[i] = params.heuristic.evaluateState(rolloutState, i) - startingValues[i];
+            retValue[i] -= startingValues[i];
             if (Double.isNaN(retValue[i]))
                 throw new AssertionError("Illegal heuristic value - should be a number");
         }
@@ -854,6 +1519,11 @@ public class SingleTreeNode {
      */
     protected void backUp(double[] result) {
         SingleTreeNode n = this;
+        // with a transposition table a node may have several parents, so we go back up the route just taken instead
+        List<SingleTreeNode> route = root.route;
+        int step = route == null ? -1 : route.size() - 1;
+        if (route != null && route.get(step) != this)
+            throw new AssertionError("Back-propagation must start from the last node on the route");
         double[] squaredResults = new double[result.length];
         for (int i = 0; i < result.length; i++)
             squaredResults[i] = result[i] * result[i];
@@ -875,12 +1545,8 @@ public class SingleTreeNode {
             // Here we look at actionsFromOpenLoopState to see which ones were valid
             // when we passed through, and keep track of valid visits
             if (params.information != Closed_Loop)
-                for (AbstractAction action : n.actionsFromOpenLoopState) {
-                    if (!n.nValidVisits.containsKey(action))
-                        n.nValidVisits.put(action, 1);
-                    else
-                        n.nValidVisits.put(action, n.nValidVisits.get(action) + 1);
-                }
+                for (int slot : n.slotsFromOpenLoopState)
+                    n.validVisits[slot]++;
             switch (params.opponentTreePolicy) {
                 case SelfOnly:
                     for (int j = 0; j < result.length; j++) {
@@ -911,7 +1577,10 @@ public class SingleTreeNode {
                     }
                     break;
             }
-            n = n.parent;
+            if (route == null)
+                n = n.parent;
+            else
+                n = --step >= 0 ? route.get(step) : null;
         }
     }
 
@@ -983,6 +1652,34 @@ public class SingleTreeNode {
         return bestAction;
     }
 
+    /**
+     * Root parallelisation searches several independent trees from the same state. We combine them by adding up the
+     * visits to each action across all the roots, and pick the action with the most (using the total value to
+     * break ties).
+     *
+     * @param roots - the roots of the independent trees
+     * @return - the best AbstractAction
+     */
+    static AbstractAction bestAction(List<SingleTreeNode> roots) {
+        Map<AbstractAction, Integer> visits = new LinkedHashMap<>();
+        Map<AbstractAction, Double> values = new HashMap<>();
+        for (SingleTreeNode root : roots) {
+            for (AbstractAction action : root.children.keySet()) {
+                visits.merge(action, root.actionVisits(action), Integer::sum);
+                values.merge(action, root.actionTotValue(action, root.decisionPlayer), Double::sum);
+            }
+        }
+        AbstractAction bestAction = null;
+        for (AbstractAction action : visits.keySet()) {
+            if (bestAction == null || visits.get(action) > visits.get(bestAction)
+                    || (visits.get(action).equals(visits.get(bestAction)) && values.get(action) > values.get(bestAction)))
+                bestAction = action;
+        }
+        if (bestAction == null || visits.get(bestAction) == 0)
+            return roots.get(0).bestAction();
+        return bestAction;
+    }
+
     public int getVisits() {
         return nVisits;
     }
@@ -1050,15 +1747,18 @@ public class SingleTreeNode {
     public List<SingleTreeNode> allNodesInTree() {
         List<SingleTreeNode> retValue = new ArrayList<>();
         Queue<SingleTreeNode> nodeQueue = new ArrayDeque<>();
+        // with a transposition table a node can have several parents, but is only included once
+        Set<SingleTreeNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
         nodeQueue.add(this);
+        seen.add(this);
         while (!nodeQueue.isEmpty()) {
             SingleTreeNode node = nodeQueue.poll();
             retValue.add(node);
-            nodeQueue.addAll(node.getChildren().values().stream()
+            node.getChildren().values().stream()
                     .filter(Objects::nonNull)
                     .flatMap(Arrays::stream)
-                    .filter(Objects::nonNull)
-                    .collect(toList()));
+                    .filter(n -> n != null && seen.add(n))
+                    .forEach(nodeQueue::add);
         }
         return retValue;
     }
@@ -1086,7 +1786,7 @@ public class SingleTreeNode {
         for (AbstractAction action : sortedActions) {
             String actionName = action.toString();
             int actionVisits = actionVisits(action);
-            int effectiveVisits = validVisitsFor(action);
+            int effectiveVisits = validVisitsFor(slotIndex.get(action));
             if (actionName.length() > 50)
                 actionName = actionName.substring(0, 50);
             valueString = String.format("%.2f", actionTotValue(action, decisionPlayer) / actionVisits);
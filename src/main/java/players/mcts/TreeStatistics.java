@@ -32,6 +32,8 @@ public class TreeStatistics {
             nodeQueue.add(root);
         }
 
+        // with a transposition table a node can have several parents, but is only counted once
+        Set<SingleTreeNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
         int greatestDepth = 0;
         int maxActions = 0;
         int totalActions = 0;
@@ -52,7 +54,7 @@ public class TreeStatistics {
                         .flatMap(Arrays::stream)
                         .filter(Objects::nonNull)
                         .collect(toList())) {
-                    if (child != null)
+                    if (child != null && seen.add(child))
                         nodeQueue.add(child);
                 }
                 if (node.children.values().stream().allMatch(Objects::isNull))
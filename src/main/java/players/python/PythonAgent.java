@@ -15,6 +15,6 @@ public class PythonAgent extends AbstractPlayer {
 
     @Override
     public AbstractPlayer copy() {
-        return null;
+        return new PythonAgent();  // no state to copy
     }
 }
@@ -127,8 +127,13 @@ public class RHEAPlayer extends AbstractPlayer {
 
     @Override
     public RHEAPlayer copy() {
+        return copyWithSeed(randomGenerator.nextInt());
+    }
+
+    @Override
+    public RHEAPlayer copyWithSeed(long seed) {
         RHEAParams newParams = (RHEAParams) parameters.copy();
-        newParams.setRandomSeed(randomGenerator.nextInt());
+        newParams.setRandomSeed(seed);
         return new RHEAPlayer(newParams);
     }
 
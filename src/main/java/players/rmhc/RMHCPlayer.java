@@ -78,8 +78,13 @@ public class RMHCPlayer extends AbstractPlayer {
 
     @Override
     public RMHCPlayer copy() {
+        return copyWithSeed(randomGenerator.nextInt());
+    }
+
+    @Override
+    public RMHCPlayer copyWithSeed(long seed) {
         RMHCParams newParams = (RMHCParams) parameters.copy();
-        newParams.setRandomSeed(randomGenerator.nextInt());
+        newParams.setRandomSeed(seed);
         return new RMHCPlayer(newParams);
     }
 
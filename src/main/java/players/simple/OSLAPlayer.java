@@ -73,7 +73,12 @@ public class OSLAPlayer extends AbstractPlayer {
 
     @Override
     public OSLAPlayer copy() {
-        return new OSLAPlayer(heuristic, new Random(rnd.nextInt()));
+        return copyWithSeed(rnd.nextInt());
+    }
+
+    @Override
+    public OSLAPlayer copyWithSeed(long seed) {
+        return new OSLAPlayer(heuristic, new Random(seed));
     }
 
     private void advanceToEndOfRoundWithRandomActions(AbstractGameState gsCopy, int startingPlayer) {
@@ -36,6 +36,11 @@ public class RandomPlayer extends AbstractPlayer {
 
     @Override
     public RandomPlayer copy() {
-        return new RandomPlayer(new Random(rnd.nextInt()));
+        return copyWithSeed(rnd.nextInt());
+    }
+
+    @Override
+    public RandomPlayer copyWithSeed(long seed) {
+        return new RandomPlayer(new Random(seed));
     }
 }
@@ -3,8 +3,7 @@ package utilities;
 import core.actions.AbstractAction;
 import org.json.simple.JSONObject;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class ActionTreeNode {
 
@@ -14,6 +13,7 @@ public class ActionTreeNode {
     List<ActionTreeNode> children;
     int SubNodes;
     ActionTreeNode parent;
+    private Layout layout;
 
     // Constructors
     public ActionTreeNode() {
@@ -40,10 +40,46 @@ public class ActionTreeNode {
 
     // Methods for Flattening
 
+    /**
+     * The subtree below a node, laid out flat in breadth-first order. The structure of an action tree is fixed once
+     * it has been built, so this is computed the first time it is needed and then reused for every update of the
+     * tree (until a node is added below, which discards it).
+     */
+    private static class Layout {
+        final ActionTreeNode[] nodes;
+        final List<ActionTreeNode> leaves;
+        // the first node (breadth first) with each name
+        final Map<String, ActionTreeNode> byName = new HashMap<>();
+
+        Layout(ActionTreeNode top) {
+            List<ActionTreeNode> queue = new ArrayList<>();
+            List<ActionTreeNode> leafList = new ArrayList<>();
+            queue.add(top);
+            for (int i = 0; i < queue.size(); i++) {
+                ActionTreeNode node = queue.get(i);
+                byName.putIfAbsent(node.name, node);
+                if (node.children.isEmpty())
+                    leafList.add(node);
+                else
+                    queue.addAll(node.children);
+            }
+            nodes = queue.toArray(new ActionTreeNode[0]);
+            leaves = Collections.unmodifiableList(leafList);
+        }
+    }
+
+    private Layout layout() {
+        if (layout == null)
+            layout = new Layout(this);
+        return layout;
+    }
+
     public int[] getActionMask() {
-        List<Integer> vals = this.flattenValues();
-        vals.remove(0);
-        return vals.stream().mapToInt(i -> i).toArray();
+        ActionTreeNode[] nodes = layout().nodes;
+        int[] mask = new int[nodes.length - 1];
+        for (int i = 1; i < nodes.length; i++)
+            mask[i - 1] = nodes[i].value;
+        return mask;
     }
 
     public List<String> getActionMaskNames() {
@@ -54,66 +90,45 @@ public class ActionTreeNode {
 
     // Searches the tree breadth first for all leaf nodes and returns them
     public List<ActionTreeNode> getLeafNodes(){
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        List<ActionTreeNode> leafNodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
-            if(node.children.size() == 0){
-                leafNodes.add(node);
-            } else {
-                nodes.addAll(node.children);
-            }
-        }
-        return leafNodes;
+        return new ArrayList<>(layout().leaves);
+    }
+
+    /**
+     * @return the leaf nodes of the tree in breadth-first order (the same as getLeafNodes()), as an unmodifiable list
+     * that is only computed once
+     */
+    public List<ActionTreeNode> getLeaves() {
+        return layout().leaves;
     }
 
     public List<ActionTreeNode> flattenTree(){
         List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        List<ActionTreeNode> nodes1 = new ArrayList<ActionTreeNode>();
         nodes.add(this);
-        nodes1.add(this);
-        while (nodes1.size() > 0) {
-            ActionTreeNode node = nodes1.remove(0);
-            nodes.add(node);
-            nodes1.addAll(node.children);
-        }
+        nodes.addAll(Arrays.asList(layout().nodes));
         return nodes;
     }
 
     public List<String> flattenNames(){
-        List<String> names = new ArrayList<String>();
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while (nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
+        ActionTreeNode[] nodes = layout().nodes;
+        List<String> names = new ArrayList<String>(nodes.length);
+        for (ActionTreeNode node : nodes)
             names.add(node.name);
-            nodes.addAll(node.children);
-        }
         return names;
     }
 
     public List<Integer> flattenValues(){
-        List<Integer> values = new ArrayList<Integer>();
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
+        ActionTreeNode[] nodes = layout().nodes;
+        List<Integer> values = new ArrayList<Integer>(nodes.length);
+        for (ActionTreeNode node : nodes)
             values.add(node.value);
-            nodes.addAll(node.children);
-        }
         return values;
     }
 
     // Reset all the nodes in the tree, keeps structure only sets value and action to 0/null
     public void resetTree(){
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
+        for (ActionTreeNode node : layout().nodes) {
             node.value = 0;
             node.action = null;
-            nodes.addAll(node.children);
         }
     }
 
@@ -122,19 +137,11 @@ public class ActionTreeNode {
     }
     // sets the value of the node to 1 if it is found
     public ActionTreeNode findChildrenByName(String name, boolean setAvailable){
-        List<ActionTreeNode> nodes = new ArrayList<ActionTreeNode>();
-        nodes.add(this);
-        while(nodes.size() > 0){
-            ActionTreeNode node = nodes.remove(0);
-            nodes.addAll(node.children);
-            if (node.name.equals(name)){
-                if(setAvailable){
-                    node.value = 1;
-                }
-                return node;
-            }
+        ActionTreeNode node = layout().byName.get(name);
+        if (node != null && setAvailable) {
+            node.value = 1;
         }
-        return null;
+        return node;
     }
 
     public String toJsonString() {
@@ -180,6 +187,7 @@ public class ActionTreeNode {
     }
 
     public void updateSubNodes(){
+        layout = null;
         if(parent != null){
             parent.setSubNodes(parent.getSubNodes() + 1);
             parent.updateSubNodes();
@@ -243,8 +251,7 @@ public class ActionTreeNode {
     // For testing purposes
     public List<ActionTreeNode> getValidLeaves() {
         List<ActionTreeNode> validLeaves = new ArrayList<ActionTreeNode>();
-        List<ActionTreeNode> leaves = getLeafNodes();
-        for (ActionTreeNode leaf : leaves) {
+        for (ActionTreeNode leaf : getLeaves()) {
             if (leaf.value == 1) {
                 validLeaves.add(leaf);
             }
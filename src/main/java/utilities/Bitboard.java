@@ -0,0 +1,120 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * A set of cells on a width x height grid, held as one bit per cell in an array of longs. Cell (x, y) is bit
+ * y * width + x. A board that is not a grid (the edges of Dots and Boxes, say) can use a height of 1.
+ * <p>
+ * Games keep one of these per player alongside their GridBoard, so that checking a cell, counting pieces or
+ * looking for a line of pieces needs no String comparisons, and a copy is a clone of a few longs.
+ */
+public class Bitboard {
+
+    private final int width;
+    private final int height;
+    private final long[] words;
+
+    public Bitboard(int width, int height) {
+        this(width, height, new long[(width * height + 63) >>> 6]);
+    }
+
+    private Bitboard(int width, int height, long[] words) {
+        this.width = width;
+        this.height = height;
+        this.words = words;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int size() {
+        return width * height;
+    }
+
+    public boolean get(int index) {
+        return (words[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public void set(int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    public boolean get(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && get(y * width + x);
+    }
+
+    public void set(int x, int y) {
+        set(y * width + x);
+    }
+
+    /**
+     * @return the number of cells set
+     */
+    public int count() {
+        int retValue = 0;
+        for (long word : words)
+            retValue += Long.bitCount(word);
+        return retValue;
+    }
+
+    /**
+     * @return the first cell from index onwards that is not set, or -1 if there is none
+     */
+    public int nextClear(int index) {
+        int size = size();
+        while (index < size) {
+            long free = ~words[index >>> 6] & (-1L << index);
+            if (free != 0) {
+                int retValue = ((index >>> 6) << 6) + Long.numberOfTrailingZeros(free);
+                return retValue < size ? retValue : -1;
+            }
+            index = ((index >>> 6) + 1) << 6;
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the cells set in an unbroken line from (x, y) in direction (dx, dy), not including (x, y) itself.
+     * Used to check for a line of pieces through the last one placed, instead of searching the whole board.
+     */
+    public int run(int x, int y, int dx, int dy) {
+        int retValue = 0;
+        for (int cx = x + dx, cy = y + dy; get(cx, cy); cx += dx, cy += dy)
+            retValue++;
+        return retValue;
+    }
+
+    public Bitboard copy() {
+        return new Bitboard(width, height, words.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Bitboard)) return false;
+        Bitboard that = (Bitboard) o;
+        return width == that.width && height == that.height && Arrays.equals(words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * width + height) + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++)
+                sb.append(get(y * width + x) ? '1' : '.');
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
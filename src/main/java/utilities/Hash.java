@@ -1,34 +1,35 @@
 package utilities;
 
-import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Hash
 {
-    private static Hash hash;
+    // volatile so that the lazily constructed singleton is safely published if games run on several threads
+    private static volatile Hash hash;
 
-    private HashMap<String, Integer> hashmap;
+    private final Map<String, Integer> hashmap;
 
     public static Hash GetInstance()
     {
-        if(hash == null)
-            hash = new Hash();
+        if(hash == null) {
+            synchronized (Hash.class) {
+                if (hash == null)
+                    hash = new Hash();
+            }
+        }
         return hash;
     }
 
     private Hash()
     {
-        hashmap = new HashMap<>();
+        hashmap = new ConcurrentHashMap<>();
     }
 
 
     public int hash(String key)
     {
-        if(hashmap.containsKey(key))
-            return hashmap.get(key);
-
-        int newValue = key.hashCode();
-        hashmap.put(key, newValue);
-        return newValue;
+        return hashmap.computeIfAbsent(key, String::hashCode);
     }
 
 }
@@ -0,0 +1,30 @@
+package utilities;
+
+/**
+ * Zobrist keys for the features of a position, such as a piece of a given kind on a given cell. The key of a position
+ * is the XOR of the keys of all its features, so it can be kept up to date as features are added and removed
+ * (XOR-ing in the key of a feature a second time removes it again).
+ * <p>
+ * Rather than a table of random numbers, which would have to be sized for each game, the key of each feature is a
+ * well mixed function (the SplitMix64 finaliser) of its kind and index. Negative kinds are free for features that are
+ * not pieces, such as the player to move.
+ */
+public final class Zobrist {
+
+    private Zobrist() {
+    }
+
+    public static long key(int kind, int index) {
+        long z = (((long) kind << 32) | (index & 0xFFFFFFFFL)) + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return the key to XOR in for the player to move
+     */
+    public static long playerToMove(int player) {
+        return key(-1, player);
+    }
+}
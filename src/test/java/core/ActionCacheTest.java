@@ -0,0 +1,77 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.GameType;
+import games.stratego.StrategoParams;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ActionCacheTest {
+
+    AbstractGameState state;
+    AbstractForwardModel fm;
+
+    @Before
+    public void setup() {
+        StrategoParams params = new StrategoParams();
+        params.setRandomSeed(3902);
+        Game game = GameType.Stratego.createGameInstance(2, params);
+        state = game.getGameState();
+        fm = game.getForwardModel();
+    }
+
+    @Test
+    public void offByDefault() {
+        List<AbstractAction> first = fm.computeAvailableActions(state);
+        assertNotSame(first, fm.computeAvailableActions(state));
+        assertEquals(0, fm.getActionCacheHits() + fm.getActionCacheMisses());
+    }
+
+    @Test
+    public void cachedUntilStateChanges() {
+        state.getCoreGameParameters().cacheAvailableActions = true;
+        Random rnd = new Random(33);
+        // the rules compute the actions of the next player at the end of each move, so after the first move we find
+        // them in the cache
+        boolean first = true;
+        while (state.isNotTerminal()) {
+            long version = state.getVersion();
+            long hits = fm.getActionCacheHits();
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            assertSame(actions, fm.computeAvailableActions(state));
+            assertEquals(first ? hits + 1 : hits + 2, fm.getActionCacheHits());
+            assertEquals(version, state.getVersion());
+            first = false;
+
+            AbstractGameState copy = state.copy();
+            copy.getCoreGameParameters().cacheAvailableActions = false;
+            assertEquals(fm.computeAvailableActions(copy), actions);
+            copy.getCoreGameParameters().cacheAvailableActions = true;
+
+            try {
+                actions.remove(0);
+                fail("The cached list should not be modifiable");
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+            assertTrue(state.getVersion() > version);
+        }
+        assertTrue(fm.getActionCacheHits() > fm.getActionCacheMisses());
+    }
+
+    @Test
+    public void directChangesMustBeMarked() {
+        state.getCoreGameParameters().cacheAvailableActions = true;
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        state.markModified();
+        List<AbstractAction> recomputed = fm.computeAvailableActions(state);
+        assertNotSame(actions, recomputed);
+        assertEquals(actions, recomputed);
+    }
+}
@@ -0,0 +1,101 @@
+package core;
+
+import core.GameInstrumentation.Phase;
+import evaluation.listeners.InstrumentationListener;
+import evaluation.summarisers.TAGHistogram;
+import games.GameType;
+import games.loveletter.LoveLetterParameters;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+import utilities.JSONUtils;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GameInstrumentationTest {
+
+    @Test
+    public void histogramPercentilesAreWithinBucketWidth() {
+        TAGHistogram histogram = new TAGHistogram();
+        Random rnd = new Random(93);
+        long[] values = new long[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(rnd.nextDouble() * 25);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, histogram.n());
+        assertEquals(values[0], histogram.min());
+        assertEquals(values[values.length - 1], histogram.max());
+        assertEquals(Arrays.stream(values).average().getAsDouble(), histogram.mean(), 1e-6 * histogram.mean());
+        for (double percentile : new double[]{1, 10, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(percentile / 100.0 * values.length) - 1];
+            long estimate = histogram.percentile(percentile);
+            assertTrue(estimate >= exact);
+            assertTrue(estimate - exact <= Math.max(0, exact / 64));
+        }
+    }
+
+    @Test
+    public void histogramSmallValuesAreExact() {
+        TAGHistogram histogram = new TAGHistogram();
+        for (int i = 0; i < 100; i++)
+            histogram.record(i % 5);
+        assertEquals(40, histogram.countAtOrBelow(1));
+        assertEquals(2, histogram.percentile(50));
+        histogram.record(-3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.min());
+        assertEquals(TAGHistogram.MAX_VALUE, histogram.max());
+
+        TAGHistogram other = new TAGHistogram();
+        other.add(histogram);
+        assertEquals(histogram.toString(), other.toString());
+        histogram.reset();
+        assertEquals(0, histogram.n());
+        assertEquals(0, histogram.percentile(50));
+    }
+
+    @Test
+    public void everyActionIsRecorded() throws Exception {
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)),
+                new RandomPlayer(new Random(3)));
+        LoveLetterParameters params = new LoveLetterParameters();
+        params.setRandomSeed(4932);
+        Game game = GameType.LoveLetter.createGameInstance(players.size(), params);
+        game.reset(players);
+        InstrumentationListener listener = new InstrumentationListener();
+        File folder = Files.createTempDirectory("instrumentation").toFile();
+        listener.setOutputDirectory(folder.getPath());
+        game.addListener(listener);
+        game.run();
+
+        GameInstrumentation instrumentation = game.getInstrumentation();
+        assertEquals(game.getTick(), instrumentation.getLatencies(Phase.COPY).n());
+        assertEquals(game.getTick(), instrumentation.getLatencies(Phase.COMPUTE_ACTIONS).n());
+        assertEquals(game.getTick(), instrumentation.getActionSpaceSizes().n());
+        assertEquals(game.getNDecisions(), instrumentation.getLatencies(Phase.AGENT).n());
+        assertEquals(game.getTick(), instrumentation.getLatencies(Phase.NEXT).n());
+        long ticks = 0;
+        for (int p = 0; p < players.size(); p++)
+            ticks += instrumentation.getLatencies(Phase.NEXT, p).n();
+        assertEquals(game.getTick(), ticks);
+        assertTrue(instrumentation.getAllocatedBytes(Phase.COPY) > 0);
+
+        listener.report();
+        File output = new File(folder, "Instrumentation.json");
+        JSONObject json = JSONUtils.loadJSONFile(output.getPath());
+        JSONArray games = (JSONArray) json.get("Games");
+        assertEquals(1, games.size());
+        JSONObject total = (JSONObject) ((JSONObject) games.get(0)).get("Total");
+        assertEquals((long) game.getTick(), ((JSONObject) total.get("NEXT")).get("n"));
+        assertEquals(1, ((JSONObject) json.get("Agents")).size());
+        output.delete();
+        folder.delete();
+    }
+}
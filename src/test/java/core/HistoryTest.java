@@ -0,0 +1,152 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistoryTest {
+
+    AbstractGameState state;
+    AbstractForwardModel fm;
+    Random rnd = new Random(71);
+
+    // Dominion rather than a card game that sets up its deck from a HashMap keyed on an enum (as Love Letter does),
+    // as the order of that depends on what else has run in the JVM, and so then would the length of the game
+    @Before
+    public void setup() {
+        Game game = GameType.Dominion.createGameInstance(3, 1234);
+        state = game.getGameState();
+        fm = game.getForwardModel();
+    }
+
+    private AbstractAction randomAction(AbstractGameState gs) {
+        List<AbstractAction> actions = fm.computeAvailableActions(gs);
+        return actions.get(rnd.nextInt(actions.size()));
+    }
+
+    @Test
+    public void historyListsTheActionsTaken() {
+        List<AbstractAction> expected = new ArrayList<>();
+        while (state.isNotTerminal()) {
+            AbstractAction action = randomAction(state);
+            expected.add(action);
+            fm.next(state, action);
+
+            List<AbstractAction> history = state.getHistory();
+            assertEquals(expected.size(), history.size());
+            assertSame(action, history.get(history.size() - 1));
+        }
+        List<AbstractAction> history = state.getHistory();
+        assertTrue(history.size() > 40);  // so that some look-ups go further back than the end of the history
+        for (int i = expected.size() - 1; i >= 0; i--)
+            assertSame(expected.get(i), history.get(i));
+        assertEquals(expected, state.getHistory());
+        assertEquals(expected.subList(5, 12), state.getHistory().subList(5, 12));
+        try {
+            history.add(expected.get(0));
+            fail("The history should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void agentCopiesRecordHistoryByDefault() {
+        fm.next(state, randomAction(state));
+        AbstractGameState observation = state.copy(state.getCurrentPlayer());
+        assertTrue(observation.isRecordingHistory());
+        AbstractAction action = randomAction(observation);
+        fm.next(observation, action);
+
+        assertEquals(2, observation.getHistory().size());
+        assertSame(action, observation.getHistory().get(1));
+        // the original is not changed by anything done to the copy
+        assertEquals(1, state.getHistory().size());
+    }
+
+    @Test
+    public void agentCopiesCanSkipRecordingHistory() {
+        state.getCoreGameParameters().agentsRecordHistory = false;
+        fm.next(state, randomAction(state));
+        AbstractGameState observation = state.copy(state.getCurrentPlayer());
+        assertFalse(observation.isRecordingHistory());
+        fm.next(observation, randomAction(observation));
+        // the copy still has the history from before it was made, but nothing since
+        assertEquals(1, observation.getHistory().size());
+
+        // a full copy of the state still records history
+        AbstractGameState fullCopy = state.copy();
+        assertTrue(fullCopy.isRecordingHistory());
+        fm.next(fullCopy, randomAction(fullCopy));
+        assertEquals(2, fullCopy.getHistory().size());
+    }
+
+    /**
+     * An action that counts the calls to getString(), which formats its text for the history.
+     */
+    private static class TextCountingAction extends AbstractAction {
+        int getStringCalls;
+
+        @Override
+        public boolean execute(AbstractGameState gs) {
+            return true;
+        }
+
+        @Override
+        public AbstractAction copy() {
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+
+        @Override
+        public String getString(AbstractGameState gameState) {
+            getStringCalls++;
+            return "formatted";
+        }
+
+        @Override
+        public String toString() {
+            return "unformatted";
+        }
+    }
+
+    @Test
+    public void agentCopiesDoNotFormatTheTextOfActions() {
+        TextCountingAction action = new TextCountingAction();
+        AbstractGameState observation = state.copy(0);
+        observation.recordAction(action, 0);
+        // as the copies an agent makes in a search
+        AbstractGameState searchCopy = observation.copy();
+        searchCopy.recordAction(action, 1);
+        searchCopy.recordHistory("an event");
+        assertFalse(searchCopy.isRecordingEventHistory());
+        assertEquals(0, action.getStringCalls);
+        assertEquals(2, searchCopy.getHistory().size());
+        assertSame(action, searchCopy.getHistory().get(1));
+        assertEquals(Arrays.asList("Player 0 : unformatted", "Player 1 : unformatted"), searchCopy.getHistoryAsText());
+
+        // the game's own state (and full copies of it) still record the text when the action is taken
+        assertTrue(state.isRecordingEventHistory());
+        state.copy().recordAction(action, 0);
+        state.recordAction(action, 0);
+        assertEquals(2, action.getStringCalls);
+        assertEquals("Player 0 : formatted", state.getHistoryAsText().get(state.getHistoryAsText().size() - 1));
+    }
+}
@@ -1,6 +1,7 @@
 package core;
 
 import games.puertorico.PuertoRicoParameters;
+import games.tictactoe.TicTacToeGameParameters;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
@@ -16,4 +17,83 @@ public class ParameterCopy {
         assertNotEquals(params.getRandomSeed(), paramsCopy.getRandomSeed());
         assertEquals(params.hashCode(), paramsCopy.hashCode());
     }
+
+    @Test
+    public void shareableCopiesAreFrozenAndSharedUntilTheOriginalChanges() {
+        TicTacToeGameParameters params = new TicTacToeGameParameters();
+        params.setRandomSeed(1234);
+        AbstractParameters shared = params.shareableCopy();
+        assertTrue(shared.isFrozen());
+        assertFalse(params.isFrozen());
+        assertEquals(1234, shared.getRandomSeed());
+        assertSame(shared, params.shareableCopy());
+        assertSame(shared, shared.shareableCopy());
+
+        params.setParameterValue("gridSize", 4);
+        AbstractParameters changed = params.shareableCopy();
+        assertNotSame(shared, changed);
+        assertEquals(3, ((TicTacToeGameParameters) shared).gridSize);
+        assertEquals(4, ((TicTacToeGameParameters) changed).gridSize);
+    }
+
+    @Test
+    public void shareableCopiesFollowFieldsWrittenDirectly() {
+        FieldParams params = new FieldParams();
+        AbstractParameters shared = params.shareableCopy();
+        assertSame(shared, params.shareableCopy());
+
+        params.size = 7;
+        AbstractParameters changed = params.shareableCopy();
+        assertNotSame(shared, changed);
+        assertTrue(changed.isFrozen());
+        assertEquals(7, ((FieldParams) changed).size);
+        assertEquals(5, ((FieldParams) shared).size);
+        assertSame(changed, params.shareableCopy());
+    }
+
+    @Test
+    public void staleShareableCopiesAreNotHandedOutForTunableParameters() {
+        TicTacToeGameParameters params = new TicTacToeGameParameters();
+        AbstractParameters shared = params.shareableCopy();
+
+        // copy() takes the tunable values, and so cannot carry this over; we must not be given the old copy though
+        params.gridSize = 4;
+        AbstractParameters next = params.shareableCopy();
+        assertNotSame(shared, next);
+        assertFalse(next.isFrozen());
+        assertEquals(3, ((TicTacToeGameParameters) shared).gridSize);
+
+        params.gridSize = 3;
+        assertTrue(params.shareableCopy().isFrozen());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void frozenParametersCannotBeChanged() {
+        TicTacToeGameParameters params = new TicTacToeGameParameters();
+        ((TicTacToeGameParameters) params.shareableCopy()).setParameterValue("gridSize", 4);
+    }
+
+    @Test
+    public void copiesOfFrozenParametersCanBeChanged() {
+        AbstractParameters copy = new TicTacToeGameParameters().shareableCopy().copy();
+        assertFalse(copy.isFrozen());
+        copy.setRandomSeed(99);
+        assertEquals(99, copy.getRandomSeed());
+    }
+
+    static class FieldParams extends AbstractParameters {
+        public int size = 5;
+
+        @Override
+        protected AbstractParameters _copy() {
+            FieldParams retValue = new FieldParams();
+            retValue.size = size;
+            return retValue;
+        }
+
+        @Override
+        protected boolean _equals(Object o) {
+            return o instanceof FieldParams && ((FieldParams) o).size == size;
+        }
+    }
 }
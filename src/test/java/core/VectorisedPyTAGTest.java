@@ -0,0 +1,115 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VectorisedPyTAGTest {
+
+    private static final int N_ENVS = 5;
+
+    private VectorisedPyTAG createEnvs(int nThreads) throws Exception {
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(new PythonAgent());
+        players.add(new RandomPlayer(new Random(48)));
+        return new VectorisedPyTAG(GameType.TicTacToe, null, players, 343, N_ENVS, true, nThreads);
+    }
+
+    private int[] randomValidActions(VectorisedPyTAG envs, Random rnd) {
+        int[] actions = new int[envs.getNumEnvs()];
+        int[] masks = envs.getActionMasks();
+        int size = envs.getActionSpace();
+        for (int i = 0; i < actions.length; i++) {
+            List<Integer> valid = new ArrayList<>();
+            for (int a = 0; a < size; a++)
+                if (masks[i * size + a] == 1)
+                    valid.add(a);
+            assertFalse("Game " + i + " has no valid actions", valid.isEmpty());
+            actions[i] = valid.get(rnd.nextInt(valid.size()));
+        }
+        return actions;
+    }
+
+    // checks the arrays for game i against the state of that game
+    private void checkObservation(VectorisedPyTAG envs, int i) throws Exception {
+        PyTAG env = envs.getEnv(i);
+        int obsSize = envs.getObservationSpace();
+        assertArrayEquals(env.getObservationVector(),
+                Arrays.copyOfRange(envs.getObservations(), i * obsSize, (i + 1) * obsSize), 1e-9);
+        int actionSize = envs.getActionSpace();
+        assertArrayEquals(env.getActionMask(),
+                Arrays.copyOfRange(envs.getActionMasks(), i * actionSize, (i + 1) * actionSize));
+        assertEquals(env.getPlayerID(), envs.getPlayerIDs()[i]);
+    }
+
+    @Test
+    public void resetAndStepFillTheArraysForEveryGame() throws Exception {
+        try (VectorisedPyTAG envs = createEnvs(1)) {
+            for (int i = 0; i < N_ENVS; i++)
+                checkObservation(envs, i);
+
+            Random rnd = new Random(12);
+            envs.step(randomValidActions(envs, rnd));
+            for (int i = 0; i < N_ENVS; i++) {
+                checkObservation(envs, i);
+                assertFalse(envs.getDones()[i]);
+            }
+
+            envs.reset();
+            for (int i = 0; i < N_ENVS; i++) {
+                checkObservation(envs, i);
+                assertFalse(envs.getDones()[i]);
+                assertEquals(0.0, envs.getRewards()[i], 0.0);
+                assertFalse(envs.getEnv(i).isDone());
+            }
+        }
+    }
+
+    @Test
+    public void finishedGamesAreResetStraightAway() throws Exception {
+        try (VectorisedPyTAG envs = createEnvs(1)) {
+            Random rnd = new Random(5);
+            int finished = 0;
+            // a game of TicTacToe has at most 5 decisions for the agent
+            for (int step = 0; step < 30; step++) {
+                envs.step(randomValidActions(envs, rnd));
+                for (int i = 0; i < N_ENVS; i++) {
+                    if (envs.getDones()[i]) {
+                        finished++;
+                        // the done flag (and reward) are for the game just finished, but the observation is for a new one
+                        assertFalse(envs.getEnv(i).isDone());
+                        assertTrue(envs.getEnv(i).getTick() < 2);
+                    }
+                    checkObservation(envs, i);
+                }
+            }
+            assertTrue(finished >= N_ENVS);
+        }
+    }
+
+    @Test
+    public void resultsAreTheSameWithMoreThreads() throws Exception {
+        try (VectorisedPyTAG single = createEnvs(1); VectorisedPyTAG threaded = createEnvs(3)) {
+            Random rnd = new Random(77);
+            for (int step = 0; step < 20; step++) {
+                int[] actions = randomValidActions(single, rnd);
+                single.step(actions);
+                threaded.step(actions);
+                assertArrayEquals(single.getObservations(), threaded.getObservations(), 0.0);
+                assertArrayEquals(single.getActionMasks(), threaded.getActionMasks());
+                assertArrayEquals(single.getRewards(), threaded.getRewards(), 0.0);
+                assertArrayEquals(single.getPlayerIDs(), threaded.getPlayerIDs());
+                for (int i = 0; i < N_ENVS; i++)
+                    assertEquals(single.getDones()[i], threaded.getDones()[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package core.components;
+
+import core.CoreConstants.VisibilityMode;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copies of decks and boards may share their contents until one of them is changed. These check that changing
+ * a copy never changes the original (or the other way round), and that copying leaves the original as it was.
+ */
+public class CopyIsolationTest {
+
+    // An immutable card, which returns itself from copy(), so that decks of these can share their lists
+    static class FixedCard extends Card {
+        FixedCard(String name) {
+            super(name);
+        }
+
+        @Override
+        public FixedCard copy() {
+            return this;
+        }
+    }
+
+    private final List<FixedCard> cards = new ArrayList<>();
+
+    public CopyIsolationTest() {
+        for (int i = 0; i < 10; i++)
+            cards.add(new FixedCard("card" + i));
+    }
+
+    private Deck<FixedCard> deck() {
+        Deck<FixedCard> deck = new Deck<>("deck", VisibilityMode.VISIBLE_TO_ALL);
+        for (int i = 0; i < 5; i++)
+            deck.add(cards.get(i));
+        return deck;
+    }
+
+    private void changeDeck(Deck<FixedCard> deck, int n) {
+        deck.draw();
+        deck.add(cards.get(5 + n));
+        deck.shuffle(new Random(n));
+        deck.setComponent(0, cards.get(9));
+    }
+
+    @Test
+    public void changingADeckCopyLeavesTheOriginal() {
+        Deck<FixedCard> original = deck();
+        List<FixedCard> before = new ArrayList<>(original.getComponents());
+        Deck<FixedCard> copy = original.copy();
+        Deck<FixedCard> copyOfCopy = copy.copy();
+        assertEquals(before, copy.getComponents());
+
+        changeDeck(copy, 0);
+        assertEquals(before, original.getComponents());
+        assertEquals(before, copyOfCopy.getComponents());
+        copy.clear();
+        assertEquals(before, original.getComponents());
+        assertEquals(before, copyOfCopy.getComponents());
+    }
+
+    @Test
+    public void changingADeckLeavesItsCopies() {
+        Deck<FixedCard> original = deck();
+        List<FixedCard> before = new ArrayList<>(original.getComponents());
+        Deck<FixedCard> copy = original.copy();
+        Deck<FixedCard> copyOfCopy = copy.copy();
+
+        changeDeck(original, 1);
+        assertEquals(before, copy.getComponents());
+        assertEquals(before, copyOfCopy.getComponents());
+        changeDeck(copy, 2);
+        assertEquals(before, copyOfCopy.getComponents());
+        original.clear();
+        assertEquals(before, copyOfCopy.getComponents());
+    }
+
+    @Test
+    public void changingAPartialObservableDeckCopyLeavesTheOriginal() {
+        PartialObservableDeck<FixedCard> original = new PartialObservableDeck<>("deck", -1, 2);
+        for (int i = 0; i < 5; i++)
+            original.add(cards.get(i), new boolean[]{i % 2 == 0, true});
+        List<FixedCard> before = new ArrayList<>(original.getComponents());
+        PartialObservableDeck<FixedCard> copy = original.copy();
+
+        copy.setVisibilityOfComponent(0, 0, false);
+        copy.setVisibilityOfComponent(1, 0, true);
+        copy.add(cards.get(5), new boolean[]{false, false});
+        assertEquals(before, original.getComponents());
+        assertTrue(original.getVisibilityForPlayer(0, 0));
+        assertFalse(original.getVisibilityForPlayer(1, 0));
+
+        // and the other way round
+        PartialObservableDeck<FixedCard> secondCopy = original.copy();
+        original.setVisibilityOfComponent(2, 1, false);
+        original.remove(3);
+        assertTrue(secondCopy.getVisibilityForPlayer(2, 1));
+        assertEquals(before, secondCopy.getComponents());
+        // the copy had a card added on top, so its indices are one more than those of the original
+        assertFalse(copy.getVisibilityForPlayer(1, 0));
+        assertTrue(copy.getVisibilityForPlayer(2, 0));
+        assertTrue(copy.getVisibilityForPlayer(3, 1));
+    }
+
+    private GridBoard<FixedCard> board() {
+        GridBoard<FixedCard> board = new GridBoard<>(4, 3);
+        for (int y = 0; y < 3; y++)
+            for (int x = 0; x < 4; x++)
+                board.setElement(x, y, cards.get(x + y));
+        return board;
+    }
+
+    private static String contents(GridBoard<?> board) {
+        StringBuilder sb = new StringBuilder();
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++)
+                sb.append(board.getElement(x, y)).append(",");
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void changingAGridBoardCopyLeavesTheOriginal() {
+        GridBoard<FixedCard> original = board();
+        String before = contents(original);
+        GridBoard<FixedCard> copy = original.copy();
+        GridBoard<FixedCard> copyOfCopy = copy.copy();
+        assertEquals(before, contents(copy));
+
+        copy.setElement(1, 1, cards.get(9));
+        copy.getGridValues()[2][3] = cards.get(9);
+        assertEquals(before, contents(original));
+        assertEquals(before, contents(copyOfCopy));
+    }
+
+    @Test
+    public void changingAGridBoardLeavesItsCopies() {
+        GridBoard<FixedCard> original = board();
+        String before = contents(original);
+        GridBoard<FixedCard> copy = original.copy();
+        GridBoard<FixedCard> copyOfCopy = copy.copy();
+
+        original.setElement(0, 0, cards.get(9));
+        original.getGridValues()[2][3] = cards.get(9);
+        assertEquals(before, contents(copy));
+        copy.setElement(2, 2, cards.get(9));
+        assertEquals(before, contents(copyOfCopy));
+    }
+}
@@ -0,0 +1,75 @@
+package core.components;
+
+import core.properties.Property;
+import core.properties.PropertyInt;
+import core.properties.PropertyIntArray;
+import core.properties.PropertyString;
+import org.json.simple.JSONArray;
+import org.junit.Test;
+import utilities.Hash;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PropertyStoreTest {
+
+    private static int key(String name) {
+        return Hash.GetInstance().hash(name);
+    }
+
+    private static int intValue(Component c, String name) {
+        return ((PropertyInt) c.getProperty(key(name))).value;
+    }
+
+    @Test
+    public void propertiesCanBeSetAndReplaced() {
+        Card card = new Card("card");
+        // enough properties that the table has to grow a few times
+        for (int i = 0; i < 40; i++)
+            card.setProperty(new PropertyInt("store test " + i, i));
+        card.setProperty(new PropertyInt("store test 7", 70));
+        assertEquals(40, card.getNumProperties());
+        for (int i = 0; i < 40; i++)
+            assertEquals(i == 7 ? 70 : i, intValue(card, "store test " + i));
+        assertNull(card.getProperty(key("store test unknown")));
+
+        Map<Integer, Property> map = card.getProperties();
+        assertEquals(40, map.size());
+        assertEquals(70, ((PropertyInt) map.get(key("store test 7"))).value);
+    }
+
+    @Test
+    public void changingACopyLeavesTheOriginal() {
+        Card original = new Card("card");
+        original.setProperty(new PropertyInt("store test a", 1));
+        original.setProperty(new PropertyString("store test b", "b"));
+        Card copy = original.copy();
+        Card copyOfCopy = copy.copy();
+
+        copy.setProperty(new PropertyInt("store test a", 2));
+        copy.setProperty(new PropertyInt("store test c", 3));
+        assertEquals(1, intValue(original, "store test a"));
+        assertNull(original.getProperty(key("store test c")));
+        assertEquals(1, intValue(copyOfCopy, "store test a"));
+
+        original.setProperty(new PropertyInt("store test a", 4));
+        assertEquals(2, intValue(copy, "store test a"));
+        assertEquals(1, intValue(copyOfCopy, "store test a"));
+        assertEquals("b", copyOfCopy.getProperty(key("store test b")).toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void mutablePropertiesAreCopied() {
+        JSONArray values = new JSONArray();
+        values.add(1L);
+        values.add(2L);
+        Card original = new Card("card");
+        original.setProperty(new PropertyIntArray("store test array", values));
+        Card copy = original.copy();
+
+        ((PropertyIntArray) copy.getProperty(key("store test array"))).getValues()[0] = 10;
+        assertEquals(1, ((PropertyIntArray) original.getProperty(key("store test array"))).getValues()[0]);
+    }
+}
@@ -0,0 +1,57 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import evaluation.tournaments.RoundRobinTournament;
+import games.GameType;
+import org.junit.Test;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.OSLAPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static evaluation.tournaments.AbstractTournament.TournamentMode.NO_SELF_PLAY;
+import static org.junit.Assert.assertEquals;
+
+public class ParallelTournamentTest {
+
+    private List<AbstractPlayer> agents() {
+        MCTSParams params = new MCTSParams();
+        // set as a parameter value as well, so that copies of the player have the same budget
+        params.setParameterValue("budget", 50);
+        params.budget = 50;
+        params.setRandomSeed(3);
+        List<AbstractPlayer> agents = new ArrayList<>();
+        agents.add(new RandomPlayer(new Random(1)));
+        agents.add(new OSLAPlayer(new Random(2)));
+        agents.add(new MCTSPlayer(params));
+        return agents;
+    }
+
+    private RoundRobinTournament runTournament(int nThreads) {
+        Map<RunArg, Object> config = new HashMap<>();
+        config.put(RunArg.matchups, 6);
+        config.put(RunArg.nThreads, nThreads);
+        RoundRobinTournament tournament = new RoundRobinTournament(agents(), GameType.TicTacToe, 2,
+                null, NO_SELF_PLAY, config);
+        tournament.setRandomSeed(42);
+        tournament.setVerbose(false);
+        tournament.run();
+        return tournament;
+    }
+
+    private void assertSameResults(RoundRobinTournament expected, RoundRobinTournament actual) {
+        for (int i = 0; i < expected.getNumberOfAgents(); i++) {
+            assertEquals(expected.getWinRate(i), actual.getWinRate(i), 0.0);
+            assertEquals(expected.getOrdinalRank(i), actual.getOrdinalRank(i), 0.0);
+        }
+    }
+
+    @Test
+    public void resultsDoNotDependOnNumberOfThreads() {
+        RoundRobinTournament serial = runTournament(1);
+        assertSameResults(serial, runTournament(2));
+        assertSameResults(serial, runTournament(4));
+    }
+}
@@ -0,0 +1,331 @@
+package evaluation.listeners;
+
+import core.AbstractPlayer;
+import core.Game;
+import core.interfaces.IGameEvent;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import evaluation.metrics.GameMetrics;
+import evaluation.metrics.IDataLogger;
+import games.GameType;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.simple.RandomPlayer;
+import utilities.JSONUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.ToFile;
+import static evaluation.metrics.IDataLogger.ReportType.RawData;
+import static evaluation.metrics.IDataLogger.ReportType.RawDataPerEvent;
+import static org.junit.Assert.*;
+
+public class AsyncGameListenerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // All the game metrics apart from the computation times, which are different every time a game is run
+    private AbstractMetric[] metrics() {
+        return Arrays.stream(new GameMetrics().getAllMetrics())
+                .filter(m -> !(m instanceof GameMetrics.ComputationTimes))
+                .toArray(AbstractMetric[]::new);
+    }
+
+    private void runGames(GameType gameType, int nPlayers, int nGames, IGameListener... listeners) {
+        for (int g = 0; g < nGames; g++) {
+            Game game = gameType.createGameInstance(nPlayers, 100 + g);
+            List<AbstractPlayer> players = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            for (int p = 0; p < nPlayers; p++) {
+                players.add(new RandomPlayer(new Random(g * 10 + p)));
+                names.add(players.get(p).toString());
+            }
+            for (IGameListener listener : listeners) {
+                listener.init(game, nPlayers, names);
+                game.addListener(listener);
+            }
+            game.reset(players);
+            game.run();
+        }
+    }
+
+    @Test
+    public void metricsAreTheSameAsWhenSynchronous() throws IOException {
+        IDataLogger.ReportType[] reports = {RawData, RawDataPerEvent};
+        MetricsGameListener sync = new MetricsGameListener(ToFile, reports, metrics());
+        AsyncGameListener async = new AsyncGameListener(new MetricsGameListener(ToFile, reports, metrics()));
+        File syncDir = folder.newFolder("sync");
+        File asyncDir = folder.newFolder("async");
+        sync.setOutputDirectory(syncDir.getAbsolutePath());
+        async.setOutputDirectory(asyncDir.getAbsolutePath());
+
+        // both listen to the same games, so the GameIDs (and everything else) should match
+        runGames(GameType.LoveLetter, 3, 5, sync, async);
+        sync.report();
+        async.report();
+
+        String[] files = syncDir.list((dir, name) -> name.endsWith(".csv"));
+        assertNotNull(files);
+        assertTrue(files.length > 0);
+        for (String name : files) {
+            File actual = new File(asyncDir, name);
+            assertTrue(name, actual.exists());
+            assertEquals(name, Files.readAllLines(new File(syncDir, name).toPath()), Files.readAllLines(actual.toPath()));
+        }
+    }
+
+    /**
+     * Records what it sees of each event, and of the Game when the event happened.
+     */
+    private static class RecordingListener implements IGameListener {
+        final List<String> record = new ArrayList<>();
+        Game game;
+
+        @Override
+        public void onEvent(Event event) {
+            record.add(event.type + " " + event.state.getGameID() + " " + event.state.getGameTick() + " " +
+                    event.state.hashCode() + " " + event.action + " " + event.playerID + " " + game.getNActionsPerTurn());
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    @Test
+    public void eventsArriveInOrderWhenTheQueueIsFull() {
+        RecordingListener sync = new RecordingListener();
+        RecordingListener wrapped = new RecordingListener();
+        // with room for just one event, the games wait for almost every event to be processed
+        AsyncGameListener async = new AsyncGameListener(wrapped, 1);
+        runGames(GameType.TicTacToe, 2, 3, sync, async);
+        async.report();
+
+        assertFalse(sync.record.isEmpty());
+        assertEquals(sync.record, wrapped.record);
+    }
+
+    @Test
+    public void failuresAreRethrownOnTheGameThread() {
+        RecordingListener failing = new RecordingListener() {
+            @Override
+            public void onEvent(Event event) {
+                throw new IllegalStateException("failed on " + event.type);
+            }
+        };
+        AsyncGameListener async = new AsyncGameListener(failing);
+        try {
+            // the failure is rethrown by whichever call comes after it, which may be during the game
+            runGames(GameType.TicTacToe, 2, 1, async);
+            async.report();
+            fail("Expected the failure of the listener to be rethrown");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    /**
+     * @return the parts of the record of each game in the instrumentation file that do not depend on timings
+     */
+    private List<String> countsPerGame(File folder) {
+        JSONObject json = JSONUtils.loadJSONFile(new File(folder, "Instrumentation.json").getPath());
+        List<String> retValue = new ArrayList<>();
+        for (Object g : (JSONArray) json.get("Games")) {
+            JSONObject record = (JSONObject) g;
+            StringBuilder sb = new StringBuilder();
+            for (String key : new String[]{"GameID", "Ticks", "Decisions", "ActionCache"})
+                sb.append(record.get(key)).append(" ");
+            sb.append(((JSONObject) record.get("Total")).get("ActionSpace"));
+            for (Object p : (JSONArray) record.get("Players")) {
+                JSONObject player = (JSONObject) p;
+                sb.append(" ").append(player.get("Name")).append(" ").append(player.get("ActionSpace"))
+                        .append(" ").append(((JSONObject) player.get("NEXT")).get("n"));
+            }
+            retValue.add(sb.toString());
+        }
+        return retValue;
+    }
+
+    @Test
+    public void instrumentationIsTheSameAsWhenSynchronous() throws Exception {
+        InstrumentationListener sync = new InstrumentationListener();
+        // the worker is held up until all the games have been played, so anything it read from the Game (rather
+        // than from the snapshot) would come from the end of the last game
+        CountDownLatch gamesPlayed = new CountDownLatch(1);
+        AsyncGameListener async = new AsyncGameListener(new InstrumentationListener() {
+            @Override
+            public void onEvent(Event event) {
+                try {
+                    gamesPlayed.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+                super.onEvent(event);
+            }
+        });
+        File syncDir = folder.newFolder("sync");
+        File asyncDir = folder.newFolder("async");
+        sync.setOutputDirectory(syncDir.getAbsolutePath());
+        async.setOutputDirectory(asyncDir.getAbsolutePath());
+
+        // one Game is reset for each game, as in a tournament, which also resets the counts of its forward model
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)),
+                new RandomPlayer(new Random(3)));
+        Game game = GameType.LoveLetter.createGameInstance(players.size(), 100);
+        game.getGameState().getCoreGameParameters().cacheAvailableActions = true;
+        game.addListener(sync);
+        game.addListener(async);
+        for (int g = 0; g < 3; g++) {
+            game.reset(players, 100 + g);
+            game.run();
+        }
+        gamesPlayed.countDown();
+        sync.report();
+        async.report();
+        async.allGamesFinished();
+
+        List<String> expected = countsPerGame(syncDir);
+        assertEquals(3, expected.size());
+        assertTrue(game.getActionCacheMisses() > 0);
+        assertEquals(expected, countsPerGame(asyncDir));
+    }
+
+    @Test
+    public void allGamesFinishedProcessesEverythingFirst() {
+        RecordingListener sync = new RecordingListener();
+        RecordingListener wrapped = new RecordingListener();
+        AsyncGameListener async = new AsyncGameListener(wrapped);
+        runGames(GameType.TicTacToe, 2, 2, sync, async);
+        async.allGamesFinished();
+        async.allGamesFinished();
+
+        assertEquals(sync.record, wrapped.record);
+        try {
+            async.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, null, null, -1));
+            fail("Expected the listener to be unusable once all games have finished");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Notes whether each time it is run it sees the state of the game itself, or a copy of it.
+     */
+    private static class LiveStateMetric extends AbstractMetric {
+        final boolean stateless;
+        final List<Boolean> live = Collections.synchronizedList(new ArrayList<>());
+        Game game;
+
+        LiveStateMetric(boolean stateless) {
+            this.stateless = stateless;
+        }
+
+        @Override
+        protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
+            live.add(e.state == game.getGameState());
+            records.put("Tick", e.state.getGameTick());
+            return true;
+        }
+
+        @Override
+        public Set<IGameEvent> getDefaultEventTypes() {
+            return Collections.singleton(Event.GameEvent.ACTION_CHOSEN);
+        }
+
+        @Override
+        public Map<String, Class<?>> getColumns(int nPlayersPerGame, Set<String> playerNames) {
+            return Collections.singletonMap("Tick", Integer.class);
+        }
+
+        @Override
+        public boolean isStateless() {
+            return stateless;
+        }
+    }
+
+    @Test
+    public void statelessMetricsAreRunWithoutCopyingTheState() {
+        LiveStateMetric stateless = new LiveStateMetric(true);
+        LiveStateMetric stateful = new LiveStateMetric(false);
+        AsyncGameListener statelessAsync = new AsyncGameListener(new MetricsGameListener(new AbstractMetric[]{stateless}));
+        AsyncGameListener statefulAsync = new AsyncGameListener(new MetricsGameListener(new AbstractMetric[]{stateful}));
+
+        Game game = GameType.TicTacToe.createGameInstance(2, 100);
+        stateless.game = game;
+        stateful.game = game;
+        List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        Set<String> names = new HashSet<>();
+        for (AbstractPlayer player : players)
+            names.add(player.toString());
+        for (AsyncGameListener listener : Arrays.asList(statelessAsync, statefulAsync)) {
+            listener.init(game, players.size(), names);
+            game.addListener(listener);
+        }
+        game.reset(players);
+        game.run();
+        statelessAsync.flush();
+        statefulAsync.flush();
+
+        assertFalse(stateless.live.isEmpty());
+        assertEquals(stateless.live.size(), stateful.live.size());
+        assertFalse(stateless.live.contains(false));
+        assertFalse(stateful.live.contains(true));
+    }
+
+    @Test
+    public void gamesRunAtOnceEachPassOnTheirOwnEvents() throws Exception {
+        RecordingListener sync = new RecordingListener();
+        RecordingListener wrapped = new RecordingListener();
+        AsyncGameListener async = new AsyncGameListener(wrapped, 4);
+        // as in a tournament with several threads
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> games = new ArrayList<>();
+        for (int g = 0; g < 8; g++) {
+            long seed = 100 + g;
+            games.add(executor.submit(() -> {
+                Game game = GameType.TicTacToe.createGameInstance(2, seed);
+                game.addListener(new SynchronisedGameListener(sync));
+                game.addListener(async.forGame());
+                game.reset(Arrays.asList(new RandomPlayer(new Random(seed)), new RandomPlayer(new Random(seed + 1))));
+                game.run();
+            }));
+        }
+        for (Future<?> game : games)
+            game.get();
+        executor.shutdown();
+        async.report();
+
+        // the events of different games are interleaved differently each time, but those of each game are in order
+        Map<String, List<String>> expected = byGame(sync.record);
+        assertEquals(8, expected.size());
+        assertEquals(expected, byGame(wrapped.record));
+    }
+
+    private Map<String, List<String>> byGame(List<String> record) {
+        Map<String, List<String>> retValue = new HashMap<>();
+        for (String event : record)
+            retValue.computeIfAbsent(event.split(" ")[1], k -> new ArrayList<>()).add(event);
+        return retValue;
+    }
+}
@@ -0,0 +1,136 @@
+package evaluation.loggers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.learners.AbstractLearner;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestBinaryStatsLogger {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final String[] columns = {"GameID", "Player", "Round", "Turn", "CurrentScore", "Feature1", "Feature2",
+            "PlayerCount", "TotalRounds", "ActionScore", "Win", "Ordinal", "FinalScore"};
+
+    private List<double[]> randomRows(int n, Random rnd) {
+        List<double[]> rows = new ArrayList<>();
+        for (int r = 0; r < n; r++) {
+            double[] row = new double[columns.length];
+            for (int c = 0; c < row.length; c++) row[c] = rnd.nextDouble() * 100;
+            row[7] = 2 + rnd.nextInt(3);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void log(BinaryStatsLogger logger, List<double[]> rows, int rowsPerGame) {
+        for (int r = 0; r < rows.size(); r++) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            for (int c = 0; c < columns.length; c++) data.put(columns[c], rows.get(r)[c]);
+            logger.record(data);
+            if (r % rowsPerGame == rowsPerGame - 1) logger.processDataAndNotFinish();
+        }
+        logger.processDataAndFinish();
+    }
+
+    private List<double[]> readAll(String file) {
+        List<double[]> rows = new ArrayList<>();
+        BinaryStatsLogger.readBlocks(file, (cols, n) -> {
+            for (int r = 0; r < n; r++) {
+                double[] row = new double[cols.length];
+                for (int c = 0; c < cols.length; c++) row[c] = cols[c][r];
+                rows.add(row);
+            }
+        });
+        return rows;
+    }
+
+    @Test
+    public void rowsAreReadBackExactly() throws Exception {
+        String file = folder.newFile("test.data").getPath();
+        List<double[]> rows = randomRows(1000, new Random(42));
+        BinaryStatsLogger logger = new BinaryStatsLogger(file, false);
+        logger.maxRowsPerBlock = 64;
+        log(logger, rows, 37);
+
+        assertTrue(BinaryStatsLogger.isBinaryLog(file));
+        assertArrayEquals(columns, BinaryStatsLogger.readHeader(file));
+        assertEquals(1000, BinaryStatsLogger.countRows(file));
+        List<double[]> read = readAll(file);
+        assertEquals(rows.size(), read.size());
+        for (int r = 0; r < rows.size(); r++)
+            assertArrayEquals(rows.get(r), read.get(r), 0.0);
+    }
+
+    @Test
+    public void appendAddsToTheEnd() throws Exception {
+        String file = folder.newFile("append.data").getPath();
+        Random rnd = new Random(1);
+        List<double[]> first = randomRows(10, rnd), second = randomRows(15, rnd);
+        log(new BinaryStatsLogger(file, false), first, 5);
+        log(new BinaryStatsLogger(file, true), second, 5);
+        List<double[]> read = readAll(file);
+        assertEquals(25, read.size());
+        assertArrayEquals(second.get(14), read.get(24), 0.0);
+        assertArrayEquals(first.get(0), read.get(0), 0.0);
+    }
+
+    @Test
+    public void learnerLoadsBinaryAsText() throws Exception {
+        String binary = folder.newFile("learn.data").getPath();
+        String text = new File(folder.getRoot(), "learn.txt").getPath();
+        log(new BinaryStatsLogger(binary, false), randomRows(200, new Random(7)), 20);
+        BinaryStatsLogger.exportToTSV(binary, text, "%s");
+        assertFalse(BinaryStatsLogger.isBinaryLog(text));
+
+        TestLearner fromBinary = new TestLearner(), fromText = new TestLearner();
+        fromBinary.learnFrom(binary);
+        fromText.learnFrom(text);
+        assertEquals(200, fromBinary.data().length);
+        for (int i = 0; i < 200; i++) {
+            assertArrayEquals(fromText.data()[i], fromBinary.data()[i], 0.0);
+            assertArrayEquals(fromText.targets()[i], fromBinary.targets()[i], 0.0);
+        }
+
+        // and both together
+        TestLearner both = new TestLearner();
+        both.learnFrom(text, binary);
+        assertEquals(400, both.data().length);
+        assertArrayEquals(fromText.data()[199], both.data()[199], 0.0);
+        assertArrayEquals(fromText.data()[199], both.data()[399], 0.0);
+    }
+
+    static class TestLearner extends AbstractLearner {
+        TestLearner() {
+            super(0.9, Target.ORD_MEAN);
+        }
+
+        @Override
+        public void learnFrom(String... files) {
+            loadData(files);
+        }
+
+        double[][] data() {
+            return dataArray;
+        }
+
+        double[][] targets() {
+            return target;
+        }
+
+        @Override
+        public void writeToFile(String prefix) {
+        }
+
+        @Override
+        public String name() {
+            return "Test";
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package evaluation.metrics;
+
+import core.AbstractPlayer;
+import core.Game;
+import evaluation.listeners.MetricsGameListener;
+import evaluation.listeners.StreamingMetricsGameListener;
+import evaluation.metrics.streaming.OnlineNumericSummary;
+import games.GameType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.ToFile;
+import static evaluation.metrics.IDataLogger.ReportType.*;
+import static org.junit.Assert.*;
+
+public class TestStreamingMetrics {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void onlineSummaryMatchesDirectCalculation() {
+        Random rnd = new Random(42);
+        double[] values = new double[500];
+        OnlineNumericSummary summary = new OnlineNumericSummary();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rnd.nextGaussian() * 10 + 5;
+            summary.add(values[i]);
+        }
+        double mean = Arrays.stream(values).average().getAsDouble();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / (values.length - 1);
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        assertEquals(values.length, summary.n());
+        assertEquals(mean, summary.mean(), 1e-9);
+        assertEquals(variance, summary.variance(), 1e-9);
+        assertEquals(sorted[0], summary.min(), 0.0);
+        assertEquals(sorted[sorted.length - 1], summary.max(), 0.0);
+        // all the values fit in the sample, so quantiles are exact
+        assertEquals((sorted[249] + sorted[250]) / 2, summary.median(), 1e-9);
+    }
+
+    @Test
+    public void quantilesAreEstimatedFromABoundedSample() {
+        OnlineNumericSummary summary = new OnlineNumericSummary(256);
+        for (int i = 0; i < 100_000; i++)
+            summary.add(i % 1000);
+        assertEquals(256, summary.getSample().length);
+        assertEquals(499.5, summary.mean(), 1e-9);
+        assertEquals(500, summary.median(), 100);
+        assertEquals(250, summary.quantile(0.25), 100);
+    }
+
+    private static void assertSameStatistics(OnlineNumericSummary expected, OnlineNumericSummary actual) {
+        assertEquals(expected.n(), actual.n());
+        assertEquals(expected.sum(), actual.sum(), 1e-6);
+        assertEquals(expected.mean(), actual.mean(), 1e-9);
+        assertEquals(expected.variance(), actual.variance(), 1e-6);
+        assertEquals(expected.min(), actual.min(), 0.0);
+        assertEquals(expected.max(), actual.max(), 0.0);
+    }
+
+    @Test
+    public void repeatedValuesAreAddedInOneUpdate() {
+        OnlineNumericSummary oneByOne = new OnlineNumericSummary(64);
+        OnlineNumericSummary weighted = new OnlineNumericSummary(64);
+        for (int i = 0; i < 100; i++) {
+            oneByOne.add(i);
+            weighted.add(i);
+        }
+        for (int i = 0; i < 50_000; i++)
+            oneByOne.add(3);
+        weighted.add(3, 50_000);
+        weighted.add(7, 0);
+        assertSameStatistics(oneByOne, weighted);
+        assertEquals(64, weighted.getSample().length);
+        // almost all of the numbers are 3, so almost all of the sample should be too
+        assertTrue(Arrays.stream(weighted.getSample()).filter(x -> x == 3).count() > 55);
+        assertEquals(3, weighted.median(), 0.0);
+
+        // while there is room, all the numbers are kept
+        OnlineNumericSummary small = new OnlineNumericSummary(64);
+        small.add(1);
+        small.add(2, 10);
+        assertEquals(11, small.getSample().length);
+        assertEquals(2, small.median(), 0.0);
+    }
+
+    @Test
+    public void mergedSummariesMatchDirectCalculation() {
+        Random rnd = new Random(7);
+        OnlineNumericSummary all = new OnlineNumericSummary(128);
+        OnlineNumericSummary first = new OnlineNumericSummary(128);
+        OnlineNumericSummary second = new OnlineNumericSummary(128);
+        for (int i = 0; i < 3000; i++) {
+            double x = rnd.nextGaussian();
+            all.add(x);
+            first.add(x);
+        }
+        for (int i = 0; i < 1000; i++) {
+            double x = rnd.nextGaussian() + 10;
+            all.add(x);
+            second.add(x);
+        }
+        first.merge(second);
+        assertSameStatistics(all, first);
+        assertEquals(1000, second.n());
+        assertEquals(128, first.getSample().length);
+        // a quarter of the numbers are around 10, and the rest around 0
+        long high = Arrays.stream(first.getSample()).filter(x -> x > 5).count();
+        assertTrue(high > 16 && high < 48);
+
+        // small summaries are merged exactly
+        OnlineNumericSummary a = new OnlineNumericSummary(128), b = new OnlineNumericSummary(128);
+        for (int i = 0; i < 10; i++) {
+            a.add(i);
+            b.add(i + 10);
+        }
+        a.merge(b);
+        assertEquals(20, a.getSample().length);
+        assertEquals(9.5, a.median(), 1e-9);
+        a.merge(new OnlineNumericSummary());
+        assertEquals(20, a.n());
+    }
+
+    private List<String> readLines(File file) throws IOException {
+        return Files.readAllLines(file.toPath());
+    }
+
+    @Test
+    public void rawDataIsTheSameAsWithTableSaw() throws IOException {
+        IDataLogger.ReportType[] reports = {RawData, Summary, RawDataPerEvent};
+        MetricsGameListener tableSaw = new MetricsGameListener(ToFile, reports, new GameMetrics().getAllMetrics());
+        MetricsGameListener streaming = new StreamingMetricsGameListener(ToFile, reports, new GameMetrics().getAllMetrics());
+        File tableSawDir = folder.newFolder("tablesaw");
+        File streamingDir = folder.newFolder("streaming");
+        tableSaw.setOutputDirectory(tableSawDir.getAbsolutePath());
+        streaming.setOutputDirectory(streamingDir.getAbsolutePath());
+
+        int nGames = 5;
+        for (int g = 0; g < nGames; g++) {
+            Game game = GameType.TicTacToe.createGameInstance(2, 100 + g);
+            List<AbstractPlayer> players = Arrays.asList(new RandomPlayer(new Random(g)), new RandomPlayer(new Random(g + 50)));
+            Set<String> names = new HashSet<>();
+            for (AbstractPlayer player : players)
+                names.add(player.toString());
+            tableSaw.init(game, 2, names);
+            streaming.init(game, 2, names);
+            game.addListener(tableSaw);
+            game.addListener(streaming);
+            game.reset(players);
+            game.run();
+        }
+        tableSaw.report();
+        streaming.report();
+
+        for (AbstractMetric metric : new GameMetrics().getAllMetrics()) {
+            File expected = new File(tableSawDir, metric.getName() + ".csv");
+            File actual = new File(streamingDir, metric.getName() + ".csv");
+            assertTrue(actual.getName(), actual.exists());
+            assertEquals(metric.getName(), readLines(expected).size(), readLines(actual).size());
+            assertTrue(new File(streamingDir, "summaries").exists());
+        }
+        File gameOver = new File(streamingDir, "GAME_OVER.csv");
+        assertEquals(nGames + 1, readLines(gameOver).size());
+        assertEquals(readLines(new File(tableSawDir, "GAME_OVER.csv")).size(), readLines(gameOver).size());
+    }
+}
@@ -0,0 +1,47 @@
+package evaluation.metrics.streaming;
+
+import org.junit.Test;
+
+import static evaluation.metrics.streaming.StreamingDataLogger.MAX_ROW_POINTS;
+import static org.junit.Assert.*;
+
+public class TestRowSummaries {
+
+    @Test
+    public void eachRowHasItsOwnPointInShortGames() {
+        StreamingDataLogger.RowSummaries summaries = new StreamingDataLogger.RowSummaries();
+        for (int game = 0; game < 3; game++)
+            for (int row = 0; row < 10; row++)
+                summaries.add(row, row * 10 + game);
+        assertEquals(1, summaries.rowsPerPoint);
+        assertEquals(10, summaries.points.size());
+        assertEquals(3, summaries.points.get(4).n());
+        assertEquals(41, summaries.points.get(4).mean(), 1e-9);
+    }
+
+    @Test
+    public void pointsAreMergedInPairsForLongGames() {
+        StreamingDataLogger.RowSummaries summaries = new StreamingDataLogger.RowSummaries();
+        int rows = 3 * MAX_ROW_POINTS + 5;
+        for (int game = 0; game < 2; game++)
+            for (int row = 0; row < rows; row++)
+                summaries.add(row, row);
+        assertEquals(4, summaries.rowsPerPoint);
+        assertTrue(summaries.points.size() <= MAX_ROW_POINTS);
+        assertEquals((rows + 3) / 4, summaries.points.size());
+        // each point has the rows from its first row on, from both games
+        assertEquals(8, summaries.points.get(10).n());
+        assertEquals(41.5, summaries.points.get(10).mean(), 1e-9);
+        assertEquals(40, summaries.points.get(10).min(), 0.0);
+        long total = 0;
+        for (OnlineNumericSummary point : summaries.points)
+            total += point.n();
+        assertEquals(2L * rows, total);
+
+        // a copy is independent of the original
+        StreamingDataLogger.RowSummaries copy = new StreamingDataLogger.RowSummaries(summaries);
+        copy.add(0, 100);
+        assertEquals(8, summaries.points.get(0).n());
+        assertEquals(9, copy.points.get(0).n());
+    }
+}
@@ -0,0 +1,60 @@
+package evaluation.optimisation;
+
+import core.AbstractPlayer;
+import games.GameType;
+import games.tictactoe.TicTacToeGameParameters;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class GameEvaluatorTest {
+
+    // tunes the grid size of TicTacToe, scored by the length of the game between two random players
+    private GameEvaluator createEvaluator() {
+        return createEvaluator(1);
+    }
+
+    private GameEvaluator createEvaluator(long opponentSeed) {
+        List<AbstractPlayer> opponents = Arrays.asList(new RandomPlayer(new Random(opponentSeed)), new RandomPlayer(new Random(opponentSeed + 1)));
+        return new GameEvaluator(GameType.TicTacToe, new ITPSearchSpace(new TicTacToeGameParameters()), null,
+                2, opponents, 42, null, game -> game.getGameState().getGameTick(), true);
+    }
+
+    @Test
+    public void batchGivesSameResultsAsEvaluatingInTurn() {
+        List<int[]> settings = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+            settings.add(new int[]{i % 4});
+
+        GameEvaluator serial = createEvaluator();
+        double[] expected = settings.stream().mapToDouble(serial::evaluate).toArray();
+
+        GameEvaluator parallel = createEvaluator();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            double[] actual = new double[settings.size()];
+            // in two batches, to check that the random number generator carries on from one batch to the next
+            System.arraycopy(parallel.evaluate(settings.subList(0, 5), executor), 0, actual, 0, 5);
+            System.arraycopy(parallel.evaluate(settings.subList(5, 12), executor), 0, actual, 5, 7);
+            assertArrayEquals(expected, actual, 0.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void opponentsAreSeededByTheEvaluator() {
+        List<int[]> settings = new ArrayList<>();
+        for (int i = 0; i < 12; i++)
+            settings.add(new int[]{i % 4});
+        // the opponents are created with different seeds, but each game's copies are seeded from the evaluator's seed
+        double[] first = settings.stream().mapToDouble(createEvaluator(1)::evaluate).toArray();
+        double[] second = settings.stream().mapToDouble(createEvaluator(1000)::evaluate).toArray();
+        assertArrayEquals(first, second, 0.0);
+    }
+}
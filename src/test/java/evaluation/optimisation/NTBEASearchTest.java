@@ -0,0 +1,176 @@
+package evaluation.optimisation;
+
+import evodef.SearchSpace;
+import evodef.SolutionEvaluator;
+import ntbea.NTupleBanditEA;
+import ntbea.NTupleSystem;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * NTBEASearch is meant to be the same algorithm as the NTBEA library's NTupleBanditEA, which cannot be seeded, so we
+ * compare how well the two do over many searches of a noisy landscape.
+ */
+public class NTBEASearchTest {
+
+    private static final int N_DIMS = 4, N_VALUES = 6, ITERATIONS = 200, TRIALS = 40;
+    private static final double K_EXPLORE = 1.0, NOISE = 0.3;
+    private static final int NEIGHBOURHOOD_SIZE = 50;
+    private static final int[] OPTIMUM = {4, 1, 3, 0};
+
+    private static final SearchSpace SPACE = new SearchSpace() {
+        @Override
+        public int nDims() {
+            return N_DIMS;
+        }
+
+        @Override
+        public int nValues(int i) {
+            return N_VALUES;
+        }
+
+        @Override
+        public String name(int i) {
+            return "x" + i;
+        }
+
+        @Override
+        public Object value(int i, int j) {
+            return j;
+        }
+
+        @Override
+        public double[] sampleAt(int[] x) {
+            return valueAt(x);
+        }
+
+        @Override
+        public double[] valueAt(int[] x) {
+            return Arrays.stream(x).asDoubleStream().toArray();
+        }
+    };
+
+    // 1 at the optimum, falling off with the distance from it in each dimension
+    private static double trueValue(int[] x) {
+        double retValue = 1.0;
+        for (int i = 0; i < N_DIMS; i++)
+            retValue -= Math.pow(x[i] - OPTIMUM[i], 2) / (N_DIMS * Math.pow(N_VALUES - 1, 2));
+        return retValue;
+    }
+
+    private static class NoisyEvaluator implements SolutionEvaluator {
+        final Random rnd;
+        double totalValue;
+        int nEvals;
+
+        NoisyEvaluator(long seed) {
+            rnd = new Random(seed);
+        }
+
+        @Override
+        public void reset() {
+            nEvals = 0;
+            totalValue = 0;
+        }
+
+        @Override
+        public double evaluate(double[] x) {
+            return evaluate(Arrays.stream(x).mapToInt(d -> (int) d).toArray());
+        }
+
+        @Override
+        public double evaluate(int[] x) {
+            nEvals++;
+            totalValue += trueValue(x);
+            return trueValue(x) + rnd.nextGaussian() * NOISE;
+        }
+
+        @Override
+        public SearchSpace searchSpace() {
+            return SPACE;
+        }
+
+        @Override
+        public int nEvals() {
+            return nEvals;
+        }
+    }
+
+    private static NTupleSystem newModel() {
+        NTupleSystem model = new NTupleSystem(SPACE);
+        model.addTuples();
+        return model;
+    }
+
+    private static int[] recommendation(NTupleSystem model) {
+        return Arrays.stream(model.getBestOfSampled()).mapToInt(d -> (int) d).toArray();
+    }
+
+    /**
+     * @return for each trial, the true value of the recommended settings and the mean true value of all the settings
+     * evaluated during the search
+     */
+    private static double[][] runTrials(boolean library) {
+        double[][] retValue = new double[2][TRIALS];
+        for (int t = 0; t < TRIALS; t++) {
+            NTupleSystem model = newModel();
+            NoisyEvaluator evaluator = new NoisyEvaluator(t);
+            if (library) {
+                new NTupleBanditEA(model, K_EXPLORE, NEIGHBOURHOOD_SIZE).runTrial(evaluator, ITERATIONS);
+            } else {
+                new NTBEASearch(model, K_EXPLORE, NEIGHBOURHOOD_SIZE, new Random(t))
+                        .run(ITERATIONS, 1, batch -> batch.stream().mapToDouble(evaluator::evaluate).toArray());
+            }
+            assertEquals(ITERATIONS, evaluator.nEvals());
+            retValue[0][t] = trueValue(recommendation(model));
+            retValue[1][t] = evaluator.totalValue / evaluator.nEvals;
+        }
+        return retValue;
+    }
+
+    private static double mean(double[] values) {
+        return Arrays.stream(values).average().orElse(0.0);
+    }
+
+    private static double stdErr(double[] values) {
+        double mean = mean(values);
+        return Math.sqrt(Arrays.stream(values).map(v -> (v - mean) * (v - mean)).sum() / (values.length - 1.0) / values.length);
+    }
+
+    // the two means are within four standard errors (of their difference) of each other
+    private static void assertSameDistribution(String what, double[] expected, double[] actual) {
+        double tolerance = 4 * Math.sqrt(Math.pow(stdErr(expected), 2) + Math.pow(stdErr(actual), 2)) + 0.01;
+        assertEquals(what, mean(expected), mean(actual), tolerance);
+    }
+
+    @Test
+    public void searchDoesAsWellAsTheLibrary() {
+        double[][] library = runTrials(true);
+        double[][] ours = runTrials(false);
+
+        // both are much better than picking settings at random (for which the mean true value is about 0.77)
+        assertTrue(mean(library[0]) > 0.87);
+        assertTrue(mean(ours[0]) > 0.87);
+        assertSameDistribution("value of the recommended settings", library[0], ours[0]);
+        assertSameDistribution("value of the settings evaluated", library[1], ours[1]);
+    }
+
+    @Test
+    public void searchIsReproducibleFromItsSeed() {
+        int[][] recommendations = new int[2][];
+        for (int run = 0; run < 2; run++) {
+            NTupleSystem model = newModel();
+            NoisyEvaluator evaluator = new NoisyEvaluator(7);
+            // several searches side by side, as with nThreads > 1
+            new NTBEASearch(model, K_EXPLORE, NEIGHBOURHOOD_SIZE, new Random(7))
+                    .run(ITERATIONS, 4, batch -> batch.stream().mapToDouble(evaluator::evaluate).toArray());
+            assertEquals(ITERATIONS, evaluator.nEvals());
+            recommendations[run] = recommendation(model);
+        }
+        assertArrayEquals(recommendations[0], recommendations[1]);
+    }
+}
@@ -0,0 +1,83 @@
+package games.catan;
+
+import core.actions.AbstractAction;
+import core.components.BoardNodeWithEdges;
+import core.components.Edge;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestRoadNetwork {
+
+    CatanForwardModel fm = new CatanForwardModel();
+
+    // The longest trail through the player's roads, found by trying every trail over the graph objects
+    private int bruteForceLongestRoad(CatanGameState state, int player) {
+        int best = 0;
+        for (BoardNodeWithEdges node : state.getGraph().getBoardNodes()) {
+            best = Math.max(best, longestFrom(node, player, new HashSet<>()));
+        }
+        return best;
+    }
+
+    private int longestFrom(BoardNodeWithEdges node, int player, Set<Integer> used) {
+        int best = 0;
+        for (Map.Entry<Edge, BoardNodeWithEdges> e : node.getNeighbourEdgeMapping().entrySet()) {
+            if (e.getKey().getOwnerId() != player || used.contains(e.getKey().getComponentID())) continue;
+            used.add(e.getKey().getComponentID());
+            int owner = e.getValue().getOwnerId();
+            int length = 1 + (owner == -1 || owner == player ? longestFrom(e.getValue(), player, used) : 0);
+            used.remove(e.getKey().getComponentID());
+            best = Math.max(best, length);
+        }
+        return best;
+    }
+
+    @Test
+    public void roadLengthsMatchBruteForceInRandomGames() {
+        Random rnd = new Random(42);
+        int longest = 0;
+        for (int game = 0; game < 20; game++) {
+            CatanParameters params = new CatanParameters();
+            params.setRandomSeed(rnd.nextLong());
+            CatanGameState state = new CatanGameState(params, 2 + game % 3);
+            fm.setup(state);
+            int nActions = 0;
+            while (state.isNotTerminal() && nActions++ < 2000) {
+                List<AbstractAction> actions = fm.computeAvailableActions(state);
+                fm.next(state, actions.get(rnd.nextInt(actions.size())));
+                for (int p = 0; p < state.getNPlayers(); p++) {
+                    int expected = bruteForceLongestRoad(state, p);
+                    assertEquals(expected, state.getRoadNetwork().getLength(p));
+                    assertEquals(expected, state.getRoadNetwork().longestRoad(p));
+                    assertEquals(expected, state.getRoadLengths()[p]);
+                    longest = Math.max(longest, expected);
+                }
+            }
+        }
+        // make sure the games got far enough to test something
+        assertTrue(longest >= 5);
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        CatanParameters params = new CatanParameters();
+        params.setRandomSeed(7);
+        CatanGameState state = new CatanGameState(params, 4);
+        fm.setup(state);
+        Random rnd = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        CatanGameState copy = (CatanGameState) state.copy();
+        RoadNetwork before = state.getRoadNetwork().copy();
+        for (int i = 0; i < 500 && copy.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(copy);
+            fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertEquals(before, state.getRoadNetwork());
+    }
+}
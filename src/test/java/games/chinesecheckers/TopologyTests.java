@@ -0,0 +1,55 @@
+package games.chinesecheckers;
+
+import core.actions.AbstractAction;
+import core.components.BoardTopology;
+import games.chinesecheckers.components.StarBoard;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TopologyTests {
+
+    @Test
+    public void neighboursMatchAdjacencyFile() throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get("src/main/java/games/chinesecheckers/board_adj.csv"));
+        BoardTopology topology = new StarBoard().getTopology();
+        assertEquals(lines.size(), topology.nNodes());
+        for (int node = 0; node < lines.size(); node++) {
+            Set<Integer> expected = new HashSet<>();
+            for (String n : lines.get(node).split(",")) {
+                if (!n.trim().isEmpty()) expected.add(Integer.parseInt(n.trim()));
+            }
+            Set<Integer> actual = new HashSet<>();
+            for (int e = topology.start(node); e < topology.end(node); e++) {
+                actual.add(topology.target(e));
+                // the node is on the opposite side of its neighbour
+                assertEquals(node, topology.neighbourOnSide(topology.target(e), (topology.side(e) + 3) % 6));
+            }
+            assertEquals("Neighbours of " + node, expected, actual);
+        }
+    }
+
+    @Test
+    public void copiesShareTopologyButNotPegs() {
+        CCForwardModel fm = new CCForwardModel();
+        CCGameState state = new CCGameState(new CCParameters(), 2);
+        fm.setup(state);
+        CCGameState copy = (CCGameState) state.copy();
+        assertSame(state.getStarBoard().getTopology(), copy.getStarBoard().getTopology());
+        assertEquals(state.getStarBoard(), copy.getStarBoard());
+
+        Random rnd = new Random(42);
+        List<AbstractAction> before = fm.computeAvailableActions(state);
+        for (int i = 0; i < 20 && copy.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(copy);
+            fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertNotEquals(state.getStarBoard(), copy.getStarBoard());
+        assertEquals(before, fm.computeAvailableActions(state));
+    }
+}
@@ -0,0 +1,123 @@
+package games.connect4;
+
+import core.AbstractGameState;
+import core.CoreConstants;
+import core.actions.AbstractAction;
+import core.components.GridBoard;
+import core.components.Token;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestConnect4 {
+
+    Connect4ForwardModel fm = new Connect4ForwardModel();
+
+    private Connect4GameState newGame(int gridSize, int winCount, long seed) {
+        Connect4GameParameters params = new Connect4GameParameters();
+        params.setParameterValue("gridSize", gridSize);
+        params.setParameterValue("winCount", winCount);
+        params.setRandomSeed(seed);
+        Connect4GameState state = new Connect4GameState(params, 2);
+        fm.setup(state);
+        return state;
+    }
+
+    // the winner found by scanning every line on the board, or -1 if there is none
+    private int scanForWinner(GridBoard<Token> board, int winCount) {
+        int[][] directions = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        for (int x = 0; x < board.getWidth(); x++) {
+            for (int y = 0; y < board.getHeight(); y++) {
+                String token = board.getElement(x, y).getTokenType();
+                if (token.equals(Connect4Constants.emptyCell)) continue;
+                for (int[] d : directions) {
+                    int count = 1;
+                    while (count < winCount) {
+                        int cx = x + count * d[0], cy = y + count * d[1];
+                        if (cx < 0 || cx >= board.getWidth() || cy < 0 || cy >= board.getHeight() ||
+                                !board.getElement(cx, cy).getTokenType().equals(token))
+                            break;
+                        count++;
+                    }
+                    if (count == winCount)
+                        return token.equals(Connect4Constants.playerMapping.get(0).getTokenType()) ? 0 : 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    public void gameEndsExactlyWhenBoardHasALine() {
+        Random rnd = new Random(42);
+        int[][] settings = {{6, 4}, {8, 4}, {9, 3}, {12, 5}, {12, 6}};
+        for (int[] setting : settings) {
+            for (int game = 0; game < 50; game++) {
+                Connect4GameState state = newGame(setting[0], setting[1], rnd.nextLong());
+                while (state.isNotTerminal()) {
+                    List<AbstractAction> actions = fm.computeAvailableActions(state);
+                    assertFalse(actions.isEmpty());
+                    fm.next(state, actions.get(rnd.nextInt(actions.size())));
+
+                    int winner = scanForWinner(state.getGridBoard(), setting[1]);
+                    if (winner != -1) {
+                        assertEquals(CoreConstants.GameResult.GAME_END, state.getGameStatus());
+                        assertEquals(CoreConstants.GameResult.WIN_GAME, state.getPlayerResults()[winner]);
+                        assertEquals(setting[1], state.getWinningCells().size());
+                    } else if (state.getGridBoard().getComponents().stream()
+                            .noneMatch(t -> t.getTokenType().equals(Connect4Constants.emptyCell))) {
+                        assertEquals(CoreConstants.GameResult.DRAW_GAME, state.getGameStatus());
+                    } else {
+                        assertTrue(state.isNotTerminal());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void copiesBuildTheirBoardFromTheBitboards() {
+        Random rnd = new Random(99);
+        for (int game = 0; game < 50; game++) {
+            Connect4GameState state = newGame(8, 4, rnd.nextLong());
+            // each move is played on a copy, whose board is only built at the end, as in a search
+            while (state.isNotTerminal()) {
+                Connect4GameState copy = (Connect4GameState) state.copy();
+                List<AbstractAction> actions = fm.computeAvailableActions(copy);
+                assertEquals(fm.computeAvailableActions(state), actions);
+                AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+                fm.next(copy, action);
+                fm.next(state, action);
+
+                assertEquals(state.getGridBoard().toString(), copy.getGridBoard().toString());
+                assertEquals(state.getGridBoard().getComponentID(), copy.getGridBoard().getComponentID());
+                assertEquals(state, copy);
+                int winner = scanForWinner(copy.getGridBoard(), 4);
+                assertEquals(winner != -1, copy.getGameStatus() == CoreConstants.GameResult.GAME_END);
+                if (winner != -1)
+                    assertEquals(CoreConstants.GameResult.WIN_GAME, copy.getPlayerResults()[winner]);
+            }
+        }
+    }
+
+    @Test
+    public void copiesAreIndependent() {
+        Random rnd = new Random(7);
+        Connect4GameState state = newGame(8, 4, 7);
+        for (int i = 0; i < 10; i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        AbstractGameState copy = state.copy();
+        List<AbstractAction> before = fm.computeAvailableActions(state);
+        while (copy.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(copy);
+            fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertEquals(before, fm.computeAvailableActions(state));
+        assertTrue(state.isNotTerminal());
+    }
+}
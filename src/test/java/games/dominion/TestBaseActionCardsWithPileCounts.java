@@ -0,0 +1,47 @@
+package games.dominion;
+
+import core.Game;
+import games.GameType;
+import games.dominion.DominionConstants.DeckType;
+import games.dominion.cards.CardType;
+import games.dominion.cards.DominionCard;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the tests of the action cards with the trash and discard piles held as counts of each type of card
+ * (DominionParameters.unorderedPilesAsCounts).
+ */
+public class TestBaseActionCardsWithPileCounts extends BaseActionCardsTest {
+
+    public TestBaseActionCardsWithPileCounts() {
+        DominionParameters params = new DominionFGParameters();
+        params.unorderedPilesAsCounts = true;
+        game = new Game(GameType.Dominion, players, new DominionForwardModel(), new DominionGameState(params, players.size()));
+        DominionParameters improvements = DominionParameters.improvements();
+        improvements.unorderedPilesAsCounts = true;
+        gameImprovements = new Game(GameType.Dominion, players, new DominionForwardModel(), new DominionGameState(improvements, players.size()));
+    }
+
+    @Test
+    public void pilesAreHeldAsCounts() {
+        DominionGameState state = (DominionGameState) game.getGameState();
+        assertNotNull(state.trashCounts);
+        assertNull(state.trashPile);
+        state.addCard(CardType.GOLD, 1, DeckType.DISCARD);
+        state.addCard(CardType.GOLD, 1, DeckType.DISCARD);
+        assertEquals(2, state.cardsOfType(CardType.GOLD, 1, DeckType.DISCARD));
+        assertEquals(2, state.getDeck(DeckType.DISCARD, 1).getSize());
+        assertEquals(12, state.getTotalCards(1));
+        assertEquals(6, state.getTotal(1, DeckType.DISCARD, DominionCard::treasureValue));
+
+        DominionGameState copy = (DominionGameState) state.copy(0);
+        assertEquals(2, copy.cardsOfType(CardType.GOLD, 1, DeckType.DISCARD));
+        assertTrue(state.moveCard(CardType.GOLD, 1, DeckType.DISCARD, -1, DeckType.TRASH));
+        assertEquals(1, state.cardsOfType(CardType.GOLD, -1, DeckType.TRASH));
+        assertEquals(1, state.cardsOfType(CardType.GOLD, 1, DeckType.DISCARD));
+        assertEquals(2, copy.cardsOfType(CardType.GOLD, 1, DeckType.DISCARD));
+        assertEquals(0, copy.cardsOfType(CardType.GOLD, -1, DeckType.TRASH));
+    }
+}
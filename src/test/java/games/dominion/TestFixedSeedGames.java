@@ -0,0 +1,74 @@
+package games.dominion;
+
+import core.AbstractPlayer;
+import core.Game;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import players.simple.RandomPlayer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Games played from fixed seeds must come out the same whatever is done to speed up the state (how the supply is
+ * held, how decks are copied and shuffled, and so on). The expected results were recorded before the supply was
+ * kept as card counts (with cards of the same cost put in the same order as now), and must not depend on which
+ * games were played before in the same JVM.
+ */
+public class TestFixedSeedGames {
+
+    /**
+     * @return the final scores of the players, then the number of rounds and of actions taken
+     */
+    private String play(DominionParameters gameParams, long seed) {
+        MCTSParams mctsParams = new MCTSParams();
+        mctsParams.setRandomSeed(seed);
+        mctsParams.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        mctsParams.budget = 50;
+        mctsParams.rolloutLength = 10;
+        List<AbstractPlayer> players = Arrays.asList(new MCTSPlayer(mctsParams), new RandomPlayer(new Random(seed)),
+                new RandomPlayer(new Random(seed + 1)));
+        gameParams.setRandomSeed(seed);
+        Game game = new Game(GameType.Dominion, players, new DominionForwardModel(),
+                new DominionGameState(gameParams, players.size()));
+        game.run();
+        DominionGameState state = (DominionGameState) game.getGameState();
+        StringBuilder sb = new StringBuilder();
+        for (int p = 0; p < players.size(); p++)
+            sb.append((int) state.getGameScore(p)).append(" ");
+        return sb.append("/ ").append(state.getRoundCounter()).append(" ").append(game.getTick()).toString();
+    }
+
+    @Test
+    public void firstGameOutcomesAreUnchanged() {
+        assertEquals("17 3 4 / 28 240", play(new DominionFGParameters(), 42));
+        assertEquals("22 3 3 / 29 223", play(new DominionFGParameters(), 1066));
+        assertEquals("13 4 3 / 32 282", play(new DominionFGParameters(), 3301));
+    }
+
+    @Test
+    public void sizeDistortionOutcomesAreUnchanged() {
+        assertEquals("34 9 -3 / 37 298", play(DominionParameters.sizeDistortion(), 42));
+        assertEquals("42 -5 12 / 40 296", play(DominionParameters.sizeDistortion(), 1066));
+    }
+
+    @Test
+    public void pileCountsGamesAreReproducible() {
+        // with the trash and discard piles held as counts the games play out differently, but must still depend only
+        // on the seed
+        for (long seed : new long[]{42, 1066}) {
+            DominionParameters params = new DominionFGParameters();
+            params.unorderedPilesAsCounts = true;
+            String outcome = play(params, seed);
+            params = new DominionFGParameters();
+            params.unorderedPilesAsCounts = true;
+            assertEquals(outcome, play(params, seed));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package games.poker;
+
+import core.components.FrenchCard;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static games.poker.PokerGameState.PokerHand.*;
+import static org.junit.Assert.*;
+
+public class TestHandEvaluator {
+
+    // cards as "number suite", with suite the initial of FrenchCard.Suite, e.g. "14S" is the Ace of Spades
+    private int[] cards(String... cards) {
+        int[] retValue = new int[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            String c = cards[i];
+            int number = Integer.parseInt(c.substring(0, c.length() - 1));
+            int suite = "DHCS".indexOf(c.charAt(c.length() - 1));
+            retValue[i] = (number - 2) * 4 + suite;
+        }
+        return retValue;
+    }
+
+    private int evaluate(String... cards) {
+        return PokerHandEvaluator.evaluate(cards(cards), cards.length);
+    }
+
+    @Test
+    public void handTypes() {
+        assertEquals(RoyalFlush, PokerHandEvaluator.handType(evaluate("10S", "11S", "12S", "13S", "14S", "2D", "2H")));
+        assertEquals(StraightFlush, PokerHandEvaluator.handType(evaluate("14D", "2D", "3D", "4D", "5D")));
+        assertEquals(FourOfAKind, PokerHandEvaluator.handType(evaluate("9S", "9D", "9H", "9C", "5D", "5H", "5S")));
+        assertEquals(FullHouse, PokerHandEvaluator.handType(evaluate("9S", "9D", "9H", "5C", "5D", "5H", "2S")));
+        assertEquals(Flush, PokerHandEvaluator.handType(evaluate("2H", "5H", "7H", "9H", "13H", "13S", "13D")));
+        assertEquals(Straight, PokerHandEvaluator.handType(evaluate("6H", "7D", "8S", "9H", "10C", "10S", "10D")));
+        assertEquals(ThreeOfAKind, PokerHandEvaluator.handType(evaluate("6H", "6D", "6S", "9H", "11C")));
+        assertEquals(TwoPair, PokerHandEvaluator.handType(evaluate("6H", "6D", "9S", "9H", "11C", "11D", "2S")));
+        assertEquals(OnePair, PokerHandEvaluator.handType(evaluate("6H", "6D", "8S", "9H", "12C")));
+        assertEquals(HighCard, PokerHandEvaluator.handType(evaluate("2H", "6D", "8S", "9H", "12C")));
+    }
+
+    @Test
+    public void tiesAreBrokenByTheBestFiveCards() {
+        // the same pair, decided by the third kicker
+        assertTrue(evaluate("9S", "9D", "14H", "12C", "7D") > evaluate("9H", "9C", "14S", "12D", "6D"));
+        // cards beyond the best five do not count
+        assertEquals(evaluate("9S", "9D", "14H", "12C", "7D", "3D", "2C"), evaluate("9H", "9C", "14S", "12D", "7C", "4D", "3C"));
+        // the third pair can be the kicker of two pair
+        assertEquals(evaluate("13S", "13D", "11H", "11C", "8D"), evaluate("13H", "13C", "11S", "11D", "8S", "8C", "2C"));
+        // an Ace-low straight is the lowest straight
+        assertTrue(evaluate("14D", "2S", "3D", "4H", "5C") < evaluate("2S", "3D", "4H", "5C", "6D"));
+        assertTrue(evaluate("14D", "2S", "3D", "4H", "5C") > evaluate("14D", "14S", "14H", "13C", "12D"));
+    }
+
+    @Test
+    public void sevenCardsScoreAsTheBestFiveOfThem() {
+        Random rnd = new Random(42);
+        for (int deal = 0; deal < 5000; deal++) {
+            int[] deck = new int[52];
+            for (int i = 0; i < 52; i++) deck[i] = i;
+            for (int i = 0; i < 7; i++) {
+                int j = i + rnd.nextInt(52 - i);
+                int tmp = deck[i];
+                deck[i] = deck[j];
+                deck[j] = tmp;
+            }
+            int[] seven = Arrays.copyOf(deck, 7);
+            int best = -1;
+            // leave out each pair of cards in turn
+            for (int a = 0; a < 7; a++) {
+                for (int b = a + 1; b < 7; b++) {
+                    int[] five = new int[5];
+                    int n = 0;
+                    for (int i = 0; i < 7; i++)
+                        if (i != a && i != b) five[n++] = seven[i];
+                    best = Math.max(best, PokerHandEvaluator.evaluate(five, 5));
+                }
+            }
+            assertEquals(best, PokerHandEvaluator.evaluate(seven, 7));
+        }
+    }
+
+    @Test
+    public void cardIndexMatchesEncoding() {
+        assertArrayEquals(cards("14S", "2D"), new int[]{
+                PokerHandEvaluator.cardIndex(new FrenchCard(FrenchCard.FrenchCardType.Ace, FrenchCard.Suite.Spades)),
+                PokerHandEvaluator.cardIndex(new FrenchCard(FrenchCard.FrenchCardType.Number, FrenchCard.Suite.Diamonds, 2))});
+    }
+}
@@ -0,0 +1,101 @@
+package games.tictactoe;
+
+import core.AbstractGameState;
+import core.CoreConstants;
+import core.actions.AbstractAction;
+import core.components.GridBoard;
+import core.components.Token;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestTicTacToe {
+
+    TicTacToeForwardModel fm = new TicTacToeForwardModel();
+
+    private TicTacToeGameState newGame(int gridSize, long seed) {
+        TicTacToeGameParameters params = new TicTacToeGameParameters();
+        params.setParameterValue("gridSize", gridSize);
+        params.setRandomSeed(seed);
+        TicTacToeGameState state = new TicTacToeGameState(params, 2);
+        fm.setup(state);
+        return state;
+    }
+
+    // the winner found by scanning every row, column and diagonal of the board, or -1 if there is none
+    private int scanForWinner(GridBoard<Token> board) {
+        int n = board.getWidth();
+        int[][][] lines = new int[2 * n + 2][n][];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                lines[i][j] = new int[]{i, j};
+                lines[n + i][j] = new int[]{j, i};
+            }
+            lines[2 * n][i] = new int[]{i, i};
+            lines[2 * n + 1][i] = new int[]{n - 1 - i, i};
+        }
+        for (int[][] line : lines) {
+            String first = board.getElement(line[0][0], line[0][1]).getTokenType();
+            if (first.equals(TicTacToeConstants.emptyCell)) continue;
+            boolean complete = true;
+            for (int[] cell : line)
+                complete &= board.getElement(cell[0], cell[1]).getTokenType().equals(first);
+            if (complete)
+                return first.equals(TicTacToeConstants.playerMapping.get(0).getTokenType()) ? 0 : 1;
+        }
+        return -1;
+    }
+
+    private void checkAgainstScan(TicTacToeGameState state) {
+        int winner = scanForWinner(state.getGridBoard());
+        if (winner != -1) {
+            assertEquals(CoreConstants.GameResult.GAME_END, state.getGameStatus());
+            assertEquals(CoreConstants.GameResult.WIN_GAME, state.getPlayerResults()[winner]);
+        } else if (state.getGridBoard().getComponents().stream()
+                .noneMatch(t -> t.getTokenType().equals(TicTacToeConstants.emptyCell))) {
+            assertEquals(CoreConstants.GameResult.DRAW_GAME, state.getGameStatus());
+        } else {
+            assertTrue(state.isNotTerminal());
+        }
+    }
+
+    @Test
+    public void gameEndsExactlyWhenBoardHasALine() {
+        Random rnd = new Random(42);
+        for (int gridSize = 3; gridSize <= 6; gridSize++) {
+            for (int game = 0; game < 100; game++) {
+                TicTacToeGameState state = newGame(gridSize, rnd.nextLong());
+                while (state.isNotTerminal()) {
+                    List<AbstractAction> actions = fm.computeAvailableActions(state);
+                    assertFalse(actions.isEmpty());
+                    fm.next(state, actions.get(rnd.nextInt(actions.size())));
+                    checkAgainstScan(state);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void copiesBuildTheirBoardFromTheBitboards() {
+        Random rnd = new Random(3);
+        for (int game = 0; game < 100; game++) {
+            TicTacToeGameState state = newGame(3, rnd.nextLong());
+            // the moves are played on copies, whose board is only built at the end, as in a search
+            AbstractGameState copy = state.copy();
+            while (copy.isNotTerminal()) {
+                List<AbstractAction> actions = fm.computeAvailableActions(copy);
+                fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+                copy = copy.copy();
+            }
+            checkAgainstScan((TicTacToeGameState) copy);
+            assertEquals(state.getGridBoard().getComponentID(), ((TicTacToeGameState) copy).getGridBoard().getComponentID());
+            // and the original is untouched
+            assertTrue(state.isNotTerminal());
+            assertTrue(state.getGridBoard().getComponents().stream()
+                    .allMatch(t -> t.getTokenType().equals(TicTacToeConstants.emptyCell)));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package players.heuristics;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import core.interfaces.IStateFeatureVector;
+import core.interfaces.IStateHeuristic;
+import games.dotsboxes.DBForwardModel;
+import games.dotsboxes.DBGameState;
+import games.dotsboxes.DBParameters;
+import games.dotsboxes.DBStateFeatures;
+import org.junit.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BatchEvaluationTests {
+
+    IStateFeatureVector features = new DBStateFeatures();
+    List<AbstractGameState> states = new ArrayList<>();
+    File coefficientsFile;
+
+    @Before
+    public void setup() throws IOException {
+        Random rnd = new Random(4493);
+        String[] names = features.names();
+        coefficientsFile = File.createTempFile("coefficients", ".txt");
+        coefficientsFile.deleteOnExit();
+        try (PrintWriter writer = new PrintWriter(coefficientsFile)) {
+            writer.println("BIAS\t" + String.join("\t", names));
+            StringBuilder coefficients = new StringBuilder(String.format("%.3f", rnd.nextGaussian()));
+            for (int i = 0; i < names.length; i++)
+                coefficients.append(String.format("\t%.3f", rnd.nextGaussian() * 0.2));
+            writer.println(coefficients);
+        }
+
+        // the states of a random three-player game, including the final one
+        DBParameters params = new DBParameters();
+        params.setRandomSeed(320);
+        DBForwardModel forwardModel = new DBForwardModel();
+        DBGameState state = new DBGameState(params, 3);
+        forwardModel.setup(state);
+        states.add(state.copy());
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+            forwardModel.next(state, actions.get(rnd.nextInt(actions.size())));
+            states.add(state.copy());
+        }
+    }
+
+    @Test
+    public void featureVectorsMatchOnePlayerAtATime() {
+        int nFeatures = features.names().length;
+        for (AbstractGameState state : states) {
+            double[] batch = new double[1 + state.getNPlayers() * nFeatures];
+            features.featureVectors(state, batch, 1);
+            for (int p = 0; p < state.getNPlayers(); p++) {
+                assertArrayEquals(features.featureVector(state, p),
+                        Arrays.copyOfRange(batch, 1 + p * nFeatures, 1 + (p + 1) * nFeatures), 1e-12);
+            }
+        }
+
+        double[] allStates = new double[states.size() * 3 * nFeatures];
+        features.featureVectors(states.toArray(new AbstractGameState[0]), allStates);
+        double[] single = new double[3 * nFeatures];
+        features.featureVectors(states.get(states.size() / 2), single, 0);
+        int start = states.size() / 2 * 3 * nFeatures;
+        assertArrayEquals(single, Arrays.copyOfRange(allStates, start, start + single.length), 1e-12);
+    }
+
+    @Test
+    public void linearHeuristics() {
+        String file = coefficientsFile.getPath();
+        checkBatchMatches(new LinearStateHeuristic(features, file, new LeaderHeuristic()));
+        checkBatchMatches(new LinearStateWinHeuristic(features, file, new LeaderHeuristic()));
+        checkBatchMatches(new LinearStateOrdHeuristic(features, file, new LeaderHeuristic()));
+        checkBatchMatches(new LinearStateBonusHeuristic(features, file, new LeaderHeuristic()));
+    }
+
+    @Test
+    public void logisticHeuristics() {
+        String file = coefficientsFile.getPath();
+        checkBatchMatches(new LogisticStateHeuristic(features, file, new LeaderHeuristic()));
+        checkBatchMatches(new LogisticStateWinHeuristic(features, file, new LeaderHeuristic()));
+        checkBatchMatches(new LogisticStateOrdHeuristic(features, file, new LeaderHeuristic()));
+    }
+
+    @Test
+    public void withoutCoefficients() {
+        checkBatchMatches(new LinearStateHeuristic(features, "", new LeaderHeuristic()));
+        checkBatchMatches(new LogisticStateHeuristic(features, "", new LeaderHeuristic()));
+    }
+
+    private void checkBatchMatches(IStateHeuristic heuristic) {
+        for (AbstractGameState state : states) {
+            double[] values = new double[state.getNPlayers()];
+            heuristic.evaluateAllPlayers(state, values);
+            for (int p = 0; p < values.length; p++)
+                assertEquals(heuristic.evaluateState(state, p), values[p], 1e-9);
+        }
+    }
+}
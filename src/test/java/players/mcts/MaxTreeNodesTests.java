@@ -0,0 +1,148 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.connect4.Connect4ForwardModel;
+import games.connect4.Connect4GameParameters;
+import games.connect4.Connect4GameState;
+import org.junit.*;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MaxTreeNodesTests {
+
+    TestMCTSPlayer mctsPlayer;
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams();
+        params.setRandomSeed(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OneTree;
+        params.information = MCTSEnums.Information.Open_Loop;
+        params.rolloutLength = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 1000;
+        params.maxTreeNodes = 100;
+    }
+
+    public Game createGame(MCTSParams params) {
+        mctsPlayer = new TestMCTSPlayer(params, null);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        Connect4GameParameters gameParams = new Connect4GameParameters();
+        gameParams.setRandomSeed(330245);
+        Game game = new Game(GameType.Connect4, players, new Connect4ForwardModel(), new Connect4GameState(gameParams, players.size()));
+        game.reset(players);
+        return game;
+    }
+
+    @Test
+    public void openLoop() {
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void closedLoop() {
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.discardStateAfterEachIteration = false;
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void withTreeReuse() {
+        params.reuseTree = true;
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void withOMA() {
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OMA_All;
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void treeParallel() {
+        params.parallelism = MCTSEnums.Parallelism.TREE;
+        params.nThreads = 4;
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void noLimitByDefault() {
+        params.maxTreeNodes = 0;
+        assertEquals(0, runGame(createGame(params)));
+    }
+
+    @Test
+    public void evictsTheLeastVisitedLeaves() {
+        params.budget = 2000;
+        params.maxTreeNodes = 300;
+        Game game = createGame(params);
+        AbstractGameState state = game.getGameState();
+        mctsPlayer._getAction(state.copy(0), game.getForwardModel().computeAvailableActions(state));
+        SingleTreeNode root = mctsPlayer.getRoot(0);
+        assertTrue(root.nodesEvicted > 0);
+        // the tree is always trimmed from the least visited end, so the nodes kept near the root are well visited
+        for (SingleTreeNode[] children : root.getChildren().values())
+            if (children != null)
+                for (SingleTreeNode child : children)
+                    if (child != null)
+                        assertTrue(child.getVisits() > 10);
+    }
+
+    // an OMA parent must be an ancestor in the current tree, and not a node left over from before it was recycled
+    private void checkOMALinks(OMATreeNode node) {
+        node.getOMAParent().ifPresent(omaParent -> {
+            assertSame(node.root, omaParent.root);
+            assertEquals(node.getActor(), omaParent.getActor());
+            SingleTreeNode ancestor = node.getParent();
+            while (ancestor != null && ancestor != omaParent)
+                ancestor = ancestor.getParent();
+            assertSame(omaParent, ancestor);
+        });
+    }
+
+    /**
+     * @return the number of nodes evicted over the game
+     */
+    private int runGame(Game game) {
+        int evicted = 0;
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        do {
+            AbstractGameState observation = state.copy(state.getCurrentPlayer());
+            AbstractAction actionChosen = game.getPlayers().get(state.getCurrentPlayer())
+                    ._getAction(observation, forwardModel.computeAvailableActions(observation));
+
+            if (state.getCurrentPlayer() == 0) {
+                SingleTreeNode root = mctsPlayer.getRoot(0);
+                List<SingleTreeNode> nodes = root.allNodesInTree();
+                assertEquals(nodes.size(), root.nodesInTree);
+                if (params.maxTreeNodes > 0)
+                    assertTrue(nodes.size() <= params.maxTreeNodes);
+                for (SingleTreeNode node : nodes) {
+                    // no node that has been recycled can still be in the tree
+                    assertSame(root, node.root);
+                    if (node != root) {
+                        assertEquals(node.getParent().getDepth() + 1, node.getDepth());
+                        assertTrue(Arrays.asList(node.getParent().getChildren().get(node.getActionToReach())).contains(node));
+                    }
+                    if (node instanceof OMATreeNode)
+                        checkOMALinks((OMATreeNode) node);
+                }
+                // a node is only allocated once the pool of evicted nodes is empty
+                assertTrue(root.nodesReused <= root.nodesEvicted || params.reuseTree);
+                evicted += root.nodesEvicted;
+            }
+            forwardModel.next(state, actionChosen);
+        } while (state.isNotTerminal());
+        return evicted;
+    }
+}
@@ -0,0 +1,112 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import games.GameType;
+import games.connect4.Connect4ForwardModel;
+import games.connect4.Connect4GameParameters;
+import games.connect4.Connect4GameState;
+import org.junit.*;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParallelMCTSTests {
+
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams();
+        params.setRandomSeed(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OneTree;
+        params.information = MCTSEnums.Information.Open_Loop;
+        params.rolloutLength = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        params.nThreads = 4;
+    }
+
+    private Game createGame(AbstractPlayer mctsPlayer) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        Connect4GameParameters gameParams = new Connect4GameParameters();
+        gameParams.setRandomSeed(330245);
+        Game game = new Game(GameType.Connect4, players, new Connect4ForwardModel(), new Connect4GameState(gameParams, players.size()));
+        game.reset(players);
+        return game;
+    }
+
+    /**
+     * @return the columns played by the MCTS player over one game
+     */
+    private List<Integer> runGame(TestMCTSPlayer mctsPlayer, int expectedRootVisits) {
+        Game game = createGame(mctsPlayer);
+        List<Integer> retValue = new ArrayList<>();
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        do {
+            AbstractGameState observation = state.copy(state.getCurrentPlayer());
+            AbstractAction actionChosen = game.getPlayers().get(state.getCurrentPlayer())
+                    .getAction(observation, forwardModel.computeAvailableActions(observation));
+            if (state.getCurrentPlayer() == 0) {
+                retValue.add(((SetGridValueAction) actionChosen).getX());
+                checkTree(mctsPlayer.getRoot(0), expectedRootVisits);
+            }
+            forwardModel.next(state, actionChosen);
+        } while (state.isNotTerminal());
+        return retValue;
+    }
+
+    private void checkTree(SingleTreeNode root, int expectedVisits) {
+        // the budget is shared by the workers in tree parallelisation, and split between the trees in root parallelisation
+        assertEquals(expectedVisits, root.getVisits());
+        // once all the virtual losses have been removed, each node has one visit for each visit to its children
+        // (plus one for the rollout from the node itself)
+        for (SingleTreeNode node : root.allNodesInTree()) {
+            int childVisits = node.children.keySet().stream().mapToInt(node::actionVisits).sum();
+            if (node.terminalNode)
+                assertEquals(0, childVisits);
+            else
+                assertTrue(node.getVisits() - childVisits >= 0 && node.getVisits() - childVisits <= 1);
+        }
+    }
+
+    @Test
+    public void rootParallelisation() {
+        params.parallelism = MCTSEnums.Parallelism.ROOT;
+        List<Integer> first = runGame(new TestMCTSPlayer(params, null), 50);
+        // the rollout policy is constructed (and seeded) by the params, so we need new ones for the second player
+        setup();
+        params.parallelism = MCTSEnums.Parallelism.ROOT;
+        List<Integer> second = runGame(new TestMCTSPlayer(params, null), 50);
+        // each tree has its own random number generator and policies, seeded from the player, so the result is reproducible
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void rootParallelisationWithFullBudgetPerTree() {
+        params.parallelism = MCTSEnums.Parallelism.ROOT;
+        params.rootBudgetPerTree = true;
+        assertFalse(runGame(new TestMCTSPlayer(params, null), 200).isEmpty());
+    }
+
+    @Test
+    public void treeParallelisation() {
+        params.parallelism = MCTSEnums.Parallelism.TREE;
+        assertFalse(runGame(new TestMCTSPlayer(params, null), 200).isEmpty());
+    }
+
+    @Test
+    public void treeParallelisationClosedLoop() {
+        params.parallelism = MCTSEnums.Parallelism.TREE;
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.discardStateAfterEachIteration = false;
+        assertFalse(runGame(new TestMCTSPlayer(params, null), 200).isEmpty());
+    }
+}
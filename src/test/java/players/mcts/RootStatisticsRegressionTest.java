@@ -0,0 +1,307 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.AbstractPlayer;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Plays the first few decisions of fixed-seed games with MCTS as player 0, and checks the action chosen at each and
+ * the visits, valid visits and total values of every child of the root.
+ * The expected lines were recorded with the tree keyed by action (children, nVisits and nValidVisits as HashMaps)
+ * before the statistics were moved into slot arrays, so any difference is a change in behaviour of the search.
+ */
+public class RootStatisticsRegressionTest {
+
+    static final int DECISIONS = 4;
+
+    /**
+     * One line per decision: the game tick, the chosen action and the root visits, followed by the action, visits,
+     * valid visits and total value for each player of every child of the root
+     */
+    List<String> record(GameType gameType, int nPlayers, long seed, MCTSEnums.Information information) {
+        MCTSParams params = new MCTSParams();
+        params.setRandomSeed(seed);
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        params.information = information;
+        List<String> lines = new ArrayList<>();
+        MCTSPlayer mcts = new MCTSPlayer(params) {
+            @Override
+            public AbstractAction _getAction(AbstractGameState state, List<AbstractAction> actions) {
+                AbstractAction chosen = super._getAction(state, actions);
+                StringBuilder sb = new StringBuilder();
+                sb.append(state.getGameTick()).append(" ").append(text(chosen)).append(" / ").append(root.getVisits());
+                for (AbstractAction a : root.getChildren().keySet()) {
+                    sb.append(" / ").append(text(a)).append(" ").append(root.actionVisits(a))
+                            .append(" ").append(root.actionValidVisits(a));
+                    for (int p = 0; p < state.getNPlayers(); p++)
+                        sb.append(String.format(" %.4f", root.actionTotValue(a, p)));
+                }
+                lines.add(sb.toString());
+                return chosen;
+            }
+        };
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mcts);
+        for (int p = 1; p < nPlayers; p++)
+            players.add(new RandomPlayer(new Random(seed + p)));
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        game.reset(players, seed);
+        while (lines.size() < DECISIONS && game.getGameState().isNotTerminal())
+            game.oneAction();
+        return lines;
+    }
+
+    // component ids depend on what else has been created in the JVM
+    static String text(AbstractAction action) {
+        return action.toString().replaceAll("gridBoard=\\d+, ", "");
+    }
+
+    void check(String[] expected, List<String> actual) {
+        assertEquals(String.join("\n", expected), String.join("\n", actual));
+    }
+
+    @Test
+    public void connect4() {
+        check(CONNECT4_42, record(GameType.Connect4, 2, 42, MCTSEnums.Information.Open_Loop));
+        check(CONNECT4_1066, record(GameType.Connect4, 2, 1066, MCTSEnums.Information.Open_Loop));
+    }
+
+    @Test
+    public void dominion() {
+        check(DOMINION_42, record(GameType.Dominion, 2, 42, MCTSEnums.Information.Open_Loop));
+        check(DOMINION_1066, record(GameType.Dominion, 3, 1066, MCTSEnums.Information.Information_Set));
+    }
+
+    @Test
+    public void loveLetter() {
+        check(LOVELETTER_42, record(GameType.LoveLetter, 2, 42, MCTSEnums.Information.Open_Loop));
+        check(LOVELETTER_1066, record(GameType.LoveLetter, 3, 1066, MCTSEnums.Information.Information_Set));
+    }
+
+    static final String[] CONNECT4_42 = {
+            "0 SetGridValueAction{x=1, y=7, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 18 200 -4.0000 4.0000 / "
+                    + "SetGridValueAction{x=1, y=7, value=x} 30 200 4.0000 -4.0000 / "
+                    + "SetGridValueAction{x=2, y=7, value=x} 25 200 -1.0000 1.0000 / "
+                    + "SetGridValueAction{x=3, y=7, value=x} 27 200 2.0000 -2.0000 / "
+                    + "SetGridValueAction{x=4, y=7, value=x} 30 200 4.0000 -4.0000 / "
+                    + "SetGridValueAction{x=5, y=7, value=x} 24 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=6, y=7, value=x} 25 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 21 200 -2.0000 2.0000",
+            "2 SetGridValueAction{x=4, y=7, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 22 200 -2.0000 2.0000 / "
+                    + "SetGridValueAction{x=1, y=6, value=x} 20 200 -3.0000 3.0000 / "
+                    + "SetGridValueAction{x=2, y=7, value=x} 23 200 -1.0000 1.0000 / "
+                    + "SetGridValueAction{x=3, y=7, value=x} 34 200 6.0000 -6.0000 / "
+                    + "SetGridValueAction{x=4, y=7, value=x} 33 200 6.0000 -6.0000 / "
+                    + "SetGridValueAction{x=5, y=6, value=x} 25 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=6, y=7, value=x} 23 200 -1.0000 1.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 20 200 -3.0000 3.0000",
+            "4 SetGridValueAction{x=4, y=6, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 24 200 1.0000 -1.0000 / "
+                    + "SetGridValueAction{x=1, y=6, value=x} 25 200 2.0000 -2.0000 / "
+                    + "SetGridValueAction{x=2, y=6, value=x} 25 200 2.0000 -2.0000 / "
+                    + "SetGridValueAction{x=3, y=7, value=x} 23 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=4, y=6, value=x} 32 200 7.0000 -7.0000 / "
+                    + "SetGridValueAction{x=5, y=6, value=x} 24 200 1.0000 -1.0000 / "
+                    + "SetGridValueAction{x=6, y=7, value=x} 25 200 2.0000 -2.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 22 200 0.0000 0.0000",
+            "6 SetGridValueAction{x=5, y=6, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 22 200 1.0000 -1.0000 / "
+                    + "SetGridValueAction{x=1, y=6, value=x} 26 200 4.0000 -4.0000 / "
+                    + "SetGridValueAction{x=2, y=6, value=x} 25 200 5.0000 -5.0000 / "
+                    + "SetGridValueAction{x=3, y=7, value=x} 19 200 -1.0000 1.0000 / "
+                    + "SetGridValueAction{x=4, y=5, value=x} 24 200 4.0000 -4.0000 / "
+                    + "SetGridValueAction{x=5, y=6, value=x} 31 200 10.0000 -10.0000 / "
+                    + "SetGridValueAction{x=6, y=6, value=x} 23 200 3.0000 -3.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 30 200 9.0000 -9.0000"
+    };
+
+    static final String[] CONNECT4_1066 = {
+            "0 SetGridValueAction{x=6, y=7, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 26 200 1.0000 -1.0000 / "
+                    + "SetGridValueAction{x=1, y=7, value=x} 21 200 -2.0000 2.0000 / "
+                    + "SetGridValueAction{x=2, y=7, value=x} 21 200 -2.0000 2.0000 / "
+                    + "SetGridValueAction{x=3, y=7, value=x} 27 200 2.0000 -2.0000 / "
+                    + "SetGridValueAction{x=4, y=7, value=x} 25 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=5, y=7, value=x} 26 200 1.0000 -1.0000 / "
+                    + "SetGridValueAction{x=6, y=7, value=x} 30 200 4.0000 -4.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 24 200 0.0000 0.0000",
+            "2 SetGridValueAction{x=2, y=7, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 26 200 1.0000 -1.0000 / "
+                    + "SetGridValueAction{x=1, y=7, value=x} 22 200 -1.0000 1.0000 / "
+                    + "SetGridValueAction{x=2, y=7, value=x} 30 200 4.0000 -4.0000 / "
+                    + "SetGridValueAction{x=3, y=7, value=x} 29 200 3.0000 -3.0000 / "
+                    + "SetGridValueAction{x=4, y=7, value=x} 25 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=5, y=6, value=x} 25 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=6, y=6, value=x} 20 200 -3.0000 3.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 23 200 -1.0000 1.0000",
+            "4 SetGridValueAction{x=2, y=6, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 22 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=1, y=7, value=x} 22 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=2, y=6, value=x} 31 200 7.0000 -7.0000 / "
+                    + "SetGridValueAction{x=3, y=7, value=x} 31 200 7.0000 -7.0000 / "
+                    + "SetGridValueAction{x=4, y=7, value=x} 24 200 2.0000 -2.0000 / "
+                    + "SetGridValueAction{x=5, y=6, value=x} 24 200 2.0000 -2.0000 / "
+                    + "SetGridValueAction{x=6, y=5, value=x} 27 200 4.0000 -4.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 19 200 -2.0000 2.0000",
+            "6 SetGridValueAction{x=2, y=5, value=x} / 200 / "
+                    + "SetGridValueAction{x=0, y=7, value=x} 20 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=1, y=7, value=x} 29 200 8.0000 -8.0000 / "
+                    + "SetGridValueAction{x=2, y=5, value=x} 37 200 15.0000 -15.0000 / "
+                    + "SetGridValueAction{x=3, y=6, value=x} 28 200 7.0000 -7.0000 / "
+                    + "SetGridValueAction{x=4, y=7, value=x} 22 200 1.0000 -1.0000 / "
+                    + "SetGridValueAction{x=5, y=6, value=x} 27 200 5.0000 -5.0000 / "
+                    + "SetGridValueAction{x=6, y=5, value=x} 20 200 0.0000 0.0000 / "
+                    + "SetGridValueAction{x=7, y=7, value=x} 17 200 -2.0000 2.0000"
+    };
+
+    static final String[] DOMINION_42 = {
+            "1 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: SILVER by player 0 20 200 0.0800 0.0600 / "
+                    + "BuyCard: MERCHANT by player 0 23 200 0.1300 0.0800 / "
+                    + "BuyCard: VILLAGE by player 0 20 200 0.0700 0.1100 / "
+                    + "BuyCard: WORKSHOP by player 0 17 200 0.0300 0.0900 / "
+                    + "BuyCard: ESTATE by player 0 40 200 0.5100 0.1100 / "
+                    + "BuyCard: CELLAR by player 0 18 200 0.0400 0.0800 / "
+                    + "BuyCard: MOAT by player 0 23 200 0.1300 0.0600 / "
+                    + "BuyCard: COPPER by player 0 20 200 0.0700 0.0500 / "
+                    + "End Current Phase 19 200 0.0600 0.0700",
+            "5 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: MILITIA by player 0 16 200 0.0600 0.0500 / "
+                    + "BuyCard: REMODEL by player 0 13 200 -0.0000 0.0400 / "
+                    + "BuyCard: SMITHY by player 0 14 200 0.0100 0.0400 / "
+                    + "BuyCard: SILVER by player 0 20 200 0.1300 0.0600 / "
+                    + "BuyCard: MERCHANT by player 0 13 200 0.0000 0.0600 / "
+                    + "BuyCard: VILLAGE by player 0 15 200 0.0400 0.0500 / "
+                    + "BuyCard: WORKSHOP by player 0 15 200 0.0300 0.0400 / "
+                    + "BuyCard: ESTATE by player 0 35 200 0.4900 0.1000 / "
+                    + "BuyCard: CELLAR by player 0 16 200 0.0600 0.0600 / "
+                    + "BuyCard: MOAT by player 0 13 200 0.0000 0.0500 / "
+                    + "BuyCard: COPPER by player 0 16 200 0.0500 0.0800 / "
+                    + "End Current Phase 14 200 0.0200 0.0600",
+            "9 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: ESTATE by player 0 86 200 1.1500 0.3600 / "
+                    + "BuyCard: CELLAR by player 0 25 200 0.0300 0.1000 / "
+                    + "BuyCard: MOAT by player 0 30 200 0.1000 0.0700 / "
+                    + "BuyCard: COPPER by player 0 29 200 0.0800 0.1500 / "
+                    + "End Current Phase 30 200 0.1000 0.1400",
+            "13 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: SILVER by player 0 20 200 0.0400 0.0500 / "
+                    + "BuyCard: MERCHANT by player 0 21 200 0.0500 0.0800 / "
+                    + "BuyCard: VILLAGE by player 0 20 200 0.0300 0.0600 / "
+                    + "BuyCard: WORKSHOP by player 0 22 200 0.0700 0.0900 / "
+                    + "BuyCard: ESTATE by player 0 36 200 0.4700 0.0800 / "
+                    + "BuyCard: CELLAR by player 0 20 200 0.0300 0.0600 / "
+                    + "BuyCard: MOAT by player 0 21 200 0.0500 0.0800 / "
+                    + "BuyCard: COPPER by player 0 20 200 0.0300 0.0500 / "
+                    + "End Current Phase 20 200 0.0200 0.0800"
+    };
+
+    static final String[] DOMINION_1066 = {
+            "1 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: MILITIA by player 0 16 200 0.0300 0.0400 0.0400 / "
+                    + "BuyCard: REMODEL by player 0 14 200 0.0100 0.0300 0.0200 / "
+                    + "BuyCard: SMITHY by player 0 15 200 0.0300 0.0300 0.0100 / "
+                    + "BuyCard: SILVER by player 0 14 200 0.0000 0.0400 0.0400 / "
+                    + "BuyCard: MERCHANT by player 0 14 200 0.0000 0.0400 0.0200 / "
+                    + "BuyCard: VILLAGE by player 0 15 200 0.0200 0.0300 0.0900 / "
+                    + "BuyCard: WORKSHOP by player 0 15 200 0.0200 0.0500 0.0100 / "
+                    + "BuyCard: ESTATE by player 0 30 200 0.3500 0.1100 0.1800 / "
+                    + "BuyCard: CELLAR by player 0 15 200 0.0300 0.0800 0.0400 / "
+                    + "BuyCard: MOAT by player 0 17 200 0.0500 0.0500 0.0100 / "
+                    + "BuyCard: COPPER by player 0 18 200 0.0800 0.0600 0.0500 / "
+                    + "End Current Phase 17 200 0.0600 0.0800 0.0400",
+            "7 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: SILVER by player 0 16 200 0.0200 0.0800 0.0100 / "
+                    + "BuyCard: MERCHANT by player 0 17 200 0.0300 0.0800 0.0200 / "
+                    + "BuyCard: VILLAGE by player 0 18 200 0.0400 0.0600 0.0200 / "
+                    + "BuyCard: WORKSHOP by player 0 17 200 0.0300 0.0400 0.0400 / "
+                    + "BuyCard: ESTATE by player 0 57 200 0.7300 0.2000 0.0800 / "
+                    + "BuyCard: CELLAR by player 0 19 200 0.0500 0.0300 0.0200 / "
+                    + "BuyCard: MOAT by player 0 18 200 0.0500 0.0300 0.0300 / "
+                    + "BuyCard: COPPER by player 0 19 200 0.0600 0.0200 0.0200 / "
+                    + "End Current Phase 19 200 0.0600 0.0500 0.0600",
+            "13 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: SILVER by player 0 19 200 0.0400 0.0300 0.0400 / "
+                    + "BuyCard: MERCHANT by player 0 17 200 0.0200 0.0600 0.0400 / "
+                    + "BuyCard: VILLAGE by player 0 16 200 0.0100 0.0600 0.0600 / "
+                    + "BuyCard: WORKSHOP by player 0 20 200 0.0600 0.0300 0.0300 / "
+                    + "BuyCard: ESTATE by player 0 60 200 0.7500 0.2200 0.2000 / "
+                    + "BuyCard: CELLAR by player 0 15 200 0.0000 0.0500 0.0500 / "
+                    + "BuyCard: MOAT by player 0 16 200 0.0100 0.0500 0.0200 / "
+                    + "BuyCard: COPPER by player 0 18 200 0.0300 0.0500 0.0300 / "
+                    + "End Current Phase 19 200 0.0400 0.0400 0.0100",
+            "20 BuyCard: ESTATE by player 0 / 200 / "
+                    + "BuyCard: SILVER by player 0 17 200 0.0200 0.0700 0.0700 / "
+                    + "BuyCard: MERCHANT by player 0 20 200 0.0600 0.0900 0.1000 / "
+                    + "BuyCard: VILLAGE by player 0 16 200 0.0100 0.0600 0.0200 / "
+                    + "BuyCard: WORKSHOP by player 0 19 200 0.0500 0.0600 0.0800 / "
+                    + "BuyCard: ESTATE by player 0 58 200 0.7300 0.1900 0.1800 / "
+                    + "BuyCard: CELLAR by player 0 18 200 0.0300 0.0600 0.0300 / "
+                    + "BuyCard: MOAT by player 0 15 200 0.0000 0.0600 0.0500 / "
+                    + "BuyCard: COPPER by player 0 19 200 0.0500 0.0800 0.0400 / "
+                    + "End Current Phase 18 200 0.0400 0.0500 0.0700"
+    };
+
+    static final String[] LOVELETTER_42 = {
+            "0 Baron / 200 / "
+                    + "Countess 68 200 5.4157 4.8647 / "
+                    + "Baron 132 200 21.4490 7.2471",
+            "1 Priest / 200 / "
+                    + "Princess 94 200 4.8569 19.4961 / "
+                    + "Priest 106 200 7.5333 20.3176",
+            "3 Guard / 200 / "
+                    + "Guard 25 200 2.9137 3.7980 / "
+                    + "Guard 24 200 1.7471 5.1392 / "
+                    + "Guard 26 200 3.2255 4.5000 / "
+                    + "Guard 26 200 3.1451 5.8902 / "
+                    + "Guard 26 200 3.5745 5.3235 / "
+                    + "Guard 25 200 2.9294 5.0784 / "
+                    + "Guard 24 200 2.1392 3.9569 / "
+                    + "Countess 24 200 1.7431 4.8373",
+            "5 Countess / 200 / "
+                    + "Handmaid 99 200 9.4529 18.4137 / "
+                    + "Countess 101 200 10.1529 15.3471"
+    };
+
+    static final String[] LOVELETTER_1066 = {
+            "0 Guard / 200 / "
+                    + "Guard 16 200 0.9741 0.1129 0.6886 / "
+                    + "Guard 16 200 1.1133 0.4502 0.2682 / "
+                    + "Guard 13 200 0.1098 0.4055 1.0153 / "
+                    + "Guard 14 200 0.0941 -0.1455 1.1729 / "
+                    + "Guard 12 200 -0.1604 0.3655 0.9412 / "
+                    + "Guard 15 200 0.6733 -0.3780 1.4431 / "
+                    + "Guard 10 200 -0.7847 0.7027 0.7835 / "
+                    + "Guard 15 200 0.6847 0.1141 0.6404 / "
+                    + "Guard 13 200 0.1235 0.5012 0.8039 / "
+                    + "Guard 10 200 -0.6082 0.7800 1.2965 / "
+                    + "Guard 13 200 0.0569 1.0302 0.2631 / "
+                    + "Guard 14 200 0.3784 0.6149 0.1110 / "
+                    + "Guard 10 200 -0.6933 0.6490 0.9345 / "
+                    + "Guard 16 200 1.0000 0.5424 0.5494 / "
+                    + "Princess 13 200 0.1475 0.2945 1.7239",
+            "2 Princess / 200 / "
+                    + "Countess 96 200 -6.2051 10.2918 15.1722 / "
+                    + "Princess 104 200 -6.0839 9.3510 13.1431",
+            "4 Prince / 200 / "
+                    + "Princess 51 200 -3.2427 4.3475 2.8235 / "
+                    + "Prince 37 200 -4.4475 5.2867 3.0933 / "
+                    + "Prince 61 200 -2.2545 4.3945 3.0847 / "
+                    + "Prince 51 200 -3.1443 4.8016 3.3969",
+            "7 Handmaid / 200 / "
+                    + "Handmaid 128 200 0.5702 8.4161 7.2231 / "
+                    + "Princess 72 200 -4.2255 7.6804 6.5188"
+    };
+}
@@ -0,0 +1,167 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import core.interfaces.IStateKey;
+import games.GameType;
+import games.connect4.Connect4ForwardModel;
+import games.connect4.Connect4GameParameters;
+import games.connect4.Connect4GameState;
+import org.junit.*;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTests {
+
+    TestMCTSPlayer mctsPlayer;
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams();
+        params.setRandomSeed(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OneTree;
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.discardStateAfterEachIteration = false;
+        params.rolloutLength = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 1000;
+        params.transpositionTableSize = 100000;
+    }
+
+    public Game createGame(MCTSParams params) {
+        mctsPlayer = new TestMCTSPlayer(params, null);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        Connect4GameParameters gameParams = new Connect4GameParameters();
+        gameParams.setRandomSeed(330245);
+        Game game = new Game(GameType.Connect4, players, new Connect4ForwardModel(), new Connect4GameState(gameParams, players.size()));
+        game.reset(players);
+        return game;
+    }
+
+    @Test
+    public void closedLoop() {
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void closedLoopWithTreeReuse() {
+        params.reuseTree = true;
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void notUsedInOpenLoop() {
+        params.information = MCTSEnums.Information.Open_Loop;
+        params.discardStateAfterEachIteration = true;
+        assertEquals(0, runGame(createGame(params)));
+    }
+
+    @Test
+    public void notUsedIfSwitchedOff() {
+        params.transpositionTableSize = 0;
+        assertEquals(0, runGame(createGame(params)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cannotBeUsedWithATreeSizeLimit() {
+        params.maxTreeNodes = 500;
+        runGame(createGame(params));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void treeSizeLimitIsRejectedWhenLoaded() {
+        params.setParameterValue("maxTreeNodes", 500);
+        params.setParameterValue("transpositionTableSize", 1000);
+    }
+
+    @Test
+    public void stateKeysMatchAcrossMoveOrders() {
+        Game game = createGame(params);
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        Connect4GameState first = (Connect4GameState) game.getGameState().copy();
+        Connect4GameState second = (Connect4GameState) game.getGameState().copy();
+        for (int column : new int[]{0, 1, 2, 3})
+            play(forwardModel, first, column);
+        for (int column : new int[]{2, 3, 0, 1})
+            play(forwardModel, second, column);
+        assertEquals(first.getStateKey(), second.getStateKey());
+        assertEquals(first, second);
+        assertEquals(first.getStateKey(), ((IStateKey) first.copy()).getStateKey());
+
+        // the same cells, but taken by the other players
+        Connect4GameState third = (Connect4GameState) game.getGameState().copy();
+        for (int column : new int[]{1, 0, 3, 2})
+            play(forwardModel, third, column);
+        assertNotEquals(first.getStateKey(), third.getStateKey());
+        assertNotEquals(first, third);
+        play(forwardModel, third, 4);
+        assertNotEquals(first.getStateKey(), third.getStateKey());
+    }
+
+    private void play(AbstractForwardModel forwardModel, AbstractGameState state, int column) {
+        AbstractAction action = forwardModel.computeAvailableActions(state).stream()
+                .filter(a -> ((SetGridValueAction<?>) a).getX() == column)
+                .findFirst().orElseThrow(() -> new AssertionError("Column full: " + column));
+        forwardModel.next(state, action);
+    }
+
+    /**
+     * @return the number of times a position was found in the transposition table over the game
+     */
+    private int runGame(Game game) {
+        int hits = 0;
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        do {
+            AbstractGameState observation = state.copy(state.getCurrentPlayer());
+            AbstractAction actionChosen = game.getPlayers().get(state.getCurrentPlayer())
+                    ._getAction(observation, forwardModel.computeAvailableActions(observation));
+
+            if (state.getCurrentPlayer() == 0) {
+                SingleTreeNode root = mctsPlayer.getRoot(0);
+                // each position is in the tree only once, one level below each of its parents
+                boolean usesTable = params.transpositionTableSize > 0 && params.information == MCTSEnums.Information.Closed_Loop;
+                Set<Long> positions = new HashSet<>();
+                Map<SingleTreeNode, Integer> visitsOfParents = new IdentityHashMap<>();
+                Map<Integer, Integer> visitsAtDepth = new HashMap<>();
+                for (SingleTreeNode node : root.allNodesInTree()) {
+                    visitsAtDepth.merge(node.getDepth(), node.getVisits(), Integer::sum);
+                    if (node != root) {
+                        if (usesTable)
+                            assertTrue(positions.add(((IStateKey) node.getState()).getStateKey()));
+                        // the parent of a node is one of the nodes it is a child of, by the action it records
+                        SingleTreeNode[] fromParent = node.getParent().getChildren().get(node.getActionToReach());
+                        assertTrue(fromParent != null && Arrays.asList(fromParent).contains(node));
+                    }
+                    for (SingleTreeNode[] children : node.getChildren().values())
+                        if (children != null)
+                            for (SingleTreeNode child : children)
+                                if (child != null) {
+                                    assertEquals(node.getDepth() + 1, child.getDepth());
+                                    visitsOfParents.merge(child, node.getVisits(), Integer::sum);
+                                }
+                }
+                // every visit to a node was made through one of its parents, and each iteration visits at most
+                // one node at each depth (a reused tree also keeps the visits made through parents since dropped)
+                if (!params.reuseTree) {
+                    visitsOfParents.forEach((node, visits) -> assertTrue(node.getVisits() <= visits));
+                    for (int depth : visitsAtDepth.keySet())
+                        if (depth > root.getDepth())
+                            assertTrue(visitsAtDepth.get(depth) <= visitsAtDepth.get(depth - 1));
+                }
+                assertTrue(root.getVisits() >= params.budget);
+                hits += root.transpositionHits;
+            }
+            forwardModel.next(state, actionChosen);
+        } while (state.isNotTerminal());
+        return hits;
+    }
+}
@@ -0,0 +1,100 @@
+package players.mcts;
+
+import core.*;
+import core.actions.AbstractAction;
+import games.GameType;
+import games.connect4.Connect4ForwardModel;
+import games.connect4.Connect4GameParameters;
+import games.connect4.Connect4GameState;
+import org.junit.*;
+import players.PlayerConstants;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TreeReuseTests {
+
+    TestMCTSPlayer mctsPlayer;
+    MCTSParams params;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams();
+        params.setRandomSeed(9332);
+        params.opponentTreePolicy = MCTSEnums.OpponentTreePolicy.OneTree;
+        params.rolloutLength = 10;
+        params.budgetType = PlayerConstants.BUDGET_ITERATIONS;
+        params.budget = 200;
+        params.reuseTree = true;
+    }
+
+    public Game createGame(MCTSParams params) {
+        mctsPlayer = new TestMCTSPlayer(params, null);
+        List<AbstractPlayer> players = new ArrayList<>();
+        players.add(mctsPlayer);
+        players.add(new RandomPlayer(new Random(3023)));
+        Connect4GameParameters gameParams = new Connect4GameParameters();
+        gameParams.setRandomSeed(330245);
+        return new Game(GameType.Connect4, players, new Connect4ForwardModel(), new Connect4GameState(gameParams, players.size()));
+    }
+
+    @Test
+    public void closedLoop() {
+        params.information = MCTSEnums.Information.Closed_Loop;
+        params.discardStateAfterEachIteration = false;
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void openLoop() {
+        params.information = MCTSEnums.Information.Open_Loop;
+        assertTrue(runGame(createGame(params)) > 0);
+    }
+
+    @Test
+    public void noReuseWithInformationSet() {
+        params.information = MCTSEnums.Information.Information_Set;
+        assertEquals(0, runGame(createGame(params)));
+    }
+
+    @Test
+    public void noReuseIfSwitchedOff() {
+        params.information = MCTSEnums.Information.Open_Loop;
+        params.reuseTree = false;
+        assertEquals(0, runGame(createGame(params)));
+    }
+
+    /**
+     * @return the number of decisions for which the tree was reused
+     */
+    private int runGame(Game game) {
+        int reused = 0;
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel forwardModel = game.getForwardModel();
+        do {
+            // as in Game, each decision is made on a copy of the state, and the tree can safely keep hold of this
+            AbstractGameState observation = state.copy(state.getCurrentPlayer());
+            AbstractAction actionChosen = game.getPlayers().get(state.getCurrentPlayer())
+                    ._getAction(observation, forwardModel.computeAvailableActions(observation));
+
+            if (state.getCurrentPlayer() == 0) {
+                SingleTreeNode root = mctsPlayer.getRoot(0);
+                assertNull(root.getParent());
+                assertEquals(0, root.getDepth());
+                // every node in the tree must now belong to the new root, at the right depth
+                for (SingleTreeNode node : root.allNodesInTree()) {
+                    assertSame(root, node.root);
+                    if (node != root)
+                        assertEquals(node.getParent().getDepth() + 1, node.getDepth());
+                }
+                assertTrue(root.getVisits() >= 200);
+                if (root.getVisits() > 200)
+                    reused++;
+            }
+            forwardModel.next(state, actionChosen);
+        } while (state.isNotTerminal());
+        return reused;
+    }
+}
@@ -0,0 +1,67 @@
+package utilities;
+
+import core.actions.DoNothing;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ActionTreeNodeTest {
+
+    ActionTreeNode root, a, b;
+
+    @Before
+    public void setup() {
+        root = new ActionTreeNode(0, "root");
+        a = root.addChild(0, "a");
+        b = root.addChild(0, "b");
+        for (int i = 0; i < 3; i++) {
+            a.addChild(0, "a" + i);
+            b.addChild(0, String.valueOf(i));
+        }
+        root.addChild(0, "c");
+    }
+
+    @Test
+    public void breadthFirstOrder() {
+        assertEquals(Arrays.asList("root", "a", "b", "c", "a0", "a1", "a2", "0", "1", "2"), root.flattenNames());
+        List<ActionTreeNode> leaves = root.getLeaves();
+        assertEquals(root.getLeafNodes(), leaves);
+        assertEquals(7, leaves.size());
+        assertEquals("c", leaves.get(0).getName());
+        assertEquals("a0", leaves.get(1).getName());
+        assertSame(leaves, root.getLeaves());
+    }
+
+    @Test
+    public void maskFollowsUpdates() {
+        b.getChildren().get(1).setAction(new DoNothing());
+        assertArrayEquals(new int[]{0, 1, 0, 0, 0, 0, 0, 1, 0}, root.getActionMask());
+        assertEquals(1, root.getValidLeaves().size());
+
+        root.resetTree();
+        assertArrayEquals(new int[9], root.getActionMask());
+        assertNull(b.getChildren().get(1).getAction());
+
+        assertSame(a.getChildren().get(2), root.findChildrenByName("a2", true));
+        assertEquals(1, a.getChildren().get(2).getValue());
+        // only searches below the node it is called on
+        assertNull(a.findChildrenByName("1"));
+        assertSame(b.getChildren().get(1), b.findChildrenByName("1"));
+        assertNull(root.findChildrenByName("d"));
+    }
+
+    @Test
+    public void addingNodesUpdatesLayout() {
+        assertEquals(7, root.getLeaves().size());
+        assertNull(root.findChildrenByName("b3"));
+        ActionTreeNode added = b.getChildren().get(2).addChild(0, "b3");
+        assertEquals(7, root.getLeaves().size());
+        assertSame(added, root.getLeaves().get(6));
+        assertSame(added, root.findChildrenByName("b3"));
+        assertEquals(10, root.getActionMask().length);
+    }
+}